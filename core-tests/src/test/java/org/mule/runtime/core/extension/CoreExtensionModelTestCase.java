@@ -138,7 +138,7 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     assertThat(coreExtensionModel.getImportedTypes(), empty());
     assertThat(coreExtensionModel.getConfigurationModels(), empty());
     assertThat(coreExtensionModel.getOperationModels(), hasSize(8));
-    assertThat(coreExtensionModel.getConstructModels(), hasSize(16));
+    assertThat(coreExtensionModel.getConstructModels(), hasSize(17));
     assertThat(coreExtensionModel.getConnectionProviders(), empty());
     assertThat(coreExtensionModel.getSourceModels(), hasSize(1));
 
@@ -485,7 +485,7 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     assertThat(processorsChain, instanceOf(NestedChainModel.class));
     assertThat(processorsChain.isRequired(), is(true));
 
-    assertThat(parallelForeach.getAllParameterModels(), hasSize(5));
+    assertThat(parallelForeach.getAllParameterModels(), hasSize(6));
 
     final ParameterModel collection = parallelForeach.getAllParameterModels().get(0);
     assertThat(collection.getName(), is("collection"));
@@ -508,19 +508,52 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     assertThat(maxConcurrency.getType(), instanceOf(DefaultNumberType.class));
     assertThat(maxConcurrency.isRequired(), is(false));
 
-    final ParameterModel target = parallelForeach.getAllParameterModels().get(3);
+    final ParameterModel resultsMode = parallelForeach.getAllParameterModels().get(3);
+    assertThat(resultsMode.getName(), is("resultsMode"));
+    assertThat(resultsMode.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(resultsMode.getType(), instanceOf(DefaultStringType.class));
+    assertThat(resultsMode.getDefaultValue(), is("COLLECT"));
+    assertThat(resultsMode.isRequired(), is(false));
+
+    final ParameterModel target = parallelForeach.getAllParameterModels().get(4);
     assertThat(target.getName(), is(TARGET_PARAMETER_NAME));
     assertThat(target.getExpressionSupport(), is(NOT_SUPPORTED));
     assertThat(target.getType(), instanceOf(DefaultStringType.class));
     assertThat(target.isRequired(), is(false));
 
-    final ParameterModel targetValue = parallelForeach.getAllParameterModels().get(4);
+    final ParameterModel targetValue = parallelForeach.getAllParameterModels().get(5);
     assertThat(targetValue.getName(), is(TARGET_VALUE_PARAMETER_NAME));
     assertThat(targetValue.getExpressionSupport(), is(REQUIRED));
     assertThat(targetValue.getType(), instanceOf(StringType.class));
     assertThat(targetValue.isRequired(), is(false));
   }
 
+  @Test
+  public void partitionedParallelForeach() {
+    final ConstructModel partitionedParallelForeach = coreExtensionModel.getConstructModel("partitionedParallelForeach").get();
+
+    assertThat(partitionedParallelForeach.getModelProperty(SinceMuleVersionModelProperty.class)
+        .map(mp -> mp.getVersion().toString())
+        .orElse("NO MODEL PROPERTY"), equalTo("4.3.0"));
+
+    NestableElementModel processorsChain = partitionedParallelForeach.getNestedComponents().get(0);
+    assertThat(processorsChain, instanceOf(NestedChainModel.class));
+    assertThat(processorsChain.isRequired(), is(true));
+
+    assertThat(partitionedParallelForeach.getAllParameterModels(), hasSize(7));
+
+    final ParameterModel partitionKey = partitionedParallelForeach.getAllParameterModels().get(1);
+    assertThat(partitionKey.getName(), is("partitionKey"));
+    assertThat(partitionKey.getExpressionSupport(), is(REQUIRED));
+    assertThat(partitionKey.isRequired(), is(false));
+
+    final ParameterModel partitions = partitionedParallelForeach.getAllParameterModels().get(2);
+    assertThat(partitions.getName(), is("partitions"));
+    assertThat(partitions.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(partitions.getType(), instanceOf(DefaultNumberType.class));
+    assertThat(partitions.isRequired(), is(false));
+  }
+
   @Test
   public void async() {
     final ConstructModel asyncModel = coreExtensionModel.getConstructModel("async").get();
@@ -566,7 +599,7 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     final ConstructModel tryModel = coreExtensionModel.getConstructModel("untilSuccessful").get();
 
     List<ParameterModel> allParameterModels = tryModel.getAllParameterModels();
-    assertThat(allParameterModels, hasSize(2));
+    assertThat(allParameterModels, hasSize(7));
 
     ParameterModel action = allParameterModels.get(0);
     assertThat(action.getName(), is("maxRetries"));
@@ -581,14 +614,55 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     assertThat(type.getExpressionSupport(), is(SUPPORTED));
     assertThat(type.getDefaultValue(), is(60000));
     assertThat(type.isRequired(), is(false));
+
+    ParameterModel backoff = allParameterModels.get(2);
+    assertThat(backoff.getName(), is("backoff"));
+    assertThat(backoff.getType(), is(instanceOf(DefaultStringType.class)));
+    assertThat(backoff.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(backoff.getDefaultValue(), is("FIXED"));
+    assertThat(backoff.isRequired(), is(false));
+
+    ParameterModel maxMillisBetweenRetries = allParameterModels.get(3);
+    assertThat(maxMillisBetweenRetries.getName(), is("maxMillisBetweenRetries"));
+    assertThat(maxMillisBetweenRetries.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(maxMillisBetweenRetries.getDefaultValue(), is(Long.MAX_VALUE));
+    assertThat(maxMillisBetweenRetries.isRequired(), is(false));
+
+    ParameterModel circuitBreakerThreshold = allParameterModels.get(4);
+    assertThat(circuitBreakerThreshold.getName(), is("circuitBreakerThreshold"));
+    assertThat(circuitBreakerThreshold.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(circuitBreakerThreshold.getDefaultValue(), is(0));
+    assertThat(circuitBreakerThreshold.isRequired(), is(false));
+
+    ParameterModel circuitBreakerResetMillis = allParameterModels.get(5);
+    assertThat(circuitBreakerResetMillis.getName(), is("circuitBreakerResetMillis"));
+    assertThat(circuitBreakerResetMillis.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(circuitBreakerResetMillis.getDefaultValue(), is(60000L));
+    assertThat(circuitBreakerResetMillis.isRequired(), is(false));
+
+    ParameterModel retryBudgetPercent = allParameterModels.get(6);
+    assertThat(retryBudgetPercent.getName(), is("retryBudgetPercent"));
+    assertThat(retryBudgetPercent.getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(retryBudgetPercent.getDefaultValue(), is(nullValue()));
+    assertThat(retryBudgetPercent.isRequired(), is(false));
   }
 
   @Test
   public void firstSuccessful() {
-    final ConstructModel tryModel = coreExtensionModel.getConstructModel("firstSuccessful").get();
+    final ConstructModel firstSuccessfulModel = coreExtensionModel.getConstructModel("firstSuccessful").get();
 
-    List<ParameterModel> allParameterModels = tryModel.getAllParameterModels();
-    assertThat(allParameterModels, hasSize(0));
+    List<ParameterModel> allParameterModels = firstSuccessfulModel.getAllParameterModels();
+    assertThat(allParameterModels, hasSize(2));
+
+    assertThat(allParameterModels.get(0).getName(), is("hedged"));
+    assertThat(allParameterModels.get(0).getType(), is(instanceOf(DefaultBooleanType.class)));
+    assertThat(allParameterModels.get(0).getDefaultValue(), is(false));
+    assertThat(allParameterModels.get(0).isRequired(), is(false));
+
+    assertThat(allParameterModels.get(1).getName(), is("hedgePercentile"));
+    assertThat(allParameterModels.get(1).getType(), is(instanceOf(DefaultNumberType.class)));
+    assertThat(allParameterModels.get(1).getDefaultValue(), is(95d));
+    assertThat(allParameterModels.get(1).isRequired(), is(false));
   }
 
   @Test
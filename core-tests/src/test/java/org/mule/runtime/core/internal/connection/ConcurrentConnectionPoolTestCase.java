@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private final PoolableObjectFactory<Object> factory = mock(PoolableObjectFactory.class);
+  private final Scheduler scheduler = mock(Scheduler.class);
+  private final ExecutorService borrower = newSingleThreadExecutor();
+
+  private ConcurrentConnectionPool<Object> pool;
+
+  @Before
+  public void before() throws Exception {
+    when(factory.makeObject()).thenAnswer(inv -> new Object());
+    when(factory.validateObject(any())).thenReturn(true);
+    doAnswer(inv -> {
+      ((Runnable) inv.getArgument(0)).run();
+      return null;
+    }).when(scheduler).execute(any());
+  }
+
+  @After
+  public void after() throws Exception {
+    borrower.shutdownNow();
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void returnedConnectionIsReused() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    assertThat(pool.borrowObject(), is(sameInstance(connection)));
+    verify(factory).makeObject();
+    assertThat(pool.getStatistics().getBorrowTime().getCount(), is(2L));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void exhaustedFails() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    pool.borrowObject();
+    pool.borrowObject();
+  }
+
+  @Test
+  public void exhaustedWaitTimesOut() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 50, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    pool.borrowObject();
+
+    try {
+      pool.borrowObject();
+    } catch (NoSuchElementException e) {
+      assertThat(pool.getStatistics().getBorrowTimeouts(), is(1L));
+      assertThat(pool.getNumWaiters(), is(0));
+      return;
+    }
+    throw new AssertionError("Was expecting the pool to be exhausted");
+  }
+
+  @Test
+  public void returnedConnectionIsHandedToWaiter() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object connection = pool.borrowObject();
+
+    Future<Object> waiting = borrower.submit(() -> pool.borrowObject());
+    while (pool.getNumWaiters() == 0) {
+      Thread.yield();
+    }
+    pool.returnObject(connection);
+
+    assertThat(waiting.get(5, SECONDS), is(sameInstance(connection)));
+    assertThat(pool.getNumIdle(), is(0));
+    assertThat(pool.getStatistics().getBorrowTime().getMax(), is(greaterThan(0L)));
+  }
+
+  @Test
+  public void interruptedWaiterGivesUp() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object connection = pool.borrowObject();
+
+    Future<Object> waiting = borrower.submit(() -> pool.borrowObject());
+    while (pool.getNumWaiters() == 0) {
+      Thread.yield();
+    }
+    waiting.cancel(true);
+    while (pool.getNumWaiters() != 0) {
+      Thread.yield();
+    }
+    pool.returnObject(connection);
+
+    assertThat(pool.getNumIdle(), is(1));
+  }
+
+  @Test
+  public void invalidatedConnectionIsReplacedForWaiter() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object connection = pool.borrowObject();
+
+    Future<Object> waiting = borrower.submit(() -> pool.borrowObject());
+    while (pool.getNumWaiters() == 0) {
+      Thread.yield();
+    }
+    pool.invalidateObject(connection);
+
+    assertThat(waiting.get(5, SECONDS), is(not(sameInstance(connection))));
+    verify(factory).destroyObject(connection);
+    verify(factory, times(2)).makeObject();
+  }
+
+  @Test
+  public void connectionsOverMaxIdleAreDestroyed() throws Exception {
+    pool = createPool(new PoolingProfile(2, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object connection1 = pool.borrowObject();
+    Object connection2 = pool.borrowObject();
+
+    pool.returnObject(connection1);
+    pool.returnObject(connection2);
+
+    assertThat(pool.getNumIdle(), is(1));
+    verify(factory).destroyObject(connection2);
+  }
+
+  @Test
+  public void prewarm() throws Exception {
+    pool = createPool(new PoolingProfile(4, 2, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_ALL));
+
+    assertThat(pool.getNumIdle(), is(2));
+    assertThat(pool.getStatistics().getCreatedConnections(), is(2L));
+  }
+
+  @Test
+  public void maintenanceEvictsIdleConnections() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(2, 2, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(1);
+    pool = createPool(poolingProfile);
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    Thread.sleep(5);
+    pool.maintain();
+
+    assertThat(pool.getNumIdle(), is(0));
+    verify(factory).destroyObject(connection);
+    verify(factory, never()).validateObject(connection);
+  }
+
+  @Test
+  public void maintenanceValidatesIdleConnections() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object valid = pool.borrowObject();
+    Object invalid = pool.borrowObject();
+    when(factory.validateObject(invalid)).thenReturn(false);
+    pool.returnObject(valid);
+    pool.returnObject(invalid);
+
+    pool.maintain();
+
+    assertThat(pool.borrowObject(), is(sameInstance(valid)));
+    verify(factory).destroyObject(invalid);
+    assertThat(pool.getStatistics().getValidationFailures(), is(1L));
+  }
+
+  @Test
+  public void counters() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object connection = pool.borrowObject();
+    pool.borrowObject();
+
+    Future<Object> waiting = borrower.submit(() -> pool.borrowObject());
+    while (pool.getNumWaiters() == 0) {
+      Thread.yield();
+    }
+    pool.returnObject(connection);
+    waiting.get(5, SECONDS);
+
+    Map<String, LongSupplier> counters = pool.getStatistics().getCounters();
+    assertThat(counters.get("activeConnections").getAsLong(), is(2L));
+    assertThat(counters.get("peakActiveConnections").getAsLong(), is(2L));
+    assertThat(counters.get("idleConnections").getAsLong(), is(0L));
+    assertThat(counters.get("waitingBorrowers").getAsLong(), is(0L));
+    assertThat(counters.get("peakWaitingBorrowers").getAsLong(), is(1L));
+    assertThat(counters.get("createdConnections").getAsLong(), is(2L));
+    assertThat(counters.get("borrows").getAsLong(), is(3L));
+    assertThat(counters.get("borrowTimeMaxNanos").getAsLong(), is(greaterThan(0L)));
+    assertThat(counters.get("activeConnectionsMean").getAsLong(), is(1L));
+    assertThat(counters.get("activeConnectionsP99").getAsLong(), is(2L));
+    assertThat(counters.get("waits").getAsLong(), is(1L));
+    assertThat(counters.get("waitingBorrowersP99").getAsLong(), is(1L));
+  }
+
+  @Test
+  public void closeDestroysIdleConnections() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+    Object idle = pool.borrowObject();
+    Object borrowed = pool.borrowObject();
+    pool.returnObject(idle);
+
+    pool.close();
+    verify(factory).destroyObject(idle);
+
+    pool.returnObject(borrowed);
+    verify(factory).destroyObject(borrowed);
+  }
+
+  private ConcurrentConnectionPool<Object> createPool(PoolingProfile poolingProfile) {
+    return new ConcurrentConnectionPool<>(factory, poolingProfile, scheduler);
+  }
+}
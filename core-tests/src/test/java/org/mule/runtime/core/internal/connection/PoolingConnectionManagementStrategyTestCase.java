@@ -6,9 +6,12 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.System.clearProperty;
+import static java.lang.System.setProperty;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -25,6 +28,8 @@ import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
 import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
 import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
 import static org.mule.tck.MuleTestUtils.spyInjector;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
@@ -32,11 +37,14 @@ import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.Injector;
 import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.util.Arrays;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -47,6 +55,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleContextTestCase {
 
   private static final int MAX_ACTIVE = 2;
+  private static final String CONFIG_NAME = "config";
+  private static final String POOL_COUNTERS_SOURCE = "connectionPool:" + CONFIG_NAME;
 
   private ConnectionProvider<Object> connectionProvider;
 
@@ -122,6 +132,51 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     assertThat(strategy.getConnectionHandler(), is(notNullValue()));
   }
 
+  @Test
+  public void concurrentPoolStatisticsPublished() throws Exception {
+    setProperty(PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY, "true");
+    ProcessingLatencyStatistics statistics = null;
+    try {
+      strategy = concurrentStrategy(CONFIG_NAME);
+      statistics = getProcessingLatencyStatistics(muleContext);
+      strategy.getConnectionHandler();
+
+      Map<String, Long> counters = statistics.getCounters().get(POOL_COUNTERS_SOURCE);
+      assertThat(counters.get("activeConnections"), is(1L));
+      assertThat(counters.get("createdConnections"), is(1L));
+      assertThat(counters.get("borrows"), is(1L));
+      assertThat(counters.get("activeConnectionsMean"), is(1L));
+
+      strategy.close();
+      assertThat(statistics.getCounters().get(POOL_COUNTERS_SOURCE), is(nullValue()));
+    } finally {
+      clearProperty(PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY);
+      if (statistics != null) {
+        statistics.dispose();
+      }
+    }
+  }
+
+  @Test
+  public void replacedPoolStatisticsStayPublished() throws Exception {
+    setProperty(PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY, "true");
+    ProcessingLatencyStatistics statistics = null;
+    try {
+      PoolingConnectionManagementStrategy<Object> replaced = concurrentStrategy(CONFIG_NAME);
+      strategy = concurrentStrategy(CONFIG_NAME);
+      statistics = getProcessingLatencyStatistics(muleContext);
+      strategy.getConnectionHandler();
+      replaced.close();
+
+      assertThat(statistics.getCounters().get(POOL_COUNTERS_SOURCE).get("borrows"), is(1L));
+    } finally {
+      clearProperty(PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY);
+      if (statistics != null) {
+        statistics.dispose();
+      }
+    }
+  }
+
   @Test
   public void release() throws Exception {
     connection1.release();
@@ -157,6 +212,11 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     strategy = new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext);
   }
 
+  private PoolingConnectionManagementStrategy<Object> concurrentStrategy(String configName) {
+    return new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext,
+                                                     mock(Scheduler.class), configName);
+  }
+
   private <T> void verifyThat(Assertion<T> assertion) throws Exception {
     verifyThat(assertion, (T) connection1.getConnection(), (T) connection2.getConnection());
   }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.System.lineSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.SerializationUtils.deserialize;
+import static org.apache.commons.lang3.SerializationUtils.serialize;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.Logging.LOGGING;
+import static org.mule.test.allure.AllureConstants.Logging.LoggingStory.FLOW_STACK;
+
+import org.mule.runtime.core.api.context.notification.FlowStackElement;
+import org.mule.runtime.core.internal.event.EventContextDeepNestingException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(LOGGING)
+@Story(FLOW_STACK)
+public class DefaultFlowCallStackTestCase extends AbstractMuleTestCase {
+
+  private final DefaultFlowCallStack stack = new DefaultFlowCallStack();
+  private final FlowStackElement parentFlow = new FlowStackElement("parent", null);
+  private final FlowStackElement childFlow = new FlowStackElement("child", null);
+
+  @Test
+  public void pushAndPop() {
+    stack.push(parentFlow);
+    stack.push(childFlow);
+
+    assertThat(stack.getElements(), contains(childFlow, parentFlow));
+    assertThat(stack.peek(), is(sameInstance(childFlow)));
+    assertThat(stack.pop(), is(sameInstance(childFlow)));
+    assertThat(stack.pop(), is(sameInstance(parentFlow)));
+    assertThat(stack.getElements(), is(empty()));
+    assertThat(stack.peek(), is(nullValue()));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void popEmpty() {
+    stack.pop();
+  }
+
+  @Test
+  public void cloneIsIndependent() {
+    stack.push(parentFlow);
+    DefaultFlowCallStack clone = stack.clone();
+
+    clone.push(childFlow);
+    stack.pop();
+
+    assertThat(stack.getElements(), is(empty()));
+    assertThat(clone.getElements(), contains(childFlow, parentFlow));
+  }
+
+  @Test
+  public void currentProcessorPath() {
+    stack.push(parentFlow);
+    stack.push(childFlow);
+    stack.setCurrentProcessorPath("child/processors/0");
+
+    assertThat(stack.toString(), is("at child(child/processors/0)" + lineSeparator() + "at parent"));
+  }
+
+  @Test
+  public void currentProcessorPathOnEmptyStack() {
+    stack.setCurrentProcessorPath("child/processors/0");
+
+    assertThat(stack.getElements(), is(empty()));
+  }
+
+  @Test
+  public void processorsTraceSampled() {
+    int sampled = 0;
+    for (int i = 0; i < 30; ++i) {
+      DefaultFlowCallStack sampledStack = new DefaultFlowCallStack(3);
+      sampledStack.push(childFlow);
+      sampledStack.setCurrentProcessorPath("child/processors/0");
+      if (sampledStack.peek().getProcessorPath() != null) {
+        ++sampled;
+      }
+      // The flows are kept regardless of the sampling
+      assertThat(sampledStack.peek().getFlowName(), is("child"));
+    }
+
+    assertThat(sampled, is(10));
+  }
+
+  @Test
+  public void processorsTraceNotSampledByDefault() {
+    for (int i = 0; i < 3; ++i) {
+      DefaultFlowCallStack sampledStack = new DefaultFlowCallStack(1);
+      sampledStack.push(childFlow);
+      sampledStack.setCurrentProcessorPath("child/processors/0");
+
+      assertThat(sampledStack.peek().getProcessorPath(), is("child/processors/0"));
+    }
+  }
+
+  @Test
+  public void serialization() {
+    stack.push(parentFlow);
+    stack.push(childFlow);
+
+    DefaultFlowCallStack deserialized = deserialize(serialize(stack));
+
+    assertThat(deserialized.toString(), is(stack.toString()));
+    deserialized.pop();
+    assertThat(deserialized.toString(), is("at parent"));
+  }
+
+  @Test
+  public void deserializeLegacy() {
+    LegacyFlowCallStack legacy = new LegacyFlowCallStack();
+    legacy.innerStack.push(parentFlow);
+    legacy.innerStack.push(childFlow);
+
+    DefaultFlowCallStack deserialized = deserialize(renameClass(serialize(legacy), LegacyFlowCallStack.class.getName(),
+                                                                DefaultFlowCallStack.class.getName()));
+
+    assertThat(deserialized.toString(), is("at child" + lineSeparator() + "at parent"));
+    deserialized.push(childFlow);
+    assertThat(deserialized.getElements().size(), is(3));
+  }
+
+  @Test(expected = EventContextDeepNestingException.class)
+  public void tooDeep() {
+    while (true) {
+      stack.push(childFlow);
+    }
+  }
+
+  /**
+   * Replaces the name of a class in its serialized descriptor, which is written as a length followed by its UTF bytes.
+   */
+  private static byte[] renameClass(byte[] serialized, String from, String to) {
+    byte[] fromBytes = descriptorName(from);
+    byte[] toBytes = descriptorName(to);
+    ByteArrayOutputStream renamed = new ByteArrayOutputStream(serialized.length);
+    for (int i = 0; i < serialized.length; ++i) {
+      if (i + fromBytes.length <= serialized.length
+          && Arrays.equals(Arrays.copyOfRange(serialized, i, i + fromBytes.length), fromBytes)) {
+        renamed.write(toBytes, 0, toBytes.length);
+        i += fromBytes.length - 1;
+      } else {
+        renamed.write(serialized[i]);
+      }
+    }
+    return renamed.toByteArray();
+  }
+
+  private static byte[] descriptorName(String className) {
+    byte[] name = className.getBytes(UTF_8);
+    byte[] descriptorName = new byte[name.length + 2];
+    descriptorName[0] = (byte) (name.length >> 8);
+    descriptorName[1] = (byte) name.length;
+    System.arraycopy(name, 0, descriptorName, 2, name.length);
+    return descriptorName;
+  }
+
+  /**
+   * Has the same serialized form as {@link DefaultFlowCallStack} had until 4.2.x.
+   */
+  private static class LegacyFlowCallStack implements Serializable {
+
+    private static final long serialVersionUID = -8683711977929802819L;
+
+    private final Deque<FlowStackElement> innerStack = new ArrayDeque<>(4);
+  }
+}
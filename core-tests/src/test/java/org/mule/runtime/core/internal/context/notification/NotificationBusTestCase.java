@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.System.nanoTime;
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.context.notification.NotificationBus.DEFAULT_NOTIFICATION_OVERFLOW_POLICY;
+import static org.mule.runtime.core.internal.context.notification.NotificationBus.OverflowPolicy.BLOCK;
+import static org.mule.runtime.core.internal.context.notification.NotificationBus.OverflowPolicy.DROP;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NotificationBusTestCase extends AbstractMuleTestCase {
+
+  private static final long BLOCK_TIMEOUT = 10000;
+
+  private final List<Runnable> tasks = synchronizedList(new ArrayList<>());
+  private final List<Notification> delivered = synchronizedList(new ArrayList<>());
+  private final ExecutorService publisher = newSingleThreadExecutor();
+  private final NotificationListener listener = notification -> delivered.add(notification);
+
+  private Scheduler liteScheduler;
+  private Scheduler ioScheduler;
+  private NotificationBus bus;
+
+  @Before
+  public void before() {
+    liteScheduler = mock(Scheduler.class);
+    ioScheduler = mock(Scheduler.class);
+    doAnswer(invocation -> {
+      tasks.add(invocation.getArgument(0));
+      return null;
+    }).when(liteScheduler).submit(any(Runnable.class));
+    doAnswer(invocation -> {
+      tasks.add(invocation.getArgument(0));
+      return null;
+    }).when(ioScheduler).submit(any(Runnable.class));
+
+    bus = new NotificationBus(liteScheduler, ioScheduler, 4, 2, DROP, BLOCK_TIMEOUT);
+    bus.add(listener);
+  }
+
+  @After
+  public void after() {
+    publisher.shutdownNow();
+  }
+
+  @Test
+  public void deliveredInBatchesInOrder() {
+    Notification first = mock(Notification.class);
+    Notification second = mock(Notification.class);
+    Notification third = mock(Notification.class);
+
+    bus.publish(listener, first);
+    bus.publish(listener, second);
+    bus.publish(listener, third);
+    assertThat(tasks, hasSize(1));
+    assertThat(bus.getLag(listener), is(3L));
+
+    tasks.remove(0).run();
+    assertThat(delivered, contains(first, second));
+    assertThat(bus.getLag(listener), is(1L));
+    assertThat(tasks, hasSize(1));
+
+    tasks.remove(0).run();
+    assertThat(delivered, contains(first, second, third));
+    assertThat(bus.getLag(listener), is(0L));
+    assertThat(tasks, is(empty()));
+  }
+
+  @Test
+  public void droppedWhenFull() {
+    for (int i = 0; i < 6; ++i) {
+      bus.publish(listener, mock(Notification.class));
+    }
+
+    assertThat(bus.getLag(listener), is(4L));
+    assertThat(bus.getDroppedCount(listener), is(2L));
+
+    while (!tasks.isEmpty()) {
+      tasks.remove(0).run();
+    }
+    assertThat(delivered, hasSize(4));
+  }
+
+  @Test
+  public void dropByDefault() {
+    assertThat(DEFAULT_NOTIFICATION_OVERFLOW_POLICY, is(DROP));
+  }
+
+  @Test
+  public void blockedWhenFull() throws Exception {
+    NotificationListener listener = blockingListener();
+    NotificationBus blockingBus = new NotificationBus(liteScheduler, ioScheduler, 4, 2, BLOCK, BLOCK_TIMEOUT);
+    blockingBus.add(listener);
+    for (int i = 0; i < 4; ++i) {
+      blockingBus.publish(listener, mock(Notification.class));
+    }
+
+    Future<?> blocked = publisher.submit(() -> blockingBus.publish(listener, mock(Notification.class)));
+    try {
+      blocked.get(100, MILLISECONDS);
+      fail("Was expecting the publisher to wait for room in the buffer");
+    } catch (TimeoutException e) {
+      // expected
+    }
+
+    tasks.remove(0).run();
+    blocked.get(5, SECONDS);
+
+    assertThat(delivered, hasSize(2));
+    assertThat(blockingBus.getLag(listener), is(3L));
+    assertThat(blockingBus.getDroppedCount(listener), is(0L));
+  }
+
+  @Test
+  public void droppedWhenBlockedForTooLong() throws Exception {
+    NotificationListener listener = blockingListener();
+    NotificationBus blockingBus = new NotificationBus(liteScheduler, ioScheduler, 4, 2, BLOCK, 50);
+    blockingBus.add(listener);
+    for (int i = 0; i < 4; ++i) {
+      blockingBus.publish(listener, mock(Notification.class));
+    }
+
+    publisher.submit(() -> blockingBus.publish(listener, mock(Notification.class))).get(5, SECONDS);
+
+    assertThat(blockingBus.getLag(listener), is(4L));
+    assertThat(blockingBus.getDroppedCount(listener), is(1L));
+  }
+
+  @Test
+  public void deliveryThreadNotBlockedWhenFull() {
+    NotificationListener listener = blockingListener();
+    NotificationBus blockingBus = new NotificationBus(liteScheduler, ioScheduler, 4, 2, BLOCK, BLOCK_TIMEOUT);
+    blockingBus.add(listener);
+    blockingBus.publish(listener, mock(Notification.class));
+    // This thread delivers notifications to blocking listeners from now on
+    tasks.remove(0).run();
+
+    for (int i = 0; i < 5; ++i) {
+      blockingBus.publish(listener, mock(Notification.class));
+    }
+
+    assertThat(blockingBus.getLag(listener), is(4L));
+    assertThat(blockingBus.getDroppedCount(listener), is(1L));
+  }
+
+  @Test
+  public void nonBlockingListenerDeliveredByPublisherWhenFull() {
+    NotificationBus blockingBus = new NotificationBus(liteScheduler, ioScheduler, 4, 2, BLOCK, BLOCK_TIMEOUT);
+    blockingBus.add(listener);
+    for (int i = 0; i < 5; ++i) {
+      blockingBus.publish(listener, mock(Notification.class));
+    }
+
+    assertThat(delivered, hasSize(2));
+    assertThat(blockingBus.getLag(listener), is(3L));
+    assertThat(blockingBus.getDroppedCount(listener), is(0L));
+  }
+
+  @Test
+  public void publishersAndDeliverySharingBoundedPool() throws Exception {
+    ExecutorService pool = newFixedThreadPool(2);
+    try {
+      Scheduler sharedScheduler = mock(Scheduler.class);
+      when(sharedScheduler.submit(any(Runnable.class)))
+          .thenAnswer(invocation -> pool.submit((Runnable) invocation.getArgument(0)));
+      NotificationBus blockingBus = new NotificationBus(sharedScheduler, ioScheduler, 4, 2, BLOCK, BLOCK_TIMEOUT);
+      blockingBus.add(listener);
+
+      // More publishers than threads, so every thread may be publishing to a full buffer while the delivery task is queued
+      List<Future<?>> publishers = new ArrayList<>();
+      for (int i = 0; i < 4; ++i) {
+        publishers.add(pool.submit(() -> {
+          for (int j = 0; j < 100; ++j) {
+            blockingBus.publish(listener, mock(Notification.class));
+          }
+        }));
+      }
+      for (Future<?> publisher : publishers) {
+        publisher.get(5, SECONDS);
+      }
+
+      final long deadline = nanoTime() + SECONDS.toNanos(5);
+      while (delivered.size() < 400 && nanoTime() < deadline) {
+        Thread.yield();
+      }
+      assertThat(delivered, hasSize(400));
+      assertThat(blockingBus.getDroppedCount(listener), is(0L));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void publishToSelfWhileDeliveringDroppedWhenFull() {
+    NotificationBus blockingBus = new NotificationBus(liteScheduler, ioScheduler, 4, 1, BLOCK, BLOCK_TIMEOUT);
+    NotificationListener selfPublishing = new NotificationListener() {
+
+      @Override
+      public void onNotification(Notification notification) {
+        delivered.add(notification);
+        // The buffer is full, and blocking here would wait for this same delivery to finish
+        blockingBus.publish(this, mock(Notification.class));
+        blockingBus.publish(this, mock(Notification.class));
+      }
+    };
+    blockingBus.add(selfPublishing);
+    for (int i = 0; i < 4; ++i) {
+      blockingBus.publish(selfPublishing, mock(Notification.class));
+    }
+
+    tasks.remove(0).run();
+
+    assertThat(delivered, hasSize(1));
+    assertThat(blockingBus.getLag(selfPublishing), is(4L));
+    assertThat(blockingBus.getDroppedCount(selfPublishing), is(1L));
+  }
+
+  @Test
+  public void notPublishedAfterRemove() {
+    bus.publish(listener, mock(Notification.class));
+    bus.remove(listener);
+    bus.publish(listener, mock(Notification.class));
+    tasks.remove(0).run();
+
+    assertThat(delivered, is(empty()));
+    assertThat(bus.getLag(listener), is(0L));
+    assertThat(tasks, is(empty()));
+  }
+
+  @Test
+  public void notPublishedForListenerNotAdded() {
+    NotificationListener notAdded = mock(NotificationListener.class);
+    bus.publish(notAdded, mock(Notification.class));
+
+    assertThat(tasks, is(empty()));
+    verify(notAdded, never()).onNotification(any());
+  }
+
+  @Test
+  public void listenerFailureDoesNotStopDelivery() {
+    Notification notification = mock(Notification.class);
+    NotificationListener failing = mock(NotificationListener.class);
+    doAnswer(invocation -> {
+      throw new IllegalStateException();
+    }).when(failing).onNotification(any());
+
+    bus.add(failing);
+    bus.publish(failing, notification);
+    bus.publish(failing, notification);
+    tasks.remove(0).run();
+
+    assertThat(bus.getLag(failing), is(0L));
+  }
+
+  @Test
+  public void notDeliveredAfterDispose() {
+    bus.publish(listener, mock(Notification.class));
+    bus.dispose();
+    tasks.remove(0).run();
+    bus.publish(listener, mock(Notification.class));
+
+    assertThat(delivered, is(empty()));
+    assertThat(tasks, is(empty()));
+    verify(ioScheduler, never()).submit(any(Runnable.class));
+  }
+
+  private NotificationListener blockingListener() {
+    return new NotificationListener() {
+
+      @Override
+      public boolean isBlocking() {
+        return true;
+      }
+
+      @Override
+      public void onNotification(Notification notification) {
+        delivered.add(notification);
+      }
+    };
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.internal.el.CompiledExpressionCache.shapeOf;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.el.ExpressionCompilationException;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+
+public class CompiledExpressionCacheTestCase extends AbstractMuleTestCase {
+
+  private static final String EXPRESSION = "vars.foo";
+
+  private final AtomicInteger compilations = new AtomicInteger();
+  private final CompiledExpressionCache cache = new CompiledExpressionCache((expression, context) -> {
+    compilations.incrementAndGet();
+    return mock(CompiledExpression.class);
+  });
+
+  private final TypedValue<String> value = new TypedValue<>("", STRING);
+  private final BindingContext context = BindingContext.builder().addBinding("vars", value).build();
+
+  @Test
+  public void compiledOnceForSameShape() {
+    CompiledExpression compiled = cache.get(EXPRESSION, shapeOf(context), context);
+    BindingContext sameShape = BindingContext.builder().addBinding("vars", new TypedValue<>("other", STRING)).build();
+
+    assertThat(cache.get(EXPRESSION, shapeOf(sameShape), sameShape), is(sameInstance(compiled)));
+    assertThat(compilations.get(), is(1));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void compiledAgainForDifferentShape() {
+    CompiledExpression compiled = cache.get(EXPRESSION, shapeOf(context), context);
+    BindingContext otherShape = BindingContext.builder(context).addBinding("payload", value).build();
+
+    assertThat(cache.get(EXPRESSION, shapeOf(otherShape), otherShape), is(not(sameInstance(compiled))));
+    assertThat(compilations.get(), is(2));
+    assertThat(cache.getMissCount(), is(2L));
+  }
+
+  @Test
+  public void compilationFailureCached() {
+    CompiledExpressionCache failingCache = new CompiledExpressionCache((expression, context) -> {
+      compilations.incrementAndGet();
+      throw new ExpressionCompilationException(createStaticMessage("oopsy"));
+    });
+
+    assertThat(failingCache.get(EXPRESSION, shapeOf(context), context), is(instanceOf(IllegalCompiledExpression.class)));
+    assertThat(failingCache.get(EXPRESSION, shapeOf(context), context), is(instanceOf(IllegalCompiledExpression.class)));
+    assertThat(compilations.get(), is(1));
+  }
+
+  @Test
+  public void evictedWhenFull() {
+    CompiledExpressionCache smallCache =
+        new CompiledExpressionCache((expression, context) -> mock(CompiledExpression.class), 1);
+
+    smallCache.get(EXPRESSION, shapeOf(context), context);
+    smallCache.get("vars.bar", shapeOf(context), context);
+    smallCache.get("vars.baz", shapeOf(context), context);
+
+    assertThat(smallCache.getEvictionCount() > 0, is(true));
+  }
+
+  @Test
+  public void compiledAgainAfterInvalidation() {
+    CompiledExpression compiled = cache.get(EXPRESSION, shapeOf(context), context);
+
+    cache.invalidateAll();
+
+    assertThat(cache.get(EXPRESSION, shapeOf(context), context), is(not(sameInstance(compiled))));
+    assertThat(compilations.get(), is(2));
+  }
+
+  @Test
+  public void counters() {
+    cache.get(EXPRESSION, shapeOf(context), context);
+    cache.get(EXPRESSION, shapeOf(context), context);
+
+    Map<String, LongSupplier> counters = cache.getCounters();
+    assertThat(counters.get("hits").getAsLong(), is(1L));
+    assertThat(counters.get("misses").getAsLong(), is(1L));
+    assertThat(counters.get("evictions").getAsLong(), is(0L));
+  }
+}
@@ -56,6 +56,7 @@ import static org.mule.runtime.api.metadata.DataType.STRING;
 import static org.mule.runtime.api.metadata.DataType.fromType;
 import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_EXPRESSIONS_COMPILATION_FAIL_DEPLOYMENT;
+import static org.mule.runtime.core.internal.el.CompiledExpressionCache.shapeOf;
 import static org.mule.runtime.core.privileged.component.AnnotatedObjectInvocationHandler.addAnnotationsToClass;
 import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.fromSingleComponent;
 import static org.mule.tck.junit4.matcher.DataTypeCompatibilityMatcher.assignableTo;
@@ -88,6 +89,7 @@ import org.mule.runtime.core.api.config.MuleManifest;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.security.DefaultMuleCredentials;
+import org.mule.runtime.core.internal.el.CompiledExpressionCache;
 import org.mule.runtime.core.internal.el.ExpressionLanguageSessionAdaptor;
 import org.mule.runtime.core.internal.el.IllegalCompiledExpression;
 import org.mule.runtime.core.internal.message.BaseAttributes;
@@ -464,6 +466,24 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     assertThat(result.getValue(), is(flowName));
   }
 
+  @Test
+  public void addGlobalBindingsInvalidatesCompiledExpressions() throws MuleException {
+    doReturn(mock(CompiledExpression.class)).when(genericExpressionLanguage).compile(anyString(), any(BindingContext.class));
+    DataWeaveExpressionLanguageAdaptor adaptor =
+        new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
+                                               genericExpressionLanguageService);
+    CompiledExpressionCache cache = adaptor.getCompiledExpressionCache();
+    cache.get("payload", shapeOf(bindingContext), bindingContext);
+    cache.get("payload", shapeOf(bindingContext), bindingContext);
+    assertThat(cache.getHitCount(), is(1L));
+
+    adaptor.addGlobalBindings(BindingContext.builder().build());
+    cache.get("payload", shapeOf(bindingContext), bindingContext);
+
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.getHitCount(), is(1L));
+  }
+
   @Test
   public void payloadExpressionShouldNotBeEvaluate() throws MuleException {
     new DataWeaveExpressionLanguageAdaptor(mock(MuleContext.class, RETURNS_DEEP_STUBS), registry,
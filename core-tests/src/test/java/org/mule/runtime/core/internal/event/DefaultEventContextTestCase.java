@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.event;
 
+import static java.lang.Thread.currentThread;
 import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
@@ -689,6 +690,60 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     assertThat(callbacks, contains("onResponse", "onComplete", "onTerminated"));
   }
 
+  @Test
+  public void callbacksOfSamePhaseInRegistrationOrder() {
+    List<String> callbacks = new ArrayList<>();
+
+    final DefaultEventContext eventContext = context.get();
+
+    eventContext.onTerminated((e, t) -> callbacks.add("first"));
+    eventContext.onTerminated((e, t) -> callbacks.add("second"));
+    eventContext.onTerminated((e, t) -> callbacks.add("third"));
+
+    eventContext.success();
+
+    assertThat(callbacks, contains("first", "second", "third"));
+  }
+
+  @Test
+  @Description("Parent EventContext completes once all its children complete concurrently, regardless of the order.")
+  public void childrenCompleteConcurrently() throws Exception {
+    final int childrenCount = 64;
+    List<BaseEventContext> children = new ArrayList<>();
+    for (int i = 0; i < childrenCount; ++i) {
+      children.add(child(parent, empty()));
+    }
+    AtomicInteger childrenTerminated = new AtomicInteger();
+    children.forEach(child -> child.onTerminated((e, t) -> childrenTerminated.incrementAndGet()));
+
+    parent.success(testEvent());
+    assertParent(is(testEvent()), is(nullValue()), false, false);
+
+    Latch start = new Latch();
+    List<Thread> threads = new ArrayList<>();
+    for (BaseEventContext child : children) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          currentThread().interrupt();
+          return;
+        }
+        child.success();
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.release();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(childrenTerminated.get(), is(childrenCount));
+    assertParent(is(testEvent()), is(nullValue()), true, true);
+  }
+
   private void assertParent(Matcher<Object> eventMatcher, Matcher<Object> errorMatcher, boolean complete, boolean terminated) {
     assertThat(parentResultValue.get(), eventMatcher);
     assertThat(parentErrorValue.get(), errorMatcher);
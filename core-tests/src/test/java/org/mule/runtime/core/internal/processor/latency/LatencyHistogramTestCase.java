@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.processor.latency.LatencyHistogram.MAX_TRACKABLE_VALUE;
+import static org.mule.runtime.core.internal.processor.latency.LatencyHistogram.bucketIndex;
+import static org.mule.runtime.core.internal.processor.latency.LatencyHistogram.highestEquivalentValue;
+import static org.mule.runtime.core.internal.processor.latency.LatencyHistogram.lowestEquivalentValue;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void bucketsContainTheirValues() {
+    for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 1000, 123456789, MAX_TRACKABLE_VALUE}) {
+      final int bucket = bucketIndex(value);
+      assertThat(lowestEquivalentValue(bucket), lessThanOrEqualTo(value));
+      assertThat(highestEquivalentValue(bucket), greaterThanOrEqualTo(value));
+    }
+  }
+
+  @Test
+  public void bucketsAreContiguous() {
+    for (int bucket = 0; bucket < bucketIndex(MAX_TRACKABLE_VALUE); bucket++) {
+      assertThat(lowestEquivalentValue(bucket + 1), is(highestEquivalentValue(bucket) + 1));
+    }
+  }
+
+  @Test
+  public void empty() {
+    assertThat(histogram.getCount(), is(0L));
+    assertThat(histogram.getMean(), is(0L));
+    assertThat(histogram.getMax(), is(0L));
+    assertThat(histogram.getValueAtPercentile(99), is(0L));
+  }
+
+  @Test
+  public void summary() {
+    for (long i = 1; i <= 100; i++) {
+      histogram.record(i * 1000);
+    }
+
+    assertThat(histogram.getCount(), is(100L));
+    assertThat(histogram.getMean(), is(50500L));
+    assertThat(histogram.getMax(), is(100000L));
+    assertPercentile(50, 50000);
+    assertPercentile(90, 90000);
+    assertThat(histogram.getValueAtPercentile(100), is(100000L));
+  }
+
+  @Test
+  public void negativeRecordedAsZero() {
+    histogram.record(-5);
+
+    assertThat(histogram.getMax(), is(0L));
+    assertThat(histogram.getValueAtPercentile(50), is(0L));
+  }
+
+  private void assertPercentile(double percentile, long expected) {
+    final long value = histogram.getValueAtPercentile(percentile);
+    assertThat(value, greaterThanOrEqualTo(expected));
+    // relative error is bounded by the width of the sub buckets
+    assertThat(value, lessThanOrEqualTo(expected + (expected >> LatencyHistogram.SUB_BUCKET_BITS)));
+  }
+}
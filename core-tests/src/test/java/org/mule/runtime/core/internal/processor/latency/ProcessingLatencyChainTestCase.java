@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.component.AbstractComponent.LOCATION_KEY;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.construct.Flow.builder;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.fromSingleComponent;
+
+import org.mule.runtime.api.component.AbstractComponent;
+import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.event.ProcessingTimestamps;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProcessingLatencyChainTestCase extends AbstractMuleContextTestCase {
+
+  private static final String FIRST_LOCATION = "flow/processors/0";
+  private static final String FAILING_LOCATION = "flow/processors/1";
+
+  @Rule
+  public SystemProperty latencyStatistics = new SystemProperty(PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY, "true");
+
+  private final TestProcessor first = new TestProcessor(FIRST_LOCATION, false);
+  private final TestProcessor failing = new TestProcessor(FAILING_LOCATION, false);
+
+  private Flow flow;
+  private ProcessingLatencyStatistics statistics;
+
+  @Before
+  public void before() throws MuleException {
+    flow = builder("flow", muleContext).processors(first, failing).build();
+    flow.initialise();
+    flow.start();
+    statistics = getProcessingLatencyStatistics(muleContext);
+  }
+
+  @After
+  public void after() throws MuleException {
+    flow.stop();
+    flow.dispose();
+    if (statistics != null) {
+      statistics.dispose();
+    }
+  }
+
+  @Test
+  public void processorsMeasured() throws Exception {
+    CoreEvent event = newEvent();
+    flow.process(event);
+
+    assertThat(statistics, is(notNullValue()));
+    assertThat(statistics.forComponent(FIRST_LOCATION).getWaitTime().getCount(), is(1L));
+    assertThat(statistics.forComponent(FIRST_LOCATION).getServiceTime().getCount(), is(1L));
+    assertThat(statistics.forComponent(FAILING_LOCATION).getServiceTime().getCount(), is(1L));
+    assertThat(ProcessingTimestamps.of(event.getContext()).processorFinished(first), is(-1L));
+  }
+
+  @Test
+  public void failedProcessorMeasuredAndReleased() throws Exception {
+    failing.fail = true;
+    CoreEvent event = newEvent();
+    try {
+      flow.process(event);
+    } catch (Exception e) {
+      assertThat(statistics.forComponent(FIRST_LOCATION).getServiceTime().getCount(), is(1L));
+      assertThat(statistics.forComponent(FAILING_LOCATION).getServiceTime().getCount(), is(1L));
+      assertThat(ProcessingTimestamps.of(event.getContext()).processorFinished(failing), is(-1L));
+      return;
+    }
+    throw new AssertionError("Was expecting the processor to fail");
+  }
+
+  private CoreEvent newEvent() {
+    return CoreEvent.builder(create(flow, TEST_CONNECTOR_LOCATION)).message(of(TEST_PAYLOAD)).build();
+  }
+
+  private static class TestProcessor extends AbstractComponent implements Processor {
+
+    private volatile boolean fail;
+
+    private TestProcessor(String location, boolean fail) {
+      this.fail = fail;
+      setAnnotations(singletonMap(LOCATION_KEY, fromSingleComponent(location)));
+    }
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      if (fail) {
+        throw new DefaultMuleException("Expected");
+      }
+      return event;
+    }
+  }
+}
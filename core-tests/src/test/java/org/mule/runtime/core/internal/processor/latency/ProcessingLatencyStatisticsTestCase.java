@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+@SmallTest
+public class ProcessingLatencyStatisticsTestCase extends AbstractMuleTestCase {
+
+  private final ProcessingLatencyStatistics statistics = new ProcessingLatencyStatistics();
+
+  @Test
+  public void registeredCountersAreReadOnEachQuery() {
+    AtomicLong counter = new AtomicLong();
+    statistics.registerCounters("source", singletonMap("counter", counter::get));
+
+    counter.set(5);
+    assertThat(statistics.getCounters().get("source").get("counter"), is(5L));
+    counter.set(7);
+    assertThat(new DefaultProcessingLatencyStatisticsMXBean(statistics).getCounters().get("source").get("counter"), is(7L));
+  }
+
+  @Test
+  public void unregisteredCountersAreNotPublished() {
+    statistics.registerCounters("source", singletonMap("counter", () -> 1L));
+    statistics.unregisterCounters("source");
+
+    assertThat(statistics.getCounters(), not(hasKey("source")));
+  }
+}
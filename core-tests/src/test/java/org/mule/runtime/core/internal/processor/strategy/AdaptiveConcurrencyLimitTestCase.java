@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class AdaptiveConcurrencyLimitTestCase extends AbstractMuleTestCase {
+
+  private static final long SERVICE_TIME = MILLISECONDS.toNanos(5);
+
+  private long currentNanoTime = 0;
+  private int inFlight = 0;
+
+  private final AdaptiveConcurrencyLimit limit =
+      new AdaptiveConcurrencyLimit(10, 1, 20, () -> inFlight, () -> currentNanoTime);
+
+  @Test
+  public void increaseWhenUsedWithoutQueueing() {
+    inFlight = 10;
+    for (int i = 0; i < 10; i++) {
+      limit.onSample(0, SERVICE_TIME);
+    }
+
+    assertThat(limit.getLimit(), is(11));
+    assertThat(limit.getServiceTimeNanos(), is(SERVICE_TIME));
+  }
+
+  @Test
+  public void noIncreaseWhenNotUsed() {
+    inFlight = 2;
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(0, SERVICE_TIME);
+    }
+
+    assertThat(limit.getLimit(), is(10));
+  }
+
+  @Test
+  public void neverAboveMax() {
+    inFlight = 20;
+    for (int i = 0; i < 1000; i++) {
+      limit.onSample(0, SERVICE_TIME);
+    }
+
+    assertThat(limit.getLimit(), is(20));
+  }
+
+  @Test
+  public void decreaseWhenQueueing() {
+    limit.onSample(SERVICE_TIME * 10, SERVICE_TIME);
+
+    assertThat(limit.getLimit(), is(9));
+    assertThat(limit.getQueueDelayNanos(), greaterThan(0L));
+  }
+
+  @Test
+  public void decreaseOncePerInterval() {
+    limit.onSample(SERVICE_TIME * 10, SERVICE_TIME);
+    limit.onSample(SERVICE_TIME * 10, SERVICE_TIME);
+    assertThat(limit.getLimit(), is(9));
+
+    currentNanoTime += MILLISECONDS.toNanos(10);
+    limit.onSample(SERVICE_TIME * 10, SERVICE_TIME);
+    assertThat(limit.getLimit(), is(8));
+  }
+
+  @Test
+  public void neverBelowMin() {
+    for (int i = 0; i < 100; i++) {
+      currentNanoTime += MILLISECONDS.toNanos(100);
+      limit.onOverload();
+    }
+
+    assertThat(limit.getLimit(), is(1));
+  }
+
+  @Test
+  public void recoverAfterDecrease() {
+    limit.onSample(SERVICE_TIME * 10, SERVICE_TIME);
+    int decreased = limit.getLimit();
+
+    inFlight = 20;
+    for (int i = 0; i < 100; i++) {
+      limit.onSample(0, SERVICE_TIME);
+    }
+
+    assertThat(decreased, lessThan(limit.getLimit()));
+  }
+}
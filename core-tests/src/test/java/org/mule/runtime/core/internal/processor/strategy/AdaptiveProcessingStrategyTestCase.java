@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.construct.BackPressureReason.MAX_CONCURRENCY_EXCEEDED;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_BUFFER_SIZE;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveProcessingStrategyFactory.AdaptiveProcessingStrategy;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class AdaptiveProcessingStrategyTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_CONCURRENCY = 64;
+
+  private final Scheduler cpuLight = mock(Scheduler.class);
+  private final Scheduler blocking = mock(Scheduler.class);
+  private final Scheduler cpuIntensive = mock(Scheduler.class);
+  private final List<BiConsumer<CoreEvent, Throwable>> responseCallbacks = new ArrayList<>();
+
+  private AdaptiveProcessingStrategy strategy;
+
+  @Before
+  public void before() throws Exception {
+    strategy = new AdaptiveProcessingStrategy(DEFAULT_BUFFER_SIZE, 1, () -> cpuLight, () -> cpuLight, () -> blocking,
+                                              () -> cpuIntensive, 1, MAX_CONCURRENCY, false, false);
+    strategy.start();
+  }
+
+  @After
+  public void after() {
+    strategy.dispose();
+  }
+
+  @Test
+  public void rejectionDecreasesOnlyTheLimitOfTheRejectingScheduler() {
+    strategy.onProcessor(processor(BLOCKING));
+    strategy.onProcessor(processor(CPU_INTENSIVE));
+    final int initialLimit = strategy.getLimit(CPU_LITE).getLimit();
+
+    strategy.onRejected(blocking);
+
+    assertThat(strategy.getLimit(BLOCKING).getLimit(), lessThan(initialLimit));
+    assertThat(strategy.getLimit(CPU_INTENSIVE).getLimit(), is(initialLimit));
+    assertThat(strategy.getLimit(CPU_LITE).getLimit(), is(initialLimit));
+  }
+
+  @Test
+  public void rejectionFromCpuLightDecreasesCpuLiteLimit() {
+    strategy.onProcessor(processor(BLOCKING));
+    final int initialLimit = strategy.getLimit(CPU_LITE).getLimit();
+
+    strategy.onRejected(cpuLight);
+
+    assertThat(strategy.getLimit(CPU_LITE).getLimit(), lessThan(initialLimit));
+    assertThat(strategy.getLimit(BLOCKING).getLimit(), is(initialLimit));
+  }
+
+  @Test
+  public void concurrencyLimitEnforcedWithoutEagerCheck() {
+    final int limit = strategy.getConcurrencyLimit();
+    for (int i = 0; i < limit; ++i) {
+      assertThat(strategy.checkBackpressureEmitting(event()), is(nullValue()));
+    }
+    assertThat(strategy.getInFlightEvents(), is(limit));
+
+    assertThat(strategy.checkBackpressureEmitting(event()), is(MAX_CONCURRENCY_EXCEEDED));
+    assertThat(strategy.getInFlightEvents(), is(limit));
+
+    responseCallbacks.get(0).accept(null, null);
+    assertThat(strategy.getInFlightEvents(), is(limit - 1));
+    assertThat(strategy.checkBackpressureEmitting(event()), is(nullValue()));
+  }
+
+  private ReactiveProcessor processor(ProcessingType processingType) {
+    ReactiveProcessor processor = mock(ReactiveProcessor.class);
+    when(processor.getProcessingType()).thenReturn(processingType);
+    return processor;
+  }
+
+  private CoreEvent event() {
+    BaseEventContext context = mock(BaseEventContext.class);
+    doAnswer(inv -> responseCallbacks.add(inv.getArgument(0))).when(context).onResponse(any());
+    CoreEvent event = mock(CoreEvent.class);
+    when(event.getContext()).thenReturn(context);
+    return event;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.construct.BackPressureReason.EVENTS_ACCUMULATED;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.processor.strategy.StreamEmitterProcessingStrategyFactory.StreamEmitterProcessingStrategy.BatchingReactorSink;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import reactor.core.publisher.FluxSink;
+
+@SmallTest
+public class BatchingReactorSinkTestCase extends AbstractMuleTestCase {
+
+  private static final int BATCH_SIZE = 3;
+  private static final long BATCH_WINDOW = 5;
+
+  private final List<List<CoreEvent>> published = new ArrayList<>();
+  private final List<Runnable> windows = new ArrayList<>();
+
+  private FluxSink<List<CoreEvent>> fluxSink;
+  private ScheduledExecutorService windowScheduler;
+  private BatchingReactorSink sink;
+
+  @Before
+  public void before() {
+    fluxSink = mock(FluxSink.class);
+    when(fluxSink.requestedFromDownstream()).thenReturn(1L);
+    doAnswer(inv -> published.add(inv.getArgument(0))).when(fluxSink).next(any());
+
+    windowScheduler = mock(ScheduledExecutorService.class);
+    doAnswer(inv -> windows.add(inv.getArgument(0))).when(windowScheduler).schedule(any(Runnable.class), anyLong(), any());
+
+    sink = new BatchingReactorSink(fluxSink, t -> {
+    }, e -> {
+    }, windowScheduler, BATCH_SIZE, BATCH_WINDOW);
+  }
+
+  @Test
+  public void publishWhenBatchComplete() {
+    CoreEvent first = mock(CoreEvent.class);
+    CoreEvent second = mock(CoreEvent.class);
+    CoreEvent third = mock(CoreEvent.class);
+
+    sink.accept(first);
+    sink.accept(second);
+    assertThat(published.isEmpty(), is(true));
+
+    sink.accept(third);
+    assertThat(published, is(asList(asList(first, second, third))));
+    verify(windowScheduler).schedule(any(Runnable.class), eq(BATCH_WINDOW), eq(MILLISECONDS));
+  }
+
+  @Test
+  public void publishWhenWindowElapses() {
+    CoreEvent event = mock(CoreEvent.class);
+
+    sink.accept(event);
+    windows.get(0).run();
+
+    assertThat(published, is(asList(asList(event))));
+  }
+
+  @Test
+  public void elapsedWindowDoesNotPublishNextBatch() {
+    for (int i = 0; i < BATCH_SIZE + 1; i++) {
+      sink.accept(mock(CoreEvent.class));
+    }
+    windows.get(0).run();
+
+    assertThat(published.size(), is(1));
+
+    windows.get(1).run();
+    assertThat(published.size(), is(2));
+  }
+
+  @Test
+  public void emitWithoutDemand() {
+    when(fluxSink.requestedFromDownstream()).thenReturn(0L);
+
+    assertThat(sink.emit(mock(CoreEvent.class)), is(EVENTS_ACCUMULATED));
+    assertThat(published.isEmpty(), is(true));
+  }
+
+  @Test
+  public void emitWithDemand() {
+    assertThat(sink.emit(mock(CoreEvent.class)), is(nullValue()));
+  }
+
+  @Test
+  public void publishRightAwayWhenWindowRejected() {
+    when(windowScheduler.schedule(any(Runnable.class), anyLong(), any())).thenThrow(new RejectedExecutionException());
+    CoreEvent event = mock(CoreEvent.class);
+
+    sink.accept(event);
+
+    assertThat(published, is(asList(asList(event))));
+  }
+
+  @Test
+  public void pendingBatchPublishedOnDispose() {
+    CoreEvent event = mock(CoreEvent.class);
+
+    sink.accept(event);
+    sink.prepareDispose();
+    sink.dispose();
+
+    assertThat(published, is(asList(asList(event))));
+    verify(fluxSink).complete();
+  }
+}
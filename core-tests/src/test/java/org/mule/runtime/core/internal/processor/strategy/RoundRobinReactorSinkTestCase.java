@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.ReactorSink;
+import org.mule.runtime.core.internal.processor.strategy.StreamEmitterProcessingStrategyFactory.StreamEmitterProcessingStrategy.RoundRobinReactorSink;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class RoundRobinReactorSinkTestCase extends AbstractMuleTestCase {
+
+  private final ReactorSink<CoreEvent> first = mock(ReactorSink.class);
+  private final ReactorSink<CoreEvent> second = mock(ReactorSink.class);
+  private final ReactorSink<CoreEvent> third = mock(ReactorSink.class);
+  private final List<ReactorSink<CoreEvent>> sinks = asList(first, second, third);
+
+  private final AtomicInteger activeSinks = new AtomicInteger(2);
+  private final RoundRobinReactorSink<CoreEvent> sink = new RoundRobinReactorSink<>(sinks, activeSinks::get);
+
+  @Test
+  public void onlyActiveSinksUsed() {
+    CoreEvent event = mock(CoreEvent.class);
+    for (int i = 0; i < 4; ++i) {
+      sink.accept(event);
+    }
+
+    verify(first, times(2)).accept(event);
+    verify(second, times(2)).accept(event);
+    verify(third, never()).accept(event);
+  }
+
+  @Test
+  public void activeSinksDecreased() {
+    CoreEvent event = mock(CoreEvent.class);
+    sink.accept(event);
+    sink.accept(event);
+
+    activeSinks.set(1);
+    for (int i = 0; i < 3; ++i) {
+      sink.emit(event);
+    }
+
+    verify(first, times(3)).emit(event);
+    verify(second, never()).emit(event);
+    verify(third, never()).emit(event);
+  }
+
+  @Test
+  public void activeSinksIncreased() {
+    CoreEvent event = mock(CoreEvent.class);
+    sink.accept(event);
+    sink.accept(event);
+
+    activeSinks.set(3);
+    for (int i = 0; i < 3; ++i) {
+      sink.emit(event);
+    }
+
+    verify(first).emit(event);
+    verify(second).emit(event);
+    verify(third).emit(event);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.construct.BackPressureReason.MAX_CONCURRENCY_EXCEEDED;
+import static org.mule.tck.probe.PollingProber.probe;
+import static reactor.core.publisher.Flux.from;
+
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.internal.construct.FromFlowRejectedExecutionException;
+import org.mule.runtime.core.internal.processor.strategy.ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.VirtualThreadProcessingStrategyFactory.VirtualThreadProcessingStrategy;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class VirtualThreadProcessingStrategyTestCase extends AbstractMuleTestCase {
+
+  private static final String THREAD_NAME_PREFIX = "test.virtual.";
+
+  private final AtomicInteger threadCount = new AtomicInteger();
+  private final ThreadFactory threadFactory =
+      runnable -> new Thread(runnable, THREAD_NAME_PREFIX + threadCount.getAndIncrement());
+
+  private final List<String> processingThreads = new CopyOnWriteArrayList<>();
+  private final List<BiConsumer<CoreEvent, Throwable>> responseCallbacks = new CopyOnWriteArrayList<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private FlowConstruct flowConstruct;
+  private ReactiveProcessor pipeline;
+
+  @Before
+  public void before() {
+    flowConstruct = mock(FlowConstruct.class, RETURNS_DEEP_STUBS);
+    when(flowConstruct.getMuleContext().getConfiguration().getShutdownTimeout()).thenReturn(5000L);
+
+    pipeline = publisher -> from(publisher).doOnNext(event -> {
+      processingThreads.add(Thread.currentThread().getName());
+      try {
+        release.await(5, SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+  }
+
+  @After
+  public void after() {
+    release.countDown();
+  }
+
+  @Test
+  public void eachEventOnItsOwnThread() throws Exception {
+    VirtualThreadProcessingStrategy ps = new VirtualThreadProcessingStrategy(threadFactory, MAX_VALUE, true,
+                                                                             getClass().getClassLoader());
+    Sink sink = ps.createSink(flowConstruct, pipeline);
+
+    for (int i = 0; i < 3; i++) {
+      CoreEvent event = mockEvent();
+      ps.checkBackpressureAccepting(event);
+      sink.accept(event);
+    }
+
+    probe(() -> processingThreads.size() == 3);
+    assertThat(processingThreads.stream().allMatch(name -> name.startsWith(THREAD_NAME_PREFIX)), is(true));
+    assertThat(processingThreads.stream().distinct().count(), is(3L));
+    assertThat(ps.getActiveEvents(), is(3));
+
+    release.countDown();
+    probe(() -> ps.getActiveEvents() == 0);
+    assertThat(ps.getDispatchedEvents(), is(3L));
+    assertThat(ps.getPeakActiveEvents(), is(3));
+  }
+
+  @Test
+  public void eagerCheckRejectsOverMaxConcurrency() throws Exception {
+    VirtualThreadProcessingStrategy ps = new VirtualThreadProcessingStrategy(threadFactory, 2, true,
+                                                                             getClass().getClassLoader());
+
+    assertThat(ps.checkBackpressureEmitting(mockEvent()), is(nullValue()));
+    assertThat(ps.checkBackpressureEmitting(mockEvent()), is(nullValue()));
+    assertThat(ps.checkBackpressureEmitting(mockEvent()), is(MAX_CONCURRENCY_EXCEEDED));
+
+    try {
+      ps.checkBackpressureAccepting(mockEvent());
+      fail("Event should have been rejected");
+    } catch (FromFlowRejectedExecutionException e) {
+      assertThat(ps.getRejectedEvents(), is(2L));
+    }
+
+    responseCallbacks.get(0).accept(null, null);
+    assertThat(ps.checkBackpressureEmitting(mockEvent()), is(nullValue()));
+  }
+
+  @Test
+  public void emitRejectsOverMaxConcurrencyWithoutEagerCheck() throws Exception {
+    VirtualThreadProcessingStrategy ps = new VirtualThreadProcessingStrategy(threadFactory, 1, false,
+                                                                             getClass().getClassLoader());
+    Sink sink = ps.createSink(flowConstruct, pipeline);
+
+    assertThat(ps.checkBackpressureEmitting(mockEvent()), is(nullValue()));
+    assertThat(sink.emit(mockEvent()), is(nullValue()));
+    assertThat(sink.emit(mockEvent()), is(MAX_CONCURRENCY_EXCEEDED));
+    assertThat(ps.getRejectedEvents(), is(1L));
+
+    release.countDown();
+    responseCallbacks.get(0).accept(null, null);
+    assertThat(sink.emit(mockEvent()), is(nullValue()));
+    assertThat(ps.getDispatchedEvents(), is(2L));
+  }
+
+  @Test
+  public void acceptWaitsForPermitWithoutEagerCheck() throws Exception {
+    VirtualThreadProcessingStrategy ps = new VirtualThreadProcessingStrategy(threadFactory, 1, false,
+                                                                             getClass().getClassLoader());
+    Sink sink = ps.createSink(flowConstruct, pipeline);
+    sink.accept(mockEvent());
+
+    Thread acceptor = new Thread(() -> sink.accept(mockEvent()));
+    acceptor.start();
+    probe(() -> ps.getWaitedEmissions() == 1);
+    assertThat(ps.getDispatchedEvents(), is(1L));
+
+    responseCallbacks.get(0).accept(null, null);
+    acceptor.join(SECONDS.toMillis(5));
+    assertThat(ps.getDispatchedEvents(), is(2L));
+  }
+
+  @Test
+  public void fallbackWhenVirtualThreadsNotSupported() {
+    assumeFalse(VirtualThreadProcessingStrategyFactory.isVirtualThreadsSupported());
+    assertThat(new VirtualThreadProcessingStrategyFactory().getProcessingStrategyType(),
+               equalTo(ProactorStreamEmitterProcessingStrategy.class));
+  }
+
+  private CoreEvent mockEvent() {
+    CoreEvent event = mock(CoreEvent.class);
+    BaseEventContext eventContext = mock(BaseEventContext.class);
+    when(event.getContext()).thenReturn(eventContext);
+    doAnswer(inv -> responseCallbacks.add(inv.getArgument(0))).when(eventContext).onResponse(any());
+    return event;
+  }
+}
@@ -6,22 +6,36 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Long.MAX_VALUE;
+import static java.time.Duration.ofMillis;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.lang3.reflect.FieldUtils.readField;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.internal.routing.HedgedFirstSuccessfulRouter.HEDGE_WARM_UP_ATTEMPTS;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 import static org.mule.tck.MuleTestUtils.createErrorMock;
 import static org.mule.tck.processor.ContextPropagationChecker.assertContextPropagation;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.just;
 
 import org.mule.runtime.api.component.Component;
 import org.mule.runtime.api.exception.DefaultMuleException;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Error;
 import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
@@ -33,9 +47,14 @@ import org.mule.runtime.core.privileged.event.PrivilegedEvent;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import org.mule.tck.processor.ContextPropagationChecker;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Mono;
 
 public class FirstSuccessfulTestCase extends AbstractMuleContextTestCase {
 
@@ -65,6 +84,112 @@ public class FirstSuccessfulTestCase extends AbstractMuleContextTestCase {
     assertThat(getPayload(fs, session, "ABCDEFGHI"), is(EXCEPTION_SEEN));
   }
 
+  @Test
+  public void hedgedFallsBackOnFailure() throws Exception {
+    MuleSession session = new DefaultMuleSession();
+
+    FirstSuccessful fs =
+        createFirstSuccessfulRouter(new TestProcessor("abc"), new TestProcessor("def"), new TestProcessor("ghi"));
+    fs.setHedged(true);
+    fs.initialise();
+    fs.start();
+
+    try {
+      assertThat(getPayload(fs, session, ""), is("No abc"));
+      assertThat(getPayload(fs, session, "abc"), is("No def"));
+      assertThat(getPayload(fs, session, "abcdef"), is("No ghi"));
+      assertThat(getPayload(fs, session, "abcdefghi"), is(EXCEPTION_SEEN));
+      assertThat(getPayload(fs, session, "ABCDEF"), is("No ghi"));
+    } finally {
+      fs.stop();
+      fs.dispose();
+    }
+  }
+
+  @Test
+  public void hedgedAttemptsNextRouteWhenSlow() throws Exception {
+    MuleSession session = new DefaultMuleSession();
+    AtomicBoolean slowRouteCancelled = new AtomicBoolean();
+    Processor slowWhenAsked = new Processor() {
+
+      @Override
+      public CoreEvent process(CoreEvent event) throws MuleException {
+        return processToApply(event, this);
+      }
+
+      @Override
+      public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+        return from(publisher).flatMap(event -> {
+          Mono<CoreEvent> result = just(CoreEvent.builder(event).message(of("first")).build());
+          return event.getMessage().getPayload().getValue().equals("slow")
+              ? result.delayElement(ofMillis(RECEIVE_TIMEOUT)).doOnCancel(() -> slowRouteCancelled.set(true))
+              : result;
+        });
+      }
+    };
+
+    FirstSuccessful fs =
+        createFirstSuccessfulRouter(slowWhenAsked, event -> CoreEvent.builder(event).message(of("second")).build());
+    fs.setHedged(true);
+    fs.initialise();
+    fs.start();
+
+    try {
+      for (int i = 0; i < HEDGE_WARM_UP_ATTEMPTS; ++i) {
+        assertThat(getPayload(fs, session, "fast"), is("first"));
+      }
+      assertThat(getPayload(fs, session, "slow"), is("second"));
+      assertThat(slowRouteCancelled.get(), is(true));
+    } finally {
+      fs.stop();
+      fs.dispose();
+    }
+  }
+
+  @Test
+  public void hedgeSchedulerOnlyHeldWhileStarted() throws Exception {
+    FirstSuccessful fs = createFirstSuccessfulRouter(new TestProcessor("abc"));
+    fs.setHedged(true);
+    fs.initialise();
+    assertThat(readField(fs, "hedgeScheduler", true), is(nullValue()));
+
+    fs.start();
+    Scheduler hedgeScheduler = (Scheduler) readField(fs, "hedgeScheduler", true);
+    assertThat(hedgeScheduler, is(notNullValue()));
+
+    fs.stop();
+    assertThat(readField(fs, "hedgeScheduler", true), is(nullValue()));
+    assertThat(hedgeScheduler.isShutdown(), is(true));
+    fs.dispose();
+  }
+
+  @Test
+  public void hedgeDelayFollowsRecentLatency() throws Exception {
+    final long latencyWindow = 50;
+    HedgedFirstSuccessfulRouter router =
+        new HedgedFirstSuccessfulRouter(mock(Component.class), emptyList(), 95, () -> null, latencyWindow);
+
+    for (int i = 0; i < HEDGE_WARM_UP_ATTEMPTS; ++i) {
+      router.recordLatency(MILLISECONDS.toNanos(1000));
+    }
+    assertThat(router.getHedgeDelay(), is(greaterThanOrEqualTo(800L)));
+
+    // Once a whole window passes without attempts, the old latencies are no longer used
+    Thread.sleep(latencyWindow * 2);
+    assertThat(router.getHedgeDelay(), is(MAX_VALUE));
+
+    for (int i = 0; i < HEDGE_WARM_UP_ATTEMPTS; ++i) {
+      router.recordLatency(MILLISECONDS.toNanos(10));
+    }
+    assertThat(router.getHedgeDelay(), is(lessThan(20L)));
+  }
+
+  @Test
+  public void invalidHedgePercentile() {
+    expectedException.expect(IllegalArgumentException.class);
+    new FirstSuccessful().setHedgePercentile(0);
+  }
+
   @Test
   public void testRouteReturnsNullMessage() throws Exception {
     Processor nullEventMp = event -> CoreEvent.builder(event).message(c -> null).build();
@@ -14,6 +14,7 @@ import static java.util.Optional.of;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.junit.rules.ExpectedException.none;
@@ -24,7 +25,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
 import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.core.internal.routing.ParallelForEach.ResultsMode.DISCARD;
+import static org.mule.runtime.core.internal.routing.ParallelForEach.ResultsMode.STREAM;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE;
 import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
 import static org.mule.tck.processor.ContextPropagationChecker.assertContextPropagation;
 import static org.mule.tck.util.MuleContextUtils.eventBuilder;
@@ -39,6 +44,8 @@ import org.mule.runtime.api.message.ErrorType;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
 import org.mule.runtime.core.api.construct.Flow;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
@@ -46,6 +53,7 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingForkJoinStrategyFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 import org.mule.tck.SensingNullMessageProcessor;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
@@ -54,6 +62,7 @@ import org.mule.tck.processor.ContextPropagationChecker;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.DescriptorKey;
 
@@ -177,6 +186,88 @@ public class ParallelForEachTestCase extends AbstractMuleContextTestCase {
     assertThat(resultList, hasSize(2));
   }
 
+  @Test
+  @Description("When results are discarded every part is routed and the input event is output.")
+  public void discardResults() throws Exception {
+    CoreEvent original = createListEvent();
+    AtomicInteger routed = new AtomicInteger();
+
+    MessageProcessorChain nested = newChain(empty(), event -> {
+      routed.incrementAndGet();
+      return event;
+    });
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setResultsMode(DISCARD);
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    Event result = router.process(original);
+
+    assertThat(result.getMessage(), equalTo(original.getMessage()));
+    assertThat(routed.get(), is(2));
+  }
+
+  @Test
+  @Description("When results are streamed the router result payload is a cursor provider over the result messages, in order.")
+  public void streamResults() throws Exception {
+    CoreEvent original = createListEvent();
+
+    MessageProcessorChain nested = newChain(empty(), event -> event);
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setResultsMode(STREAM);
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    Event result = router.process(original);
+
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(CursorIteratorProvider.class));
+    List<Object> payloads = new ArrayList<>();
+    try (CursorIterator<Message> cursor =
+        ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor()) {
+      cursor.forEachRemaining(message -> payloads.add(message.getPayload().getValue()));
+    }
+    assertThat(payloads, contains("bar", "zip"));
+  }
+
+  @Test
+  @Description("When results are streamed, results exceeding the max in memory buffer size overflow into a local file.")
+  public void streamMoreResultsThanMaxBufferSize() throws Exception {
+    List<Object> parts = new ArrayList<>();
+    for (int i = 0; i < DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE * 2; ++i) {
+      parts.add("part" + i);
+    }
+    CoreEvent original = getEventBuilder().message(Message.of(parts)).build();
+
+    MessageProcessorChain nested = newChain(empty(), event -> event);
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setResultsMode(STREAM);
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    Event result = router.process(original);
+
+    List<Object> payloads = new ArrayList<>();
+    try (CursorIterator<Message> cursor =
+        ((CursorIteratorProvider) result.getMessage().getPayload().getValue()).openCursor()) {
+      cursor.forEachRemaining(message -> payloads.add(message.getPayload().getValue()));
+    }
+    assertThat(payloads, equalTo(parts));
+  }
+
+  @Test
+  @Description("Streaming results modes use the StreamingForkJoinStrategyFactory.")
+  public void streamingForkJoinStrategyFactory() {
+    router.setResultsMode(DISCARD);
+    assertThat(router.getDefaultForkJoinStrategyFactory(), instanceOf(StreamingForkJoinStrategyFactory.class));
+    assertThat(router.getDefaultForkJoinStrategyFactory().getResultDataType(), equalTo(OBJECT));
+  }
+
   @Test
   @Description("The router uses a fork-join strategy with concurrency and timeout configured via the router and delayErrors true.")
   public void forkJoinStrategyConfiguration() throws Exception {
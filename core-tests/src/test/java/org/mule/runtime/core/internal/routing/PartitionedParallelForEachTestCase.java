@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.Collections.synchronizedList;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
+import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.runtime.core.internal.routing.outbound.KeyPartitionedMessageSequence.laneFor;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
+import static org.mule.test.allure.AllureConstants.RoutersFeature.ROUTERS;
+
+import org.mule.runtime.api.component.location.Location;
+import org.mule.runtime.api.event.Event;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+
+@Feature(ROUTERS)
+public class PartitionedParallelForEachTestCase extends AbstractMuleContextTestCase {
+
+  private static final String KEY_EXPRESSION = "#[payload[0]]";
+
+  @Rule
+  public ExpectedException expectedException = none();
+
+  private final PartitionedParallelForEach router = new PartitionedParallelForEach();
+
+  @Override
+  protected Map<String, Object> getStartUpRegistryObjects() {
+    when(componentLocator.find(Location.builder().globalName(APPLE_FLOW).build())).thenReturn(of(mock(Flow.class)));
+    return singletonMap(REGISTRY_KEY, componentLocator);
+  }
+
+  @After
+  public void tearDown() {
+    router.dispose();
+  }
+
+  @Test
+  @Description("Parts with the same key are processed in the order they were split, and results keep the order of the split.")
+  public void orderedWithinKey() throws Exception {
+    List<String> parts = new ArrayList<>();
+    for (int i = 0; i < 60; ++i) {
+      parts.add("abcdef".charAt(i % 6) + Integer.toString(i));
+    }
+    Map<Character, List<String>> processedByKey = new ConcurrentHashMap<>();
+
+    MessageProcessorChain nested = newChain(empty(), event -> {
+      String part = (String) event.getMessage().getPayload().getValue();
+      parkNanos(MILLISECONDS.toNanos(current().nextInt(3)));
+      processedByKey.computeIfAbsent(part.charAt(0), k -> synchronizedList(new ArrayList<>())).add(part);
+      return CoreEvent.builder(event).message(Message.of(part.toUpperCase())).build();
+    });
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setPartitionKey(KEY_EXPRESSION);
+    router.setPartitions(3);
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    Event result = router.process(getEventBuilder().message(Message.of(parts)).build());
+
+    processedByKey.forEach((key, processed) -> assertThat(processed, equalTo(parts.stream()
+        .filter(part -> part.charAt(0) == key).collect(toList()))));
+    List<Message> results = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(results.stream().map(message -> message.getPayload().getValue()).collect(toList()),
+               equalTo(parts.stream().map(String::toUpperCase).collect(toList())));
+  }
+
+  @Test
+  @Description("A failing part stops its lane and is reported in a composite routing error.")
+  public void failingPartStopsLane() throws Exception {
+    List<String> parts = new ArrayList<>();
+    parts.add("a1");
+    parts.add("a2");
+    parts.add("a3");
+    List<String> processed = synchronizedList(new ArrayList<>());
+
+    MessageProcessorChain nested = newChain(empty(), event -> {
+      String part = (String) event.getMessage().getPayload().getValue();
+      if (part.equals("a2")) {
+        throw new IllegalStateException("boom");
+      }
+      processed.add(part);
+      return event;
+    });
+    nested.setMuleContext(muleContext);
+    router.setMessageProcessors(singletonList(nested));
+    router.setPartitionKey(KEY_EXPRESSION);
+    muleContext.getInjector().inject(router);
+    router.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    router.initialise();
+
+    try {
+      router.process(getEventBuilder().message(Message.of(parts)).build());
+      fail("Expected a routing error");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), instanceOf(CompositeRoutingException.class));
+    }
+    assertThat(processed, contains("a1"));
+  }
+
+  @Test
+  public void lanesWithinRange() {
+    for (Object key : new Object[] {null, "a", -1, Integer.MIN_VALUE, 42L}) {
+      assertThat(laneFor(key, 7), greaterThanOrEqualTo(0));
+      assertThat(laneFor(key, 7), lessThan(7));
+    }
+    assertThat(laneFor("customer-1", 5), equalTo(laneFor("customer-1", 5)));
+  }
+
+  @Test
+  public void defaultForkJoinStrategyFactory() {
+    assertThat(router.getDefaultForkJoinStrategyFactory().getResultDataType(), equalTo(MULE_MESSAGE_LIST));
+  }
+
+  @Test
+  public void invalidPartitions() {
+    expectedException.expect(IllegalArgumentException.class);
+    router.setPartitions(0);
+  }
+}
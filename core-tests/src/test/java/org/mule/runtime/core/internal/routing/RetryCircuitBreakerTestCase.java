@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class RetryCircuitBreakerTestCase extends AbstractMuleTestCase {
+
+  private static final long RESET_MILLIS = 20;
+
+  @Test
+  public void opensAfterThreshold() {
+    RetryCircuitBreaker circuitBreaker = new RetryCircuitBreaker(2, RESET_MILLIS);
+
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.allowAttempt(), is(false));
+  }
+
+  @Test
+  public void successfulTrialCloses() throws InterruptedException {
+    RetryCircuitBreaker circuitBreaker = openCircuitBreaker(RESET_MILLIS);
+
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+    assertThat(circuitBreaker.allowAttempt(), is(false));
+
+    circuitBreaker.onSuccess();
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+  }
+
+  @Test
+  public void failedTrialReopens() throws InterruptedException {
+    RetryCircuitBreaker circuitBreaker = openCircuitBreaker(RESET_MILLIS);
+
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.allowAttempt(), is(false));
+  }
+
+  @Test
+  public void unreportedTrialTimesOut() throws InterruptedException {
+    RetryCircuitBreaker circuitBreaker = openCircuitBreaker(RESET_MILLIS);
+
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+
+    // The trial never reports, so once it times out the circuit goes back to open
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(false));
+
+    // ... and after another reset period a new trial is allowed
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+  }
+
+  @Test
+  public void trialWithinTimeoutKeepsHalfOpen() throws InterruptedException {
+    RetryCircuitBreaker circuitBreaker = new RetryCircuitBreaker(1, RESET_MILLIS, 60000);
+    circuitBreaker.onFailure();
+
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(true));
+
+    Thread.sleep(RESET_MILLIS * 2);
+    assertThat(circuitBreaker.allowAttempt(), is(false));
+  }
+
+  private RetryCircuitBreaker openCircuitBreaker(long resetMillis) {
+    RetryCircuitBreaker circuitBreaker = new RetryCircuitBreaker(1, resetMillis);
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.allowAttempt(), is(false));
+    return circuitBreaker;
+  }
+}
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.verify;
 import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.core.api.transaction.TransactionCoordination.getInstance;
+import static org.mule.runtime.core.internal.routing.UntilSuccessful.RetryBackoff.EXPONENTIAL;
 import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
 import static org.mule.tck.MuleTestUtils.createAndRegisterFlow;
 import static org.mule.tck.processor.ContextPropagationChecker.assertContextPropagation;
@@ -216,6 +217,61 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
     assertEquals(targetMessageProcessor.getEventCount(), Integer.parseInt(untilSuccessful.getMaxRetries()) + 1);
   }
 
+  @Test
+  public void testTemporaryDeliveryFailureWithExponentialBackoff() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.parseInt(untilSuccessful.getMaxRetries()));
+    untilSuccessful.setBackoff(EXPONENTIAL);
+    untilSuccessful.setMaxMillisBetweenRetries(150);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    final CoreEvent testEvent = eventBuilder(muleContext).message(of("ERROR")).build();
+    assertSame(testEvent.getMessage(), untilSuccessful.process(testEvent).getMessage());
+    assertTargetEventReceived(testEvent);
+    assertEquals(targetMessageProcessor.getEventCount(), Integer.parseInt(untilSuccessful.getMaxRetries()) + 1);
+  }
+
+  @Test
+  public void testOpenCircuitBreakerFailsFast() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.MAX_VALUE);
+    untilSuccessful.setCircuitBreakerThreshold(2);
+    untilSuccessful.setCircuitBreakerResetMillis(RECEIVE_TIMEOUT);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    // The circuit opens on the second failure, so the last retry is not attempted
+    assertExhausted(eventBuilder(muleContext).message(of("ERROR")).build());
+    assertThat(targetMessageProcessor.getEventCount(), is(2));
+
+    // Further events are not attempted at all
+    assertExhausted(eventBuilder(muleContext).message(of("ERROR")).build());
+    assertThat(targetMessageProcessor.getEventCount(), is(2));
+  }
+
+  @Test
+  public void testClosedCircuitBreakerAfterSuccess() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.parseInt(untilSuccessful.getMaxRetries()));
+    untilSuccessful.setCircuitBreakerThreshold(Integer.parseInt(untilSuccessful.getMaxRetries()) + 1);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    final CoreEvent testEvent = eventBuilder(muleContext).message(of("ERROR")).build();
+    assertSame(testEvent.getMessage(), untilSuccessful.process(testEvent).getMessage());
+    assertSame(testEvent.getMessage(), untilSuccessful.process(testEvent).getMessage());
+    assertEquals(targetMessageProcessor.getEventCount(), Integer.parseInt(untilSuccessful.getMaxRetries()) + 2);
+  }
+
+  @Test
+  public void testRetryBudgetExhausted() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.MAX_VALUE);
+    untilSuccessful.setRetryBudgetPercent(0);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    assertExhausted(eventBuilder(muleContext).message(of("ERROR")).build());
+    assertThat(targetMessageProcessor.getEventCount(), is(1));
+  }
+
   @Test
   public void testProcessingStrategyUsage() throws Exception {
     targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.parseInt(untilSuccessful.getMaxRetries()));
@@ -377,6 +433,16 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
     }
   }
 
+  private void assertExhausted(CoreEvent event) {
+    try {
+      untilSuccessful.process(event);
+      fail("An exhaustion error was expected from an until successful scope");
+    } catch (Exception e) {
+      assertThat(e, instanceOf(MessagingException.class));
+      assertThat(e.getCause(), instanceOf(RetryPolicyExhaustedException.class));
+    }
+  }
+
   private void assertTargetEventReceived(CoreEvent request) throws MuleException {
     assertThat(targetMessageProcessor.getEventReceived(), not(nullValue()));
     assertLogicallyEqualEvents(request, targetMessageProcessor.getEventReceived());
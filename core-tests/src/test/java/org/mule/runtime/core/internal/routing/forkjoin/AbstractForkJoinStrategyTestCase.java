@@ -32,6 +32,7 @@ import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.rx.Exceptions.rxExceptionToMuleException;
+import static org.mule.runtime.core.internal.event.EventDeadline.withTimeout;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
 import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.FORK_JOIN_STRATEGIES;
@@ -161,6 +162,23 @@ public abstract class AbstractForkJoinStrategyTestCase extends AbstractMuleConte
                            throwable -> verify(pair2Processor, never()).process(any(CoreEvent.class)));
   }
 
+  @Test
+  @Description("Routes of an event whose deadline has already passed are not executed and fail with a timeout.")
+  public void deadlineSpent() throws Throwable {
+    Processor processor = createProcessorSpy(of(1));
+    RoutingPair pair = of(withTimeout(testEvent(), 1), createChain(processor));
+    sleep(10);
+
+    expectedException.expect(instanceOf(CompositeRoutingException.class));
+
+    invokeStrategyBlocking(strategy, testEvent(), asList(pair), throwable -> {
+      verify(processor, never()).process(any(CoreEvent.class));
+      CompositeRoutingException compositeRoutingException = assertCompositeRoutingException(throwable, 1);
+      RoutingResult routingResult = assertRoutingResult(compositeRoutingException, 0, 1);
+      assertThat(routingResult.getFailures().get("0").getCause(), instanceOf(TimeoutException.class));
+    });
+  }
+
   @Test
   @Description("Errors are thrown via CompositeRoutingException with RoutingResult containing details of failures.")
   public void error() throws Throwable {
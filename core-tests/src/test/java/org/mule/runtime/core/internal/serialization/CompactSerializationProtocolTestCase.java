@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CompactSerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  private SerializationProtocol javaProtocol;
+
+  @Override
+  protected void doSetUp() throws Exception {
+    javaProtocol = muleContext.getObjectSerializer().getExternalProtocol();
+    CompactSerializationProtocol compactProtocol = new CompactSerializationProtocol(javaProtocol);
+    compactProtocol.setMuleContext(muleContext);
+    serializationProtocol = compactProtocol;
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test
+  public void knownTypes() throws Exception {
+    List<Object> list = new ArrayList<>(asList(1, 2L, 3.0d, 4.0f, (short) 5, (byte) 6, true, 'c', new byte[0], null));
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("list", list);
+    map.put("mediaType", APPLICATION_JSON);
+    map.put("dataType", DataType.STRING);
+
+    Map<String, Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(map));
+
+    assertThat(deserialized.keySet(), equalTo(map.keySet()));
+    assertThat(((List<?>) deserialized.get("list")).subList(0, 8), equalTo(list.subList(0, 8)));
+    assertThat(deserialized.get("mediaType"), equalTo(APPLICATION_JSON));
+    assertThat(deserialized.get("dataType"), equalTo(DataType.STRING));
+  }
+
+  @Test
+  public void message() throws Exception {
+    Message message = Message.builder().value("hello").mediaType(APPLICATION_JSON).attributesValue("attributes").build();
+
+    byte[] bytes = serializationProtocol.serialize(message);
+    Message deserialized = serializationProtocol.deserialize(bytes);
+
+    assertThat(deserialized.getPayload().getValue(), equalTo("hello"));
+    assertThat(deserialized.getPayload().getDataType(), equalTo(message.getPayload().getDataType()));
+    assertThat(deserialized.getAttributes().getValue(), equalTo("attributes"));
+    assertThat(bytes.length, is(lessThan(javaProtocol.serialize(message).length)));
+  }
+
+  @Test
+  public void messageWithAttributesFromArtifact() throws Exception {
+    TestAttributes attributes = new TestAttributes("/path");
+    Message message = Message.builder().value("hello").attributesValue(attributes).build();
+
+    byte[] bytes = serializationProtocol.serialize(message);
+    Message deserialized = serializationProtocol.deserialize(bytes);
+
+    assertThat(deserialized.getAttributes().getValue(), equalTo(attributes));
+    assertThat(deserialized.getAttributes().getDataType().getType(), equalTo(TestAttributes.class));
+    assertThat(bytes.length, is(lessThan(javaProtocol.serialize(message).length)));
+  }
+
+  @Test
+  public void event() throws Exception {
+    CoreEvent event = CoreEvent.builder(testEvent())
+        .message(Message.builder().value("hello").attributesValue(new TestAttributes("/path")).build())
+        .addVariable("var", "value")
+        .build();
+
+    byte[] bytes = serializationProtocol.serialize(event);
+    CoreEvent deserialized = serializationProtocol.deserialize(bytes);
+
+    assertThat(deserialized.getContext().getId(), equalTo(event.getContext().getId()));
+    assertThat(deserialized.getMessage().getPayload().getValue(), equalTo("hello"));
+    assertThat(deserialized.getMessage().getAttributes().getValue(), equalTo(new TestAttributes("/path")));
+    assertThat(deserialized.getVariables().get("var").getValue(), equalTo("value"));
+    assertThat(deserialized.getCorrelationId(), equalTo(event.getCorrelationId()));
+    assertThat(bytes.length, is(lessThan(javaProtocol.serialize(event).length)));
+  }
+
+  @Test
+  public void sharedReferencesCopied() throws Exception {
+    List<Object> shared = new ArrayList<>(asList("shared"));
+    List<Object> list = new ArrayList<>(asList(shared, shared));
+
+    List<Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+
+    assertThat(deserialized.get(0), equalTo(deserialized.get(1)));
+    assertThat(deserialized.get(0), is(not(sameInstance(deserialized.get(1)))));
+  }
+
+  @Test
+  public void unknownTypeNested() throws Exception {
+    Date date = new Date();
+    TypedValue<List<Object>> typedValue = new TypedValue<>(new ArrayList<>(asList("date", date)), DataType.OBJECT);
+
+    TypedValue<List<Object>> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(typedValue));
+
+    assertThat(deserialized.getValue().get(1), equalTo(date));
+  }
+
+  @Test
+  public void readsFallbackFormat() throws Exception {
+    Object deserialized = serializationProtocol.deserialize(javaProtocol.serialize("hello"));
+    assertThat(deserialized, equalTo("hello"));
+  }
+
+  private static final class TestAttributes implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String path;
+
+    private TestAttributes(String path) {
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof TestAttributes && path.equals(((TestAttributes) obj).path);
+    }
+
+    @Override
+    public int hashCode() {
+      return path.hashCode();
+    }
+  }
+}
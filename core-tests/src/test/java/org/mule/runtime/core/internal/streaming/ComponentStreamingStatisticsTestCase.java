@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static java.util.Optional.empty;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.streaming.ComponentStreamingStatistics;
+import org.mule.runtime.core.internal.event.DefaultEventContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.lang.ref.WeakReference;
+
+import io.qameta.allure.Feature;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@Feature(STREAMING)
+@RunWith(MockitoJUnitRunner.class)
+public class ComponentStreamingStatisticsTestCase extends AbstractMuleTestCase {
+
+  private static final String FLOW_LOCATION = "myFlow/source";
+
+  @Mock
+  private StreamingGhostBuster ghostBuster;
+
+  @Mock
+  private ComponentLocation location;
+
+  private AtomicStreamingStatistics statistics;
+  private CursorManager cursorManager;
+  private DefaultEventContext ctx;
+
+  @Before
+  public void before() {
+    when(location.getLocation()).thenReturn(FLOW_LOCATION);
+    when(ghostBuster.track(any())).thenAnswer(inv -> new WeakReference<>(inv.getArgument(0)));
+
+    statistics = new AtomicStreamingStatistics();
+    cursorManager = new CursorManager(statistics, ghostBuster);
+    ctx = new DefaultEventContext("id", "server", location, "", empty());
+  }
+
+  @Test
+  public void providersAttributedToOriginatingLocation() {
+    cursorManager.manage(mockProvider(100), ctx);
+    cursorManager.manage(mockProvider(200), ctx);
+
+    ComponentStreamingStatistics componentStatistics = getComponentStatistics();
+    assertThat(componentStatistics.getLocation(), is(sameInstance(location)));
+    assertThat(componentStatistics.getOpenCursorProvidersCount(), is(2));
+    assertThat(componentStatistics.getBufferedBytes(), is(300L));
+    assertThat(componentStatistics.getPeakBufferedBytes(), is(200L));
+    assertThat(statistics.getOpenCursorProvidersCount(), is(2));
+  }
+
+  @Test
+  public void releasedProviderKeepsPeak() {
+    ManagedCursorProvider managedProvider = (ManagedCursorProvider) cursorManager.manage(mockProvider(500), ctx);
+    managedProvider.releaseResources();
+
+    ComponentStreamingStatistics componentStatistics = getComponentStatistics();
+    assertThat(componentStatistics.getOpenCursorProvidersCount(), is(0));
+    assertThat(componentStatistics.getBufferedBytes(), is(0L));
+    assertThat(componentStatistics.getPeakBufferedBytes(), is(500L));
+  }
+
+  @Test
+  public void cursorLifetimeRecorded() throws Exception {
+    ManagedCursorProvider managedProvider = (ManagedCursorProvider) cursorManager.manage(mockProvider(0), ctx);
+    CursorStream cursor = (CursorStream) managedProvider.openCursor();
+    assertThat(getComponentStatistics().getOpenCursorsCount(), is(1));
+
+    cursor.close();
+
+    ComponentStreamingStatistics componentStatistics = getComponentStatistics();
+    assertThat(componentStatistics.getOpenCursorsCount(), is(0));
+    long[] histogram = componentStatistics.getCursorLifetimeHistogram();
+    assertThat(histogram.length, is(ComponentStreamingStatistics.CURSOR_LIFETIME_BUCKETS_MILLIS.length + 1));
+    assertThat(sum(histogram), is(1L));
+  }
+
+  @Test
+  public void ghostBustedProviderCounted() {
+    ManagedCursorProvider managedProvider = (ManagedCursorProvider) cursorManager.manage(mockProvider(0), ctx);
+    managedProvider.getJanitor().releaseGhostResources();
+
+    assertThat(getComponentStatistics().getGhostBustedProvidersCount(), is(1));
+    assertThat(statistics.getGhostBustedProvidersCount(), is(1));
+  }
+
+  @Test
+  public void releasedProviderNotCountedAsGhost() {
+    ManagedCursorProvider managedProvider = (ManagedCursorProvider) cursorManager.manage(mockProvider(0), ctx);
+    managedProvider.releaseResources();
+    managedProvider.getJanitor().releaseGhostResources();
+
+    assertThat(getComponentStatistics().getGhostBustedProvidersCount(), is(0));
+  }
+
+  private ComponentStreamingStatistics getComponentStatistics() {
+    assertThat(statistics.getComponentStatistics(), hasSize(1));
+    return statistics.getComponentStatistics().iterator().next();
+  }
+
+  private CursorStreamProvider mockProvider(long bufferedBytes) {
+    CursorStreamProvider provider =
+        mock(CursorStreamProvider.class, withSettings().extraInterfaces(MeasurableCursorProvider.class));
+    when(((MeasurableCursorProvider) provider).getBufferedBytes()).thenReturn(bufferedBytes);
+    when(provider.openCursor()).thenAnswer(inv -> mock(CursorStream.class));
+    return provider;
+  }
+
+  private long sum(long[] values) {
+    long sum = 0;
+    for (long value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+}
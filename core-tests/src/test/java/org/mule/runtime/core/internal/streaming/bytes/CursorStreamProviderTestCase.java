@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.toIntExact;
+import static java.nio.channels.Channels.newChannel;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
@@ -16,6 +17,7 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mule.runtime.api.util.DataUnit.BYTE;
 import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.api.util.StreamingUtils.transferTo;
 import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
 
 import org.mule.runtime.api.streaming.bytes.CursorStream;
@@ -28,8 +30,10 @@ import org.mule.runtime.core.api.util.func.CheckedRunnable;
 import org.mule.tck.size.SmallTest;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.CountDownLatch;
@@ -319,6 +323,30 @@ public class CursorStreamProviderTestCase extends AbstractByteStreamingTestCase
     });
   }
 
+  @Test
+  public void transferToChannel() throws Exception {
+    withCursor(cursor -> {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertThat(transferTo(cursor, newChannel(out)), is((long) data.length()));
+      assertEquals(toString(out.toByteArray()), data);
+      assertThat(cursor.getPosition(), is((long) data.length()));
+    });
+  }
+
+  @Test
+  public void nextBufferIsReadOnlyView() throws Exception {
+    withCursor(cursor -> {
+      cursor.seek(halfDataLength);
+      ByteBuffer buffer = ((TransferableCursorStream) cursor).nextBuffer(10);
+      final int length = buffer.remaining();
+
+      assertThat(buffer.isReadOnly(), is(true));
+      assertThat(length > 0 && length <= 10, is(true));
+      assertThat(cursor.getPosition(), is((long) halfDataLength + length));
+      assertEquals(toString(buffer), data.substring(halfDataLength, halfDataLength + length));
+    });
+  }
+
   @Test(expected = IOException.class)
   public void ioExceptionIfClosed() throws Exception {
     CursorStream cursor = streamProvider.openCursor();
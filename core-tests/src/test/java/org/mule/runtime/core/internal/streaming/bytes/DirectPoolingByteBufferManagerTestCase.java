@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.round;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.MAX_STREAMING_MEMORY_PERCENTAGE;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectPoolingByteBufferManager.MAX_SIZE_CLASS;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectPoolingByteBufferManager.MIN_SIZE_CLASS;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectPoolingByteBufferManager.sizeClassOf;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class DirectPoolingByteBufferManagerTestCase extends MemoryBoundByteBufferManagerContractTestCase {
+
+  @Override
+  protected MemoryBoundByteBufferManager createDefaultBoundBuffer() {
+    return new DirectPoolingByteBufferManager();
+  }
+
+  @Override
+  protected MemoryBoundByteBufferManager createBuffer(MemoryManager memoryManager, int capacity) {
+    return new DirectPoolingByteBufferManager(memoryManager, 2, capacity);
+  }
+
+  @Test
+  public void sizeClasses() {
+    assertThat(sizeClassOf(1), is(0));
+    assertThat(sizeClassOf(MIN_SIZE_CLASS), is(0));
+    assertThat(sizeClassOf(MIN_SIZE_CLASS + 1), is(1));
+    assertThat(sizeClassOf(MIN_SIZE_CLASS * 2), is(1));
+    assertThat(sizeClassOf(MIN_SIZE_CLASS * 3), is(2));
+    assertThat(MIN_SIZE_CLASS << sizeClassOf(MAX_SIZE_CLASS), is(MAX_SIZE_CLASS));
+  }
+
+  @Test
+  public void directBuffers() {
+    DirectPoolingByteBufferManager bufferManager = new DirectPoolingByteBufferManager();
+    try {
+      assertDirect(bufferManager, 100);
+      assertDirect(bufferManager, MAX_SIZE_CLASS + 1);
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void releasedBufferIsCleared() {
+    DirectPoolingByteBufferManager bufferManager = new DirectPoolingByteBufferManager();
+    try {
+      ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(MIN_SIZE_CLASS);
+      buffer.getDelegate().put(new byte[10]);
+      buffer.release();
+
+      buffer = bufferManager.allocateManaged(MIN_SIZE_CLASS / 2);
+      assertThat(buffer.getDelegate().position(), is(0));
+      assertThat(buffer.getDelegate().capacity(), is(MIN_SIZE_CLASS / 2));
+      buffer.release();
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void buffersReleasedByFinishedThreadsAreReused() throws Exception {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(round((MIN_SIZE_CLASS * 2) / MAX_STREAMING_MEMORY_PERCENTAGE));
+    DirectPoolingByteBufferManager bufferManager = new DirectPoolingByteBufferManager(memoryManager, 2, MIN_SIZE_CLASS);
+    try {
+      // The memory cap only fits two buffers, so each thread can only allocate if the one kept in the cache of the previous,
+      // already finished, thread is reclaimed.
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      for (int i = 0; i < 10; i++) {
+        Thread thread = new Thread(() -> {
+          ManagedByteBufferWrapper first = bufferManager.allocateManaged(MIN_SIZE_CLASS);
+          ManagedByteBufferWrapper second = bufferManager.allocateManaged(MIN_SIZE_CLASS);
+          first.release();
+          second.release();
+        });
+        thread.setUncaughtExceptionHandler((t, e) -> failure.set(e));
+        thread.start();
+        thread.join();
+      }
+      assertThat(failure.get(), is(nullValue()));
+
+      ManagedByteBufferWrapper buffer1 = bufferManager.allocateManaged(MIN_SIZE_CLASS);
+      ManagedByteBufferWrapper buffer2 = bufferManager.allocateManaged(MIN_SIZE_CLASS);
+      buffer1.release();
+      buffer2.release();
+    } finally {
+      bufferManager.dispose();
+    }
+  }
+
+  private void assertDirect(DirectPoolingByteBufferManager bufferManager, int capacity) {
+    ManagedByteBufferWrapper buffer = bufferManager.allocateManaged(capacity);
+    try {
+      assertThat(buffer.getDelegate().isDirect(), is(true));
+      assertThat(buffer.getDelegate().capacity(), is(capacity));
+    } finally {
+      buffer.release();
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.util.func.CheckedConsumer;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 1000;
+  private static final int MAX_IN_MEMORY_INSTANCES = 50;
+
+  private CursorIteratorProvider streamProvider;
+
+  public FileStoreCursorIteratorProviderTestCase() {
+    super(DATA_SIZE);
+  }
+
+  @Before
+  public void before() {
+    streamProvider = new FileStoreCursorIteratorProvider(toStreamingIterator(data),
+                                                         new FileStoreCursorIteratorConfig(MAX_IN_MEMORY_INSTANCES),
+                                                         muleContext.getObjectSerializer());
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+    streamProvider.releaseResources();
+  }
+
+  @Test
+  @Description("fully consume a stream which doesn't fit in memory")
+  public void readFully() throws Exception {
+    withCursor(cursor -> checkEquals(data, cursor));
+  }
+
+  @Test
+  @Description("Consume the stream and then go back to items which were overflown to disk")
+  public void rewindIntoOverflownItems() throws Exception {
+    withCursor(cursor -> {
+      checkEquals(data, cursor);
+
+      cursor.seek(0);
+      List<Object> read = read(cursor, DATA_SIZE / 2);
+      checkEquals(read, data.subList(0, DATA_SIZE / 2));
+
+      cursor.seek(DATA_SIZE / 3);
+      read = read(cursor, 10);
+      checkEquals(read, data.subList(DATA_SIZE / 3, DATA_SIZE / 3 + 10));
+    });
+  }
+
+  @Test
+  @Description("Two cursors read different ends of the stream, one of them from disk")
+  public void twoCursorsReadingOppositeEnds() throws Exception {
+    withCursor(cursor1 -> withCursor(cursor2 -> {
+      cursor2.seek(DATA_SIZE - 1);
+      assertThat(cursor2.next(), is(data.get(DATA_SIZE - 1)));
+
+      checkEquals(read(cursor1, DATA_SIZE), data);
+    }));
+  }
+
+  private void withCursor(CheckedConsumer<CursorIterator<Object>> consumer) throws Exception {
+    try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+      consumer.accept(cursor);
+    }
+  }
+}
@@ -17,12 +17,14 @@ import static org.mule.runtime.api.metadata.DataType.STRING;
 import static org.mule.runtime.api.metadata.DataType.TEXT_STRING;
 import static org.mule.runtime.api.metadata.DataType.builder;
 
+import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.tck.size.SmallTest;
 import org.mule.runtime.core.privileged.transformer.CompositeConverter;
 import org.mule.runtime.core.internal.transformer.builder.MockConverterBuilder;
 
 import java.util.List;
+import java.util.function.BiPredicate;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -202,4 +204,34 @@ public class TransformationGraphLookupStrategyTestCase extends AbstractTransform
 
     fail("Converter list does not contain a composite converter with: " + composedConverters);
   }
+
+  @Test
+  public void affectedByConverterInPath() {
+    Converter stringToInputStream = new MockConverterBuilder().from(STRING_DATA_TYPE).to(INPUT_STREAM_DATA_TYPE).build();
+    Converter inputStreamToXml = new MockConverterBuilder().from(INPUT_STREAM_DATA_TYPE).to(XML_DATA_TYPE).build();
+    Converter xmlToJson = new MockConverterBuilder().from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
+    graph.addConverter(stringToInputStream);
+    graph.addConverter(inputStreamToXml);
+    graph.addConverter(xmlToJson);
+
+    BiPredicate<DataType, DataType> affected = lookupStrategyTransformation.affectedBy(xmlToJson);
+
+    assertThat(affected.test(STRING_DATA_TYPE, JSON_DATA_TYPE), is(true));
+    assertThat(affected.test(INPUT_STREAM_DATA_TYPE, XML_DATA_TYPE), is(true));
+    assertThat(affected.test(STRING_DATA_TYPE, INPUT_STREAM_DATA_TYPE), is(false));
+  }
+
+  @Test
+  public void affectedByRemovedConverter() {
+    Converter inputStreamToXml = new MockConverterBuilder().from(INPUT_STREAM_DATA_TYPE).to(XML_DATA_TYPE).build();
+    Converter xmlToJson = new MockConverterBuilder().from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
+    graph.addConverter(inputStreamToXml);
+    graph.addConverter(xmlToJson);
+    graph.removeConverter(xmlToJson);
+
+    BiPredicate<DataType, DataType> affected = lookupStrategyTransformation.affectedBy(xmlToJson);
+
+    assertThat(affected.test(INPUT_STREAM_DATA_TYPE, JSON_DATA_TYPE), is(true));
+    assertThat(affected.test(STRING_DATA_TYPE, INPUT_STREAM_DATA_TYPE), is(false));
+  }
 }
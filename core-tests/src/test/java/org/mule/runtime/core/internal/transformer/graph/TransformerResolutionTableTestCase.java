@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer.graph;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.internal.transformer.graph.TransformerResolutionTable.MAX_TRANSFORMER_RESOLUTION_TABLE_SIZE;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Converter;
+import org.mule.runtime.core.internal.transformer.builder.MockConverterBuilder;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class TransformerResolutionTableTestCase extends AbstractTransformationGraphTestCase {
+
+  private final Converter xmlToJson = new MockConverterBuilder().from(XML_DATA_TYPE).to(JSON_DATA_TYPE).build();
+  private final List<Converter> registered = new ArrayList<>();
+  private int resolutions;
+
+  private final TransformerResolutionTable table = new TransformerResolutionTable(this::resolve);
+
+  @Test
+  public void resolvesPairOnce() {
+    registered.add(xmlToJson);
+
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), contains(xmlToJson));
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), contains(xmlToJson));
+    assertThat(resolutions, is(1));
+  }
+
+  @Test
+  public void resolvesPairWithoutConvertersOnce() {
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), is(empty()));
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), is(empty()));
+    assertThat(resolutions, is(1));
+  }
+
+  @Test
+  public void rebuildResolvesKnownPairsAgain() {
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), is(empty()));
+
+    registered.add(xmlToJson);
+    table.rebuild(xmlToJson, (source, result) -> true);
+    resolutions = 0;
+
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), contains(xmlToJson));
+    assertThat(resolutions, is(0));
+  }
+
+  @Test
+  public void rebuildPrecomputesPairsOfChangedConverter() {
+    Converter inputStreamToXml = new MockConverterBuilder().from(INPUT_STREAM_DATA_TYPE).to(XML_DATA_TYPE).build();
+    registered.add(inputStreamToXml);
+    table.rebuild(inputStreamToXml, (source, result) -> true);
+    resolutions = 0;
+
+    assertThat(table.get(INPUT_STREAM_DATA_TYPE, XML_DATA_TYPE), contains(inputStreamToXml));
+    assertThat(resolutions, is(0));
+  }
+
+  @Test
+  public void rebuildKeepsUnaffectedPairs() {
+    Converter inputStreamToString = new MockConverterBuilder().from(INPUT_STREAM_DATA_TYPE).to(STRING_DATA_TYPE).build();
+    registered.add(inputStreamToString);
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), is(empty()));
+    assertThat(table.get(INPUT_STREAM_DATA_TYPE, STRING_DATA_TYPE), contains(inputStreamToString));
+
+    registered.add(xmlToJson);
+    resolutions = 0;
+    table.rebuild(xmlToJson, (source, result) -> source.equals(XML_DATA_TYPE));
+    assertThat(resolutions, is(1));
+
+    assertThat(table.get(XML_DATA_TYPE, JSON_DATA_TYPE), contains(xmlToJson));
+    assertThat(table.get(INPUT_STREAM_DATA_TYPE, STRING_DATA_TYPE), contains(inputStreamToString));
+    assertThat(resolutions, is(1));
+  }
+
+  @Test
+  public void evictsOldestPairWhenFull() {
+    DataType first = mock(DataType.class);
+    table.get(first, JSON_DATA_TYPE);
+    for (int i = 0; i < MAX_TRANSFORMER_RESOLUTION_TABLE_SIZE; ++i) {
+      table.get(mock(DataType.class), JSON_DATA_TYPE);
+    }
+    DataType last = mock(DataType.class);
+    table.get(last, JSON_DATA_TYPE);
+    resolutions = 0;
+
+    table.get(last, JSON_DATA_TYPE);
+    assertThat(resolutions, is(0));
+    table.get(first, JSON_DATA_TYPE);
+    assertThat(resolutions, is(1));
+  }
+
+  private List<Converter> resolve(DataType source, DataType result) {
+    ++resolutions;
+    for (Converter converter : registered) {
+      if (converter.getSourceDataTypes().contains(source) && result.equals(converter.getReturnDataType())) {
+        return singletonList(converter);
+      }
+    }
+    return emptyList();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static org.apache.commons.lang3.reflect.FieldUtils.readField;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.hash;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void caseInsensitive() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("FOO", "1");
+
+    assertThat(map.get("foo"), is("1"));
+    assertThat(map.containsKey("fOo"), is(true));
+    assertThat(map.with("foo", "2").keySet(), contains("FOO"));
+    assertThat(map.without("foo").isEmpty(), is(true));
+  }
+
+  @Test
+  public void originalNotModified() {
+    PersistentCaseInsensitiveMap<String> original = PersistentCaseInsensitiveMap.<String>empty().with("a", "1").with("b", "2");
+
+    original.with("a", "3").without("b").with("c", "4");
+
+    assertThat(original.size(), is(2));
+    assertThat(original.get("a"), is("1"));
+    assertThat(original.get("b"), is("2"));
+    assertThat(original.get("c"), is(nullValue()));
+  }
+
+  @Test
+  public void unchangedReturnsSameInstance() {
+    String value = "1";
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("a", value);
+
+    assertThat(map.with("A", value), sameInstance(map));
+    assertThat(map.without("b"), sameInstance(map));
+    assertThat(PersistentCaseInsensitiveMap.copyOf(map), sameInstance(map));
+  }
+
+  @Test
+  public void sameAsReferenceMap() {
+    final Random random = new Random(42);
+    final Map<String, Integer> reference = new TreeMap<>(CASE_INSENSITIVE_ORDER);
+    PersistentCaseInsensitiveMap<Integer> map = PersistentCaseInsensitiveMap.empty();
+
+    for (int i = 0; i < 5000; ++i) {
+      String key = "key" + random.nextInt(1000);
+      if (random.nextBoolean()) {
+        key = key.toUpperCase();
+      }
+
+      if (random.nextInt(3) == 0) {
+        reference.remove(key);
+        map = map.without(key);
+      } else {
+        reference.put(key, i);
+        map = map.with(key, i);
+      }
+    }
+
+    assertThat(map.size(), is(reference.size()));
+    assertThat(map, equalTo(reference));
+    assertThat(reference, equalTo(map));
+  }
+
+  @Test
+  public void hashCollisions() {
+    final String key1 = "v30605";
+    final String key2 = "v3707070";
+    assertThat(hash(key1), is(hash(key2)));
+
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty()
+        .with(key1, "1").with(key2, "2").with("other", "3");
+
+    assertThat(map.size(), is(3));
+    assertThat(map.get(key1), is("1"));
+    assertThat(map.get(key2.toUpperCase()), is("2"));
+    assertThat(map.without(key1).get(key2), is("2"));
+    assertThat(map.without(key1).without(key2).size(), is(1));
+  }
+
+  @Test
+  public void mutableCopy() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("a", "1");
+
+    Map<String, String> copy = map.copy();
+    copy.put("b", "2");
+
+    assertThat(copy.get("A"), is("1"));
+    assertThat(map.containsKey("b"), is(false));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentCaseInsensitiveMap.<String>empty().put("a", "1");
+  }
+
+  @Test
+  public void noBackingMap() throws Exception {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("foo", "1").without("bar");
+
+    assertThat(readField(map, "delegate", true), is(nullValue()));
+  }
+
+  @Test
+  public void serialize() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("FOO", "1").with("doo", "2");
+
+    Map<String, String> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+    assertThat(deserialized, equalTo(map));
+    assertThat(deserialized.get("foo"), is("1"));
+  }
+}
@@ -9,13 +9,22 @@ package org.mule.runtime.core.internal.util.journal;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.core.internal.util.journal.queue.LocalQueueTxJournalEntry;
 import org.mule.runtime.core.internal.util.journal.queue.LocalTxQueueTransactionJournal;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Collection;
 
 import org.apache.commons.lang3.RandomStringUtils;
@@ -51,6 +60,61 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void failedBatchIsNotReportedDurableAfterLaterBatchSucceeds() throws Exception {
+    File journalFile = new File(temporaryFolder.getRoot(), "journal");
+    JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal =
+        new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, true) {
+
+          private boolean failed = false;
+
+          @Override
+          protected void writeAndForce(FileChannel channel, byte[] batchData) throws IOException {
+            if (!failed) {
+              failed = true;
+              channel.write(ByteBuffer.wrap(batchData, 0, batchData.length / 2));
+              throw new IOException("Expected");
+            }
+            super.writeAndForce(channel, batchData);
+          }
+        };
+
+    LocalQueueTxJournalEntry failedEntry = new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "failed");
+    LocalQueueTxJournalEntry otherFailedEntry = new LocalQueueTxJournalEntry(1, (byte) 6, "queue", "failedToo");
+    long failedBatch = journal.logOperation(failedEntry, serialize(serializer, failedEntry));
+    long otherFailedBatch = journal.logOperation(otherFailedEntry, serialize(serializer, otherFailedEntry));
+    assertDurableFails(journal, failedBatch);
+
+    LocalQueueTxJournalEntry durableEntry = new LocalQueueTxJournalEntry(2, (byte) 6, "queue", "durable");
+    journal.awaitDurable(journal.logOperation(durableEntry, serialize(serializer, durableEntry)));
+
+    assertDurableFails(journal, otherFailedBatch);
+    assertThat(journal.getLogEntries(1), is(empty()));
+    journal.close();
+
+    journal = openJournal();
+    assertThat(journal.getLogEntries(1), is(empty()));
+    Collection<LocalQueueTxJournalEntry> entries = journal.getLogEntries(2);
+    assertThat(entries.size(), equalTo(1));
+    assertThat(entries.iterator().next().getValue(), equalTo("durable"));
+  }
+
+  private void assertDurableFails(TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal, long batch) {
+    try {
+      journal.awaitDurable(batch);
+      fail("Batch " + batch + " was expected to fail");
+    } catch (MuleRuntimeException e) {
+      assertThat(e.getCause().getMessage(), is("Expected"));
+    }
+  }
+
+  private byte[] serialize(JournalEntrySerializer serializer, LocalQueueTxJournalEntry entry) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    serializer.serialize(entry, new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
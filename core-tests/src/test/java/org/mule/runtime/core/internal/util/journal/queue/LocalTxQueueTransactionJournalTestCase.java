@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static java.lang.Math.abs;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
@@ -24,7 +26,11 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -228,6 +234,60 @@ public class LocalTxQueueTransactionJournalTestCase extends AbstractMuleContextT
     }
   }
 
+  @Test
+  public void groupCommitEntryIsDurableOnceLogged() throws Exception {
+    LocalTxQueueTransactionJournal transactionJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext, null, true);
+    transactionJournal.logAdd(TX_ID, mockQueueInfo, testEvent());
+
+    // read the files without closing the journal, so nothing gets flushed on close
+    LocalTxQueueTransactionJournal readJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    Multimap<Integer, LocalQueueTxJournalEntry> allEntries = readJournal.getAllLogEntries();
+    assertThat(allEntries.size(), is(1));
+    assertThat(allEntries.get(TX_ID).iterator().next().isAdd(), is(true));
+    readJournal.close();
+    transactionJournal.close();
+  }
+
+  @Test
+  public void groupCommitConcurrentTransactions() throws Exception {
+    final LocalTxQueueTransactionJournal transactionJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext, null, true);
+    final int transactions = 8;
+    final int offersPerTransaction = 100;
+    ExecutorService executor = newFixedThreadPool(transactions);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < transactions; i++) {
+        final int txId = i;
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < offersPerTransaction; j++) {
+            transactionJournal.logAdd(txId, mockQueueInfo, "data" + j);
+          }
+          if (txId % 2 == 0) {
+            transactionJournal.logCommit(txId);
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    LocalTxQueueTransactionJournal readJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    Multimap<Integer, LocalQueueTxJournalEntry> allEntries = readJournal.getAllLogEntries();
+    assertThat(allEntries.keySet().size(), is(transactions / 2));
+    for (int i = 1; i < transactions; i += 2) {
+      assertThat(allEntries.get(i).size(), is(offersPerTransaction));
+    }
+    readJournal.close();
+    transactionJournal.close();
+  }
+
   private void assertLogFileIsWithinBoundaries(File file) {
     assertThat(file.length(), lessThan(MAXIMUM_FILE_SIZE_EXPECTED));
   }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedMappedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SMALL_SEGMENT_SIZE = 256;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private SegmentedMappedFileQueueStoreDelegate queueStore;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    when(mockMuleContext.getSchedulerBaseConfig()).thenReturn(config());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    queueStore = createQueueStore(0);
+  }
+
+  @After
+  public void after() throws Exception {
+    queueStore.dispose();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void closeStopsMaintenanceScheduler() {
+    assertThat(schedulerService.getSchedulers(), hasSize(1));
+    queueStore.close();
+    assertThat(schedulerService.getSchedulers(), is(empty()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedSegmentsAreNotAccessed() throws Exception {
+    queueStore.putNow("value");
+    queueStore.close();
+    queueStore.peek();
+  }
+
+  @Test
+  public void pollInOrderAcrossSegments() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      queueStore.putNow(i);
+    }
+    assertThat(queueStore.getSize(), is(100));
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(queueStore.poll(0), is((Serializable) i));
+    }
+    assertThat(queueStore.getSize(), is(0));
+    assertThat(queueStore.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void peekDoesNotRemove() throws Exception {
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+
+    assertThat(queueStore.peek(), is((Serializable) "first"));
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.poll(0), is((Serializable) "first"));
+  }
+
+  @Test
+  public void untakenItemIsPolledFirst() throws Exception {
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+
+    Serializable taken = queueStore.poll(0);
+    queueStore.untake(taken);
+
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.poll(0), is((Serializable) "first"));
+    assertThat(queueStore.poll(0), is((Serializable) "second"));
+  }
+
+  @Test
+  public void recoverAfterClose() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(i);
+    }
+    for (int i = 0; i < 20; i++) {
+      queueStore.poll(0);
+    }
+    queueStore.untake(19);
+    queueStore.close();
+
+    queueStore = createQueueStore(0);
+    assertThat(queueStore.getSize(), is(31));
+    for (int i = 19; i < 50; i++) {
+      assertThat(queueStore.poll(0), is((Serializable) i));
+    }
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    queueStore.addAll(asList("a", "b", "c"));
+    assertThat(queueStore.contains("b"), is(true));
+
+    queueStore.remove("b");
+    assertThat(queueStore.contains("b"), is(false));
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.poll(0), is((Serializable) "a"));
+    assertThat(queueStore.poll(0), is((Serializable) "c"));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(i);
+    }
+    queueStore.clear();
+    assertThat(queueStore.getSize(), is(0));
+
+    queueStore.putNow("after");
+    assertThat(queueStore.poll(0), is((Serializable) "after"));
+  }
+
+  @Test
+  public void offerTimesOutWhenFull() throws Exception {
+    queueStore.dispose();
+    queueStore = createQueueStore(2);
+
+    assertThat(queueStore.offer("a", 0, 0), is(true));
+    assertThat(queueStore.offer("b", 0, 0), is(true));
+    assertThat(queueStore.offer("c", 0, 10), is(false));
+
+    queueStore.poll(0);
+    assertThat(queueStore.offer("c", 0, 0), is(true));
+  }
+
+  @Test
+  public void concurrentProducersAndConsumers() throws Exception {
+    queueStore.dispose();
+    queueStore = createQueueStore(10);
+
+    final int threads = 4;
+    final int itemsPerThread = 500;
+    Set<Serializable> received = ConcurrentHashMap.newKeySet();
+    CountDownLatch done = new CountDownLatch(threads * 2);
+    ExecutorService executor = newFixedThreadPool(threads * 2);
+
+    try {
+      for (int t = 0; t < threads; t++) {
+        final int producer = t;
+        executor.submit(() -> {
+          try {
+            for (int i = 0; i < itemsPerThread; i++) {
+              queueStore.offer(producer * itemsPerThread + i, 0, -1);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        });
+        executor.submit(() -> {
+          try {
+            for (int i = 0; i < itemsPerThread; i++) {
+              received.add(queueStore.poll(SECONDS.toMillis(10)));
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            done.countDown();
+          }
+        });
+      }
+
+      assertThat(done.await(30, SECONDS), is(true));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(received.size(), is(threads * itemsPerThread));
+    assertThat(queueStore.getSize(), is(0));
+  }
+
+  private SegmentedMappedFileQueueStoreDelegate createQueueStore(int capacity) {
+    return new SegmentedMappedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                     mockMuleContext, capacity, SMALL_SEGMENT_SIZE, 10);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.rx;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class TimedExecutorServiceDecoratorTestCase extends AbstractMuleTestCase {
+
+  private static final long DELAY_MILLIS = 20;
+
+  private final ScheduledExecutorService executor = newSingleThreadScheduledExecutor();
+  private final List<long[]> samples = new CopyOnWriteArrayList<>();
+  private final TimedExecutorServiceDecorator decorator =
+      new TimedExecutorServiceDecorator(executor, (queueNanos, serviceNanos) -> samples.add(new long[] {queueNanos,
+          serviceNanos}));
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void serviceTimeMeasured() throws Exception {
+    decorator.submit(() -> MILLISECONDS.sleep(DELAY_MILLIS)).get(5, SECONDS);
+
+    assertThat(samples, hasSize(1));
+    assertThat(samples.get(0)[1], greaterThanOrEqualTo(MILLISECONDS.toNanos(DELAY_MILLIS)));
+  }
+
+  @Test
+  public void queueTimeMeasured() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    decorator.execute(() -> {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    Future<?> queued = decorator.submit(() -> {
+    });
+
+    MILLISECONDS.sleep(DELAY_MILLIS);
+    latch.countDown();
+    queued.get(5, SECONDS);
+
+    assertThat(samples, hasSize(2));
+    assertThat(samples.get(1)[0], greaterThanOrEqualTo(MILLISECONDS.toNanos(DELAY_MILLIS)));
+  }
+
+  @Test
+  public void failedTaskMeasured() throws Exception {
+    Future<Object> failed = decorator.submit(() -> {
+      throw new IllegalStateException("Expected");
+    });
+
+    try {
+      failed.get(5, SECONDS);
+    } catch (ExecutionException e) {
+      assertThat(samples, hasSize(1));
+      return;
+    }
+    throw new AssertionError("Was expecting the task to fail");
+  }
+
+  @Test
+  public void scheduledTaskNotMeasured() throws Exception {
+    decorator.schedule(() -> {
+    }, 1, MILLISECONDS).get(5, SECONDS);
+
+    assertThat(samples.isEmpty(), is(true));
+  }
+}
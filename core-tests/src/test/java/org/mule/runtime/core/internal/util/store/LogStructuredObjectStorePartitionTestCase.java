@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.LOG_FILE_NAME;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private LogStructuredObjectStorePartition<Serializable> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParent());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @Test
+  public void storeAndRetrieve() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    assertThat(partition.contains("key1"), is(true));
+    assertThat(partition.retrieve("key2"), is((Serializable) "value2"));
+    assertThat(partition.allKeys(), is(asList("key1", "key2")));
+    assertThat(objectStoreFolder.getRoot().list().length, is(2));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws Exception {
+    partition.store("key", "value");
+    partition.store("key", "other value");
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void retrieveRemovedKey() throws Exception {
+    partition.store("key", "value");
+    assertThat(partition.remove("key"), is((Serializable) "value"));
+    partition.retrieve("key");
+  }
+
+  @Test
+  public void reloadFromLog() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.remove("key1");
+    partition.store("key1", "newValue1");
+
+    partition = reopen();
+    assertThat(partition.allKeys(), is(asList("key2", "key1")));
+    assertThat(partition.retrieve("key1"), is((Serializable) "newValue1"));
+    assertThat(partition.getPartitionName(), is("test"));
+  }
+
+  @Test
+  public void discardTornRecordOnReload() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    File logFile = new File(objectStoreFolder.getRoot(), LOG_FILE_NAME);
+    try (RandomAccessFile log = new RandomAccessFile(logFile, "rw")) {
+      log.setLength(log.length() - 3);
+    }
+
+    partition = reopen();
+    assertThat(partition.allKeys(), is(asList("key1")));
+    partition.store("key3", "value3");
+    assertThat(reopen().retrieve("key3"), is((Serializable) "value3"));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      partition.store("key" + i, i);
+    }
+
+    partition.expire(UNBOUNDED, 3);
+    assertThat(partition.allKeys(), is(asList("key7", "key8", "key9")));
+    assertThat(reopen().allKeys(), is(asList("key7", "key8", "key9")));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("old", "value");
+    Thread.sleep(50);
+    partition.store("new", "value");
+
+    partition.expire(40, UNBOUNDED);
+    assertThat(partition.allKeys(), is(asList("new")));
+  }
+
+  @Test
+  public void compactRemovedEntries() throws Exception {
+    byte[] value = new byte[64 * 1024];
+    for (int i = 0; i < 200; i++) {
+      partition.store("key" + i, value);
+    }
+    long fullSize = partition.getLogSize();
+
+    partition.expire(UNBOUNDED, 10);
+    assertThat(partition.getLogSize(), lessThan(fullSize / 10));
+
+    partition = reopen();
+    assertThat(partition.allKeys().size(), is(10));
+    assertThat(((byte[]) partition.retrieve("key199")).length, is(value.length));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store("key", "value");
+    partition.clear();
+
+    assertThat(partition.contains("key"), is(false));
+    assertThat(reopen().allKeys().isEmpty(), is(true));
+  }
+
+  private LogStructuredObjectStorePartition<Serializable> reopen() throws Exception {
+    LogStructuredObjectStorePartition<Serializable> reopened =
+        new LogStructuredObjectStorePartition<>(muleContext, objectStoreFolder.getRoot());
+    reopened.open();
+    return reopened;
+  }
+}
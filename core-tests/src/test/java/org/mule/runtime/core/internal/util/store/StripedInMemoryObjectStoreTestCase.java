@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.internal.store.StripedInMemoryObjectStore;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class StripedInMemoryObjectStoreTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_PARTITION = "testPartition";
+  private static final String TEST_VALUE = "testValue";
+  private static final String TEST_KEY1 = "testKey1";
+  private static final String TEST_KEY2 = "testKey2";
+  private static final String TEST_KEY3 = "testKey3";
+
+  private StripedInMemoryObjectStore<String> store;
+
+  private long currentNanoTime = MILLISECONDS.toNanos(1);
+
+  @Before
+  public void setup() {
+    store = new StripedInMemoryObjectStore<String>() {
+
+      @Override
+      protected long getCurrentNanoTime() {
+        return currentNanoTime;
+      }
+    };
+  }
+
+  @Test
+  public void expireByTtl() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY2, TEST_PARTITION), is(false));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void configuredTtlAppliesWithoutExpiring() throws ObjectStoreException {
+    store.configurePartition(TEST_PARTITION, 1000, 0);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(1000);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+
+    currentNanoTime = MILLISECONDS.toNanos(1001);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.retrieveAll(TEST_PARTITION).isEmpty(), is(true));
+
+    // the expired key can be stored again
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+  }
+
+  @Test
+  public void expireLongTtl() throws ObjectStoreException {
+    store.configurePartition(TEST_PARTITION, DAYS.toMillis(10), 0);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime += DAYS.toNanos(5);
+    store.expire(DAYS.toMillis(10), 0, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(true));
+
+    currentNanoTime += DAYS.toNanos(5) + MILLISECONDS.toNanos(100);
+    store.expire(DAYS.toMillis(10), 0, TEST_PARTITION);
+    assertThat(store.allKeys(TEST_PARTITION), is(empty()));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedOnStore() throws ObjectStoreException {
+    store.configurePartition(TEST_PARTITION, 0, 2);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.retrieve(TEST_KEY1, TEST_PARTITION);
+
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), containsInAnyOrder(TEST_KEY1, TEST_KEY3));
+  }
+
+  @Test
+  public void expireByNumberOfEntries() throws ObjectStoreException {
+    for (int i = 0; i < 100; i++) {
+      store.store("key" + i, TEST_VALUE, TEST_PARTITION);
+    }
+
+    store.expire(0, 10, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION).size(), is(10));
+    for (int i = 90; i < 100; i++) {
+      assertThat(store.contains("key" + i, TEST_PARTITION), is(true));
+    }
+  }
+
+  @Test
+  public void removeAll() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    Map<String, String> removed = store.removeAll(asList(TEST_KEY1, TEST_KEY3, "missing"), TEST_PARTITION);
+
+    assertThat(removed.keySet(), containsInAnyOrder(TEST_KEY1, TEST_KEY3));
+    assertThat(store.allKeys(TEST_PARTITION), containsInAnyOrder(TEST_KEY2));
+  }
+
+  @Test
+  public void removesDataOnClose() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.close(TEST_PARTITION);
+
+    assertThat(store.allPartitions(), is(empty()));
+  }
+}
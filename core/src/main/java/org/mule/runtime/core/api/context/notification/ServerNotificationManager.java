@@ -52,6 +52,7 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.internal.context.notification.Configuration;
+import org.mule.runtime.core.internal.context.notification.NotificationBus;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
 
@@ -89,6 +90,10 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Asynchronous notifications are handed to a {@link NotificationBus}, which buffers them per listener and delivers them in
+ * batches, instead of submitting a task for each notification and listener.
  */
 @NoExtend
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
@@ -103,6 +108,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private NotificationBus notificationBus;
 
   @Override
   public boolean isNotificationDynamic() {
@@ -125,6 +131,10 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   public void initialise() throws InitialisationException {
     notificationsLiteScheduler = muleContext.getSchedulerService().cpuLightScheduler();
     notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
+    notificationBus = new NotificationBus(notificationsLiteScheduler, notificationsIoScheduler);
+    for (ListenerSubscriptionPair pair : configuration.getListeners()) {
+      notificationBus.add(pair.getListener());
+    }
   }
 
   public void addInterfaceToType(Class<? extends NotificationListener> iface,
@@ -139,15 +149,18 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
 
   public void addListenerSubscriptionPair(ListenerSubscriptionPair pair) {
     configuration.addListenerSubscriptionPair(pair);
+    if (notificationBus != null) {
+      notificationBus.add(pair.getListener());
+    }
   }
 
   public void addListener(NotificationListener<?> listener) {
-    configuration.addListenerSubscriptionPair(new ListenerSubscriptionPair(listener));
+    addListenerSubscriptionPair(new ListenerSubscriptionPair(listener));
   }
 
   public <N extends Notification> void addListenerSubscription(NotificationListener<N> listener,
                                                                Predicate<N> selector) {
-    configuration.addListenerSubscriptionPair(new ListenerSubscriptionPair(listener, selector));
+    addListenerSubscriptionPair(new ListenerSubscriptionPair(listener, selector));
   }
 
   /**
@@ -155,6 +168,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    if (notificationBus != null) {
+      notificationBus.remove(listener);
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -195,13 +211,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
       } else {
-        notifyListeners(notification, (listener, nfn) -> {
-          if (listener.isBlocking()) {
-            notificationsIoScheduler.submit(() -> listener.onNotification(nfn));
-          } else {
-            notificationsLiteScheduler.submit(() -> listener.onNotification(nfn));
-          }
-        });
+        notifyListeners(notification, (listener, nfn) -> notificationBus.publish(listener, nfn));
       }
     } finally {
       if (0 == activeFires.decrementAndGet() && disposed.get()) {
@@ -226,6 +236,25 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     return enabled;
   }
 
+  /**
+   * @param listener a registered listener.
+   * @return the amount of asynchronous notifications fired for the given listener that it has not processed yet.
+   * @since 4.3.0
+   */
+  public long getNotificationLag(NotificationListener<?> listener) {
+    return notificationBus == null ? 0 : notificationBus.getLag(listener);
+  }
+
+  /**
+   * @param listener a registered listener.
+   * @return the amount of asynchronous notifications for the given listener that were discarded because it was not keeping up
+   *         with them.
+   * @since 4.3.0
+   */
+  public long getDroppedNotificationCount(NotificationListener<?> listener) {
+    return notificationBus == null ? 0 : notificationBus.getDroppedCount(listener);
+  }
+
   /**
    * Do not make this object {@link org.mule.runtime.api.lifecycle.Disposable}. It needs to be alive after everything else has
    * died
@@ -242,6 +271,10 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
     }
 
+    if (notificationBus != null) {
+      notificationBus.dispose();
+      notificationBus = null;
+    }
     if (notificationsLiteScheduler != null) {
       notificationsLiteScheduler.stop();
       notificationsLiteScheduler = null;
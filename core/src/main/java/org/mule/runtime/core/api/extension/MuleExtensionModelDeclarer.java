@@ -144,6 +144,7 @@ class MuleExtensionModelDeclarer {
     declareTry(extensionDeclarer, typeLoader);
     declareScatterGather(extensionDeclarer, typeLoader);
     declareParallelForEach(extensionDeclarer, typeLoader);
+    declarePartitionedParallelForEach(extensionDeclarer, typeLoader);
     declareFirstSuccessful(extensionDeclarer);
     declareRoundRobin(extensionDeclarer);
     declareConfiguration(extensionDeclarer, typeLoader);
@@ -529,6 +530,45 @@ class MuleExtensionModelDeclarer {
         .describedAs("Specifies the minimum time interval between two process retries in milliseconds.\n" +
             " The actual time interval depends on the previous execution but should not exceed twice this number.\n" +
             " Default value is 60000 (one minute)");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("backoff")
+        .ofType(BaseTypeBuilder.create(JAVA).stringType()
+            .enumOf("FIXED", "EXPONENTIAL").build())
+        .defaultingTo("FIXED")
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("How the delay between retries grows. FIXED waits millisBetweenRetries every time, and EXPONENTIAL waits "
+            + "a random time up to millisBetweenRetries doubled for each previous retry.");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("maxMillisBetweenRetries")
+        .ofType(typeLoader.load(Long.class))
+        .defaultingTo(Long.MAX_VALUE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The upper bound of the delay between retries when it grows with each retry.");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("circuitBreakerThreshold")
+        .ofType(typeLoader.load(Integer.class))
+        .defaultingTo(0)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The number of consecutive failed attempts, of any message, after which messages fail without being "
+            + "attempted until the circuit breaker resets. 0 means that there is no circuit breaker.");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("circuitBreakerResetMillis")
+        .ofType(typeLoader.load(Long.class))
+        .defaultingTo(60000L)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The time in milliseconds after which an open circuit breaker lets a single attempt through to check "
+            + "whether it can close again.");
+
+    untilSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("retryBudgetPercent")
+        .ofType(typeLoader.load(Integer.class))
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum number of retries, as a percentage of the messages that go through the scope. "
+            + "Retries are unlimited if not set.");
   }
 
   private void declareChoice(ExtensionDeclarer extensionDeclarer, ClassTypeLoader typeLoader) {
@@ -587,6 +627,22 @@ class MuleExtensionModelDeclarer {
     ConstructDeclarer firstSuccessful = extensionDeclarer.withConstruct("firstSuccessful")
         .describedAs("Sends a message to a list of message processors until one processes it successfully.");
 
+    firstSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("hedged")
+        .ofType(typeLoader.load(boolean.class))
+        .defaultingTo(false)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Whether the next route is also attempted when the previous ones take longer than the hedge percentile "
+            + "of the latency of the successful ones. Only suitable for idempotent routes.");
+
+    firstSuccessful.onDefaultParameterGroup()
+        .withOptionalParameter("hedgePercentile")
+        .ofType(typeLoader.load(double.class))
+        .defaultingTo(95d)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The percentile of the latency of the successful routes after which the next route is attempted when "
+            + "hedged.");
+
     firstSuccessful.withRoute("route").withChain();
   }
 
@@ -666,6 +722,15 @@ class MuleExtensionModelDeclarer {
         .defaultingTo(Integer.MAX_VALUE)
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("This value determines the maximum level of parallelism that will be used by this router.");
+    parallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("resultsMode")
+        .ofType(BaseTypeBuilder.create(JAVA).stringType()
+            .enumOf("COLLECT", "DISCARD", "STREAM").build())
+        .defaultingTo("COLLECT")
+        .withExpressionSupport(NOT_SUPPORTED)
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build())
+        .describedAs("Defines what is done with the results of each route: collected into a list, discarded, or streamed out "
+            + "so that large collections can be processed with bounded memory.");
     parallelForeach.onDefaultParameterGroup()
         .withOptionalParameter(TARGET_PARAMETER_NAME)
         .ofType(typeLoader.load(String.class))
@@ -685,6 +750,67 @@ class MuleExtensionModelDeclarer {
         .withModelProperty(new TargetModelProperty());
   }
 
+  private void declarePartitionedParallelForEach(ExtensionDeclarer extensionDeclarer, ClassTypeLoader typeLoader) {
+    ConstructDeclarer partitionedParallelForeach = extensionDeclarer.withConstruct("partitionedParallelForeach")
+        .describedAs("Splits the same message, distributes the parts into lanes by the hash of a key and processes the lanes in "
+            + "parallel, keeping the order of the parts within each lane.")
+        .withErrorModel(compositeRoutingError).withModelProperty(new SinceMuleVersionModelProperty("4.3.0"));
+
+    partitionedParallelForeach.withChain();
+
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("collection")
+        .ofType(typeLoader.load(new TypeToken<Iterable<Object>>() {
+
+        }.getType()))
+        .withRole(BEHAVIOUR)
+        .withExpressionSupport(REQUIRED)
+        .defaultingTo("#[payload]")
+        .describedAs("Expression that defines the collection of parts to be processed.");
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("partitionKey")
+        .ofType(typeLoader.load(Object.class))
+        .withRole(BEHAVIOUR)
+        .withExpressionSupport(REQUIRED)
+        .defaultingTo("#[payload]")
+        .describedAs("Expression evaluated against each part to obtain the key that determines its lane. Parts with the same key "
+            + "are processed in order.");
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("partitions")
+        .ofType(typeLoader.load(Integer.class))
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The number of lanes the parts are distributed into. By default the number of available processors.");
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("timeout")
+        .ofType(typeLoader.load(Long.class))
+        .defaultingTo(Long.MAX_VALUE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("Sets a timeout in milliseconds for each lane. Values lower or equals than zero means no timeout.");
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter("maxConcurrency")
+        .ofType(typeLoader.load(Integer.class))
+        .defaultingTo(Integer.MAX_VALUE)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("This value determines the maximum number of lanes that will be processed in parallel.");
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter(TARGET_PARAMETER_NAME)
+        .ofType(typeLoader.load(String.class))
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs(TARGET_PARAMETER_DESCRIPTION)
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build());
+
+    partitionedParallelForeach.onDefaultParameterGroup()
+        .withOptionalParameter(TARGET_VALUE_PARAMETER_NAME)
+        .ofType(typeLoader.load(String.class))
+        .defaultingTo(PAYLOAD)
+        .withExpressionSupport(REQUIRED)
+        .describedAs(TARGET_VALUE_PARAMETER_DESCRIPTION)
+        .withRole(BEHAVIOUR)
+        .withDisplayModel(DisplayModel.builder().displayName(TARGET_VALUE_PARAMETER_DISPLAY_NAME).build())
+        .withLayout(LayoutModel.builder().tabName(ADVANCED_TAB).build())
+        .withModelProperty(new TargetModelProperty());
+  }
+
   private void declareTry(ExtensionDeclarer extensionDeclarer, ClassTypeLoader typeLoader) {
     ConstructDeclarer tryScope = extensionDeclarer.withConstruct("try")
         .describedAs("Processes the nested list of message processors, "
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.streaming;
+
+import org.mule.api.annotation.NoImplement;
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.streaming.Cursor;
+import org.mule.runtime.api.streaming.CursorProvider;
+
+/**
+ * {@link StreamingStatistics} about the streaming assets attributed to one particular component.
+ * <p>
+ * Streams are attributed to the {@link ComponentLocation} from which the event that created them originated.
+ *
+ * @since 4.3.0
+ */
+@NoImplement
+public interface ComponentStreamingStatistics extends StreamingStatistics {
+
+  /**
+   * Upper bounds, in milliseconds, of each bucket of the {@link #getCursorLifetimeHistogram() cursor lifetime histogram}.
+   * Lifetimes greater than the last bound are counted on an additional last bucket.
+   */
+  long[] CURSOR_LIFETIME_BUCKETS_MILLIS = {10, 100, 1000, 10000, 60000};
+
+  /**
+   * @return the location the statistics are attributed to
+   */
+  ComponentLocation getLocation();
+
+  /**
+   * @return How many bytes are currently held in the buffers of the open {@link CursorProvider providers}
+   */
+  long getBufferedBytes();
+
+  /**
+   * @return The max amount of bytes that a single {@link CursorProvider} has been seen to buffer
+   */
+  long getPeakBufferedBytes();
+
+  /**
+   * @return How many {@link CursorProvider providers} were never closed and had to be released once garbage collected
+   */
+  int getGhostBustedProvidersCount();
+
+  /**
+   * @return How many {@link Cursor cursors} were open for a duration that falls in each of the buckets defined by
+   *         {@link #CURSOR_LIFETIME_BUCKETS_MILLIS}
+   */
+  long[] getCursorLifetimeHistogram();
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.api.streaming;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_ENABLE_STREAMING_STATISTICS;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -38,10 +39,12 @@ import org.mule.runtime.core.api.streaming.object.ObjectStreamingManager;
 import org.mule.runtime.core.internal.event.DefaultEventContext;
 import org.mule.runtime.core.internal.streaming.AtomicStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.CursorManager;
+import org.mule.runtime.core.internal.streaming.DefaultStreamingStatisticsMXBean;
 import org.mule.runtime.core.internal.streaming.ManagedCursorProvider;
 import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.NullStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.StreamingGhostBuster;
+import org.mule.runtime.core.internal.streaming.StreamingStatisticsMXBean;
 import org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager;
 import org.mule.runtime.core.internal.streaming.bytes.factory.PoolingByteBufferManagerFactory;
 import org.mule.runtime.core.internal.streaming.object.DefaultObjectStreamingManager;
@@ -53,6 +56,8 @@ import java.io.Closeable;
 import java.io.InputStream;
 
 import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import org.slf4j.Logger;
 
@@ -69,6 +74,7 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
   private ObjectStreamingManager objectStreamingManager;
   private CursorManager cursorManager;
   private MutableStreamingStatistics statistics;
+  private ObjectName statisticsObjectName;
   private boolean initialised = false;
 
   @Inject
@@ -95,10 +101,40 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
 
       initialiseIfNeeded(byteStreamingManager, true, muleContext);
       initialiseIfNeeded(objectStreamingManager, true, muleContext);
+      registerStatisticsMBean();
       initialised = true;
     }
   }
 
+  private void registerStatisticsMBean() {
+    if (!(statistics instanceof AtomicStreamingStatistics)) {
+      return;
+    }
+
+    try {
+      ObjectName objectName = new ObjectName("org.mule.runtime:type=StreamingStatistics,artifact="
+          + ObjectName.quote(String.valueOf(muleContext.getId())));
+      getPlatformMBeanServer().registerMBean(new DefaultStreamingStatisticsMXBean(statistics), objectName);
+      statisticsObjectName = objectName;
+    } catch (JMException e) {
+      LOGGER.warn("Could not register " + StreamingStatisticsMXBean.class.getSimpleName() + ". Execution will continue", e);
+    }
+  }
+
+  private void unregisterStatisticsMBean() {
+    if (statisticsObjectName == null) {
+      return;
+    }
+
+    try {
+      getPlatformMBeanServer().unregisterMBean(statisticsObjectName);
+    } catch (JMException e) {
+      LOGGER.debug("Could not unregister " + StreamingStatisticsMXBean.class.getSimpleName(), e);
+    } finally {
+      statisticsObjectName = null;
+    }
+  }
+
   private ByteBufferManager createByteBufferManager() throws InitialisationException {
     CompositeClassLoader classLoader =
         new CompositeClassLoader(getClass().getClassLoader(), muleContext.getExecutionClassLoader());
@@ -138,6 +174,7 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
     disposeIfNeeded(objectStreamingManager, LOGGER);
     disposeIfNeeded(bufferManager, LOGGER);
     disposeIfNeeded(cursorManager, LOGGER);
+    unregisterStatisticsMBean();
 
     initialised = false;
   }
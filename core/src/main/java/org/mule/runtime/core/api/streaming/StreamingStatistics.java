@@ -6,10 +6,14 @@
  */
 package org.mule.runtime.core.api.streaming;
 
+import static java.util.Collections.emptyList;
+
 import org.mule.api.annotation.NoImplement;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 
+import java.util.Collection;
+
 /**
  * Statistics about current streaming assets
  *
@@ -27,4 +31,12 @@ public interface StreamingStatistics {
    * @return How many {@link CursorStream} instances are currently open
    */
   int getOpenCursorsCount();
+
+  /**
+   * @return the statistics of each component which created streaming assets. Empty if no per component statistics are kept
+   * @since 4.3.0
+   */
+  default Collection<ComponentStreamingStatistics> getComponentStatistics() {
+    return emptyList();
+  }
 }
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.api.streaming.bytes;
 
 import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.core.internal.streaming.MeasurableCursorProvider;
 import org.mule.runtime.core.internal.streaming.bytes.BufferedCursorStream;
 import org.mule.runtime.core.internal.streaming.bytes.InMemoryStreamBuffer;
 
@@ -18,7 +19,7 @@ import java.io.InputStream;
  *
  * @since 4.0
  */
-public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProvider {
+public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProvider implements MeasurableCursorProvider {
 
   private final InMemoryStreamBuffer buffer;
 
@@ -54,4 +55,12 @@ public final class InMemoryCursorStreamProvider extends AbstractCursorStreamProv
       buffer.close();
     }
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferedBytes() {
+    return buffer.getBufferedBytes();
+  }
 }
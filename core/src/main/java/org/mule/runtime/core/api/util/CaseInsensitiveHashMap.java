@@ -100,7 +100,16 @@ public class CaseInsensitiveHashMap<K, V> implements Map<K, V>, Serializable {
     delegate.putAll(map);
   }
 
-  private CaseInsensitiveHashMap(CaseInsensitiveMapWrapper delegate) {
+  /**
+   * Constructs a new instance backed by the given {@code delegate}.
+   * <p/>
+   * Subclasses that keep their entries by themselves may pass {@code null} so no backing map is allocated, in which case they
+   * must override every method that accesses the {@link #delegate}.
+   *
+   * @param delegate the backing map, or {@code null}
+   * @since 4.3.0
+   */
+  protected CaseInsensitiveHashMap(CaseInsensitiveMapWrapper delegate) {
     this.delegate = delegate;
   }
 
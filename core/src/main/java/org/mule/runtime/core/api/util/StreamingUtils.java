@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.api.util;
 
+import static java.nio.ByteBuffer.wrap;
 import static org.mule.runtime.core.api.rx.Exceptions.rxExceptionToMuleException;
 import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
 import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import static org.mule.runtime.core.privileged.util.EventUtils.getRoot;
 
 import org.mule.runtime.api.component.Component;
@@ -32,8 +34,12 @@ import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.CursorStreamProviderFactory;
 import org.mule.runtime.core.api.util.func.CheckedFunction;
 import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.runtime.core.internal.streaming.bytes.TransferableCursorStream;
 import org.mule.runtime.core.internal.streaming.object.ListCursorIteratorProvider;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Function;
@@ -189,6 +195,53 @@ public final class StreamingUtils {
     return new ByteArrayCursorStreamProvider(bytes);
   }
 
+  /**
+   * Writes the contents of the given {@code cursor}, from its current position until the end of the stream, into the
+   * given {@code channel}.
+   * <p>
+   * When the cursor supports it, the data is handed to the channel straight from the cursor's buffer, without copying it
+   * into an intermediate {@code byte[]}.
+   *
+   * @param cursor  the cursor to read from
+   * @param channel the target channel
+   * @return the amount of transferred bytes
+   * @throws IOException if the data could not be read or written
+   * @since 4.3.0
+   */
+  public static long transferTo(CursorStream cursor, WritableByteChannel channel) throws IOException {
+    if (cursor instanceof TransferableCursorStream) {
+      return ((TransferableCursorStream) cursor).transferTo(channel);
+    }
+
+    long transferred = 0;
+    byte[] buffer = new byte[DEFAULT_BUFFER_BUCKET_SIZE];
+    int read;
+    while ((read = cursor.read(buffer)) != -1) {
+      ByteBuffer byteBuffer = wrap(buffer, 0, read);
+      while (byteBuffer.hasRemaining()) {
+        transferred += channel.write(byteBuffer);
+      }
+    }
+
+    return transferred;
+  }
+
+  /**
+   * Opens a new cursor on the given {@code provider} and writes its entire contents into the given {@code channel}.
+   *
+   * @param provider the provider to read from
+   * @param channel  the target channel
+   * @return the amount of transferred bytes
+   * @throws IOException if the data could not be read or written
+   * @see #transferTo(CursorStream, WritableByteChannel)
+   * @since 4.3.0
+   */
+  public static long transferTo(CursorStreamProvider provider, WritableByteChannel channel) throws IOException {
+    try (CursorStream cursor = provider.openCursor()) {
+      return transferTo(cursor, channel);
+    }
+  }
+
   /**
    * If the {@code event} has a repeatable payload (instance of {@link CursorProvider}), then this method returns a new
    * event which payload has an equivalent, already consumed structure. This functionality makes sense for cases like
@@ -66,6 +66,14 @@ public class CompositeConnectionManager implements ConnectionManager, Connection
     childConnectionManager.bind(config, connectionProvider);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <C> void bind(Object config, String configName, ConnectionProvider<C> connectionProvider) {
+    childConnectionManager.bind(config, configName, connectionProvider);
+  }
+
   /**
    * {@inheritDoc}
    */
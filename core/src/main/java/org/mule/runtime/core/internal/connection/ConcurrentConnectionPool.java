@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Math.min;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.concurrent.locks.LockSupport.unpark;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * An {@link org.apache.commons.pool.ObjectPool} of connections which doesn't lock when borrowing or returning them.
+ * <p>
+ * Idle connections are kept in a lock-free deque and the amount of open connections is bounded through a CAS on a counter. When
+ * the pool is exhausted, borrowers wait in a FIFO queue and returned connections are handed to the oldest one instead of being
+ * put back in the deque, so a new borrower cannot take a connection a waiting one was expecting.
+ * <p>
+ * The {@link PoolingProfile#getInitialisationPolicy() initialisation policy} determines how many idle connections are kept open
+ * ahead of time. These are created asynchronously when the pool is built and after each maintenance run. Eviction of idle
+ * connections and their validation are performed by the maintenance runs, on the given {@link Scheduler} instead of a thread
+ * owned by the pool.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.3.0
+ */
+final class ConcurrentConnectionPool<C> extends BaseObjectPool<C> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentConnectionPool.class);
+
+  /**
+   * Handed to a waiting borrower to signal that it may open a new connection, whose slot has already been reserved for it.
+   */
+  private static final Object CREATE = new Object();
+  private static final Object CANCELLED = new Object();
+
+  private final PoolableObjectFactory<C> factory;
+  private final int maxActive;
+  private final int maxIdle;
+  private final int minIdle;
+  private final long maxWaitNanos;
+  private final int exhaustedAction;
+  private final long minEvictionMillis;
+  private final ConnectionPoolStatistics statistics;
+
+  private final ConcurrentLinkedDeque<IdleConnection<C>> idle = new ConcurrentLinkedDeque<>();
+  private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger waitingCount = new AtomicInteger();
+  private final AtomicInteger openCount = new AtomicInteger();
+
+  private final ScheduledFuture<?> maintenance;
+
+  /**
+   * Creates a new instance and starts opening its idle connections.
+   *
+   * @param factory the factory used to open, close and validate the connections
+   * @param poolingProfile the {@link PoolingProfile} which configures this pool
+   * @param scheduler the {@link Scheduler} on which the pre-warm and maintenance tasks are run
+   */
+  ConcurrentConnectionPool(PoolableObjectFactory<C> factory, PoolingProfile poolingProfile, Scheduler scheduler) {
+    this.factory = factory;
+    maxActive = poolingProfile.getMaxActive();
+    maxIdle = poolingProfile.getMaxIdle();
+    maxWaitNanos = MILLISECONDS.toNanos(poolingProfile.getMaxWait());
+    exhaustedAction = poolingProfile.getExhaustedAction();
+    minEvictionMillis = poolingProfile.getMinEvictionMillis();
+    minIdle = resolveMinIdle(poolingProfile);
+    statistics = new ConnectionPoolStatistics(this::getNumActive, this::getNumIdle, this::getNumWaiters);
+
+    final long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    maintenance = evictionInterval > 0
+        ? scheduler.scheduleWithFixedDelay(this::maintain, evictionInterval, evictionInterval, MILLISECONDS)
+        : null;
+
+    if (minIdle > 0) {
+      scheduler.execute(this::prewarm);
+    }
+  }
+
+  private int resolveMinIdle(PoolingProfile poolingProfile) {
+    final int policy = poolingProfile.getInitialisationPolicy();
+    if (policy == INITIALISE_ONE) {
+      return maxActive == 0 ? 0 : 1;
+    } else if (policy == INITIALISE_ALL) {
+      final int all = min(maxIdle < 0 ? MAX_VALUE : maxIdle, maxActive < 0 ? MAX_VALUE : maxActive);
+      return all == MAX_VALUE ? 0 : all;
+    } else {
+      return 0;
+    }
+  }
+
+  @Override
+  public C borrowObject() throws Exception {
+    assertOpen();
+    final long start = nanoTime();
+
+    C connection = waiters.isEmpty() ? tryAcquire() : null;
+    if (connection == null) {
+      connection = await(start);
+    }
+
+    statistics.onBorrow(nanoTime() - start, getNumActive());
+    return connection;
+  }
+
+  private C await(long start) throws Exception {
+    if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+      C connection = tryAcquire();
+      if (connection == null) {
+        throw new NoSuchElementException("Pool exhausted");
+      }
+      return connection;
+    }
+
+    final Waiter waiter = new Waiter();
+    waiters.offer(waiter);
+    statistics.onWait(waitingCount.incrementAndGet());
+    try {
+      while (true) {
+        Object handed = waiter.get();
+        if (handed != null) {
+          return take(handed);
+        }
+
+        if (isClosed()) {
+          if (waiter.cancel()) {
+            throw new IllegalStateException("Pool not open");
+          }
+          continue;
+        }
+
+        if (waiters.peek() == waiter) {
+          C connection = pollIdle();
+          if (connection != null) {
+            if (waiter.cancel()) {
+              return connection;
+            }
+            returnObject(connection);
+            continue;
+          }
+
+          if (reserve()) {
+            if (waiter.cancel()) {
+              return create();
+            }
+            releaseSlot();
+            continue;
+          }
+        }
+
+        if (maxWaitNanos > 0) {
+          final long remaining = start + maxWaitNanos - nanoTime();
+          if (remaining <= 0) {
+            if (waiter.cancel()) {
+              statistics.onTimeout();
+              throw new NoSuchElementException("Timeout waiting for idle connection");
+            }
+            continue;
+          }
+          parkNanos(this, remaining);
+        } else {
+          park(this);
+        }
+
+        if (Thread.interrupted()) {
+          if (waiter.cancel()) {
+            throw new InterruptedException();
+          }
+          // something was already handed to this waiter, so it is taken and the interruption is left for the caller
+          currentThread().interrupt();
+        }
+      }
+    } finally {
+      waiters.remove(waiter);
+      waitingCount.decrementAndGet();
+      wakeUpHead();
+    }
+  }
+
+  /**
+   * Only the waiter at the head of the queue takes idle connections or free slots by itself, so when one leaves the next one is
+   * woken up to check the pool.
+   */
+  private void wakeUpHead() {
+    final Waiter head = waiters.peek();
+    if (head != null) {
+      head.wakeUp();
+    }
+  }
+
+  private C take(Object handed) throws Exception {
+    return handed == CREATE ? create() : (C) handed;
+  }
+
+  private C tryAcquire() throws Exception {
+    C connection = pollIdle();
+    if (connection != null) {
+      return connection;
+    }
+
+    return reserve() ? create() : null;
+  }
+
+  private C pollIdle() {
+    IdleConnection<C> entry = idle.pollFirst();
+    if (entry == null) {
+      return null;
+    }
+
+    idleCount.decrementAndGet();
+    return entry.connection;
+  }
+
+  /**
+   * Reserves a slot for a new connection, as long as that doesn't exceed the pool's {@code maxActive}.
+   *
+   * @return whether the slot could be reserved
+   */
+  private boolean reserve() {
+    if (maxActive < 0 || exhaustedAction == WHEN_EXHAUSTED_GROW) {
+      openCount.incrementAndGet();
+      return true;
+    }
+
+    int current;
+    do {
+      current = openCount.get();
+      if (current >= maxActive) {
+        return false;
+      }
+    } while (!openCount.compareAndSet(current, current + 1));
+
+    return true;
+  }
+
+  /**
+   * Opens a new connection on a previously {@link #reserve() reserved} slot, which is released if the connection can't be
+   * opened.
+   */
+  private C create() throws Exception {
+    try {
+      C connection = factory.makeObject();
+      statistics.onCreate();
+      return connection;
+    } catch (Exception e) {
+      releaseSlot();
+      throw e;
+    }
+  }
+
+  /**
+   * Releases the slot of a connection that was closed or couldn't be opened, handing it to a waiting borrower if there is one.
+   */
+  private void releaseSlot() {
+    openCount.decrementAndGet();
+    if (!isClosed() && !waiters.isEmpty() && reserve() && !handOff(CREATE)) {
+      openCount.decrementAndGet();
+    }
+  }
+
+  private boolean handOff(Object item) {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.offer(item)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public void returnObject(C connection) {
+    if (!isClosed() && handOff(connection)) {
+      return;
+    }
+
+    returnIdle(new IdleConnection<>(connection, currentTimeMillis()));
+  }
+
+  private void returnIdle(IdleConnection<C> entry) {
+    if (isClosed() || (maxIdle >= 0 && idleCount.get() >= maxIdle)) {
+      destroyQuietly(entry.connection);
+      return;
+    }
+
+    idleCount.incrementAndGet();
+    idle.offerFirst(entry);
+
+    if (isClosed() && idle.removeFirstOccurrence(entry)) {
+      idleCount.decrementAndGet();
+      destroyQuietly(entry.connection);
+      return;
+    }
+
+    // A borrower may have started waiting after the hand off was attempted but checked the idle connections before this one was
+    // added, in which case it would wait for a connection that sits idle. Checking the waiters after adding it closes that gap.
+    if (!waiters.isEmpty() && idle.removeFirstOccurrence(entry)) {
+      idleCount.decrementAndGet();
+      returnObject(entry.connection);
+    }
+  }
+
+  @Override
+  public void invalidateObject(C connection) throws Exception {
+    try {
+      factory.destroyObject(connection);
+    } finally {
+      statistics.onDestroy();
+      releaseSlot();
+    }
+  }
+
+  private void destroyQuietly(C connection) {
+    try {
+      invalidateObject(connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to close connection of type " + connection.getClass().getName(), e);
+    }
+  }
+
+  @Override
+  public void addObject() throws Exception {
+    assertOpen();
+    if (!reserve()) {
+      throw new IllegalStateException("Pool is full");
+    }
+
+    returnObject(create());
+  }
+
+  private void prewarm() {
+    while (!isClosed() && idleCount.get() < minIdle && waiters.isEmpty() && reserve()) {
+      C connection;
+      try {
+        connection = create();
+      } catch (Exception e) {
+        LOGGER.warn("Could not open idle connection for the pool", e);
+        return;
+      }
+      returnObject(connection);
+    }
+  }
+
+  /**
+   * Closes the connections that have been idle for longer than {@code minEvictionMillis}, as long as {@code minIdle} are kept,
+   * and validates the remaining ones. Connections being validated are taken out of the pool while it happens, so borrowers are
+   * never blocked by it.
+   */
+  void maintain() {
+    try {
+      final long now = currentTimeMillis();
+      Iterator<IdleConnection<C>> oldestFirst = idle.descendingIterator();
+      // validated connections go back to the head of the deque, bound the iteration so they are not visited again
+      int toCheck = idleCount.get();
+      while (!isClosed() && toCheck-- > 0 && oldestFirst.hasNext()) {
+        IdleConnection<C> entry = oldestFirst.next();
+        if (!idle.removeLastOccurrence(entry)) {
+          continue;
+        }
+        int remainingIdle = idleCount.decrementAndGet();
+
+        if (minEvictionMillis > 0 && now - entry.idleSince >= minEvictionMillis && remainingIdle >= minIdle) {
+          destroyQuietly(entry.connection);
+        } else if (factory.validateObject(entry.connection)) {
+          returnIdle(entry);
+        } else {
+          statistics.onValidationFailure();
+          destroyQuietly(entry.connection);
+        }
+      }
+
+      prewarm();
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found performing maintenance of the connection pool", e);
+    }
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idleCount.get();
+  }
+
+  @Override
+  public int getNumActive() {
+    return openCount.get() - idleCount.get();
+  }
+
+  /**
+   * @return the amount of borrowers currently waiting for a connection
+   */
+  int getNumWaiters() {
+    return waitingCount.get();
+  }
+
+  /**
+   * @return the {@link ConnectionPoolStatistics} of this pool
+   */
+  ConnectionPoolStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Closes the idle connections and fails the waiting borrowers. Connections borrowed at this time are closed once returned.
+   */
+  @Override
+  public void close() throws Exception {
+    super.close();
+    if (maintenance != null) {
+      maintenance.cancel(false);
+    }
+
+    for (Waiter waiter : waiters) {
+      waiter.wakeUp();
+    }
+
+    C connection;
+    while ((connection = pollIdle()) != null) {
+      destroyQuietly(connection);
+    }
+  }
+
+  private static final class IdleConnection<C> {
+
+    private final C connection;
+    private final long idleSince;
+
+    private IdleConnection(C connection, long idleSince) {
+      this.connection = connection;
+      this.idleSince = idleSince;
+    }
+  }
+
+  /**
+   * A borrower waiting for a connection. Whatever is handed to it, either a connection or {@link #CREATE}, is set exactly once,
+   * unless it gave up waiting first.
+   */
+  private static final class Waiter extends AtomicReference<Object> {
+
+    private final Thread thread = currentThread();
+
+    private boolean offer(Object item) {
+      if (compareAndSet(null, item)) {
+        unpark(thread);
+        return true;
+      }
+      return false;
+    }
+
+    private boolean cancel() {
+      return compareAndSet(null, CANCELLED);
+    }
+
+    private void wakeUp() {
+      unpark(thread);
+    }
+  }
+}
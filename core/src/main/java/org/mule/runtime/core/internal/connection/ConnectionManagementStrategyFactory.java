@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.CACHED;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.NONE;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.POOLING;
@@ -16,6 +17,7 @@ import org.mule.runtime.api.connection.CachedConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.meta.model.connection.ConnectionManagementType;
 
@@ -26,8 +28,15 @@ import org.mule.runtime.api.meta.model.connection.ConnectionManagementType;
  */
 final class ConnectionManagementStrategyFactory {
 
+  /**
+   * Whether pooled connections are managed by a {@link ConcurrentConnectionPool} instead of a commons-pool one.
+   */
+  private static final boolean CONCURRENT_POOLING =
+      getBoolean(ConnectionManagementStrategyFactory.class.getName() + ".CONCURRENT_POOLING");
+
   private final PoolingProfile defaultPoolingProfile;
   private final MuleContext muleContext;
+  private Scheduler poolsScheduler;
 
   /**
    * Creates a new instance
@@ -48,9 +57,23 @@ final class ConnectionManagementStrategyFactory {
    * @return a {@link ConnectionManagementStrategy}
    */
   public <C> ConnectionManagementStrategy<C> getStrategy(ConnectionProvider<C> connectionProvider) {
+    return getStrategy(connectionProvider, null);
+  }
+
+  /**
+   * Returns the management strategy that should be used for the given {@code connectionProvider}, owned by the config with the
+   * given name
+   *
+   * @param connectionProvider a {@link ConnectionProvider}
+   * @param configName the name of the config which owns the connections, or {@code null} if it has none
+   * @param <C> the generic type of the connections to be managed
+   * @return a {@link ConnectionManagementStrategy}
+   * @since 4.3.0
+   */
+  public <C> ConnectionManagementStrategy<C> getStrategy(ConnectionProvider<C> connectionProvider, String configName) {
     ConnectionManagementType managementType = getManagementType(connectionProvider);
     if (managementType == POOLING) {
-      return pooling(connectionProvider);
+      return pooling(connectionProvider, configName);
     }
     if (managementType == CACHED) {
       return cached(connectionProvider);
@@ -69,7 +92,7 @@ final class ConnectionManagementStrategyFactory {
     return new NullConnectionManagementStrategy<>(connectionProvider, muleContext);
   }
 
-  private <C> ConnectionManagementStrategy<C> pooling(ConnectionProvider<C> connectionProvider) {
+  private <C> ConnectionManagementStrategy<C> pooling(ConnectionProvider<C> connectionProvider, String configName) {
     PoolingProfile poolingProfile = defaultPoolingProfile;
     if (connectionProvider instanceof ConnectionProviderWrapper) {
       poolingProfile = ((ConnectionProviderWrapper) connectionProvider).getPoolingProfile().orElse(poolingProfile);
@@ -79,7 +102,32 @@ final class ConnectionManagementStrategyFactory {
         : new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile,
                                                     (PoolingListener<C>) unwrapProviderWrapper(connectionProvider,
                                                                                                PoolingConnectionProvider.class),
-                                                    muleContext);
+                                                    muleContext, CONCURRENT_POOLING ? getPoolsScheduler() : null,
+                                                    configName);
+  }
+
+  /**
+   * All the {@link ConcurrentConnectionPool}s created by this factory share a single scheduler for their maintenance, instead
+   * of having a thread for each one.
+   */
+  private synchronized Scheduler getPoolsScheduler() {
+    if (poolsScheduler == null) {
+      poolsScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName("connection-pools-maintenance"));
+    }
+    return poolsScheduler;
+  }
+
+  /**
+   * Stops the scheduler on which the maintenance of the pools created by this factory runs.
+   *
+   * @since 4.3.0
+   */
+  synchronized void dispose() {
+    if (poolsScheduler != null) {
+      poolsScheduler.stop();
+      poolsScheduler = null;
+    }
   }
 
   private <C> ConnectionManagementType getManagementType(ConnectionProvider<C> connectionProvider) {
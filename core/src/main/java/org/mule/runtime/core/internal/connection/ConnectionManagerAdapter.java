@@ -21,6 +21,20 @@ import org.mule.runtime.core.internal.retry.ReconnectionConfig;
  */
 public interface ConnectionManagerAdapter extends ConnectionManager, Lifecycle {
 
+  /**
+   * Same as {@link #bind(Object, ConnectionProvider)}, also providing the name of the {@code config}, used to identify the
+   * statistics of its connections.
+   *
+   * @param config the config that acts as the binding key
+   * @param configName the name of the {@code config}
+   * @param connectionProvider the {@link ConnectionProvider} that produces the connections
+   * @param <C> the generic type of the connections to be produced
+   * @since 4.3.0
+   */
+  default <C> void bind(Object config, String configName, ConnectionProvider<C> connectionProvider) {
+    bind(config, connectionProvider);
+  }
+
   /**
    * Returns the {@link RetryPolicyTemplate} that should be applied to the given {@code connectionProvider}
    *
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import org.mule.runtime.core.internal.processor.latency.LatencyHistogram;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Statistics of a pool of connections, kept for each config bound to a {@link DefaultConnectionManager} when its connections are
+ * pooled by a {@link ConcurrentConnectionPool}.
+ * <p>
+ * The time each borrow takes is kept in a {@link LatencyHistogram}, as are the amount of connections in use right after each
+ * borrow and the amount of borrowers waiting whenever one starts to wait, so how these are distributed is known and not just
+ * their peaks. The current amount of connections in use, idle and of borrowers waiting for one are read from the pool when
+ * requested. Everything is available as counters through {@link #getCounters()}, to be published in the
+ * {@link ProcessingLatencyStatistics} of the artifact.
+ *
+ * @since 4.3.0
+ */
+public final class ConnectionPoolStatistics {
+
+  private final LatencyHistogram borrowTime = new LatencyHistogram();
+  private final LatencyHistogram activeConnectionsOnBorrow = new LatencyHistogram();
+  private final LatencyHistogram waitingBorrowersOnWait = new LatencyHistogram();
+
+  private final IntSupplier activeConnections;
+  private final IntSupplier idleConnections;
+  private final IntSupplier waitingBorrowers;
+  private final AtomicInteger peakActiveConnections = new AtomicInteger();
+  private final AtomicInteger peakWaitingBorrowers = new AtomicInteger();
+
+  private final AtomicLong createdConnections = new AtomicLong();
+  private final AtomicLong destroyedConnections = new AtomicLong();
+  private final AtomicLong validationFailures = new AtomicLong();
+  private final AtomicLong borrowTimeouts = new AtomicLong();
+
+  /**
+   * Creates a new instance
+   *
+   * @param activeConnections supplies the amount of connections of the pool currently in use
+   * @param idleConnections supplies the amount of connections currently idle in the pool
+   * @param waitingBorrowers supplies the amount of borrowers currently waiting for a connection
+   */
+  ConnectionPoolStatistics(IntSupplier activeConnections, IntSupplier idleConnections, IntSupplier waitingBorrowers) {
+    this.activeConnections = activeConnections;
+    this.idleConnections = idleConnections;
+    this.waitingBorrowers = waitingBorrowers;
+  }
+
+  void onBorrow(long borrowNanos, int active) {
+    borrowTime.record(borrowNanos);
+    activeConnectionsOnBorrow.record(active);
+    updatePeak(peakActiveConnections, active);
+  }
+
+  void onWait(int waiting) {
+    waitingBorrowersOnWait.record(waiting);
+    updatePeak(peakWaitingBorrowers, waiting);
+  }
+
+  private void updatePeak(AtomicInteger peak, int value) {
+    int current;
+    do {
+      current = peak.get();
+    } while (value > current && !peak.compareAndSet(current, value));
+  }
+
+  void onCreate() {
+    createdConnections.incrementAndGet();
+  }
+
+  void onDestroy() {
+    destroyedConnections.incrementAndGet();
+  }
+
+  void onValidationFailure() {
+    validationFailures.incrementAndGet();
+  }
+
+  void onTimeout() {
+    borrowTimeouts.incrementAndGet();
+  }
+
+  /**
+   * @return the time borrowing each connection took, including the wait for one to be available, in nanoseconds.
+   */
+  public LatencyHistogram getBorrowTime() {
+    return borrowTime;
+  }
+
+  /**
+   * @return the amount of connections that were in use right after each borrow.
+   */
+  public LatencyHistogram getActiveConnectionsOnBorrow() {
+    return activeConnectionsOnBorrow;
+  }
+
+  /**
+   * @return the amount of borrowers that were waiting for a connection each time one started to wait, itself included.
+   */
+  public LatencyHistogram getWaitingBorrowersOnWait() {
+    return waitingBorrowersOnWait;
+  }
+
+  /**
+   * @return the amount of connections currently in use.
+   */
+  public int getActiveConnections() {
+    return activeConnections.getAsInt();
+  }
+
+  /**
+   * @return the highest amount of connections that were in use right after a borrow.
+   */
+  public int getPeakActiveConnections() {
+    return peakActiveConnections.get();
+  }
+
+  /**
+   * @return the amount of connections currently idle in the pool.
+   */
+  public int getIdleConnections() {
+    return idleConnections.getAsInt();
+  }
+
+  /**
+   * @return the amount of borrowers currently waiting for a connection.
+   */
+  public int getWaitingBorrowers() {
+    return waitingBorrowers.getAsInt();
+  }
+
+  /**
+   * @return the highest amount of borrowers that were waiting for a connection at the same time.
+   */
+  public int getPeakWaitingBorrowers() {
+    return peakWaitingBorrowers.get();
+  }
+
+  /**
+   * @return the amount of connections opened by the pool.
+   */
+  public long getCreatedConnections() {
+    return createdConnections.get();
+  }
+
+  /**
+   * @return the amount of connections closed by the pool.
+   */
+  public long getDestroyedConnections() {
+    return destroyedConnections.get();
+  }
+
+  /**
+   * @return the amount of idle connections that were closed because they were no longer valid.
+   */
+  public long getValidationFailures() {
+    return validationFailures.get();
+  }
+
+  /**
+   * @return the amount of borrows that failed because no connection became available in time.
+   */
+  public long getBorrowTimeouts() {
+    return borrowTimeouts.get();
+  }
+
+  /**
+   * @return the suppliers of the current value of each of these statistics, by name. Times are in nanoseconds.
+   */
+  public Map<String, LongSupplier> getCounters() {
+    Map<String, LongSupplier> counters = new LinkedHashMap<>();
+    counters.put("activeConnections", this::getActiveConnections);
+    counters.put("peakActiveConnections", this::getPeakActiveConnections);
+    counters.put("idleConnections", this::getIdleConnections);
+    counters.put("waitingBorrowers", this::getWaitingBorrowers);
+    counters.put("peakWaitingBorrowers", this::getPeakWaitingBorrowers);
+    counters.put("createdConnections", this::getCreatedConnections);
+    counters.put("destroyedConnections", this::getDestroyedConnections);
+    counters.put("validationFailures", this::getValidationFailures);
+    counters.put("borrowTimeouts", this::getBorrowTimeouts);
+    counters.put("borrows", borrowTime::getCount);
+    counters.put("borrowTimeMeanNanos", borrowTime::getMean);
+    counters.put("borrowTimeP99Nanos", () -> borrowTime.getValueAtPercentile(99));
+    counters.put("borrowTimeMaxNanos", borrowTime::getMax);
+    counters.put("activeConnectionsMean", activeConnectionsOnBorrow::getMean);
+    counters.put("activeConnectionsP99", () -> activeConnectionsOnBorrow.getValueAtPercentile(99));
+    counters.put("waits", waitingBorrowersOnWait::getCount);
+    counters.put("waitingBorrowersMean", waitingBorrowersOnWait::getMean);
+    counters.put("waitingBorrowersP99", () -> waitingBorrowersOnWait.getValueAtPercentile(99));
+    return counters;
+  }
+}
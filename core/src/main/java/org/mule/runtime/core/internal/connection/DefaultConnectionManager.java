@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.Optional.empty;
 import static org.mule.runtime.api.connection.ConnectionValidationResult.failure;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.assertNotStopping;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -29,6 +30,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -77,10 +79,20 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
    */
   @Override
   public <C> void bind(Object owner, ConnectionProvider<C> connectionProvider) {
+    bind(owner, null, connectionProvider);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalStateException if invoked while the {@link #muleContext} is stopped or stopping
+   */
+  @Override
+  public <C> void bind(Object owner, String ownerName, ConnectionProvider<C> connectionProvider) {
     assertNotStopping(muleContext, "Mule is shutting down... cannot bind new connections");
 
     connectionProvider = new DefaultConnectionProviderWrapper<>(connectionProvider, muleContext);
-    ConnectionManagementStrategy<C> managementStrategy = managementStrategyFactory.getStrategy(connectionProvider);
+    ConnectionManagementStrategy<C> managementStrategy = managementStrategyFactory.getStrategy(connectionProvider, ownerName);
 
     ConnectionManagementStrategy<C> previous;
 
@@ -241,6 +253,28 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
     return handlingStrategy.getConnectionHandler();
   }
 
+  /**
+   * Returns the statistics of the pool of connections of the given {@code config}, which are only kept when the connections are
+   * pooled by a {@link ConcurrentConnectionPool}.
+   *
+   * @param config the config which the pool is bound to
+   * @return the {@link ConnectionPoolStatistics} of the config's pool, if any
+   * @since 4.3.0
+   */
+  public Optional<ConnectionPoolStatistics> getPoolStatistics(Object config) {
+    ConnectionManagementStrategy handlingStrategy;
+    readLock.lock();
+    try {
+      handlingStrategy = connections.get(new Reference<>(config));
+    } finally {
+      readLock.unlock();
+    }
+
+    return handlingStrategy instanceof PoolingConnectionManagementStrategy
+        ? ((PoolingConnectionManagementStrategy<?>) handlingStrategy).getStatistics()
+        : empty();
+  }
+
   /**
    * Breaks all bindings and closes all connections
    *
@@ -269,6 +303,7 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
   @Override
   public void dispose() {
     disposeIfNeeded(retryPolicyTemplate, LOGGER);
+    managementStrategyFactory.dispose();
   }
 
   @Override
@@ -67,6 +67,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
     connectionManagerAdapterStrategy.bind(config, connectionProvider);
   }
 
+  @Override
+  public <C> void bind(Object config, String configName, ConnectionProvider<C> connectionProvider) {
+    connectionManagerAdapterStrategy.bind(config, configName, connectionProvider);
+  }
+
   @Override
   public boolean hasBinding(Object config) {
     return connectionManagerAdapterStrategy.hasBinding(config);
@@ -145,6 +150,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
       delegate.bind(config, connectionProvider);
     }
 
+    @Override
+    public <C> void bind(Object config, String configName, ConnectionProvider<C> connectionProvider) {
+      delegate.bind(config, configName, connectionProvider);
+    }
+
     @Override
     public boolean hasBinding(Object config) {
       return delegate.hasBinding(config);
@@ -211,6 +221,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
       delegate.bind(owner, connectionProvider);
     }
 
+    @Override
+    public <C> void bind(Object owner, String ownerName, ConnectionProvider<C> connectionProvider) {
+      delegate.bind(owner, ownerName, connectionProvider);
+    }
+
     @Override
     public <C> RetryPolicyTemplate getRetryTemplateFor(ConnectionProvider<C> connectionProvider) {
       return delegate.getRetryTemplateFor(connectionProvider);
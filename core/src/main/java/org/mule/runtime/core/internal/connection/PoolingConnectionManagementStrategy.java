@@ -6,17 +6,26 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
 
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
@@ -24,6 +33,9 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p>
+ * The {@link #pool} is a commons-pool {@link GenericObjectPool} unless a maintenance {@link Scheduler} is given, in which case a
+ * {@link ConcurrentConnectionPool} is used.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
@@ -33,6 +45,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   private final PoolingProfile poolingProfile;
   private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
+  private ProcessingLatencyStatistics artifactStatistics;
+  private String countersSource;
+  private Map<String, LongSupplier> counters;
 
   /**
    * Creates a new instance
@@ -44,10 +59,49 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
    */
   PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
                                       PoolingListener<C> poolingListener, MuleContext muleContext) {
+    this(connectionProvider, poolingProfile, poolingListener, muleContext, null, null);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to manage the connections
+   * @param poolingProfile the {@link PoolingProfile} which configures the {@link #pool}
+   * @param poolingListener a {@link PoolingListener}
+   * @param muleContext the application's {@link MuleContext}
+   * @param maintenanceScheduler the {@link Scheduler} on which a {@link ConcurrentConnectionPool} runs its maintenance, or
+   *        {@code null} to use a {@link GenericObjectPool}
+   * @param configName the name of the config which owns the connections, or {@code null} if the statistics of the
+   *        {@link #pool} are not to be published
+   * @since 4.3.0
+   */
+  PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                                      PoolingListener<C> poolingListener, MuleContext muleContext,
+                                      Scheduler maintenanceScheduler, String configName) {
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
-    pool = createPool();
+    pool = maintenanceScheduler != null
+        ? new ConcurrentConnectionPool<>(new ObjectFactoryAdapter(), poolingProfile, maintenanceScheduler)
+        : createPool();
+    if (configName != null) {
+      getStatistics().ifPresent(statistics -> publishStatistics(configName, statistics));
+    }
+  }
+
+  /**
+   * Makes the statistics of the {@link #pool} available through the {@link ProcessingLatencyStatistics} of the artifact, if
+   * these are enabled, identified by the name of the config which owns the connections.
+   */
+  private void publishStatistics(String configName, ConnectionPoolStatistics statistics) {
+    artifactStatistics = getProcessingLatencyStatistics(muleContext);
+    if (artifactStatistics == null) {
+      return;
+    }
+
+    countersSource = "connectionPool:" + configName;
+    counters = statistics.getCounters();
+    artifactStatistics.registerCounters(countersSource, counters);
   }
 
   /**
@@ -89,6 +143,11 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   // TODO: MULE-9082 - pool.close() doesn't destroy unreturned connections
   @Override
   public void close() throws MuleException {
+    if (artifactStatistics != null) {
+      artifactStatistics.unregisterCounters(countersSource, counters);
+      artifactStatistics = null;
+    }
+
     try {
       pool.close();
     } catch (Exception e) {
@@ -113,6 +172,14 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return poolingProfile;
   }
 
+  /**
+   * @return the {@link ConnectionPoolStatistics} of the {@link #pool}, if it keeps them
+   * @since 4.3.0
+   */
+  Optional<ConnectionPoolStatistics> getStatistics() {
+    return pool instanceof ConcurrentConnectionPool ? of(((ConcurrentConnectionPool<C>) pool).getStatistics()) : empty();
+  }
+
   private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
 
     @Override
@@ -126,8 +193,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
 
     @Override
-    public boolean validateObject(C obj) {
-      return false;
+    public boolean validateObject(C connection) {
+      ConnectionValidationResult result = connectionProvider.validate(connection);
+      return result != null && result.isValid();
     }
 
     @Override
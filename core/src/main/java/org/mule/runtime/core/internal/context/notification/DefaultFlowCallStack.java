@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.context.notification;
 
 import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
 import static java.lang.System.lineSeparator;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_FLOW_STACK_MAX_DEPTH;
 
@@ -15,33 +16,75 @@ import org.mule.runtime.core.api.context.notification.FlowStackElement;
 import org.mule.runtime.core.internal.event.EventContextDeepNestingException;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectInputStream.GetField;
+import java.io.ObjectOutputStream;
+import java.io.ObjectOutputStream.PutField;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.EmptyStackException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Function;
 
 /**
  * Keeps context information about the executing flows and its callers in order to provide augmented troubleshooting information
  * for an application developer.
+ * <p>
+ * The elements are kept in an immutable linked stack, so that pushing an element is a single allocation, popping it allocates
+ * nothing, and a {@link #clone()} for a child event context shares the elements of its parent instead of copying them.
  */
 public class DefaultFlowCallStack implements FlowCallStack {
 
   private static final long serialVersionUID = -8683711977929802819L;
 
+  // innerStack is the field in which stacks serialized until 4.2.x have their elements, top-most first.
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("innerStack", Deque.class),
+      new ObjectStreamField("top", Frame.class),
+      new ObjectStreamField("processorsTraceSkipped", boolean.class)
+  };
+
   // BaseEventContext.class.getName() is here for backwards compatibility, since it was the equivalent property until 4.2.x
   private static final int MAX_DEPTH =
       getInteger(MULE_FLOW_STACK_MAX_DEPTH, getInteger(BaseEventContext.class.getName() + ".maxDepth", 50));
 
-  private final Deque<FlowStackElement> innerStack;
+  /**
+   * The processors trace, that is the path of the processor being executed in each flow, is only kept for one out of this amount
+   * of events. The flows in the stack are kept for every event regardless.
+   *
+   * @since 4.3.0
+   */
+  public static final int PROCESSORS_TRACE_SAMPLING_RATE =
+      max(1, getInteger(DefaultFlowCallStack.class.getName() + ".PROCESSORS_TRACE_SAMPLING_RATE", 1));
+
+  private static final AtomicLong STACKS_CREATED = new AtomicLong();
+
+  private static final AtomicReferenceFieldUpdater<DefaultFlowCallStack, Frame> TOP_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(DefaultFlowCallStack.class, Frame.class, "top");
+
+  private volatile Frame top;
+  // Negated so that stacks deserialized from a previous version, which lack this field, keep the processors trace.
+  private boolean processorsTraceSkipped;
 
   public DefaultFlowCallStack() {
-    this.innerStack = new ArrayDeque<>(4);
+    this(PROCESSORS_TRACE_SAMPLING_RATE);
+  }
+
+  DefaultFlowCallStack(int processorsTraceSamplingRate) {
+    this.processorsTraceSkipped =
+        processorsTraceSamplingRate > 1 && STACKS_CREATED.getAndIncrement() % processorsTraceSamplingRate != 0;
   }
 
-  private DefaultFlowCallStack(final Deque<FlowStackElement> innerStack) {
-    this.innerStack = ((ArrayDeque) innerStack).clone();
+  private DefaultFlowCallStack(Frame top, boolean processorsTraceSkipped) {
+    this.top = top;
+    this.processorsTraceSkipped = processorsTraceSkipped;
   }
 
   /**
@@ -50,33 +93,43 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @param flowStackElement the element to add
    */
   public void push(FlowStackElement flowStackElement) {
-    if (innerStack.size() >= MAX_DEPTH) {
-      StringBuilder messageBuilder = new StringBuilder();
+    Frame current;
+    do {
+      current = top;
+      if (current != null && current.depth >= MAX_DEPTH) {
+        StringBuilder messageBuilder = new StringBuilder();
 
-      messageBuilder.append("Too many nested child contexts.")
-          .append(lineSeparator())
-          .append(toString());
+        messageBuilder.append("Too many nested child contexts.")
+            .append(lineSeparator())
+            .append(toString());
 
-      throw new EventContextDeepNestingException(messageBuilder.toString());
-    }
-
-    synchronized (innerStack) {
-      innerStack.push(flowStackElement);
-    }
+        throw new EventContextDeepNestingException(messageBuilder.toString());
+      }
+    } while (!TOP_UPDATER.compareAndSet(this, current, new Frame(flowStackElement, current)));
   }
 
   /**
    * Adds a message processor path to the list of processors that were invoked as part of the processing of this stack's event.
+   * <p>
+   * This does nothing if this stack was not sampled for the processors trace, see {@link #PROCESSORS_TRACE_SAMPLING_RATE}.
    *
    * @param processorPath the path to mark as invoked.
    * @throws EmptyStackException if this stack is empty.
    */
   public void setCurrentProcessorPath(String processorPath) {
-    if (!innerStack.isEmpty()) {
-      synchronized (innerStack) {
-        innerStack.push(new FlowStackElement(innerStack.pop().getFlowName(), processorPath));
-      }
+    if (processorsTraceSkipped) {
+      return;
     }
+
+    Frame current;
+    do {
+      current = top;
+      if (current == null) {
+        return;
+      }
+    } while (!TOP_UPDATER.compareAndSet(this, current,
+                                        new Frame(new FlowStackElement(current.element.getFlowName(), processorPath),
+                                                  current.next)));
   }
 
   /**
@@ -86,9 +139,14 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @throws EmptyStackException if this stack is empty.
    */
   public FlowStackElement pop() {
-    synchronized (innerStack) {
-      return innerStack.pop();
-    }
+    Frame current;
+    do {
+      current = top;
+      if (current == null) {
+        throw new NoSuchElementException();
+      }
+    } while (!TOP_UPDATER.compareAndSet(this, current, current.next));
+    return current.element;
   }
 
   /**
@@ -98,23 +156,23 @@ public class DefaultFlowCallStack implements FlowCallStack {
    * @throws EmptyStackException if this stack is empty.
    */
   public FlowStackElement peek() {
-    synchronized (innerStack) {
-      return innerStack.peek();
-    }
+    final Frame current = top;
+    return current == null ? null : current.element;
   }
 
   @Override
   public List<FlowStackElement> getElements() {
-    synchronized (innerStack) {
-      return new ArrayList<>(innerStack);
+    final Frame current = top;
+    List<FlowStackElement> elements = new ArrayList<>(current == null ? 0 : current.depth);
+    for (Frame frame = current; frame != null; frame = frame.next) {
+      elements.add(frame.element);
     }
+    return elements;
   }
 
   @Override
   public DefaultFlowCallStack clone() {
-    synchronized (innerStack) {
-      return new DefaultFlowCallStack(innerStack);
-    }
+    return new DefaultFlowCallStack(top, processorsTraceSkipped);
   }
 
   @Override
@@ -129,15 +187,51 @@ public class DefaultFlowCallStack implements FlowCallStack {
   private String doToString(Function<FlowStackElement, String> toString) {
     StringBuilder stackString = new StringBuilder(256);
 
-    int i = 0;
-    synchronized (innerStack) {
-      for (FlowStackElement flowStackElement : innerStack) {
-        stackString.append("at ").append(toString.apply(flowStackElement));
-        if (++i != innerStack.size()) {
-          stackString.append(lineSeparator());
-        }
+    for (Frame frame = top; frame != null; frame = frame.next) {
+      stackString.append("at ").append(toString.apply(frame.element));
+      if (frame.next != null) {
+        stackString.append(lineSeparator());
       }
     }
     return stackString.toString();
   }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    PutField fields = out.putFields();
+    fields.put("top", top);
+    fields.put("processorsTraceSkipped", processorsTraceSkipped);
+    out.writeFields();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    GetField fields = in.readFields();
+    Frame readTop = (Frame) fields.get("top", null);
+    Deque<FlowStackElement> innerStack = (Deque<FlowStackElement>) fields.get("innerStack", null);
+    if (innerStack != null) {
+      for (Iterator<FlowStackElement> iterator = innerStack.descendingIterator(); iterator.hasNext();) {
+        readTop = new Frame(iterator.next(), readTop);
+      }
+    }
+    this.top = readTop;
+    this.processorsTraceSkipped = fields.get("processorsTraceSkipped", false);
+  }
+
+  /**
+   * An immutable node of the stack, shared by all the stacks cloned while it was in them.
+   */
+  private static final class Frame implements Serializable {
+
+    private static final long serialVersionUID = 3262960787843786463L;
+
+    private final FlowStackElement element;
+    private final Frame next;
+    private final int depth;
+
+    private Frame(FlowStackElement element, Frame next) {
+      this.element = element;
+      this.next = next;
+      this.depth = next == null ? 1 : next.depth + 1;
+    }
+  }
 }
@@ -92,6 +92,9 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
 
   /**
    * Callback method for when a message processor is about to be invoked.
+   * <p>
+   * The processor is only recorded for the events sampled according to
+   * {@link DefaultFlowCallStack#PROCESSORS_TRACE_SAMPLING_RATE}.
    *
    * @see DefaultFlowCallStack#setCurrentProcessorPath(String)
    *
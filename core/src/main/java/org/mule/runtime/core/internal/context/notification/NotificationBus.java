@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Boolean.TRUE;
+import static java.lang.Integer.getInteger;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Long.getLong;
+import static java.lang.Math.max;
+import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications to their listeners in batches.
+ * <p>
+ * Each listener {@link #add(NotificationListener) added} to the bus has a preallocated ring buffer where notifications are
+ * published without allocating, and a cursor over it of the notifications already delivered. Notifications for listeners that
+ * were not added, or were already {@link #remove(NotificationListener) removed}, are discarded. A delivery task is submitted to
+ * the scheduler of the listener only when there is no other one pending for it, and each task delivers up to
+ * {@link #DEFAULT_NOTIFICATION_BATCH_SIZE} notifications, in the order they were published. When the buffer of a listener is
+ * full, the configured {@link OverflowPolicy} is applied.
+ *
+ * @since 4.3.0
+ */
+public final class NotificationBus {
+
+  private static final Logger LOGGER = getLogger(NotificationBus.class);
+
+  /**
+   * The amount of notifications that may be pending delivery for each listener. It is rounded up to a power of two.
+   */
+  public static final int DEFAULT_NOTIFICATION_BUFFER_SIZE =
+      getInteger(NotificationBus.class.getName() + ".DEFAULT_NOTIFICATION_BUFFER_SIZE", 1024);
+
+  /**
+   * The maximum amount of notifications delivered to a listener by a single task.
+   */
+  public static final int DEFAULT_NOTIFICATION_BATCH_SIZE =
+      getInteger(NotificationBus.class.getName() + ".DEFAULT_NOTIFICATION_BATCH_SIZE", 64);
+
+  /**
+   * The {@link OverflowPolicy} applied when the buffer of a listener is full.
+   */
+  public static final OverflowPolicy DEFAULT_NOTIFICATION_OVERFLOW_POLICY =
+      OverflowPolicy.valueOf(getProperty(NotificationBus.class.getName() + ".DEFAULT_NOTIFICATION_OVERFLOW_POLICY", "DROP"));
+
+  /**
+   * The maximum time, in milliseconds, that firing a notification waits for room in the buffer of its listener when the
+   * {@link OverflowPolicy#BLOCK} policy is applied. The notification is dropped afterwards.
+   */
+  public static final long DEFAULT_NOTIFICATION_BLOCK_TIMEOUT =
+      getLong(NotificationBus.class.getName() + ".DEFAULT_NOTIFICATION_BLOCK_TIMEOUT", 1000);
+
+  /**
+   * The minimum time, in milliseconds, between the warnings logged for the notifications dropped for a listener.
+   */
+  public static final long DROPPED_NOTIFICATIONS_WARNING_INTERVAL =
+      getLong(NotificationBus.class.getName() + ".DROPPED_NOTIFICATIONS_WARNING_INTERVAL", 60000);
+
+  private static final long DROPPED_NOTIFICATIONS_WARNING_INTERVAL_NANOS =
+      MILLISECONDS.toNanos(DROPPED_NOTIFICATIONS_WARNING_INTERVAL);
+  private static final long BLOCK_PARK_NANOS = 100000;
+
+  /**
+   * What to do with a notification when the buffer of its listener is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The notification is discarded, and accounted for in {@link NotificationBus#getDroppedCount(NotificationListener)}.
+     */
+    DROP,
+
+    /**
+     * The thread firing the notification waits until there is room for it in the buffer, up to a timeout, and drops it
+     * afterwards.
+     * <p>
+     * Non-blocking listeners are delivered on the same pool notifications are fired from, so instead of waiting for a delivery
+     * task that may have no thread left to run on, the firing thread delivers a batch itself. Threads that deliver to blocking
+     * listeners never wait, and neither does a listener firing notifications to itself while being delivered to, since they
+     * would be waiting for themselves.
+     */
+    BLOCK
+  }
+
+  private final Scheduler liteScheduler;
+  private final Scheduler ioScheduler;
+  private final int bufferSize;
+  private final int batchSize;
+  private final OverflowPolicy overflowPolicy;
+  private final long blockTimeoutNanos;
+  // Marks the threads of the pool of the ioScheduler, which must not wait for a delivery that needs a thread of the same pool.
+  private final ThreadLocal<Boolean> ioDeliveryThread = new ThreadLocal<>();
+  private final Map<NotificationListener, ListenerChannel> channels = new ConcurrentHashMap<>();
+  private volatile boolean disposed;
+
+  /**
+   * Creates a bus with the default buffer size, batch size and overflow policy.
+   *
+   * @param liteScheduler the scheduler where notifications for non-blocking listeners are delivered.
+   * @param ioScheduler the scheduler where notifications for {@link NotificationListener#isBlocking() blocking} listeners are
+   *        delivered.
+   */
+  public NotificationBus(Scheduler liteScheduler, Scheduler ioScheduler) {
+    this(liteScheduler, ioScheduler, DEFAULT_NOTIFICATION_BUFFER_SIZE, DEFAULT_NOTIFICATION_BATCH_SIZE,
+         DEFAULT_NOTIFICATION_OVERFLOW_POLICY, DEFAULT_NOTIFICATION_BLOCK_TIMEOUT);
+  }
+
+  /**
+   * @param liteScheduler the scheduler where notifications for non-blocking listeners are delivered.
+   * @param ioScheduler the scheduler where notifications for {@link NotificationListener#isBlocking() blocking} listeners are
+   *        delivered.
+   * @param bufferSize the amount of notifications that may be pending delivery for each listener.
+   * @param batchSize the maximum amount of notifications delivered to a listener by a single task.
+   * @param overflowPolicy what to do with a notification when the buffer of its listener is full.
+   * @param blockTimeoutMillis the maximum time firing a notification waits for room in the buffer of its listener when the
+   *        {@link OverflowPolicy#BLOCK} policy is applied.
+   */
+  public NotificationBus(Scheduler liteScheduler, Scheduler ioScheduler, int bufferSize, int batchSize,
+                         OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+    this.liteScheduler = liteScheduler;
+    this.ioScheduler = ioScheduler;
+    this.bufferSize = bufferSize <= 1 ? 2 : highestOneBit(bufferSize - 1) << 1;
+    this.batchSize = max(1, batchSize);
+    this.overflowPolicy = overflowPolicy;
+    this.blockTimeoutNanos = MILLISECONDS.toNanos(blockTimeoutMillis);
+  }
+
+  /**
+   * Allocates the buffer of the given listener, so notifications can be published for it. Adding a listener more than once has
+   * no effect.
+   *
+   * @param listener the listener that will receive notifications.
+   */
+  public void add(NotificationListener listener) {
+    if (disposed) {
+      return;
+    }
+    channels.computeIfAbsent(listener, ListenerChannel::new);
+  }
+
+  /**
+   * Enqueues the given notification for delivery to the given listener. The notification is discarded if the listener was not
+   * {@link #add(NotificationListener) added}.
+   *
+   * @param listener the listener to deliver the notification to.
+   * @param notification the notification to deliver.
+   */
+  public void publish(NotificationListener listener, Notification notification) {
+    if (disposed) {
+      return;
+    }
+    ListenerChannel channel = channels.get(listener);
+    if (channel != null) {
+      channel.publish(notification);
+    }
+  }
+
+  /**
+   * Discards the notifications pending delivery for the given listener. Notifications published for it afterwards are
+   * discarded as well, until it is {@link #add(NotificationListener) added} again.
+   *
+   * @param listener the listener that will no longer receive notifications.
+   */
+  public void remove(NotificationListener listener) {
+    ListenerChannel channel = channels.remove(listener);
+    if (channel != null) {
+      channel.removed = true;
+    }
+  }
+
+  /**
+   * @param listener a listener.
+   * @return the amount of notifications published for the given listener that have not been delivered yet.
+   */
+  public long getLag(NotificationListener listener) {
+    ListenerChannel channel = channels.get(listener);
+    return channel == null ? 0 : channel.getLag();
+  }
+
+  /**
+   * @param listener a listener.
+   * @return the amount of notifications for the given listener discarded because its buffer was full.
+   */
+  public long getDroppedCount(NotificationListener listener) {
+    ListenerChannel channel = channels.get(listener);
+    return channel == null ? 0 : channel.dropped.get();
+  }
+
+  /**
+   * Stops accepting and delivering notifications.
+   */
+  public void dispose() {
+    disposed = true;
+    channels.clear();
+  }
+
+  /**
+   * The ring buffer of a listener. Notifications are published by any thread and consumed by a single delivery task at a time.
+   * <p>
+   * Each slot has a sequence telling whether it may be written for a given position ({@code sequence == position}) or read
+   * ({@code sequence == position + 1}), so publishers only contend on the position to write.
+   */
+  private final class ListenerChannel {
+
+    private final NotificationListener listener;
+    private final Scheduler scheduler;
+    private final int mask = bufferSize - 1;
+    private final Notification[] slots = new Notification[bufferSize];
+    private final AtomicLongArray sequences = new AtomicLongArray(bufferSize);
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean delivering = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lastDropWarning = new AtomicLong(nanoTime() - DROPPED_NOTIFICATIONS_WARNING_INTERVAL_NANOS);
+    private volatile boolean removed;
+
+    // Only written by the delivery task
+    private volatile long cursor;
+    private volatile Thread deliveringThread;
+
+    private ListenerChannel(NotificationListener listener) {
+      this.listener = listener;
+      this.scheduler = listener.isBlocking() ? ioScheduler : liteScheduler;
+      for (int i = 0; i < bufferSize; ++i) {
+        sequences.set(i, i);
+      }
+    }
+
+    private void publish(Notification notification) {
+      long deadline = 0;
+      while (!offer(notification)) {
+        if (disposed || removed) {
+          return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP || !mayWait()) {
+          onDropped();
+          return;
+        }
+
+        final long now = nanoTime();
+        if (deadline == 0) {
+          deadline = now + blockTimeoutNanos;
+        } else if (now - deadline >= 0) {
+          onDropped();
+          return;
+        }
+
+        if (scheduler == liteScheduler) {
+          // The delivery task may be queued behind this very thread, so it delivers instead of waiting for it. If another thread
+          // is delivering already, there will be room soon.
+          if (!deliverBatch()) {
+            Thread.yield();
+          }
+        } else {
+          scheduleDelivery();
+          parkNanos(BLOCK_PARK_NANOS);
+        }
+      }
+      scheduleDelivery();
+    }
+
+    /**
+     * A listener firing notifications to itself, or a thread of the pool where notifications for blocking listeners are
+     * delivered, would be waiting for itself.
+     */
+    private boolean mayWait() {
+      return deliveringThread != currentThread() && (scheduler == liteScheduler || ioDeliveryThread.get() == null);
+    }
+
+    private void onDropped() {
+      final long droppedCount = dropped.incrementAndGet();
+      final long lastWarning = lastDropWarning.get();
+      final long now = nanoTime();
+      if (now - lastWarning >= DROPPED_NOTIFICATIONS_WARNING_INTERVAL_NANOS && lastDropWarning.compareAndSet(lastWarning, now)) {
+        LOGGER.warn("Notifications for listener {} are being dropped because it does not keep up with them ({} dropped so far)",
+                    listener, droppedCount);
+      }
+    }
+
+    private boolean offer(Notification notification) {
+      long position;
+      while (true) {
+        position = tail.get();
+        long available = sequences.get((int) position & mask) - position;
+        if (available < 0) {
+          return false;
+        } else if (available == 0 && tail.compareAndSet(position, position + 1)) {
+          break;
+        }
+      }
+      final int index = (int) position & mask;
+      slots[index] = notification;
+      sequences.lazySet(index, position + 1);
+      return true;
+    }
+
+    private void scheduleDelivery() {
+      if (scheduled.compareAndSet(false, true)) {
+        try {
+          scheduler.submit(this::deliver);
+        } catch (RuntimeException e) {
+          scheduled.set(false);
+          throw e;
+        }
+      }
+    }
+
+    private void deliver() {
+      final boolean delivered;
+      try {
+        delivered = deliverBatch();
+      } finally {
+        scheduled.set(false);
+      }
+
+      // Notifications published while delivering, or beyond the batch, are delivered by a new task so that others get a chance
+      // to run in this thread. If a thread firing a notification was delivering instead, it schedules the task when done unless
+      // it already finished.
+      if ((delivered || !delivering.get()) && hasPending()) {
+        scheduleDelivery();
+      }
+    }
+
+    /**
+     * Delivers up to a batch of notifications, unless another thread is already delivering them.
+     *
+     * @return whether this thread delivered.
+     */
+    private boolean deliverBatch() {
+      if (!delivering.compareAndSet(false, true)) {
+        return false;
+      }
+      if (scheduler == ioScheduler) {
+        ioDeliveryThread.set(TRUE);
+      }
+      deliveringThread = currentThread();
+      try {
+        for (int i = 0; i < batchSize && !disposed && !removed; ++i) {
+          final long position = cursor;
+          final int index = (int) position & mask;
+          if (sequences.get(index) != position + 1) {
+            break;
+          }
+          final Notification notification = slots[index];
+          slots[index] = null;
+          sequences.lazySet(index, position + bufferSize);
+          cursor = position + 1;
+
+          try {
+            listener.onNotification(notification);
+          } catch (Exception e) {
+            LOGGER.warn("Notification listener " + listener + " failed to process notification " + notification, e);
+          }
+        }
+      } finally {
+        deliveringThread = null;
+        delivering.set(false);
+      }
+
+      // When a thread firing a notification delivered, this is a no-op if there is a task for the remaining ones already
+      if (hasPending()) {
+        scheduleDelivery();
+      }
+      return true;
+    }
+
+    private boolean hasPending() {
+      return !disposed && !removed && sequences.get((int) cursor & mask) == cursor + 1;
+    }
+
+    private long getLag() {
+      return tail.get() - cursor;
+    }
+  }
+}
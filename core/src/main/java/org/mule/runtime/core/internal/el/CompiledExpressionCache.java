@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.el;
+
+import static com.github.benmanes.caffeine.cache.Caffeine.newBuilder;
+import static java.lang.Integer.getInteger;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.CompiledExpression;
+import org.mule.runtime.api.el.ExpressionCompilationException;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Bounded cache of {@link CompiledExpression}s, so that expressions given as text are parsed and compiled once and then shared by
+ * every evaluation of the same text against binding contexts of the same shape.
+ * <p>
+ * The shape of a {@link BindingContext} is the set of its identifiers, which is what the compilation of an expression depends
+ * on, as long as the context does not declare modules. Expressions that fail to compile are cached as
+ * {@link IllegalCompiledExpression}s so they are not compiled again on every evaluation.
+ *
+ * @since 4.3.0
+ */
+public final class CompiledExpressionCache {
+
+  /**
+   * The maximum amount of compiled expressions kept by a cache. When exceeded, the ones least likely to be used again, based on
+   * how recently and how frequently they were used, are evicted.
+   */
+  public static final int DEFAULT_COMPILED_EXPRESSION_CACHE_SIZE =
+      getInteger(CompiledExpressionCache.class.getName() + ".DEFAULT_COMPILED_EXPRESSION_CACHE_SIZE", 1024);
+
+  private final BiFunction<String, BindingContext, CompiledExpression> compiler;
+  private final Cache<Key, CompiledExpression> compiledExpressions;
+
+  /**
+   * Creates a cache with the {@link #DEFAULT_COMPILED_EXPRESSION_CACHE_SIZE default size}.
+   *
+   * @param compiler the function used to compile an expression on a cache miss.
+   */
+  public CompiledExpressionCache(BiFunction<String, BindingContext, CompiledExpression> compiler) {
+    this(compiler, DEFAULT_COMPILED_EXPRESSION_CACHE_SIZE);
+  }
+
+  /**
+   * @param compiler the function used to compile an expression on a cache miss.
+   * @param maxSize the maximum amount of compiled expressions to keep.
+   */
+  public CompiledExpressionCache(BiFunction<String, BindingContext, CompiledExpression> compiler, int maxSize) {
+    this.compiler = compiler;
+    // Maintenance is done in the calling thread, there is no point on dispatching such a small task.
+    this.compiledExpressions = newBuilder().maximumSize(maxSize).executor(Runnable::run).recordStats().build();
+  }
+
+  /**
+   * Returns the compiled version of the given expression, compiling it if it's not already cached.
+   *
+   * @param expression the sanitized expression to compile.
+   * @param shape the shape of the context the expression is to be evaluated with, obtained with
+   *        {@link #shapeOf(BindingContext)}.
+   * @param context the context the expression is to be evaluated with.
+   * @return the {@link CompiledExpression}, which is an {@link IllegalCompiledExpression} if it could not be compiled.
+   */
+  public CompiledExpression get(String expression, Shape shape, BindingContext context) {
+    return compiledExpressions.get(new Key(expression, shape), key -> {
+      try {
+        return compiler.apply(expression, context);
+      } catch (ExpressionCompilationException e) {
+        return new IllegalCompiledExpression(expression, e);
+      }
+    });
+  }
+
+  /**
+   * Discards every cached compiled expression, since they were compiled against global bindings that are no longer current.
+   */
+  public void invalidateAll() {
+    compiledExpressions.invalidateAll();
+  }
+
+  /**
+   * @param context a binding context.
+   * @return the shape of the given context, to be reused for every expression evaluated against it.
+   */
+  public static Shape shapeOf(BindingContext context) {
+    return new Shape(new HashSet<>(context.identifiers()));
+  }
+
+  /**
+   * @return the amount of lookups that found the compiled expression in the cache.
+   */
+  public long getHitCount() {
+    return compiledExpressions.stats().hitCount();
+  }
+
+  /**
+   * @return the amount of lookups that had to compile the expression.
+   */
+  public long getMissCount() {
+    return compiledExpressions.stats().missCount();
+  }
+
+  /**
+   * @return the amount of compiled expressions evicted from the cache because of its size.
+   */
+  public long getEvictionCount() {
+    return compiledExpressions.stats().evictionCount();
+  }
+
+  /**
+   * @return the {@link #getHitCount() hits}, {@link #getMissCount() misses} and {@link #getEvictionCount() evictions} of this
+   *         cache, to be published along with the other runtime statistics.
+   */
+  public Map<String, LongSupplier> getCounters() {
+    Map<String, LongSupplier> counters = new LinkedHashMap<>();
+    counters.put("hits", this::getHitCount);
+    counters.put("misses", this::getMissCount);
+    counters.put("evictions", this::getEvictionCount);
+    return counters;
+  }
+
+  /**
+   * The identifiers of a {@link BindingContext}.
+   */
+  public static final class Shape {
+
+    private final Set<String> identifiers;
+    private final int hashCode;
+
+    private Shape(Set<String> identifiers) {
+      this.identifiers = identifiers;
+      this.hashCode = identifiers.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj == this || (obj instanceof Shape && hashCode == ((Shape) obj).hashCode
+          && identifiers.equals(((Shape) obj).identifiers));
+    }
+  }
+
+  private static final class Key {
+
+    private final String expression;
+    private final Shape shape;
+
+    private Key(String expression, Shape shape) {
+      this.expression = expression;
+      this.shape = shape;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * expression.hashCode() + shape.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && expression.equals(((Key) obj).expression) && shape.equals(((Key) obj).shape);
+    }
+  }
+}
@@ -14,8 +14,10 @@ import static org.mule.runtime.api.metadata.DataType.fromType;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_EXPRESSIONS_COMPILATION_FAIL_DEPLOYMENT;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.expressionEvaluationFailed;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.el.CompiledExpressionCache.shapeOf;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.isSanitizedPayload;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.sanitize;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
 
 import org.mule.runtime.api.artifact.Registry;
 import org.mule.runtime.api.component.location.ComponentLocation;
@@ -34,12 +36,15 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.internal.el.CompiledExpressionCache;
+import org.mule.runtime.core.internal.el.CompiledExpressionCache.Shape;
 import org.mule.runtime.core.internal.el.DefaultBindingContextBuilder;
 import org.mule.runtime.core.internal.el.ExpressionLanguageSessionAdaptor;
 import org.mule.runtime.core.internal.el.ExtendedExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.el.IllegalCompiledExpression;
 import org.mule.runtime.core.internal.el.context.MuleInstanceContext;
 import org.mule.runtime.core.internal.el.context.ServerContext;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
 
 import java.util.Iterator;
 import java.util.function.Function;
@@ -52,8 +57,15 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public static final String MULE = "mule";
   public static final String APP = "app";
 
+  /**
+   * The source under which the counters of the compiled expressions cache are registered in the
+   * {@link ProcessingLatencyStatistics}.
+   */
+  static final String COMPILED_EXPRESSION_CACHE_COUNTERS = "dataWeaveCompiledExpressionCache";
+
   private final ExpressionLanguage expressionExecutor;
   private final MuleContext muleContext;
+  private final CompiledExpressionCache compiledExpressions;
 
   @Inject
   public DataWeaveExpressionLanguageAdaptor(MuleContext muleContext, Registry registry,
@@ -62,7 +74,20 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
         .defaultEncoding(getDefaultEncoding(muleContext))
         .build());
     this.muleContext = muleContext;
+    this.compiledExpressions = new CompiledExpressionCache(expressionExecutor::compile);
     registerGlobalBindings(registry);
+    publishCompiledExpressionCacheCounters();
+  }
+
+  /**
+   * Makes the counters of the {@link #compiledExpressions} available through the {@link ProcessingLatencyStatistics} of the
+   * artifact, if these are enabled.
+   */
+  private void publishCompiledExpressionCacheCounters() {
+    ProcessingLatencyStatistics statistics = getProcessingLatencyStatistics(muleContext);
+    if (statistics != null) {
+      statistics.registerCounters(COMPILED_EXPRESSION_CACHE_COUNTERS, compiledExpressions.getCounters());
+    }
   }
 
   private void registerGlobalBindings(Registry registry) {
@@ -87,6 +112,8 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   @Override
   public void addGlobalBindings(BindingContext bindingContext) {
     expressionExecutor.addGlobalBindings(bindingContext);
+    // Expressions already compiled may resolve identifiers differently with the new global bindings
+    compiledExpressions.invalidateAll();
   }
 
   @Override
@@ -231,11 +258,37 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     return contextBuilder.build();
   }
 
+  /**
+   * @return the cache of the expressions compiled for the evaluations done through sessions.
+   */
+  public CompiledExpressionCache getCompiledExpressionCache() {
+    return compiledExpressions;
+  }
+
   @Override
   public ExpressionLanguageSessionAdaptor openSession(ComponentLocation location, CoreEvent event, BindingContext context) {
-    ExpressionLanguageSession session = expressionExecutor.openSession(bindingContextFor(location, event, context));
+    BindingContext sessionContext = bindingContextFor(location, event, context);
+    ExpressionLanguageSession session = expressionExecutor.openSession(sessionContext);
     return new ExpressionLanguageSessionAdaptor() {
 
+      private Shape shape;
+
+      /**
+       * Evaluations of text expressions are done with the compiled expression shared by all sessions, unless it couldn't be
+       * compiled or the context declares its own modules. In that case the text is evaluated, so any errors are reported as
+       * usual.
+       */
+      private CompiledExpression compiled(String sanitized) {
+        if (sessionContext == null || !sessionContext.modules().isEmpty()) {
+          return null;
+        }
+        if (shape == null) {
+          shape = shapeOf(sessionContext);
+        }
+        CompiledExpression compiled = compiledExpressions.get(sanitized, shape, sessionContext);
+        return compiled instanceof IllegalCompiledExpression ? null : compiled;
+      }
+
       @Override
       public TypedValue<?> evaluate(String expression) throws ExpressionRuntimeException {
         String sanitized = sanitize(expression);
@@ -244,7 +297,8 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
         }
 
         try {
-          return session.evaluate(sanitized);
+          CompiledExpression compiled = compiled(sanitized);
+          return compiled != null ? session.evaluate(compiled) : session.evaluate(sanitized);
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
@@ -257,7 +311,8 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
           return resolvePayload(event, context);
         }
         try {
-          return session.evaluate(sanitized, timeout);
+          CompiledExpression compiled = compiled(sanitized);
+          return compiled != null ? session.evaluate(compiled, timeout) : session.evaluate(sanitized, timeout);
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
@@ -267,7 +322,10 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
       public TypedValue<?> evaluate(String expression, DataType expectedOutputType) throws ExpressionRuntimeException {
         String sanitized = sanitize(expression);
         try {
-          return session.evaluate(sanitized, expectedOutputType);
+          CompiledExpression compiled = compiled(sanitized);
+          return compiled != null
+              ? session.evaluate(compiled, expectedOutputType)
+              : session.evaluate(sanitized, expectedOutputType);
         } catch (ExpressionExecutionException e) {
           throw new ExpressionRuntimeException(expressionEvaluationFailed(e.getMessage(), sanitized), e);
         }
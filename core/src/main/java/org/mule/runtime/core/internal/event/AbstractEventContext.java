@@ -25,13 +25,12 @@ import org.mule.runtime.core.api.exception.NullExceptionHandler;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -50,33 +49,61 @@ import reactor.core.publisher.MonoSink;
 abstract class AbstractEventContext implements BaseEventContext {
 
   private static final byte STATE_READY = 0;
-  private static final byte STATE_RESPONSE = 1;
-  private static final byte STATE_COMPLETE = 2;
-  private static final byte STATE_TERMINATED = 3;
+  private static final byte STATE_RESPONDING = 1;
+  private static final byte STATE_RESPONSE = 2;
+  private static final byte STATE_COMPLETE = 3;
+  private static final byte STATE_TERMINATED = 4;
 
   private static final int TO_STRING_TAB_SIZE = 4;
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventContext.class);
   private static final FlowExceptionHandler NULL_EXCEPTION_HANDLER = NullExceptionHandler.getInstance();
 
+  /**
+   * Marks a list of callbacks that was already signaled. Callbacks added after that are signaled right away.
+   */
+  private static final Callback SIGNALED = new Callback(null);
+
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(AbstractEventContext.class, "state");
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> PENDING_CHILDREN =
+      AtomicIntegerFieldUpdater.newUpdater(AbstractEventContext.class, "pendingChildren");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Callback> ON_RESPONSE =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Callback.class, "onResponseCallbacks");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Callback> ON_COMPLETE =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Callback.class, "onCompleteCallbacks");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Callback> ON_TERMINATED =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Callback.class, "onTerminatedCallbacks");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Queue> CHILD_CONTEXTS =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Queue.class, "childContexts");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, ResponsePublisher> RESPONSE_PUBLISHER =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, ResponsePublisher.class, "responsePublisher");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, ProcessingTimestamps> PROCESSING_TIMESTAMPS =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, ProcessingTimestamps.class, "processingTimestamps");
+
   private final boolean debugLogEnabled = LOGGER.isDebugEnabled();
-  private transient final List<BaseEventContext> childContexts = new ArrayList<>();
   private transient final FlowExceptionHandler exceptionHandler;
   private transient final CompletableFuture<Void> externalCompletion;
-  private transient List<BiConsumer<CoreEvent, Throwable>> onResponseConsumerList = new ArrayList<>();
-  private transient List<BiConsumer<CoreEvent, Throwable>> onCompletionConsumerList = new ArrayList<>(2);
-  private transient List<BiConsumer<CoreEvent, Throwable>> onTerminatedConsumerList = new ArrayList<>();
 
-  private final ReadWriteLock childContextsReadWriteLock = new ReentrantReadWriteLock();
+  // Callbacks are kept in lock-free stacks, and signaled in the order they were added
+  private transient volatile Callback onResponseCallbacks;
+  private transient volatile Callback onCompleteCallbacks;
+  private transient volatile Callback onTerminatedCallbacks;
+
+  // Only needed to traverse the children, completion relies on the pendingChildren counter
+  private transient volatile Queue<BaseEventContext> childContexts;
+  private transient volatile int pendingChildren;
 
   private final int depthLevel;
 
-  private volatile byte state = STATE_READY;
+  private volatile int state = STATE_READY;
   private volatile Either<Throwable, CoreEvent> result;
 
-  private LazyValue<ResponsePublisher> responsePublisher = new LazyValue<>(ResponsePublisher::new);
+  private transient volatile ResponsePublisher responsePublisher;
 
   protected FlowCallStack flowCallStack;
 
+  private transient volatile ProcessingTimestamps processingTimestamps;
+
   public AbstractEventContext() {
     this(NULL_EXCEPTION_HANDLER, 0, Optional.empty());
   }
@@ -95,27 +122,20 @@ abstract class AbstractEventContext implements BaseEventContext {
     this.exceptionHandler = exceptionHandler;
   }
 
-  protected void initCompletionLists() {
-    if (onCompletionConsumerList == null) {
-      onResponseConsumerList = new ArrayList<>();
-    }
-
-    if (onCompletionConsumerList == null) {
-      onCompletionConsumerList = new ArrayList<>(2);
-    }
-
-    if (onTerminatedConsumerList == null) {
-      onTerminatedConsumerList = new ArrayList<>();
+  void addChildContext(BaseEventContext childContext) {
+    if (childContext instanceof AbstractEventContext) {
+      PENDING_CHILDREN.incrementAndGet(this);
     }
+    getOrCreateChildContexts().add(childContext);
   }
 
-  void addChildContext(BaseEventContext childContext) {
-    childContextsReadWriteLock.writeLock().lock();
-    try {
-      childContexts.add(childContext);
-    } finally {
-      childContextsReadWriteLock.writeLock().unlock();
+  private Queue<BaseEventContext> getOrCreateChildContexts() {
+    Queue<BaseEventContext> children = childContexts;
+    if (children == null) {
+      CHILD_CONTEXTS.compareAndSet(this, null, new ConcurrentLinkedQueue<>());
+      children = childContexts;
     }
+    return children;
   }
 
   /**
@@ -184,80 +204,104 @@ abstract class AbstractEventContext implements BaseEventContext {
     return empty();
   }
 
-  private synchronized void responseDone(Either<Throwable, CoreEvent> result) {
-    this.result = result;
-    responsePublisher.ifComputed(rp -> rp.result = result);
+  private void responseDone(Either<Throwable, CoreEvent> result) {
+    if (!STATE.compareAndSet(this, STATE_READY, STATE_RESPONDING)) {
+      if (debugLogEnabled) {
+        LOGGER.debug("{} response was already completed concurrently, ignoring.", this);
+      }
+      return;
+    }
 
+    this.result = result;
     state = STATE_RESPONSE;
-    for (BiConsumer<CoreEvent, Throwable> onResponseConsumer : onResponseConsumerList) {
-      signalConsumerSilently(onResponseConsumer);
-    }
-    onResponseConsumerList.clear();
+    signalCallbacks(ON_RESPONSE);
     tryComplete();
   }
 
   protected void tryComplete() {
-    boolean allChildrenComplete;
-
-    getChildContextsReadLock().lock();
-    try {
-      allChildrenComplete = childContexts.stream().allMatch(BaseEventContext::isComplete);
-    } finally {
-      getChildContextsReadLock().unlock();
-    }
+    if (pendingChildren == 0 && STATE.compareAndSet(this, STATE_RESPONSE, STATE_COMPLETE)) {
+      if (debugLogEnabled) {
+        LOGGER.debug("{} completed.", this);
+      }
 
-    synchronized (this) {
-      if (state == STATE_RESPONSE && allChildrenComplete) {
-        if (debugLogEnabled) {
-          LOGGER.debug("{} completed.", this);
+      signalCallbacks(ON_COMPLETE);
+      getParentContext().ifPresent(context -> {
+        if (context instanceof AbstractEventContext) {
+          ((AbstractEventContext) context).childCompleted();
         }
-        this.state = STATE_COMPLETE;
+      });
+      tryTerminate();
+    }
+  }
 
-        for (BiConsumer<CoreEvent, Throwable> consumer : onCompletionConsumerList) {
-          signalConsumerSilently(consumer);
-        }
-        onCompletionConsumerList.clear();
-        getParentContext().ifPresent(context -> {
-          if (context instanceof AbstractEventContext) {
-            ((AbstractEventContext) context).tryComplete();
-          }
-        });
-        tryTerminate();
-      }
+  private void childCompleted() {
+    if (PENDING_CHILDREN.decrementAndGet(this) == 0) {
+      tryComplete();
     }
   }
 
-  protected synchronized void tryTerminate() {
-    if (this.state == STATE_COMPLETE && (externalCompletion == null || externalCompletion.isDone())) {
+  protected void tryTerminate() {
+    if ((externalCompletion == null || externalCompletion.isDone())
+        && STATE.compareAndSet(this, STATE_COMPLETE, STATE_TERMINATED)) {
       if (debugLogEnabled) {
         LOGGER.debug("{} terminated.", this);
       }
-      this.state = STATE_TERMINATED;
-
-      for (BiConsumer<CoreEvent, Throwable> consumer : onTerminatedConsumerList) {
-        signalConsumerSilently(consumer);
-      }
-      onTerminatedConsumerList.clear();
 
-      getChildContextsWriteLock().lock();
-      try {
-        this.childContexts.clear();
-      } finally {
-        getChildContextsWriteLock().unlock();
-      }
+      signalCallbacks(ON_TERMINATED);
 
+      childContexts = null;
       getParentContext().ifPresent(context -> {
-        AbstractEventContext parent = (AbstractEventContext) context;
-        parent.getChildContextsWriteLock().lock();
-        try {
-          parent.childContexts.remove(this);
-        } finally {
-          parent.getChildContextsWriteLock().unlock();
+        final Queue<BaseEventContext> siblings = ((AbstractEventContext) context).childContexts;
+        if (siblings != null) {
+          siblings.remove(this);
         }
       });
 
-      result = null;
-      responsePublisher = null;
+      // The response publisher may still need the result after termination
+      if (responsePublisher == null) {
+        result = null;
+      }
+    }
+  }
+
+  /**
+   * Adds a callback to the given stack, or signals it right away if the stack was already signaled.
+   */
+  private void addCallback(AtomicReferenceFieldUpdater<AbstractEventContext, Callback> callbacks,
+                           BiConsumer<CoreEvent, Throwable> consumer) {
+    final Callback callback = new Callback(requireNonNull(consumer));
+    Callback head;
+    do {
+      head = callbacks.get(this);
+      if (head == SIGNALED) {
+        signalConsumerSilently(consumer);
+        return;
+      }
+      callback.next = head;
+    } while (!callbacks.compareAndSet(this, head, callback));
+  }
+
+  /**
+   * Signals the callbacks of the given stack in the order they were added, and marks it so callbacks added later are signaled
+   * right away.
+   */
+  private void signalCallbacks(AtomicReferenceFieldUpdater<AbstractEventContext, Callback> callbacks) {
+    Callback head = callbacks.getAndSet(this, SIGNALED);
+    if (head == SIGNALED) {
+      return;
+    }
+
+    // The stack is no longer reachable by other threads, so it can be reversed in place
+    Callback ordered = null;
+    while (head != null) {
+      final Callback next = head.next;
+      head.next = ordered;
+      ordered = head;
+      head = next;
+    }
+
+    for (; ordered != null; ordered = ordered.next) {
+      signalConsumerSilently(ordered.consumer);
     }
   }
 
@@ -283,7 +327,7 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   private boolean isResponseDone() {
-    return state >= STATE_RESPONSE;
+    return state >= STATE_RESPONDING;
   }
 
   @Override
@@ -297,53 +341,64 @@ abstract class AbstractEventContext implements BaseEventContext {
   }
 
   @Override
-  public synchronized void onTerminated(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_TERMINATED) {
-      signalConsumerSilently(consumer);
-    } else {
-      onTerminatedConsumerList.add(requireNonNull(consumer));
-    }
+  public void onTerminated(BiConsumer<CoreEvent, Throwable> consumer) {
+    addCallback(ON_TERMINATED, consumer);
   }
 
   @Override
-  public synchronized void onComplete(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_COMPLETE) {
-      signalConsumerSilently(consumer);
-    } else {
-      onCompletionConsumerList.add(requireNonNull(consumer));
-    }
+  public void onComplete(BiConsumer<CoreEvent, Throwable> consumer) {
+    addCallback(ON_COMPLETE, consumer);
   }
 
   @Override
-  public synchronized void onResponse(BiConsumer<CoreEvent, Throwable> consumer) {
-    if (state >= STATE_RESPONSE) {
-      signalConsumerSilently(consumer);
-    } else {
-      onResponseConsumerList.add(requireNonNull(consumer));
-    }
+  public void onResponse(BiConsumer<CoreEvent, Throwable> consumer) {
+    addCallback(ON_RESPONSE, consumer);
   }
 
   @Override
-  public synchronized Publisher<CoreEvent> getResponsePublisher() {
+  public Publisher<CoreEvent> getResponsePublisher() {
     if (isTerminated()) {
       throw new IllegalStateException("getResponsePublisher() cannot be called after eventContext termination.");
     }
 
-    return Mono.create(responsePublisher.get());
+    ResponsePublisher publisher = responsePublisher;
+    if (publisher == null) {
+      RESPONSE_PUBLISHER.compareAndSet(this, null, new ResponsePublisher());
+      publisher = responsePublisher;
+
+      // Termination may have released the result before the publisher was visible to it
+      if (isTerminated() && result == null) {
+        throw new IllegalStateException("getResponsePublisher() cannot be called after eventContext termination.");
+      }
+    }
+
+    return Mono.create(publisher);
+  }
+
+  /**
+   * @return the timestamps of the processing of this context, created on first use.
+   */
+  ProcessingTimestamps getProcessingTimestamps() {
+    ProcessingTimestamps timestamps = processingTimestamps;
+    if (timestamps == null) {
+      PROCESSING_TIMESTAMPS.compareAndSet(this, null, new ProcessingTimestamps());
+      timestamps = processingTimestamps;
+    }
+    return timestamps;
   }
 
   public void forEachChild(Consumer<BaseEventContext> childConsumer) {
-    getChildContextsReadLock().lock();
-    try {
-      childContexts.stream().filter(context -> !context.isTerminated()).forEach(context -> {
-        childConsumer.accept(context);
-        if (context instanceof AbstractEventContext) {
-          ((AbstractEventContext) context).forEachChild(childConsumer);
-        }
-      });
-    } finally {
-      getChildContextsReadLock().unlock();
+    final Queue<BaseEventContext> children = childContexts;
+    if (children == null) {
+      return;
     }
+
+    children.stream().filter(context -> !context.isTerminated()).forEach(context -> {
+      childConsumer.accept(context);
+      if (context instanceof AbstractEventContext) {
+        ((AbstractEventContext) context).forEachChild(childConsumer);
+      }
+    });
   }
 
   /**
@@ -352,35 +407,28 @@ abstract class AbstractEventContext implements BaseEventContext {
    */
   private final class ResponsePublisher implements Consumer<MonoSink<CoreEvent>> {
 
-    private volatile Either<Throwable, CoreEvent> result;
-
     @Override
     public void accept(MonoSink<CoreEvent> sink) {
-      if (isResponseDone()) {
-        signalPublisherSink(sink);
-      } else {
-        synchronized (AbstractEventContext.this) {
-          if (isResponseDone()) {
-            signalPublisherSink(sink);
-          } else {
-            onResponse((event, throwable) -> {
-              if (throwable != null) {
-                sink.error(throwable);
-              } else {
-                sink.success(event);
-              }
-            });
-          }
+      onResponse((event, throwable) -> {
+        if (throwable != null) {
+          sink.error(throwable);
+        } else {
+          sink.success(event);
         }
-      }
+      });
     }
+  }
 
-    private void signalPublisherSink(MonoSink<CoreEvent> sink) {
-      if (result.isLeft()) {
-        sink.error(result.getLeft());
-      } else {
-        sink.success(result.getRight());
-      }
+  /**
+   * Node of a stack of callbacks.
+   */
+  private static final class Callback {
+
+    private final BiConsumer<CoreEvent, Throwable> consumer;
+    private Callback next;
+
+    private Callback(BiConsumer<CoreEvent, Throwable> consumer) {
+      this.consumer = consumer;
     }
   }
 
@@ -389,27 +437,20 @@ abstract class AbstractEventContext implements BaseEventContext {
     return depthLevel;
   }
 
-  public Lock getChildContextsReadLock() {
-    return childContextsReadWriteLock.readLock();
-  }
-
-  public Lock getChildContextsWriteLock() {
-    return childContextsReadWriteLock.writeLock();
-  }
-
   protected abstract String basicToString();
 
   protected final String detailedToString(int level, BaseEventContext highlight) {
+    final Queue<BaseEventContext> children = childContexts;
     return (this == highlight ? "=> " : "") + basicToString()
         + lineSeparator()
-        + childContexts.stream()
+        + (children == null ? "" : children.stream()
             .map(ctx -> leftPad("", (1 + level) * TO_STRING_TAB_SIZE)
                 + ((AbstractEventContext) ctx).detailedToString(1 + level, highlight))
-            .collect(joining(lineSeparator()));
+            .collect(joining(lineSeparator())));
   }
 
   protected byte getState() {
-    return state;
+    return (byte) state;
   }
 
 }
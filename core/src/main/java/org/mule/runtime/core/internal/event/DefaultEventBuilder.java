@@ -18,8 +18,6 @@ import static org.mule.runtime.api.util.collection.SmallMap.unmodifiable;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsBytes;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsString;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.basedOn;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
 import static org.mule.runtime.core.internal.message.EventInternalContext.copyOf;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
@@ -48,6 +46,7 @@ import org.mule.runtime.core.internal.message.EventInternalContext;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalEvent.Builder;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.DefaultMuleSession;
@@ -67,7 +66,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   private BaseEventContext context;
   private Function<EventContext, Message> messageFactory;
   private boolean varsModified = false;
-  private CaseInsensitiveHashMap<String, TypedValue<?>> flowVariables;
+  private PersistentCaseInsensitiveMap<TypedValue<?>> flowVariables;
   private CaseInsensitiveHashMap<String, TypedValue<?>> originalVars;
   private Map<String, Object> internalParameters;
   private Error error;
@@ -86,7 +85,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder(BaseEventContext messageContext) {
     this.context = messageContext;
     this.session = new DefaultMuleSession();
-    this.originalVars = emptyCaseInsensitiveMap();
+    this.originalVars = PersistentCaseInsensitiveMap.empty();
     this.internalParameters = new SmallMap<>();
     internalParametersInitialized = true;
   }
@@ -133,10 +132,9 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    initVariables();
-
-    copyFromTo(flowVariables, this.flowVariables);
+    this.flowVariables = toTypedValues(flowVariables);
     this.varsModified = true;
+    this.modified = true;
 
     return this;
   }
@@ -147,10 +145,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       return variables(variables);
     }
 
-    if (varsModified) {
-      this.flowVariables.clear();
-    }
-
+    this.flowVariables = null;
     originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) variables;
     this.varsModified = false;
     this.modified = true;
@@ -164,32 +159,20 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       return (DefaultEventBuilder) addVariable(key, (TypedValue) value);
     }
 
-    initVariables();
-
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
-    this.varsModified = true;
-    this.modified = true;
-    return this;
+    return (DefaultEventBuilder) addVariable(key, new TypedValue<>(value, DataType.fromObject(value)));
 
   }
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
-    initVariables();
-
-    flowVariables.put(key, new TypedValue<>(value, dataType));
-    this.varsModified = true;
-    this.modified = true;
-    return this;
+    return (DefaultEventBuilder) addVariable(key, new TypedValue<>(value, dataType));
   }
 
   @Override
   public CoreEvent.Builder addVariable(String key, TypedValue<?> value) {
     initVariables();
 
-    flowVariables.put(key, value);
-    this.varsModified = true;
-    this.modified = true;
+    updateVariables(flowVariables.with(key, value));
     return this;
   }
 
@@ -197,8 +180,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder removeVariable(String key) {
     initVariables();
 
-    this.modified = flowVariables.remove(key) != null || modified;
-    this.varsModified = this.varsModified || modified;
+    updateVariables(flowVariables.without(key));
     return this;
   }
 
@@ -207,7 +189,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     if ((flowVariables != null && !this.flowVariables.isEmpty()) || !this.originalVars.isEmpty()) {
       this.varsModified = true;
       this.modified = true;
-      flowVariables = basedOn(new SmallMap<>());
+      flowVariables = PersistentCaseInsensitiveMap.empty();
     }
     return this;
   }
@@ -321,7 +303,17 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   protected void initVariables() {
     if (!varsModified && flowVariables == null) {
-      flowVariables = originalVars.copy();
+      // Only copies the variables the first time an event built from a non persistent map is modified, after that the
+      // events share the structure of their variables
+      flowVariables = PersistentCaseInsensitiveMap.copyOf(originalVars);
+    }
+  }
+
+  private void updateVariables(PersistentCaseInsensitiveMap<TypedValue<?>> updatedVariables) {
+    if (updatedVariables != flowVariables) {
+      this.flowVariables = updatedVariables;
+      this.varsModified = true;
+      this.modified = true;
     }
   }
 
@@ -332,17 +324,17 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     }
   }
 
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
+  private PersistentCaseInsensitiveMap<TypedValue<?>> toTypedValues(Map<String, ?> source) {
+    PersistentCaseInsensitiveMap<TypedValue<?>> target = PersistentCaseInsensitiveMap.empty();
 
     for (Entry<String, ?> entry : source.entrySet()) {
       if (entry.getValue() instanceof TypedValue) {
-        target.put(entry.getKey(), (TypedValue<?>) entry.getValue());
+        target = target.with(entry.getKey(), (TypedValue<?>) entry.getValue());
       } else {
-        target.put(entry.getKey(), new TypedValue<>(entry.getValue(), DataType.fromObject(entry.getValue())));
+        target = target.with(entry.getKey(), new TypedValue<>(entry.getValue(), DataType.fromObject(entry.getValue())));
       }
     }
-    this.modified = true;
+    return target;
   }
 
   /**
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.System.currentTimeMillis;
+import static org.mule.runtime.api.util.collection.SmallMap.of;
+import static org.mule.runtime.core.internal.event.EventQuickCopy.quickCopy;
+
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.message.InternalEvent;
+
+/**
+ * Keeps the instant by which the processing of an event is expected to have finished, so that components processing it, or
+ * any event derived from it, can give up early once the time budget of the caller is spent instead of waiting for their own
+ * timeouts.
+ * <p>
+ * The deadline is kept as an internal parameter of the event and is therefore propagated to every event built from it. A
+ * deadline can only be shortened: setting a later deadline than the current one has no effect.
+ *
+ * @since 4.3.0
+ */
+public final class EventDeadline {
+
+  private static final String DEADLINE_PARAMETER = "_muleEventDeadline";
+
+  private EventDeadline() {}
+
+  /**
+   * @param event the event to get the remaining time for.
+   * @return the milliseconds left until the deadline of the event, which may be zero or negative if it has already passed, or
+   *         {@link Long#MAX_VALUE} if the event has no deadline.
+   */
+  public static long remainingMillis(CoreEvent event) {
+    if (!(event instanceof InternalEvent)) {
+      return MAX_VALUE;
+    }
+
+    final Long deadline = ((InternalEvent) event).getInternalParameter(DEADLINE_PARAMETER);
+    return deadline == null ? MAX_VALUE : deadline - currentTimeMillis();
+  }
+
+  /**
+   * Sets a deadline for the given event, unless it already has an earlier one.
+   *
+   * @param event the event to set the deadline for.
+   * @param timeoutMillis the milliseconds from now until the deadline. {@link Long#MAX_VALUE} means no deadline.
+   * @return an event with the resulting deadline.
+   */
+  public static CoreEvent withTimeout(CoreEvent event, long timeoutMillis) {
+    if (timeoutMillis == MAX_VALUE || timeoutMillis >= remainingMillis(event)) {
+      return event;
+    }
+    return quickCopy(event, of(DEADLINE_PARAMETER, currentTimeMillis() + timeoutMillis));
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.event;
+
+import static java.util.Arrays.copyOf;
+
+import org.mule.runtime.api.event.EventContext;
+
+/**
+ * Keeps the instants at which an event context went through the different stages of the processing of each processor, so
+ * the time spent in each stage can be measured without having to allocate anything for each processor.
+ * <p>
+ * Processors are identified by reference. Nested processors each have their own slot, and the slot of a processor is reused
+ * when it is entered again.
+ * <p>
+ * No synchronization is done: an event context is processed by a single thread at a time, and the processing strategy
+ * hands it from one thread to the next in an ordered way. Still, the slots are always accessed through a single reference so
+ * that an unexpected concurrent access could only cause a wrong measurement and not a failure.
+ *
+ * @since 4.3.0
+ */
+public final class ProcessingTimestamps {
+
+  private static final int INITIAL_SLOTS = 4;
+
+  private Slots slots = new Slots(INITIAL_SLOTS);
+  private long sinkEnterNanos = -1;
+
+  private static final class Slots {
+
+    private final Object[] owners;
+    private final long[] enterNanos;
+    private final long[] startNanos;
+
+    private Slots(int size) {
+      this(new Object[size], new long[size], new long[size]);
+    }
+
+    private Slots(Object[] owners, long[] enterNanos, long[] startNanos) {
+      this.owners = owners;
+      this.enterNanos = enterNanos;
+      this.startNanos = startNanos;
+    }
+
+    private int slotOf(Object processor) {
+      for (int i = 0; i < owners.length; ++i) {
+        if (owners[i] == processor) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private Slots grow() {
+      final int size = owners.length * 2;
+      return new Slots(copyOf(owners, size), copyOf(enterNanos, size), copyOf(startNanos, size));
+    }
+  }
+
+  /**
+   * @param eventContext the context to get the timestamps for.
+   * @return the timestamps of the given context, or {@code null} if it doesn't support keeping them.
+   */
+  public static ProcessingTimestamps of(EventContext eventContext) {
+    return eventContext instanceof AbstractEventContext
+        ? ((AbstractEventContext) eventContext).getProcessingTimestamps()
+        : null;
+  }
+
+  /**
+   * Stores the instant at which the event was put into a sink.
+   */
+  public void sinkEntered(long nanos) {
+    sinkEnterNanos = nanos;
+  }
+
+  /**
+   * @return the instant at which the event was put into a sink, or {@code -1} if it wasn't or it was already taken by
+   *         {@link #sinkExited()}.
+   */
+  public long sinkExited() {
+    final long enter = sinkEnterNanos;
+    sinkEnterNanos = -1;
+    return enter;
+  }
+
+  /**
+   * Stores the instant at which the event was handed to the processing strategy for the given processor.
+   */
+  public void processorEntered(Object processor, long nanos) {
+    Slots current = slots;
+    int slot = current.slotOf(processor);
+    if (slot < 0) {
+      slot = current.slotOf(null);
+      if (slot < 0) {
+        slot = current.owners.length;
+        current = current.grow();
+        slots = current;
+      }
+      current.owners[slot] = processor;
+    }
+
+    current.enterNanos[slot] = nanos;
+    current.startNanos[slot] = -1;
+  }
+
+  /**
+   * Stores the instant at which the given processor started executing.
+   *
+   * @return the instant at which the event was handed to the processing strategy for the processor, or {@code -1} if unknown.
+   */
+  public long processorStarted(Object processor, long nanos) {
+    final Slots current = slots;
+    final int slot = current.slotOf(processor);
+    if (slot < 0) {
+      return -1;
+    }
+
+    current.startNanos[slot] = nanos;
+    return current.enterNanos[slot];
+  }
+
+  /**
+   * Releases the slot of the given processor.
+   *
+   * @return the instant at which the given processor started executing, or {@code -1} if unknown.
+   */
+  public long processorFinished(Object processor) {
+    final Slots current = slots;
+    final int slot = current.slotOf(processor);
+    if (slot < 0) {
+      return -1;
+    }
+
+    current.owners[slot] = null;
+    return current.startNanos[slot];
+  }
+}
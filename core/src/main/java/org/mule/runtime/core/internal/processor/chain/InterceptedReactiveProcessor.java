@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.processor.chain;
 
+import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.onProcessorFinished;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.onProcessorStarted;
 import static reactor.core.publisher.Flux.from;
 
 import org.mule.runtime.api.component.Component;
@@ -13,6 +16,10 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.internal.context.thread.notification.ThreadNotificationLogger;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.processor.latency.LatencyHistogram;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.ComponentLatency;
 
 import org.reactivestreams.Publisher;
 
@@ -30,13 +37,32 @@ public final class InterceptedReactiveProcessor implements ReactiveProcessor {
   private final ReactiveProcessor next;
   private final ProcessingType processingType;
   private final ThreadNotificationLogger threadNotificationLogger;
+  private final ComponentLatency latency;
+  private final LatencyHistogram schedulerWaitTime;
 
   public InterceptedReactiveProcessor(Processor processor, ReactiveProcessor next,
                                       ThreadNotificationLogger threadNotificationLogger) {
+    this(processor, next, threadNotificationLogger, null);
+  }
+
+  /**
+   * @param latencyStatistics the statistics to record the wait and service times of {@code processor} to, or {@code null} if
+   *        they are not to be recorded.
+   */
+  public InterceptedReactiveProcessor(Processor processor, ReactiveProcessor next,
+                                      ThreadNotificationLogger threadNotificationLogger,
+                                      ProcessingLatencyStatistics latencyStatistics) {
     this.processor = processor;
     this.processingType = processor.getProcessingType();
     this.next = next;
     this.threadNotificationLogger = threadNotificationLogger;
+    if (latencyStatistics != null && processor instanceof Component && ((Component) processor).getLocation() != null) {
+      this.latency = latencyStatistics.forComponent(((Component) processor).getLocation().getLocation());
+      this.schedulerWaitTime = latencyStatistics.forScheduler(processingType);
+    } else {
+      this.latency = null;
+      this.schedulerWaitTime = null;
+    }
   }
 
   @Override
@@ -49,11 +75,28 @@ public final class InterceptedReactiveProcessor implements ReactiveProcessor {
     if (threadNotificationLogger != null) {
       return flux
           .doOnNext(event -> threadNotificationLogger.setFinishThread(event.getContext().getId()))
-          .transform(publisher -> next.apply(publisher))
+          .transform(publisher -> applyNext(publisher))
           .doOnNext(event -> threadNotificationLogger.setStartingThread(event.getContext().getId()));
     } else {
       return flux
-          .transform(publisher -> next.apply(publisher));
+          .transform(publisher -> applyNext(publisher));
+    }
+  }
+
+  private Publisher<CoreEvent> applyNext(Publisher<CoreEvent> publisher) {
+    if (latency != null) {
+      return from(publisher)
+          .doOnNext(event -> onProcessorStarted(event, processor, latency, schedulerWaitTime))
+          .transform(next)
+          .doOnEach(signal -> {
+            if (signal.isOnNext()) {
+              onProcessorFinished(signal.get(), processor, latency);
+            } else if (signal.isOnError() && unwrap(signal.getThrowable()) instanceof MessagingException) {
+              onProcessorFinished(((MessagingException) unwrap(signal.getThrowable())).getEvent(), processor, latency);
+            }
+          });
+    } else {
+      return next.apply(publisher);
     }
   }
 
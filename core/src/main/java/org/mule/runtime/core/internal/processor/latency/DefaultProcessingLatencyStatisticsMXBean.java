@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.ComponentLatency;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Default implementation of {@link ProcessingLatencyStatisticsMXBean} which reads the values from a
+ * {@link ProcessingLatencyStatistics} instance.
+ *
+ * @since 4.3.0
+ */
+public class DefaultProcessingLatencyStatisticsMXBean implements ProcessingLatencyStatisticsMXBean {
+
+  private static final String[] SUMMARY_FIELDS = {"count", "mean", "p50", "p90", "p99", "p999", "max"};
+
+  private final ProcessingLatencyStatistics statistics;
+
+  /**
+   * Creates a new instance
+   *
+   * @param statistics the statistics to expose
+   */
+  public DefaultProcessingLatencyStatisticsMXBean(ProcessingLatencyStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public String[] getSummaryFields() {
+    return SUMMARY_FIELDS.clone();
+  }
+
+  @Override
+  public Map<String, long[]> getWaitTimeByComponent() {
+    return summarize(statistics.getComponentLatencies(), ComponentLatency::getWaitTime);
+  }
+
+  @Override
+  public Map<String, long[]> getServiceTimeByComponent() {
+    return summarize(statistics.getComponentLatencies(), ComponentLatency::getServiceTime);
+  }
+
+  @Override
+  public Map<String, long[]> getWaitTimeByScheduler() {
+    return summarize(statistics.getSchedulerWaitTimes(), Function.identity());
+  }
+
+  @Override
+  public Map<String, long[]> getSinkWaitTimeByFlow() {
+    return summarize(statistics.getSinkWaitTimes(), Function.identity());
+  }
+
+  @Override
+  public Map<String, Map<String, Long>> getCounters() {
+    return statistics.getCounters();
+  }
+
+  private <K, V> Map<String, long[]> summarize(Map<K, V> values, Function<V, LatencyHistogram> histogram) {
+    Map<String, long[]> summaries = new TreeMap<>();
+    values.forEach((key, value) -> {
+      LatencyHistogram h = histogram.apply(value);
+      if (h.getCount() > 0) {
+        summaries.put(key.toString(), summarize(h));
+      }
+    });
+    return summaries;
+  }
+
+  static long[] summarize(LatencyHistogram histogram) {
+    return new long[] {
+        histogram.getCount(),
+        histogram.getMean(),
+        histogram.getValueAtPercentile(50),
+        histogram.getValueAtPercentile(90),
+        histogram.getValueAtPercentile(99),
+        histogram.getValueAtPercentile(99.9),
+        histogram.getMax()
+    };
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in nanoseconds, with buckets of logarithmically increasing size.
+ * <p>
+ * Each power of two is divided in {@code 2^}{@link #SUB_BUCKET_BITS} buckets of the same width, so any recorded value is
+ * represented with a relative error below {@code 1/2^}{@link #SUB_BUCKET_BITS}. Values above {@link #MAX_TRACKABLE_VALUE} are
+ * counted in the last bucket.
+ * <p>
+ * Recording a value does not allocate nor lock, so it is suitable for the hot path of the event processing. Reading from the
+ * histogram while values are being recorded gives an approximated view of it.
+ *
+ * @since 4.3.0
+ */
+public final class LatencyHistogram {
+
+  static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+  /**
+   * About 18 minutes, in nanoseconds.
+   */
+  static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+  private static final int BUCKETS = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Records a duration.
+   *
+   * @param nanos the duration to record, in nanoseconds. Negative values are recorded as {@code 0}.
+   */
+  public void record(long nanos) {
+    final long value = min(max(nanos, 0), MAX_TRACKABLE_VALUE);
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.incrementAndGet();
+    totalNanos.addAndGet(value);
+
+    long currentMax;
+    do {
+      currentMax = maxNanos.get();
+    } while (value > currentMax && !maxNanos.compareAndSet(currentMax, value));
+  }
+
+  /**
+   * @return the amount of recorded values.
+   */
+  public long getCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * @return the highest recorded value, in nanoseconds.
+   */
+  public long getMax() {
+    return maxNanos.get();
+  }
+
+  /**
+   * @return the average of the recorded values, in nanoseconds.
+   */
+  public long getMean() {
+    final long count = totalCount.get();
+    return count == 0 ? 0 : totalNanos.get() / count;
+  }
+
+  /**
+   * @param percentile the percentile to get, between {@code 0} and {@code 100}.
+   * @return the highest value, in nanoseconds, that is equivalent to the value at the given percentile of the recorded ones.
+   */
+  public long getValueAtPercentile(double percentile) {
+    final long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+
+    final long countAtPercentile = max(1, (long) ceil(min(percentile, 100) / 100 * count));
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      accumulated += counts.get(i);
+      if (accumulated >= countAtPercentile) {
+        return min(highestEquivalentValue(i), maxNanos.get());
+      }
+    }
+
+    return maxNanos.get();
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    final int exponent = 63 - numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+    return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+  }
+
+  static long lowestEquivalentValue(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+
+    final int exponent = (bucketIndex >> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+    return ((long) (SUB_BUCKET_COUNT + (bucketIndex & SUB_BUCKET_MASK))) << (exponent - SUB_BUCKET_BITS);
+  }
+
+  static long highestEquivalentValue(int bucketIndex) {
+    return lowestEquivalentValue(bucketIndex + 1) - 1;
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.System.nanoTime;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
+import static java.util.Collections.unmodifiableMap;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.internal.event.ProcessingTimestamps;
+import org.mule.runtime.core.privileged.registry.RegistrationException;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+
+/**
+ * Keeps the latency histograms of the processing of the events of an artifact:
+ * <ul>
+ * <li>for each component, the time events wait until the processing strategy executes it and the time its execution takes,</li>
+ * <li>for each {@link ProcessingType}, the time events wait to be executed in the scheduler for that type,</li>
+ * <li>for each flow, the time events wait in its sink until they start being processed.</li>
+ * </ul>
+ * Runtime components may also publish their own counters here, through {@link #registerCounters(String, Map)}, so they are
+ * available along with the histograms.
+ * <p>
+ * These statistics are only kept when the {@link #PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY} system property is set, in which
+ * case they are also available through a {@link ProcessingLatencyStatisticsMXBean}.
+ *
+ * @since 4.3.0
+ */
+public class ProcessingLatencyStatistics implements Disposable {
+
+  public static final String PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY = "mule.processing.latencyStatistics";
+
+  private static final Logger LOGGER = getLogger(ProcessingLatencyStatistics.class);
+  private static final String REGISTRY_KEY = "_muleProcessingLatencyStatistics";
+
+  private final Map<String, ComponentLatency> componentLatencies = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> sinkWaitTimes = new ConcurrentHashMap<>();
+  private final Map<ProcessingType, LatencyHistogram> schedulerWaitTimes = new EnumMap<>(ProcessingType.class);
+  private final Map<String, Map<String, LongSupplier>> counters = new ConcurrentHashMap<>();
+
+  private ObjectName objectName;
+
+  /**
+   * Latency histograms of a component.
+   */
+  public static final class ComponentLatency {
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+    /**
+     * @return the time events waited for the processing strategy to execute the component.
+     */
+    public LatencyHistogram getWaitTime() {
+      return waitTime;
+    }
+
+    /**
+     * @return the time the executions of the component took.
+     */
+    public LatencyHistogram getServiceTime() {
+      return serviceTime;
+    }
+  }
+
+  public ProcessingLatencyStatistics() {
+    for (ProcessingType processingType : ProcessingType.values()) {
+      schedulerWaitTimes.put(processingType, new LatencyHistogram());
+    }
+  }
+
+  /**
+   * @return whether processing latency statistics are to be kept. Only checked when the components of an artifact are
+   *         initialised.
+   */
+  public static boolean isProcessingLatencyStatisticsEnabled() {
+    return getBoolean(PROCESSING_LATENCY_STATISTICS_PROPERTY_KEY);
+  }
+
+  /**
+   * Gets the statistics of the artifact of the given context, creating and registering them if needed.
+   *
+   * @param muleContext the context of the artifact.
+   * @return the statistics of the artifact, or {@code null} if {@link #isProcessingLatencyStatisticsEnabled() disabled}.
+   */
+  public static ProcessingLatencyStatistics getProcessingLatencyStatistics(MuleContext muleContext) {
+    if (!isProcessingLatencyStatisticsEnabled()) {
+      return null;
+    }
+
+    synchronized (ProcessingLatencyStatistics.class) {
+      ProcessingLatencyStatistics statistics = lookupObject(muleContext, REGISTRY_KEY);
+      if (statistics == null) {
+        statistics = new ProcessingLatencyStatistics();
+        try {
+          registerObject(muleContext, REGISTRY_KEY, statistics);
+        } catch (RegistrationException e) {
+          throw new MuleRuntimeException(e);
+        }
+        statistics.registerMBean(muleContext.getId());
+      }
+      return statistics;
+    }
+  }
+
+  /**
+   * @param location the location of the component.
+   * @return the histograms of the component at the given location.
+   */
+  public ComponentLatency forComponent(String location) {
+    return componentLatencies.computeIfAbsent(location, l -> new ComponentLatency());
+  }
+
+  /**
+   * @param flowName the name of the flow that owns the sink.
+   * @return the histogram of the time events wait in the sink of the given flow.
+   */
+  public LatencyHistogram forSink(String flowName) {
+    return sinkWaitTimes.computeIfAbsent(flowName, n -> new LatencyHistogram());
+  }
+
+  /**
+   * @param processingType the processing type of the scheduler.
+   * @return the histogram of the time events wait in the scheduler for the given processing type.
+   */
+  public LatencyHistogram forScheduler(ProcessingType processingType) {
+    return schedulerWaitTimes.get(processingType);
+  }
+
+  public Map<String, ComponentLatency> getComponentLatencies() {
+    return unmodifiableMap(componentLatencies);
+  }
+
+  public Map<String, LatencyHistogram> getSinkWaitTimes() {
+    return unmodifiableMap(sinkWaitTimes);
+  }
+
+  public Map<ProcessingType, LatencyHistogram> getSchedulerWaitTimes() {
+    return unmodifiableMap(schedulerWaitTimes);
+  }
+
+  /**
+   * Publishes the counters of a runtime component, replacing any counters previously published with the same source.
+   *
+   * @param source the name of the component that keeps the counters, unique within the artifact.
+   * @param sourceCounters the suppliers of the current value of each counter, by counter name.
+   */
+  public void registerCounters(String source, Map<String, LongSupplier> sourceCounters) {
+    counters.put(source, new LinkedHashMap<>(sourceCounters));
+  }
+
+  /**
+   * Stops publishing the counters of a runtime component.
+   *
+   * @param source the name with which the counters were {@link #registerCounters(String, Map) registered}.
+   */
+  public void unregisterCounters(String source) {
+    counters.remove(source);
+  }
+
+  /**
+   * Stops publishing the counters of a runtime component, unless these were already replaced by others published with the same
+   * source.
+   *
+   * @param source the name with which the counters were {@link #registerCounters(String, Map) registered}.
+   * @param sourceCounters the suppliers that were registered.
+   */
+  public void unregisterCounters(String source, Map<String, LongSupplier> sourceCounters) {
+    counters.remove(source, sourceCounters);
+  }
+
+  /**
+   * @return the current value of each published counter, by counter name, by source.
+   */
+  public Map<String, Map<String, Long>> getCounters() {
+    Map<String, Map<String, Long>> values = new TreeMap<>();
+    counters.forEach((source, sourceCounters) -> {
+      Map<String, Long> sourceValues = new LinkedHashMap<>();
+      sourceCounters.forEach((name, counter) -> sourceValues.put(name, counter.getAsLong()));
+      values.put(source, sourceValues);
+    });
+    return values;
+  }
+
+  /**
+   * To be called when an event is put into a sink.
+   */
+  public static void onSinkEntered(CoreEvent event) {
+    final ProcessingTimestamps timestamps = ProcessingTimestamps.of(event.getContext());
+    if (timestamps != null) {
+      timestamps.sinkEntered(nanoTime());
+    }
+  }
+
+  /**
+   * To be called when an event put into a sink starts being processed.
+   */
+  public static void onSinkExited(CoreEvent event, LatencyHistogram sinkWaitTime) {
+    final ProcessingTimestamps timestamps = ProcessingTimestamps.of(event.getContext());
+    if (timestamps != null) {
+      final long entered = timestamps.sinkExited();
+      if (entered >= 0) {
+        sinkWaitTime.record(nanoTime() - entered);
+      }
+    }
+  }
+
+  /**
+   * To be called when an event is handed to the processing strategy to be processed by {@code processor}.
+   */
+  public static void onProcessorEntered(CoreEvent event, Object processor) {
+    final ProcessingTimestamps timestamps = ProcessingTimestamps.of(event.getContext());
+    if (timestamps != null) {
+      timestamps.processorEntered(processor, nanoTime());
+    }
+  }
+
+  /**
+   * To be called when {@code processor} starts processing an event in the thread assigned by the processing strategy.
+   */
+  public static void onProcessorStarted(CoreEvent event, Object processor, ComponentLatency latency,
+                                        LatencyHistogram schedulerWaitTime) {
+    final ProcessingTimestamps timestamps = ProcessingTimestamps.of(event.getContext());
+    if (timestamps != null) {
+      final long now = nanoTime();
+      final long entered = timestamps.processorStarted(processor, now);
+      if (entered >= 0) {
+        latency.getWaitTime().record(now - entered);
+        schedulerWaitTime.record(now - entered);
+      }
+    }
+  }
+
+  /**
+   * To be called when {@code processor} has finished processing an event.
+   */
+  public static void onProcessorFinished(CoreEvent event, Object processor, ComponentLatency latency) {
+    final ProcessingTimestamps timestamps = ProcessingTimestamps.of(event.getContext());
+    if (timestamps != null) {
+      final long started = timestamps.processorFinished(processor);
+      if (started >= 0) {
+        latency.getServiceTime().record(nanoTime() - started);
+      }
+    }
+  }
+
+  /**
+   * To be called when {@code processor} failed processing an event, so its execution is measured as well and the slot for it
+   * in the timestamps of the event is released.
+   */
+  public void onProcessorFailed(EventContext eventContext, Object processor) {
+    final ProcessingTimestamps timestamps = ProcessingTimestamps.of(eventContext);
+    if (timestamps != null) {
+      final long started = timestamps.processorFinished(processor);
+      if (started >= 0 && processor instanceof Component && ((Component) processor).getLocation() != null) {
+        forComponent(((Component) processor).getLocation().getLocation()).getServiceTime().record(nanoTime() - started);
+      }
+    }
+  }
+
+  private void registerMBean(String artifactId) {
+    try {
+      ObjectName name = new ObjectName("org.mule.runtime:type=ProcessingLatencyStatistics,artifact="
+          + ObjectName.quote(String.valueOf(artifactId)));
+      getPlatformMBeanServer().registerMBean(new DefaultProcessingLatencyStatisticsMXBean(this), name);
+      objectName = name;
+    } catch (JMException e) {
+      LOGGER.warn("Could not register " + ProcessingLatencyStatisticsMXBean.class.getSimpleName() + ". Execution will continue",
+                  e);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    if (objectName == null) {
+      return;
+    }
+
+    try {
+      getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException e) {
+      LOGGER.debug("Could not unregister " + ProcessingLatencyStatisticsMXBean.class.getSimpleName(), e);
+    } finally {
+      objectName = null;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.latency;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link ProcessingLatencyStatistics}.
+ * <p>
+ * Each histogram is summarized as an array with the values described by {@link #getSummaryFields()}, all of them durations
+ * in nanoseconds except for the count.
+ *
+ * @since 4.3.0
+ */
+public interface ProcessingLatencyStatisticsMXBean {
+
+  /**
+   * @return the names of the values in each histogram summary.
+   */
+  String[] getSummaryFields();
+
+  /**
+   * @return the summary of the time events waited for the processing strategy to execute each component, by location.
+   */
+  Map<String, long[]> getWaitTimeByComponent();
+
+  /**
+   * @return the summary of the time the executions of each component took, by location.
+   */
+  Map<String, long[]> getServiceTimeByComponent();
+
+  /**
+   * @return the summary of the time events waited to be executed in each scheduler, by processing type.
+   */
+  Map<String, long[]> getWaitTimeByScheduler();
+
+  /**
+   * @return the summary of the time events waited in the sink of each flow, by flow name.
+   */
+  Map<String, long[]> getSinkWaitTimeByFlow();
+
+  /**
+   * @return the current value of the counters published by runtime components, by counter name, by component.
+   */
+  Map<String, Map<String, Long>> getCounters();
+}
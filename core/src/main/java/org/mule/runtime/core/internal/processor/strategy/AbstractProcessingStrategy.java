@@ -13,7 +13,9 @@ import static org.mule.runtime.core.api.construct.BackPressureReason.EVENTS_ACCU
 import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Unhandleable.OVERLOAD;
 import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
 import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.onSinkExited;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.CORES;
+import static reactor.core.publisher.Flux.from;
 import static reactor.util.concurrent.Queues.SMALL_BUFFER_SIZE;
 
 import org.mule.runtime.api.exception.DefaultMuleException;
@@ -25,6 +27,8 @@ import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.Sink;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.processor.latency.LatencyHistogram;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
 import java.util.concurrent.RejectedExecutionException;
@@ -67,6 +71,42 @@ public abstract class AbstractProcessingStrategy implements ProcessingStrategyAd
     };
   }
 
+  /**
+   * When processing latency statistics are enabled, decorates the {@code onEventConsumer} of a sink so the instant each event
+   * is put into the sink is kept.
+   *
+   * @param latencyStatistics the statistics of the artifact, or {@code null} if not enabled.
+   * @param onEventConsumer the consumer to decorate.
+   * @return the consumer for the sink to use.
+   */
+  protected Consumer<CoreEvent> recordingSinkEnter(ProcessingLatencyStatistics latencyStatistics,
+                                                  Consumer<CoreEvent> onEventConsumer) {
+    return latencyStatistics == null
+        ? onEventConsumer
+        : onEventConsumer.andThen(ProcessingLatencyStatistics::onSinkEntered);
+  }
+
+  /**
+   * When processing latency statistics are enabled, decorates the pipeline subscribed to a sink so the time each event waited
+   * in the sink is recorded.
+   *
+   * @param latencyStatistics the statistics of the artifact, or {@code null} if not enabled.
+   * @param flowConstruct the flow that owns the sink.
+   * @param pipeline the pipeline to decorate.
+   * @return the pipeline to subscribe to the sink.
+   */
+  protected ReactiveProcessor recordingSinkWait(ProcessingLatencyStatistics latencyStatistics, FlowConstruct flowConstruct,
+                                                ReactiveProcessor pipeline) {
+    if (latencyStatistics == null) {
+      return pipeline;
+    }
+
+    final LatencyHistogram sinkWaitTime = latencyStatistics.forSink(flowConstruct.getName());
+    return publisher -> from(publisher)
+        .doOnNext(event -> onSinkExited(event, sinkWaitTime))
+        .transform(pipeline);
+  }
+
   protected ScheduledExecutorService decorateScheduler(ScheduledExecutorService scheduler) {
     return schedulerDecorator.apply(scheduler);
   }
@@ -87,8 +87,8 @@ abstract class AbstractReactorStreamProcessingStrategy extends AbstractStreamPro
    * @return true if the event can be accepted for processing
    */
   protected BackPressureReason checkCapacity(CoreEvent event) {
-    if (maxConcurrencyEagerCheck) {
-      if (inFlightEvents.incrementAndGet() > maxConcurrency) {
+    if (isConcurrencyCheckedEagerly()) {
+      if (inFlightEvents.incrementAndGet() > getConcurrencyLimit()) {
         inFlightEvents.decrementAndGet();
         return MAX_CONCURRENCY_EXCEEDED;
       }
@@ -101,6 +101,29 @@ abstract class AbstractReactorStreamProcessingStrategy extends AbstractStreamPro
     return null;
   }
 
+  /**
+   * @return whether the amount of events in flight is limited when accepting them, instead of when processing them.
+   */
+  protected boolean isConcurrencyCheckedEagerly() {
+    return maxConcurrencyEagerCheck;
+  }
+
+  /**
+   * @return the amount of events that may be in flight at the moment when the concurrency is
+   *         {@link #isConcurrencyCheckedEagerly() checked eagerly}.
+   */
+  protected int getConcurrencyLimit() {
+    return maxConcurrency;
+  }
+
+  /**
+   * @return the amount of events currently in flight when the concurrency is {@link #isConcurrencyCheckedEagerly() checked
+   *         eagerly}.
+   */
+  protected int getInFlightEvents() {
+    return inFlightEvents.get();
+  }
+
   protected int getParallelism() {
     return parallelism;
   }
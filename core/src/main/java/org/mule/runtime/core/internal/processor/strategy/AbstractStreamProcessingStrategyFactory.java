@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.processor.strategy;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Integer.getInteger;
 import static java.lang.Integer.max;
+import static java.lang.Long.getLong;
 import static java.lang.Long.max;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
@@ -54,8 +55,13 @@ public abstract class AbstractStreamProcessingStrategyFactory extends AbstractPr
   // required to achieve absolute minimum latency for the scenarios where this is important.
   protected static final int DEFAULT_SUBSCRIBER_COUNT =
       getInteger(SYSTEM_PROPERTY_PREFIX + "DEFAULT_SUBSCRIBER_COUNT", max(1, (CORES / 2)));
+  // Events put into a sink are published one by one unless a batch size greater than 1 is set.
+  protected static final int DEFAULT_SINK_BATCH_SIZE = getInteger(SYSTEM_PROPERTY_PREFIX + "DEFAULT_SINK_BATCH_SIZE", 1);
+  protected static final long DEFAULT_SINK_BATCH_WINDOW_MS = getLong(SYSTEM_PROPERTY_PREFIX + "DEFAULT_SINK_BATCH_WINDOW_MS", 1);
   private int bufferSize = DEFAULT_BUFFER_SIZE;
   private int subscriberCount = DEFAULT_SUBSCRIBER_COUNT;
+  private int sinkBatchSize = DEFAULT_SINK_BATCH_SIZE;
+  private long sinkBatchWindowMillis = DEFAULT_SINK_BATCH_WINDOW_MS;
 
   /**
    * Configure the size of the ring-buffer size used to buffer and de-multiplexes events from multiple source threads. This value
@@ -82,6 +88,40 @@ public abstract class AbstractStreamProcessingStrategyFactory extends AbstractPr
     this.subscriberCount = subscriberCount;
   }
 
+  /**
+   * Configure the maximum amount of events that are published together from a sink into the flow. Events put into the sink are
+   * accumulated until either this amount is reached or the {@link #setSinkBatchWindowMillis(long) batch window} elapses, and
+   * then processed one after the other by the thread that picks the batch.
+   *
+   * @param sinkBatchSize the maximum size of the batches. {@code 1} disables batching.
+   */
+  public void setSinkBatchSize(int sinkBatchSize) {
+    if (sinkBatchSize < 1) {
+      throw new IllegalArgumentException("sinkBatchSize must be greater than 0 : " + sinkBatchSize);
+    }
+    this.sinkBatchSize = sinkBatchSize;
+  }
+
+  /**
+   * Configure the maximum time an event put into a sink waits for its batch to be completed before being published anyway.
+   *
+   * @param sinkBatchWindowMillis the time to wait for the batch to complete, in milliseconds.
+   */
+  public void setSinkBatchWindowMillis(long sinkBatchWindowMillis) {
+    if (sinkBatchWindowMillis < 0) {
+      throw new IllegalArgumentException("sinkBatchWindowMillis must not be negative : " + sinkBatchWindowMillis);
+    }
+    this.sinkBatchWindowMillis = sinkBatchWindowMillis;
+  }
+
+  protected int getSinkBatchSize() {
+    return sinkBatchSize;
+  }
+
+  protected long getSinkBatchWindowMillis() {
+    return sinkBatchWindowMillis;
+  }
+
   protected int getBufferSize() {
     return bufferSize;
   }
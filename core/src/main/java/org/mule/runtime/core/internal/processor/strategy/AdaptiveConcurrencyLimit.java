@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to the observed load with an additive increase/multiplicative decrease (AIMD) policy.
+ * <p>
+ * Each sample reports how long a task waited to be executed and how long its execution took. When the waiting time is
+ * considerably higher than the average execution time, tasks are being queued because the concurrency is higher than what
+ * can be served, so the limit is decreased multiplicatively. Otherwise, if the limit is being used, it is increased by one
+ * every {@code limit} samples.
+ * <p>
+ * The averages are kept as exponentially weighted moving averages. They are updated without synchronization, so under
+ * contention some samples may be lost, which is fine for their purpose.
+ *
+ * @since 4.3.0
+ */
+class AdaptiveConcurrencyLimit {
+
+  private static final double BACKOFF_RATIO = 0.9;
+  private static final double SMOOTHING = 0.1;
+  private static final double QUEUE_DELAY_TOLERANCE = 2.0;
+  private static final long MIN_QUEUE_DELAY_NANOS = MILLISECONDS.toNanos(1);
+  private static final long MIN_DECREASE_INTERVAL_NANOS = MILLISECONDS.toNanos(10);
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final IntSupplier inFlight;
+  private final LongSupplier nanoClock;
+
+  private final AtomicInteger limit;
+  private final AtomicInteger samplesSinceIncrease = new AtomicInteger();
+  private final AtomicLong lastDecrease;
+
+  private volatile boolean sampled;
+  private volatile double serviceTimeAverage;
+  private volatile double queueDelayAverage;
+
+  /**
+   * @param initialLimit the limit to start with.
+   * @param minLimit the value the limit will never go below.
+   * @param maxLimit the value the limit will never go above.
+   * @param inFlight provides the amount of tasks currently executing, so the limit is only increased if it is being used.
+   * @param nanoClock the source of the current time, in nanoseconds.
+   */
+  AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, IntSupplier inFlight, LongSupplier nanoClock) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.inFlight = inFlight;
+    this.nanoClock = nanoClock;
+    this.limit = new AtomicInteger(min(maxLimit, max(minLimit, initialLimit)));
+    this.lastDecrease = new AtomicLong(nanoClock.getAsLong() - MIN_DECREASE_INTERVAL_NANOS);
+  }
+
+  /**
+   * Updates the limit according to the times measured for a task.
+   *
+   * @param queueNanos time between the submission of the task and the start of its execution, in nanoseconds.
+   * @param serviceNanos time the task took to execute, in nanoseconds.
+   */
+  void onSample(long queueNanos, long serviceNanos) {
+    if (sampled) {
+      serviceTimeAverage += SMOOTHING * (serviceNanos - serviceTimeAverage);
+      queueDelayAverage += SMOOTHING * (queueNanos - queueDelayAverage);
+    } else {
+      serviceTimeAverage = serviceNanos;
+      queueDelayAverage = queueNanos;
+      sampled = true;
+    }
+
+    if (queueNanos > max(MIN_QUEUE_DELAY_NANOS, (long) (serviceTimeAverage * QUEUE_DELAY_TOLERANCE))) {
+      decrease();
+    } else {
+      increase();
+    }
+  }
+
+  /**
+   * Decreases the limit when tasks were rejected because of lack of capacity.
+   */
+  void onOverload() {
+    decrease();
+  }
+
+  private void decrease() {
+    final long now = nanoClock.getAsLong();
+    final long last = lastDecrease.get();
+    // Give the previous decrease time to have an effect before decreasing again
+    if (now - last < max(MIN_DECREASE_INTERVAL_NANOS, (long) serviceTimeAverage) || !lastDecrease.compareAndSet(last, now)) {
+      return;
+    }
+
+    limit.updateAndGet(current -> max(minLimit, min(current - 1, (int) (current * BACKOFF_RATIO))));
+    samplesSinceIncrease.set(0);
+  }
+
+  private void increase() {
+    final int current = limit.get();
+    if (current >= maxLimit || inFlight.getAsInt() < current / 2) {
+      return;
+    }
+
+    if (samplesSinceIncrease.incrementAndGet() >= current) {
+      samplesSinceIncrease.set(0);
+      limit.compareAndSet(current, current + 1);
+    }
+  }
+
+  /**
+   * @return the current limit.
+   */
+  int getLimit() {
+    return limit.get();
+  }
+
+  /**
+   * @return whether any sample was reported to this limit.
+   */
+  boolean isSampled() {
+    return sampled;
+  }
+
+  /**
+   * @return the average time tasks waited to be executed, in nanoseconds.
+   */
+  long getQueueDelayNanos() {
+    return (long) queueDelayAverage;
+  }
+
+  /**
+   * @return the average time tasks took to execute, in nanoseconds.
+   */
+  long getServiceTimeNanos() {
+    return (long) serviceTimeAverage;
+  }
+}
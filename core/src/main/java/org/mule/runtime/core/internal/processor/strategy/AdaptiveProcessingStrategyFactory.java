@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.min;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.IO_RW;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy;
+import org.mule.runtime.core.internal.util.rx.TimedExecutorServiceDecorator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Creates a processing strategy with the same threading model as {@link ProactorStreamEmitterProcessingStrategyFactory}, but
+ * with a concurrency that adapts to the load of the flow instead of being fixed when it starts.
+ * <p/>
+ * For each of the schedulers used by the flow ({@code CPU_LITE}, {@code BLOCKING}/{@code IO_RW} and {@code CPU_INTENSIVE})
+ * the time tasks wait to be executed and the time they take is measured, and an {@link AdaptiveConcurrencyLimit} is kept from
+ * those. The amount of events accepted into the flow concurrently is the lowest of those limits, which in turn never exceeds
+ * the configured {@code maxConcurrency}. The events are distributed among as many sinks as allowed by that limit.
+ *
+ * @since 4.3.0
+ */
+public class AdaptiveProcessingStrategyFactory extends ProactorStreamEmitterProcessingStrategyFactory {
+
+  /**
+   * Upper bound of the concurrency when no {@code maxConcurrency} is configured.
+   */
+  protected static final int DEFAULT_ADAPTIVE_MAX_CONCURRENCY =
+      getInteger(SYSTEM_PROPERTY_PREFIX + "DEFAULT_ADAPTIVE_MAX_CONCURRENCY", DEFAULT_BUFFER_SIZE);
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    Supplier<Scheduler> cpuLightSchedulerSupplier = getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix);
+    AdaptiveProcessingStrategy processingStrategy =
+        new AdaptiveProcessingStrategy(getBufferSize(),
+                                       getSubscriberCount(),
+                                       cpuLightSchedulerSupplier,
+                                       cpuLightSchedulerSupplier,
+                                       () -> muleContext.getSchedulerService()
+                                           .ioScheduler(muleContext.getSchedulerBaseConfig()
+                                               .withName(schedulersNamePrefix + "." + BLOCKING.name())),
+                                       () -> muleContext.getSchedulerService()
+                                           .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+                                               .withName(schedulersNamePrefix + "." + CPU_INTENSIVE.name())),
+                                       resolveParallelism(),
+                                       getMaxConcurrency(),
+                                       isMaxConcurrencyEagerCheck(),
+                                       muleContext.getConfiguration().isThreadLoggingEnabled());
+    processingStrategy.setSinkBatching(getSinkBatchSize(), getSinkBatchWindowMillis());
+    return processingStrategy;
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return AdaptiveProcessingStrategy.class;
+  }
+
+  static class AdaptiveProcessingStrategy extends ProactorStreamEmitterProcessingStrategy {
+
+    private final AdaptiveConcurrencyLimit cpuLiteLimit;
+    private final AdaptiveConcurrencyLimit blockingLimit;
+    private final AdaptiveConcurrencyLimit cpuIntensiveLimit;
+
+    // The limits that rejections from each of the schedulers the processors are executed on affect
+    private final Map<ScheduledExecutorService, AdaptiveConcurrencyLimit> schedulerLimits = new ConcurrentHashMap<>();
+
+    public AdaptiveProcessingStrategy(int bufferSize,
+                                      int subscriberCount,
+                                      Supplier<Scheduler> flowDispatchSchedulerSupplier,
+                                      Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                      Supplier<Scheduler> blockingSchedulerSupplier,
+                                      Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                      int parallelism,
+                                      int maxConcurrency,
+                                      boolean maxConcurrencyEagerCheck,
+                                      boolean isThreadLoggingEnabled) {
+      super(bufferSize, subscriberCount, flowDispatchSchedulerSupplier, cpuLightSchedulerSupplier, blockingSchedulerSupplier,
+            cpuIntensiveSchedulerSupplier, parallelism, maxConcurrency, maxConcurrencyEagerCheck, isThreadLoggingEnabled);
+      final int maxLimit = maxConcurrency == MAX_VALUE ? DEFAULT_ADAPTIVE_MAX_CONCURRENCY : maxConcurrency;
+      final int initialLimit = CORES * 2;
+      this.cpuLiteLimit = new AdaptiveConcurrencyLimit(initialLimit, 1, maxLimit, this::getInFlightEvents, System::nanoTime);
+      this.blockingLimit = new AdaptiveConcurrencyLimit(initialLimit, 1, maxLimit, this::getInFlightEvents, System::nanoTime);
+      this.cpuIntensiveLimit = new AdaptiveConcurrencyLimit(initialLimit, 1, maxLimit, this::getInFlightEvents, System::nanoTime);
+    }
+
+    @Override
+    protected ScheduledExecutorService decorateFlowDispatcherScheduler(ScheduledExecutorService scheduler) {
+      return new TimedExecutorServiceDecorator(scheduler, cpuLiteLimit::onSample);
+    }
+
+    @Override
+    protected ScheduledExecutorService decorateProcessorScheduler(ReactiveProcessor processor,
+                                                                  ScheduledExecutorService scheduler) {
+      return new TimedExecutorServiceDecorator(scheduler, getLimit(processor.getProcessingType())::onSample);
+    }
+
+    @Override
+    protected ReactiveProcessor proactor(ReactiveProcessor processor, ScheduledExecutorService scheduler) {
+      schedulerLimits.putIfAbsent(scheduler, getLimit(processor.getProcessingType()));
+      return super.proactor(processor, scheduler);
+    }
+
+    @Override
+    protected void onRejected(ScheduledExecutorService scheduler) {
+      super.onRejected(scheduler);
+      // The flow dispatcher and the CPU_LITE processors are not executed through proactor
+      schedulerLimits.getOrDefault(scheduler, cpuLiteLimit).onOverload();
+    }
+
+    @Override
+    protected Sink createRoundRobinSink(List<ReactorSink<CoreEvent>> sinks) {
+      return new RoundRobinReactorSink<>(sinks, () -> min(sinks.size(), getConcurrencyLimit()));
+    }
+
+    @Override
+    protected boolean isConcurrencyCheckedEagerly() {
+      // The adaptive limit is always enforced when accepting the events, regardless of maxConcurrencyEagerCheck
+      return true;
+    }
+
+    /**
+     * @return the amount of events that may be processed concurrently at the moment, which is the lowest of the limits for
+     *         the processing types that have been used by the flow.
+     */
+    @Override
+    protected int getConcurrencyLimit() {
+      int limit = cpuLiteLimit.getLimit();
+      if (blockingLimit.isSampled()) {
+        limit = min(limit, blockingLimit.getLimit());
+      }
+      if (cpuIntensiveLimit.isSampled()) {
+        limit = min(limit, cpuIntensiveLimit.getLimit());
+      }
+      return limit;
+    }
+
+    /**
+     * @param processingType the type of processors to get the limit for.
+     * @return the limit that the processors of the given type are measured for.
+     */
+    AdaptiveConcurrencyLimit getLimit(ProcessingType processingType) {
+      if (processingType == BLOCKING || processingType == IO_RW) {
+        return blockingLimit;
+      } else if (processingType == CPU_INTENSIVE) {
+        return cpuIntensiveLimit;
+      } else {
+        return cpuLiteLimit;
+      }
+    }
+  }
+}
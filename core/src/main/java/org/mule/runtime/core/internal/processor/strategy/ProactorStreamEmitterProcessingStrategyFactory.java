@@ -53,22 +53,25 @@ public class ProactorStreamEmitterProcessingStrategyFactory extends AbstractStre
   @Override
   public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
     Supplier<Scheduler> cpuLightSchedulerSupplier = getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix);
-    return new ProactorStreamEmitterProcessingStrategy(getBufferSize(),
-                                                       getSubscriberCount(),
-                                                       cpuLightSchedulerSupplier,
-                                                       cpuLightSchedulerSupplier,
-                                                       () -> muleContext.getSchedulerService()
-                                                           .ioScheduler(muleContext.getSchedulerBaseConfig()
-                                                               .withName(
-                                                                         schedulersNamePrefix + "." + BLOCKING.name())),
-                                                       () -> muleContext.getSchedulerService()
-                                                           .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
-                                                               .withName(schedulersNamePrefix + "."
-                                                                   + CPU_INTENSIVE.name())),
-                                                       resolveParallelism(),
-                                                       getMaxConcurrency(),
-                                                       isMaxConcurrencyEagerCheck(),
-                                                       muleContext.getConfiguration().isThreadLoggingEnabled());
+    ProactorStreamEmitterProcessingStrategy processingStrategy =
+        new ProactorStreamEmitterProcessingStrategy(getBufferSize(),
+                                                    getSubscriberCount(),
+                                                    cpuLightSchedulerSupplier,
+                                                    cpuLightSchedulerSupplier,
+                                                    () -> muleContext.getSchedulerService()
+                                                        .ioScheduler(muleContext.getSchedulerBaseConfig()
+                                                            .withName(
+                                                                      schedulersNamePrefix + "." + BLOCKING.name())),
+                                                    () -> muleContext.getSchedulerService()
+                                                        .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig()
+                                                            .withName(schedulersNamePrefix + "."
+                                                                + CPU_INTENSIVE.name())),
+                                                    resolveParallelism(),
+                                                    getMaxConcurrency(),
+                                                    isMaxConcurrencyEagerCheck(),
+                                                    muleContext.getConfiguration().isThreadLoggingEnabled());
+    processingStrategy.setSinkBatching(getSinkBatchSize(), getSinkBatchWindowMillis());
+    return processingStrategy;
   }
 
   @Override
@@ -154,7 +157,7 @@ public class ProactorStreamEmitterProcessingStrategyFactory extends AbstractStre
       LOGGER.debug("Doing proactor() for {} on {}. maxConcurrency={}, parallelism={}, subscribers={}", processor, scheduler,
                    maxConcurrency, getParallelism(), subscribers);
 
-      final ScheduledExecutorService retryScheduler = getRetryScheduler(scheduler);
+      final ScheduledExecutorService retryScheduler = decorateProcessorScheduler(processor, getRetryScheduler(scheduler));
 
       // FlatMap is the way reactor has to do parallel processing. Since this proactor method is used for the processors that are
       // not CPU_LITE, parallelism is wanted when the processor is blocked to do IO or doing long CPU work.
@@ -183,6 +186,18 @@ public class ProactorStreamEmitterProcessingStrategyFactory extends AbstractStre
       }
     }
 
+    /**
+     * Allows implementations to decorate the scheduler that the given {@code processor} is executed on.
+     *
+     * @param processor the processor to be executed.
+     * @param scheduler the scheduler for the processing type of {@code processor}.
+     * @return the scheduler to execute {@code processor} on.
+     */
+    protected ScheduledExecutorService decorateProcessorScheduler(ReactiveProcessor processor,
+                                                                  ScheduledExecutorService scheduler) {
+      return scheduler;
+    }
+
     private Mono<CoreEvent> scheduleProcessor(ReactiveProcessor processor, ScheduledExecutorService processorScheduler,
                                               Mono<CoreEvent> eventFlux) {
       return scheduleWithLogging(processor, processorScheduler, eventFlux);
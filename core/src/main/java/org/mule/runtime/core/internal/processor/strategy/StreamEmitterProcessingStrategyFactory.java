@@ -7,14 +7,18 @@
 package org.mule.runtime.core.internal.processor.strategy;
 
 import static java.lang.Long.MIN_VALUE;
+import static java.lang.Math.max;
+import static java.lang.System.currentTimeMillis;
 import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.time.Duration.ofMillis;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.construct.BackPressureReason.EVENTS_ACCUMULATED;
 import static org.mule.runtime.core.api.construct.BackPressureReason.REQUIRED_SCHEDULER_BUSY;
 import static org.mule.runtime.core.api.construct.BackPressureReason.REQUIRED_SCHEDULER_BUSY_WITH_FULL_BUFFER;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.FluxSink.OverflowStrategy.BUFFER;
@@ -32,17 +36,20 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.Sink;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
 import org.mule.runtime.core.internal.util.rx.RejectionCallbackExecutorServiceDecorator;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import java.util.function.IntUnaryOperator;
 import java.util.function.LongUnaryOperator;
 import java.util.function.Supplier;
@@ -52,6 +59,7 @@ import org.slf4j.Logger;
 
 import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 
 /**
  * {@link AbstractStreamProcessingStrategyFactory} implementation for Reactor streams using a {@link EmitterProcessor}
@@ -62,15 +70,18 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
 
   @Override
   public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
-    return new StreamEmitterProcessingStrategy(getBufferSize(),
-                                               getSubscriberCount(),
-                                               getFlowDispatchSchedulerSupplier(muleContext, schedulersNamePrefix),
-                                               getCpuLightSchedulerSupplier(
-                                                                            muleContext,
-                                                                            schedulersNamePrefix),
-                                               resolveParallelism(),
-                                               getMaxConcurrency(),
-                                               isMaxConcurrencyEagerCheck());
+    StreamEmitterProcessingStrategy processingStrategy =
+        new StreamEmitterProcessingStrategy(getBufferSize(),
+                                            getSubscriberCount(),
+                                            getFlowDispatchSchedulerSupplier(muleContext, schedulersNamePrefix),
+                                            getCpuLightSchedulerSupplier(
+                                                                         muleContext,
+                                                                         schedulersNamePrefix),
+                                            resolveParallelism(),
+                                            getMaxConcurrency(),
+                                            isMaxConcurrencyEagerCheck());
+    processingStrategy.setSinkBatching(getSinkBatchSize(), getSinkBatchWindowMillis());
+    return processingStrategy;
   }
 
   @Override
@@ -119,6 +130,9 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
     // Using it, an eager stop of the schedulers is implmented in `stopSchedulersIfNeeded`
     private final AtomicInteger activeSinksCount = new AtomicInteger(0);
 
+    private int sinkBatchSize = 1;
+    private long sinkBatchWindowMillis;
+
     public StreamEmitterProcessingStrategy(int bufferSize,
                                            int subscribers,
                                            Supplier<Scheduler> flowDispatchSchedulerSupplier,
@@ -132,6 +146,18 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
       this.sinksCount = getSinksCount();
     }
 
+    /**
+     * Makes the sinks created by this strategy publish the events put into them in batches, so the cost of handing each event
+     * to the thread that processes it is shared by all the events in the batch.
+     *
+     * @param sinkBatchSize the maximum size of the batches. {@code 1} disables batching.
+     * @param sinkBatchWindowMillis the maximum time an event waits for its batch to be completed before being published anyway.
+     */
+    void setSinkBatching(int sinkBatchSize, long sinkBatchWindowMillis) {
+      this.sinkBatchSize = sinkBatchSize;
+      this.sinkBatchWindowMillis = sinkBatchWindowMillis;
+    }
+
     @Override
     public void dispose() {
       stopSchedulersIfNeeded();
@@ -159,33 +185,62 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
     public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor function) {
       final long shutdownTimeout = flowConstruct.getMuleContext().getConfiguration().getShutdownTimeout();
 
+      final ProcessingLatencyStatistics latencyStatistics = getProcessingLatencyStatistics(flowConstruct.getMuleContext());
+      final ReactiveProcessor sinkPipeline = recordingSinkWait(latencyStatistics, flowConstruct, function);
+
       List<ReactorSink<CoreEvent>> sinks = new ArrayList<>();
       final int bufferQueueSize = getBufferQueueSize();
 
       for (int i = 0; i < sinksCount; i++) {
         Latch completionLatch = new Latch();
-        EmitterProcessor<CoreEvent> processor = EmitterProcessor.create(bufferQueueSize);
         AtomicReference<Throwable> failedSubscriptionCause = new AtomicReference<>();
-        processor.transform(function)
-            .subscribe(null, getThrowableConsumer(flowConstruct, completionLatch, failedSubscriptionCause),
-                       () -> completionLatch.release());
+        Consumer<Throwable> errorConsumer = getThrowableConsumer(flowConstruct, completionLatch, failedSubscriptionCause);
+        Consumer<Long> disposer = prepareDisposeTimestamp -> {
+          awaitSubscribersCompletion(flowConstruct, shutdownTimeout, completionLatch, prepareDisposeTimestamp);
+          stopSchedulersIfNeeded();
+        };
+
+        ReactorSink<CoreEvent> sink;
+        if (sinkBatchSize > 1) {
+          EmitterProcessor<List<CoreEvent>> processor = EmitterProcessor.create(max(1, bufferQueueSize / sinkBatchSize));
+          // Request one batch at a time so the events wait in the sink and not in the flattening
+          processor.flatMapIterable(batch -> batch, 1)
+              .transform(sinkPipeline)
+              .subscribe(null, errorConsumer, () -> completionLatch.release());
+
+          if (!processor.hasDownstreams()) {
+            throw resolveSubscriptionErrorCause(failedSubscriptionCause);
+          }
 
-        if (!processor.hasDownstreams()) {
-          throw resolveSubscriptionErrorCause(failedSubscriptionCause);
-        }
+          sink = new BatchingReactorSink(processor.sink(BUFFER), disposer,
+                                         recordingSinkEnter(latencyStatistics, onEventConsumer),
+                                         getFlowDispatcherScheduler(), sinkBatchSize, sinkBatchWindowMillis);
+        } else {
+          EmitterProcessor<CoreEvent> processor = EmitterProcessor.create(bufferQueueSize);
+          processor.transform(sinkPipeline)
+              .subscribe(null, errorConsumer, () -> completionLatch.release());
+
+          if (!processor.hasDownstreams()) {
+            throw resolveSubscriptionErrorCause(failedSubscriptionCause);
+          }
 
-        ReactorSink<CoreEvent> sink =
-            new DefaultReactorSink<>(processor.sink(BUFFER),
-                                     prepareDisposeTimestamp -> {
-                                       awaitSubscribersCompletion(flowConstruct, shutdownTimeout, completionLatch,
-                                                                  prepareDisposeTimestamp);
-                                       stopSchedulersIfNeeded();
-                                     },
-                                     onEventConsumer, bufferQueueSize);
+          sink = new DefaultReactorSink<>(processor.sink(BUFFER), disposer,
+                                          recordingSinkEnter(latencyStatistics, onEventConsumer), bufferQueueSize);
+        }
         sinks.add(sink);
       }
 
       activeSinksCount.addAndGet(sinksCount);
+      return createRoundRobinSink(sinks);
+    }
+
+    /**
+     * Creates the {@link Sink} that distributes the events among the given {@code sinks}.
+     *
+     * @param sinks the sinks created for the flow.
+     * @return the sink to use for the flow.
+     */
+    protected Sink createRoundRobinSink(List<ReactorSink<CoreEvent>> sinks) {
       return new RoundRobinReactorSink<>(sinks);
     }
 
@@ -263,7 +318,8 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
 
     @Override
     public ReactiveProcessor onPipeline(ReactiveProcessor pipeline) {
-      reactor.core.scheduler.Scheduler scheduler = fromExecutorService(decorateScheduler(getFlowDispatcherScheduler()));
+      reactor.core.scheduler.Scheduler scheduler =
+          fromExecutorService(decorateScheduler(decorateFlowDispatcherScheduler(getFlowDispatcherScheduler())));
       return publisher -> from(publisher).publishOn(scheduler)
           .doOnSubscribe(subscription -> currentThread().setContextClassLoader(executionClassloader))
           .transform(pipeline);
@@ -299,11 +355,140 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
       return flowDispatchSchedulerLazy.get();
     }
 
+    /**
+     * Allows implementations to decorate the scheduler used to dispatch the events into the flow.
+     *
+     * @param scheduler the flow dispatcher scheduler.
+     * @return the scheduler to dispatch the events with.
+     */
+    protected ScheduledExecutorService decorateFlowDispatcherScheduler(ScheduledExecutorService scheduler) {
+      return scheduler;
+    }
+
     @Override
     protected int getBufferQueueSize() {
       return bufferSize / sinksCount;
     }
 
+    /**
+     * {@link ReactorSink} that accumulates the events put into it and publishes them together into the flow, either when
+     * {@code batchSize} events are accumulated or when the first of them has waited for {@code batchWindowMillis}.
+     * <p>
+     * The events are published in the same order they were put into the sink. Back-pressure is applied when the flux has no
+     * room for another batch.
+     */
+    static class BatchingReactorSink implements AbstractProcessingStrategy.ReactorSink<CoreEvent> {
+
+      private final FluxSink<List<CoreEvent>> fluxSink;
+      private final Consumer<Long> disposer;
+      private final Consumer<CoreEvent> onEventConsumer;
+      private final ScheduledExecutorService windowScheduler;
+      private final int batchSize;
+      private final long batchWindowMillis;
+
+      private List<CoreEvent> batch;
+      // Identifies the current batch, so a window that elapses after its batch was completed does not publish the next one
+      private long batchSequence;
+      private long prepareDisposeTimestamp = -1;
+
+      BatchingReactorSink(FluxSink<List<CoreEvent>> fluxSink, Consumer<Long> disposer, Consumer<CoreEvent> onEventConsumer,
+                          ScheduledExecutorService windowScheduler, int batchSize, long batchWindowMillis) {
+        this.fluxSink = fluxSink;
+        this.disposer = disposer;
+        this.onEventConsumer = onEventConsumer;
+        this.windowScheduler = windowScheduler;
+        this.batchSize = batchSize;
+        this.batchWindowMillis = batchWindowMillis;
+      }
+
+      @Override
+      public void accept(CoreEvent event) {
+        onEventConsumer.accept(event);
+        synchronized (this) {
+          add(event);
+        }
+      }
+
+      @Override
+      public BackPressureReason emit(CoreEvent event) {
+        onEventConsumer.accept(event);
+        synchronized (this) {
+          if (fluxSink.requestedFromDownstream() == 0) {
+            return EVENTS_ACCUMULATED;
+          }
+
+          add(event);
+          return null;
+        }
+      }
+
+      private void add(CoreEvent event) {
+        if (batch == null) {
+          batch = new ArrayList<>(batchSize);
+          batch.add(event);
+          if (!scheduleWindow(++batchSequence)) {
+            publish();
+          }
+        } else {
+          batch.add(event);
+          if (batch.size() >= batchSize) {
+            publish();
+          }
+        }
+      }
+
+      private boolean scheduleWindow(long sequence) {
+        try {
+          windowScheduler.schedule(() -> onWindowElapsed(sequence), batchWindowMillis, MILLISECONDS);
+          return true;
+        } catch (RejectedExecutionException e) {
+          // Do not hold the event if the window cannot be enforced
+          return false;
+        }
+      }
+
+      private synchronized void onWindowElapsed(long sequence) {
+        if (batch != null && batchSequence == sequence) {
+          publish();
+        }
+      }
+
+      private void publish() {
+        if (batch != null) {
+          final List<CoreEvent> published = batch;
+          batch = null;
+          fluxSink.next(published);
+        }
+      }
+
+      @Override
+      public CoreEvent intoSink(CoreEvent event) {
+        return event;
+      }
+
+      @Override
+      public synchronized void prepareDispose() {
+        prepareDisposeTimestamp = currentTimeMillis();
+        publish();
+        fluxSink.complete();
+      }
+
+      @Override
+      public void dispose() {
+        final long disposeTimestamp;
+        synchronized (this) {
+          if (prepareDisposeTimestamp == -1) {
+            publish();
+            fluxSink.complete();
+            disposeTimestamp = currentTimeMillis();
+          } else {
+            disposeTimestamp = prepareDisposeTimestamp;
+          }
+        }
+        disposer.accept(disposeTimestamp);
+      }
+    }
+
     static class RoundRobinReactorSink<E> implements AbstractProcessingStrategy.ReactorSink<E> {
 
       private final List<AbstractProcessingStrategy.ReactorSink<E>> fluxSinks;
@@ -312,8 +497,18 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
       private final IntUnaryOperator update;
 
       public RoundRobinReactorSink(List<AbstractProcessingStrategy.ReactorSink<E>> sinks) {
+        this(sinks, sinks::size);
+      }
+
+      /**
+       * Creates a sink that only distributes events among the first {@code activeSinks} of the given {@code sinks}.
+       *
+       * @param sinks the sinks to distribute the events among.
+       * @param activeSinks how many of the {@code sinks} to use. May change over time, but must not exceed their size.
+       */
+      public RoundRobinReactorSink(List<AbstractProcessingStrategy.ReactorSink<E>> sinks, IntSupplier activeSinks) {
         this.fluxSinks = sinks;
-        this.update = value -> (value + 1) % fluxSinks.size();
+        this.update = value -> (value + 1) % activeSinks.getAsInt();
       }
 
       @Override
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.construct.BackPressureReason.MAX_CONCURRENCY_EXCEEDED;
+import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.api.rx.Exceptions.wrapFatal;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.just;
+import static reactor.core.publisher.Mono.subscriberContext;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.BackPressureReason;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.construct.FromFlowRejectedExecutionException;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Creates a {@link ProcessingStrategy} that runs each event on its own virtual thread, with no dispatching between the
+ * {@code CPU_LITE}, {@code BLOCKING} and {@code CPU_INTENSIVE} schedulers. Processors are executed sequentially in the thread
+ * of the event, so blocking operations just park that thread until they complete.
+ * <p/>
+ * The amount of events processed concurrently is limited by {@link #setMaxConcurrency(int)}. Events exceeding it are
+ * rejected with {@link BackPressureReason#MAX_CONCURRENCY_EXCEEDED}, or wait for a running event to complete when the eager
+ * check is disabled and the event is accepted through {@link Sink#accept(CoreEvent)}.
+ * <p/>
+ * Virtual threads are only available from Java 21. When running on a JVM that doesn't support them, the processing strategy
+ * created is the one from {@link ProactorStreamEmitterProcessingStrategyFactory}, with the same configuration.
+ * <p/>
+ * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
+ *
+ * @since 4.3.0
+ */
+public class VirtualThreadProcessingStrategyFactory extends AbstractProcessingStrategyFactory {
+
+  private static final Logger LOGGER = getLogger(VirtualThreadProcessingStrategyFactory.class);
+
+  private static final Method OF_VIRTUAL = resolveOfVirtual();
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    if (!isVirtualThreadsSupported()) {
+      LOGGER.warn("Virtual threads are not supported by this JVM. Using the default processing strategy for '{}'",
+                  schedulersNamePrefix);
+      ProactorStreamEmitterProcessingStrategyFactory fallbackFactory = new ProactorStreamEmitterProcessingStrategyFactory();
+      fallbackFactory.setMaxConcurrency(getMaxConcurrency());
+      fallbackFactory.setMaxConcurrencyEagerCheck(isMaxConcurrencyEagerCheck());
+      return fallbackFactory.create(muleContext, schedulersNamePrefix);
+    }
+
+    return new VirtualThreadProcessingStrategy(createVirtualThreadFactory(schedulersNamePrefix + ".virtual."),
+                                               getMaxConcurrency(),
+                                               isMaxConcurrencyEagerCheck(),
+                                               muleContext.getExecutionClassLoader());
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return isVirtualThreadsSupported()
+        ? VirtualThreadProcessingStrategy.class
+        : ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy.class;
+  }
+
+  /**
+   * @return whether the running JVM is able to create virtual threads.
+   */
+  public static boolean isVirtualThreadsSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  private static Method resolveOfVirtual() {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      // Virtual threads are a preview feature in some versions, in which case this fails unless previews are enabled
+      ofVirtual.invoke(null);
+      return ofVirtual;
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Creates a {@link ThreadFactory} for virtual threads named with the given prefix and a sequence number.
+   * <p/>
+   * The Virtual threads API is accessed reflectively since the runtime still targets Java 8.
+   */
+  private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to create a virtual thread factory", e);
+    }
+  }
+
+  static class VirtualThreadProcessingStrategy extends AbstractProcessingStrategy implements Disposable {
+
+    private static final Logger LOGGER = getLogger(VirtualThreadProcessingStrategy.class);
+
+    private final ThreadFactory threadFactory;
+    private final boolean maxConcurrencyEagerCheck;
+    private final ClassLoader executionClassloader;
+    private final Semaphore permits;
+
+    private final AtomicInteger activeEvents = new AtomicInteger();
+    private final AtomicInteger peakActiveEvents = new AtomicInteger();
+    private final AtomicLong dispatchedEvents = new AtomicLong();
+    private final AtomicLong rejectedEvents = new AtomicLong();
+    private final AtomicLong waitedEmissions = new AtomicLong();
+
+    private ProcessingLatencyStatistics statistics;
+    private String countersSource;
+
+    VirtualThreadProcessingStrategy(ThreadFactory threadFactory, int maxConcurrency, boolean maxConcurrencyEagerCheck,
+                                    ClassLoader executionClassloader) {
+      this.threadFactory = threadFactory;
+      this.maxConcurrencyEagerCheck = maxConcurrencyEagerCheck;
+      this.executionClassloader = executionClassloader;
+      this.permits = maxConcurrency == MAX_VALUE ? null : new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor pipeline) {
+      publishCounters(flowConstruct);
+      return new VirtualThreadSink(pipeline, flowConstruct.getMuleContext().getConfiguration().getShutdownTimeout());
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      // Each event already has a thread of its own, so the result of non-blocking processors is just waited for
+      return publisher -> from(publisher)
+          .flatMap(e -> subscriberContext()
+              .flatMap(ctx -> just(e).handle((event, sink) -> {
+                try {
+                  CoreEvent result = just(event).transform(processor)
+                      .subscriberContext(ctx)
+                      .block();
+                  if (result != null) {
+                    sink.next(result);
+                  }
+                } catch (Throwable throwable) {
+                  sink.error(wrapFatal(unwrap(throwable)));
+                }
+              })));
+    }
+
+    @Override
+    public void checkBackpressureAccepting(CoreEvent event) throws RejectedExecutionException {
+      final BackPressureReason reason = checkCapacity(event);
+      if (reason != null) {
+        throw new FromFlowRejectedExecutionException(reason);
+      }
+    }
+
+    @Override
+    public BackPressureReason checkBackpressureEmitting(CoreEvent event) {
+      return checkCapacity(event);
+    }
+
+    /**
+     * When the eager check is enabled, takes the permit for the event here so it is rejected before getting into the flow.
+     */
+    private BackPressureReason checkCapacity(CoreEvent event) {
+      if (maxConcurrencyEagerCheck && permits != null) {
+        if (!permits.tryAcquire()) {
+          rejectedEvents.incrementAndGet();
+          return MAX_CONCURRENCY_EXCEEDED;
+        }
+
+        // onResponse doesn't wait for child contexts to be terminated, which is handy when a child context is created (like in
+        // an async, for instance)
+        ((BaseEventContext) event.getContext()).onResponse((e, t) -> permits.release());
+      }
+
+      return null;
+    }
+
+    /**
+     * Makes the counters of this processing strategy available through the {@link ProcessingLatencyStatistics} of the
+     * artifact, if these are enabled.
+     */
+    private synchronized void publishCounters(FlowConstruct flowConstruct) {
+      ProcessingLatencyStatistics artifactStatistics = getProcessingLatencyStatistics(flowConstruct.getMuleContext());
+      if (artifactStatistics == null) {
+        return;
+      }
+
+      Map<String, LongSupplier> counters = new LinkedHashMap<>();
+      counters.put("activeEvents", this::getActiveEvents);
+      counters.put("peakActiveEvents", this::getPeakActiveEvents);
+      counters.put("dispatchedEvents", this::getDispatchedEvents);
+      counters.put("rejectedEvents", this::getRejectedEvents);
+      counters.put("waitedEmissions", this::getWaitedEmissions);
+
+      statistics = artifactStatistics;
+      countersSource = "virtualThreadProcessingStrategy:" + flowConstruct.getName();
+      statistics.registerCounters(countersSource, counters);
+    }
+
+    @Override
+    public synchronized void dispose() {
+      LOGGER.debug("Disposing virtual thread processing strategy. dispatched={}, rejected={}, waited={}, peakActive={}",
+                    dispatchedEvents.get(), rejectedEvents.get(), waitedEmissions.get(), peakActiveEvents.get());
+      if (statistics != null) {
+        statistics.unregisterCounters(countersSource);
+        statistics = null;
+      }
+    }
+
+    /**
+     * @return the number of events currently being processed.
+     */
+    int getActiveEvents() {
+      return activeEvents.get();
+    }
+
+    /**
+     * @return the maximum number of events that were processed at the same time.
+     */
+    int getPeakActiveEvents() {
+      return peakActiveEvents.get();
+    }
+
+    /**
+     * @return the number of events that were dispatched to their own virtual thread.
+     */
+    long getDispatchedEvents() {
+      return dispatchedEvents.get();
+    }
+
+    /**
+     * @return the number of events that were not accepted because {@code maxConcurrency} was reached.
+     */
+    long getRejectedEvents() {
+      return rejectedEvents.get();
+    }
+
+    /**
+     * @return the number of events that had to wait for a running event to complete before being dispatched.
+     */
+    long getWaitedEmissions() {
+      return waitedEmissions.get();
+    }
+
+    private final class VirtualThreadSink implements Sink, Disposable {
+
+      private final ReactiveProcessor pipeline;
+      private final long shutdownTimeout;
+
+      private VirtualThreadSink(ReactiveProcessor pipeline, long shutdownTimeout) {
+        this.pipeline = pipeline;
+        this.shutdownTimeout = shutdownTimeout;
+      }
+
+      @Override
+      public void accept(CoreEvent event) {
+        onEventConsumer.accept(event);
+        if (!maxConcurrencyEagerCheck && permits != null) {
+          if (!permits.tryAcquire()) {
+            waitedEmissions.incrementAndGet();
+            permits.acquireUninterruptibly();
+          }
+          releaseOnResponse(event);
+        }
+        dispatch(event);
+      }
+
+      @Override
+      public BackPressureReason emit(CoreEvent event) {
+        onEventConsumer.accept(event);
+        if (!maxConcurrencyEagerCheck && permits != null) {
+          if (!permits.tryAcquire()) {
+            rejectedEvents.incrementAndGet();
+            return MAX_CONCURRENCY_EXCEEDED;
+          }
+          releaseOnResponse(event);
+        }
+        dispatch(event);
+        return null;
+      }
+
+      private void releaseOnResponse(CoreEvent event) {
+        ((BaseEventContext) event.getContext()).onResponse((e, t) -> permits.release());
+      }
+
+      private void dispatch(CoreEvent event) {
+        int active = activeEvents.incrementAndGet();
+        peakActiveEvents.accumulateAndGet(active, Math::max);
+        dispatchedEvents.incrementAndGet();
+
+        try {
+          threadFactory.newThread(() -> process(event)).start();
+        } catch (Throwable t) {
+          activeEvents.decrementAndGet();
+          ((BaseEventContext) event.getContext()).error(new MessagingException(event, t));
+        }
+      }
+
+      private void process(CoreEvent event) {
+        currentThread().setContextClassLoader(executionClassloader);
+        try {
+          // Errors are handled by the pipeline and propagated through the event context, there's nothing else to do with them.
+          just(event).transform(pipeline).subscribe(null, e -> LOGGER.debug("Error processing event {}", event, e));
+        } finally {
+          activeEvents.decrementAndGet();
+        }
+      }
+
+      @Override
+      public void dispose() {
+        final long timeout = currentTimeMillis() + shutdownTimeout;
+        while (activeEvents.get() > 0 && currentTimeMillis() < timeout) {
+          try {
+            MILLISECONDS.sleep(SCHEDULER_BUSY_RETRY_INTERVAL_MS);
+          } catch (InterruptedException e) {
+            currentThread().interrupt();
+            break;
+          }
+        }
+
+        if (activeEvents.get() > 0) {
+          LOGGER.warn("{} events still being processed after waiting {}ms for them to complete", activeEvents.get(),
+                      shutdownTimeout);
+        }
+      }
+    }
+  }
+}
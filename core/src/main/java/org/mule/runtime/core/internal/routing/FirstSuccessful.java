@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
 
@@ -13,6 +14,7 @@ import org.mule.runtime.api.component.AbstractComponent;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.event.CoreEvent;
@@ -29,12 +31,19 @@ import org.reactivestreams.Publisher;
  * FirstSuccessful routes an event to the first target route that can accept it without throwing or returning an exception. If no
  * such route can be found, an exception is thrown. Note that this works more reliable with synchronous targets, but no such
  * restriction is imposed.
+ * <p>
+ * When hedged, the next route is also attempted if the ones already attempted take longer than the configured percentile of the
+ * latency of the recent successful attempts, and the first one to succeed is used. This trades extra load on the routes for a
+ * lower tail latency, so it is only suitable for idempotent routes.
  */
 public class FirstSuccessful extends AbstractComponent implements Router, Lifecycle, MuleContextAware {
 
   private final List<ProcessorRoute> routes = new ArrayList<>();
   private MuleContext muleContext;
-
+  private boolean hedged = false;
+  private double hedgePercentile = 95;
+  private volatile Scheduler hedgeScheduler;
+  private HedgedFirstSuccessfulRouter hedgedRouter;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -42,6 +51,9 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
       route.setMessagingExceptionHandler(null);
       initialiseIfNeeded(route, muleContext);
     }
+    if (hedged) {
+      hedgedRouter = new HedgedFirstSuccessfulRouter(this, routes, hedgePercentile, () -> hedgeScheduler);
+    }
   }
 
   @Override
@@ -49,10 +61,17 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
     for (ProcessorRoute route : routes) {
       route.start();
     }
+    if (hedged) {
+      hedgeScheduler = muleContext.getSchedulerService().cpuLightScheduler();
+    }
   }
 
   @Override
   public void stop() throws MuleException {
+    if (hedgeScheduler != null) {
+      hedgeScheduler.stop();
+      hedgeScheduler = null;
+    }
     for (ProcessorRoute route : routes) {
       route.stop();
     }
@@ -83,8 +102,32 @@ public class FirstSuccessful extends AbstractComponent implements Router, Lifecy
     routes.forEach(this::addRoute);
   }
 
+  /**
+   * Sets whether the next route is to be attempted when the ones already attempted are slower than usual, in addition to when
+   * they fail.
+   *
+   * @param hedged {@code false} by default.
+   */
+  public void setHedged(boolean hedged) {
+    this.hedged = hedged;
+  }
+
+  /**
+   * Sets the percentile of the latency of successful attempts after which the next route is attempted when hedged.
+   *
+   * @param hedgePercentile a value greater than {@code 0} and up to {@code 100}, {@code 95} by default.
+   * @throws IllegalArgumentException if the value is out of range.
+   */
+  public void setHedgePercentile(double hedgePercentile) {
+    checkArgument(hedgePercentile > 0 && hedgePercentile <= 100, "Hedge percentile must be greater than 0 and up to 100");
+    this.hedgePercentile = hedgePercentile;
+  }
+
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    if (hedgedRouter != null) {
+      return hedgedRouter.apply(publisher);
+    }
     return new FirstSuccessfulRouter(this, publisher, routes).getDownstreamPublisher();
   }
 
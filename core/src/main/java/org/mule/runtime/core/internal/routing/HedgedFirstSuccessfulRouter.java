@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.Long.getLong;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.internal.event.EventDeadline.remainingMillis;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChildContext;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
+import static reactor.core.publisher.Flux.from;
+
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.processor.latency.LatencyHistogram;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Router with hedged {@link FirstSuccessful} routing logic.
+ * <p>
+ * Routes are attempted in order, as with the regular logic, but the next route is also attempted when the running ones have not
+ * answered within the configured percentile of the latency of past successful attempts. The first successful attempt wins and
+ * the ones still running are cancelled. Once the deadline of the event is spent no new routes are attempted.
+ * <p>
+ * The latency of the successful attempts is kept in windows of {@link #HEDGE_LATENCY_WINDOW} milliseconds, and only the current
+ * and the previous windows are taken into account, so the hedge delay follows changes in the latency of the routes.
+ *
+ * @since 4.3.0
+ */
+class HedgedFirstSuccessfulRouter {
+
+  /**
+   * The amount of successful attempts that have to be recorded before attempts are hedged on their latency. Until then, the next
+   * route is only attempted when the previous one fails.
+   */
+  static final int HEDGE_WARM_UP_ATTEMPTS =
+      getInteger(HedgedFirstSuccessfulRouter.class.getName() + ".HEDGE_WARM_UP_ATTEMPTS", 100);
+
+  /**
+   * The minimum time, in milliseconds, to wait for the running attempts before attempting the next route.
+   */
+  static final long MIN_HEDGE_DELAY = getLong(HedgedFirstSuccessfulRouter.class.getName() + ".MIN_HEDGE_DELAY", 5);
+
+  /**
+   * The length, in milliseconds, of each window in which the latency of the successful attempts is kept.
+   */
+  static final long HEDGE_LATENCY_WINDOW =
+      getLong(HedgedFirstSuccessfulRouter.class.getName() + ".HEDGE_LATENCY_WINDOW", 30000);
+
+  private final Component owner;
+  private final List<ProcessorRoute> routes;
+  private final double hedgePercentile;
+  private final Supplier<Scheduler> hedgeScheduler;
+  private final long latencyWindowNanos;
+  private final AtomicReference<LatencyWindow> latencies;
+
+  /**
+   * @param hedgeScheduler provides the {@link Scheduler} on which the next route is attempted when the running ones are slow. If
+   *        it provides {@code null}, the next route is only attempted on failure.
+   */
+  HedgedFirstSuccessfulRouter(Component owner, List<ProcessorRoute> routes, double hedgePercentile,
+                              Supplier<Scheduler> hedgeScheduler) {
+    this(owner, routes, hedgePercentile, hedgeScheduler, HEDGE_LATENCY_WINDOW);
+  }
+
+  HedgedFirstSuccessfulRouter(Component owner, List<ProcessorRoute> routes, double hedgePercentile,
+                              Supplier<Scheduler> hedgeScheduler, long latencyWindowMillis) {
+    this.owner = owner;
+    this.routes = routes;
+    this.hedgePercentile = hedgePercentile;
+    this.hedgeScheduler = hedgeScheduler;
+    this.latencyWindowNanos = MILLISECONDS.toNanos(latencyWindowMillis);
+    this.latencies = new AtomicReference<>(new LatencyWindow(new LatencyHistogram(), new LatencyHistogram(), nanoTime()));
+  }
+
+  Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return from(publisher)
+        .flatMap(event -> Mono.<CoreEvent>create(sink -> new HedgedRouting(event, sink).attemptNext())
+            .onErrorMap(throwable -> !(throwable instanceof MessagingException),
+                        throwable -> new MessagingException(event, throwable, owner))
+            .onErrorStop());
+  }
+
+  /**
+   * @return the time in milliseconds to wait for the running attempts before attempting the next route, or
+   *         {@link Long#MAX_VALUE} if the next route is only to be attempted on failure.
+   */
+  long getHedgeDelay() {
+    final LatencyWindow window = currentLatencies();
+    final LatencyHistogram histogram;
+    if (window.current.getCount() >= HEDGE_WARM_UP_ATTEMPTS) {
+      histogram = window.current;
+    } else if (window.previous.getCount() >= HEDGE_WARM_UP_ATTEMPTS) {
+      histogram = window.previous;
+    } else {
+      return MAX_VALUE;
+    }
+    return max(MIN_HEDGE_DELAY, NANOSECONDS.toMillis(histogram.getValueAtPercentile(hedgePercentile)));
+  }
+
+  /**
+   * Records the latency of a successful attempt in the current window.
+   *
+   * @param nanos the time the attempt took, in nanoseconds.
+   */
+  void recordLatency(long nanos) {
+    currentLatencies().current.record(nanos);
+  }
+
+  private LatencyWindow currentLatencies() {
+    final LatencyWindow window = latencies.get();
+    final long now = nanoTime();
+    final long elapsed = now - window.start;
+    if (elapsed < latencyWindowNanos) {
+      return window;
+    }
+
+    // The previous window is discarded as well if no attempt was recorded during a whole window, since it is already stale.
+    final LatencyWindow rotated = new LatencyWindow(new LatencyHistogram(),
+                                                    elapsed < 2 * latencyWindowNanos ? window.current : new LatencyHistogram(),
+                                                    now);
+    return latencies.compareAndSet(window, rotated) ? rotated : latencies.get();
+  }
+
+  /**
+   * Holds the attempts of the routing of a single event.
+   */
+  private final class HedgedRouting {
+
+    private final CoreEvent event;
+    private final MonoSink<CoreEvent> sink;
+
+    // All the state below is guarded by this object.
+    private final List<Attempt> running = new ArrayList<>();
+    private int nextRoute;
+    private ScheduledFuture<?> hedge;
+    private boolean done;
+
+    private HedgedRouting(CoreEvent event, MonoSink<CoreEvent> sink) {
+      this.event = event;
+      this.sink = sink;
+      sink.onCancel(this::finish);
+    }
+
+    private void attemptNext() {
+      final Attempt attempt;
+      final int route;
+      synchronized (this) {
+        if (done || nextRoute == routes.size() || (nextRoute > 0 && remainingMillis(event) <= 0)) {
+          return;
+        }
+        cancelHedge();
+        route = nextRoute++;
+        attempt = new Attempt(newChildContext(event, ofNullable(owner.getLocation())));
+        running.add(attempt);
+        final Scheduler scheduler = hedgeScheduler.get();
+        final long hedgeDelay = getHedgeDelay();
+        if (scheduler != null && hedgeDelay != MAX_VALUE && nextRoute < routes.size()) {
+          hedge = scheduler.schedule(this::attemptNext, hedgeDelay, MILLISECONDS);
+        }
+      }
+
+      final long start = nanoTime();
+      final Disposable subscription = from(processWithChildContext(event, routes.get(route).getProcessor(), attempt.context))
+          .subscriberContext(sink.currentContext())
+          .subscribe(result -> {
+            if (result.getError().isPresent()) {
+              onError(attempt, result.getError().get().getCause());
+            } else {
+              recordLatency(nanoTime() - start);
+              onSuccess(attempt, result);
+            }
+          }, error -> onError(attempt, error));
+
+      synchronized (this) {
+        attempt.subscription = subscription;
+        if (!running.contains(attempt)) {
+          // The routing finished while subscribing.
+          subscription.dispose();
+        }
+      }
+    }
+
+    private void onSuccess(Attempt attempt, CoreEvent result) {
+      synchronized (this) {
+        running.remove(attempt);
+      }
+      if (finish()) {
+        sink.success(result);
+      }
+    }
+
+    private void onError(Attempt attempt, Throwable error) {
+      final boolean exhausted;
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        running.remove(attempt);
+        exhausted = running.isEmpty() && (nextRoute == routes.size() || remainingMillis(event) <= 0);
+      }
+      if (exhausted) {
+        if (finish()) {
+          sink.error(error);
+        }
+      } else {
+        attemptNext();
+      }
+    }
+
+    /**
+     * Marks the routing as done, cancelling the pending hedge and the attempts still running.
+     *
+     * @return {@code false} if the routing was already done.
+     */
+    private boolean finish() {
+      final List<Attempt> cancelled;
+      synchronized (this) {
+        if (done) {
+          return false;
+        }
+        done = true;
+        cancelHedge();
+        cancelled = new ArrayList<>(running);
+        running.clear();
+      }
+      for (Attempt attempt : cancelled) {
+        attempt.cancel();
+      }
+      return true;
+    }
+
+    private void cancelHedge() {
+      if (hedge != null) {
+        hedge.cancel(false);
+        hedge = null;
+      }
+    }
+  }
+
+  /**
+   * The latencies of the successful attempts recorded in the current window and in the one before it.
+   */
+  private static final class LatencyWindow {
+
+    private final LatencyHistogram current;
+    private final LatencyHistogram previous;
+    private final long start;
+
+    private LatencyWindow(LatencyHistogram current, LatencyHistogram previous, long start) {
+      this.current = current;
+      this.previous = previous;
+      this.start = start;
+    }
+  }
+
+  /**
+   * A running attempt of a route.
+   */
+  private static final class Attempt {
+
+    private final BaseEventContext context;
+    private Disposable subscription;
+
+    private Attempt(BaseEventContext context) {
+      this.context = context;
+    }
+
+    private void cancel() {
+      if (subscription != null) {
+        subscription.dispose();
+      }
+      // Complete the context of the cancelled attempt, so the completion of the parent context is not held by it.
+      context.success();
+    }
+  }
+}
@@ -12,6 +12,8 @@ import static java.util.Optional.of;
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.internal.routing.ParallelForEach.ResultsMode.COLLECT;
+import static org.mule.runtime.core.internal.streaming.object.FileStoreCursorIteratorConfig.getDefault;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 import static reactor.core.publisher.Flux.fromIterable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -19,12 +21,18 @@ import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.streaming.object.factory.FileStoreCursorIteratorProviderFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import java.util.Iterator;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import org.reactivestreams.Publisher;
 
 /**
@@ -36,6 +44,9 @@ import org.reactivestreams.Publisher;
  * For advanced use cases, a custom {@link ForkJoinStrategyFactory} can be applied to customize the logic used to aggregate the
  * route responses back into one single Event.
  * <p>
+ * When iterating over very large collections, such as cursors over millions of records, the {@link ResultsMode} can be used so
+ * that parts are pulled lazily and route results are either discarded or streamed out instead of being collected into a list.
+ * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/BroadcastAggregate.html"<a/>
  * </p>
  *
@@ -43,11 +54,37 @@ import org.reactivestreams.Publisher;
  */
 public class ParallelForEach extends AbstractForkJoinRouter {
 
+  /**
+   * Defines what is done with the results of the routes.
+   *
+   * @since 4.3.0
+   */
+  public enum ResultsMode {
+    /**
+     * Route results are collected into a {@link List} of {@link Message}s which is used as the result payload.
+     */
+    COLLECT,
+    /**
+     * Route results are discarded and the incoming event is passed through. Memory usage does not grow with the number of parts.
+     */
+    DISCARD,
+    /**
+     * Route results are streamed out as a {@link org.mule.runtime.api.streaming.object.CursorIteratorProvider} of
+     * {@link Message}s which is used as the result payload. Results are buffered in memory up to the default object streaming
+     * max buffer size, and the ones exceeding it are serialized into a local file, so they have to be serializable.
+     */
+    STREAM
+  }
+
+  @Inject
+  private StreamingManager streamingManager;
+
   private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
   private List<Processor> messageProcessors;
   private MessageProcessorChain nestedChain;
+  private ResultsMode resultsMode = COLLECT;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -85,7 +122,17 @@ public class ParallelForEach extends AbstractForkJoinRouter {
 
   @Override
   protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
-    return new CollectListForkJoinStrategyFactory(false);
+    switch (resultsMode) {
+      case DISCARD:
+        return new StreamingForkJoinStrategyFactory();
+      case STREAM:
+        // The in memory buffer fails when the results exceed its max size, which is expected for the collections this is used for
+        CursorIteratorProviderFactory resultsBuffer =
+            new FileStoreCursorIteratorProviderFactory(getDefault(), muleContext.getObjectSerializer(), streamingManager);
+        return new StreamingForkJoinStrategyFactory(resultsBuffer);
+      default:
+        return new CollectListForkJoinStrategyFactory(false);
+    }
   }
 
   /**
@@ -96,4 +143,13 @@ public class ParallelForEach extends AbstractForkJoinRouter {
   public void setCollectionExpression(String collectionExpression) {
     this.collectionExpression = collectionExpression;
   }
+
+  /**
+   * Set what is done with the results of the routes. Has no effect if a {@link ForkJoinStrategyFactory} is explicitly set.
+   *
+   * @param resultsMode the results mode, {@link ResultsMode#COLLECT} by default.
+   */
+  public void setResultsMode(ResultsMode resultsMode) {
+    this.resultsMode = resultsMode;
+  }
 }
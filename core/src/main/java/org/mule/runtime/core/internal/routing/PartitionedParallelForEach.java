@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.Arrays.asList;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
+import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContext;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Flux.fromIterable;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.ExpressionManager;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.outbound.IteratorMessageSequence;
+import org.mule.runtime.core.internal.routing.outbound.KeyPartitionedMessageSequence;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * <p>
+ * The <code>Partitioned-Parallel-Foreach</code> scope splits the incoming {@link org.mule.runtime.api.message.Message} into n
+ * parts and distributes them into a fixed number of lanes using the hash of a key evaluated for each part. Lanes are processed
+ * in parallel, subject to any limitation in concurrency that has been configured, while the parts within a lane are processed
+ * strictly one after the other, in the order in which they were split. All parts with the same key are therefore processed in
+ * order.
+ * <p>
+ * Processing of a lane stops at the first part that fails, and the failure is reported, together with the failures of other
+ * lanes, as a {@link org.mule.runtime.core.privileged.routing.CompositeRoutingException} once all lanes complete.
+ * <p>
+ * The result is a {@link List} with the resulting {@link Message} of each part, in the order in which the parts were split.
+ *
+ * @since 4.3.0
+ */
+public class PartitionedParallelForEach extends AbstractForkJoinRouter {
+
+  private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
+  private String partitionKeyExpression = DEFAULT_SPLIT_EXPRESSION;
+  private int partitions = getRuntime().availableProcessors();
+  private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
+  private ExpressionManager expressionManager;
+
+  private List<Processor> messageProcessors;
+  private MessageProcessorChain nestedChain;
+  private MessageProcessorChain laneChain;
+
+  @Override
+  public void initialise() throws InitialisationException {
+    nestedChain = buildNewChainWithListOfProcessors(of(resolveProcessingStrategy()), messageProcessors);
+    nestedChain.setMuleContext(muleContext);
+    laneChain = newChain(empty(), new LaneProcessor());
+    laneChain.setMuleContext(muleContext);
+    expressionManager = muleContext.getExpressionManager();
+    splittingStrategy = new ExpressionSplittingStrategy(expressionManager, collectionExpression);
+    super.initialise();
+  }
+
+  @Override
+  protected Publisher<ForkJoinStrategy.RoutingPair> getRoutingPairs(CoreEvent event) {
+    return fromIterable(() -> {
+      AtomicInteger position = new AtomicInteger();
+      Iterator<TypedValue<?>> parts = splittingStrategy.split(event);
+      MessageSequence<CoreEvent> partEvents = new IteratorMessageSequence(new Iterator<CoreEvent>() {
+
+        @Override
+        public boolean hasNext() {
+          return parts.hasNext();
+        }
+
+        @Override
+        public CoreEvent next() {
+          return CoreEvent.builder(event).message(Message.builder().payload(parts.next()).build())
+              .itemSequenceInfo(of(ItemSequenceInfo.of(position.getAndIncrement())))
+              .build();
+        }
+      });
+      return new KeyPartitionedMessageSequence<>(partEvents, partitions,
+                                                 partEvent -> expressionManager.evaluate(partitionKeyExpression, partEvent)
+                                                     .getValue());
+    }).map(parts -> ForkJoinStrategy.RoutingPair.of(CoreEvent.builder(event).message(Message.of(new Lane(parts))).build(),
+                                                    laneChain));
+  }
+
+  @Override
+  protected List<MessageProcessorChain> getOwnedObjects() {
+    return asList(nestedChain, laneChain);
+  }
+
+  public void setMessageProcessors(List<Processor> messageProcessors) {
+    this.messageProcessors = messageProcessors;
+  }
+
+  @Override
+  protected boolean isDelayErrors() {
+    return true;
+  }
+
+  @Override
+  protected int getDefaultMaxConcurrency() {
+    return DEFAULT_MAX_CONCURRENCY;
+  }
+
+  @Override
+  protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
+    return new OrderedPartsForkJoinStrategyFactory();
+  }
+
+  /**
+   * Set the expression used to split the incoming message.
+   *
+   * @param collectionExpression
+   */
+  public void setCollectionExpression(String collectionExpression) {
+    this.collectionExpression = collectionExpression;
+  }
+
+  /**
+   * Set the expression evaluated against each part to obtain the key that determines its lane.
+   *
+   * @param partitionKeyExpression the key expression, {@code #[payload]} by default.
+   */
+  public void setPartitionKey(String partitionKeyExpression) {
+    this.partitionKeyExpression = partitionKeyExpression;
+  }
+
+  /**
+   * Set the number of lanes the parts are distributed into.
+   *
+   * @param partitions the number of lanes, the number of available processors by default.
+   * @throws IllegalArgumentException if the value is zero or less.
+   */
+  public void setPartitions(int partitions) {
+    checkArgument(partitions > 0, "Partitions must be one or more.");
+    this.partitions = partitions;
+  }
+
+  /**
+   * Processes the part events of a {@link Lane}, which is given as the payload of the incoming event, one after the other
+   * through the nested chain.
+   * <p>
+   * The resulting event has the {@link LaneResults} as its payload.
+   */
+  private final class LaneProcessor implements Processor {
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      return processToApply(event, this);
+    }
+
+    @Override
+    public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+      return from(publisher).concatMap(lane -> {
+        List<CoreEvent> parts = ((Lane) lane.getMessage().getPayload().getValue()).parts;
+        return fromIterable(parts)
+            .concatMap(part -> processWithChildContext(CoreEvent.builder(lane.getContext(), part).build(), nestedChain,
+                                                       ofNullable(getLocation())))
+            .map(CoreEvent::getMessage)
+            .collectList()
+            .map(results -> CoreEvent.builder(lane).message(Message.of(new LaneResults(parts, results))).build())
+            .onErrorMap(MessagingException.class, me -> {
+              // Keep the lane correlation so that the failure is reported for this lane.
+              me.setProcessedEvent(CoreEvent.builder(me.getEvent()).groupCorrelation(lane.getGroupCorrelation()).build());
+              return me;
+            });
+      });
+    }
+  }
+
+  /**
+   * The part events distributed into a lane, in the order in which they were split.
+   */
+  private static final class Lane {
+
+    private final List<CoreEvent> parts;
+
+    private Lane(List<CoreEvent> parts) {
+      this.parts = parts;
+    }
+  }
+
+  /**
+   * The resulting {@link Message} of each part of a {@link Lane}, along with the position of the part in the original split.
+   */
+  private static final class LaneResults {
+
+    private final int[] positions;
+    private final List<Message> messages;
+
+    private LaneResults(List<CoreEvent> parts, List<Message> messages) {
+      this.positions = parts.stream().mapToInt(part -> part.getItemSequenceInfo().get().getPosition()).toArray();
+      this.messages = messages;
+    }
+  }
+
+  /**
+   * Joins the results of all lanes back into a single {@link List} of {@link Message}s, restoring the order of the original
+   * split.
+   */
+  private static final class OrderedPartsForkJoinStrategyFactory extends AbstractForkJoinStrategyFactory {
+
+    private OrderedPartsForkJoinStrategyFactory() {
+      super(false);
+    }
+
+    @Override
+    protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original, CoreEvent.Builder resultBuilder) {
+      return lanes -> {
+        List<LaneResults> laneResults =
+            lanes.stream().map(lane -> (LaneResults) lane.getMessage().getPayload().getValue()).collect(toList());
+        Message[] results = new Message[laneResults.stream().mapToInt(lane -> lane.messages.size()).sum()];
+        for (LaneResults lane : laneResults) {
+          for (int i = 0; i < lane.messages.size(); ++i) {
+            results[lane.positions[i]] = lane.messages.get(i);
+          }
+        }
+        return resultBuilder.message(Message.of(asList(results))).build();
+      };
+    }
+
+    @Override
+    public DataType getResultDataType() {
+      return MULE_MESSAGE_LIST;
+    }
+  }
+}
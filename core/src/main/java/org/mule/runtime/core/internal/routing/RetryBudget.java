@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the retries performed by an {@link UntilSuccessful} scope to a percentage of the events that go through it, so that a
+ * failing downstream does not receive several times its usual load from retries.
+ * <p>
+ * Each event deposits {@code percent} hundredths of a retry in the budget and each retry withdraws a whole one. The balance is
+ * capped to what the last {@link #RETRY_BUDGET_WINDOW} events would deposit, which is also the initial balance.
+ *
+ * @since 4.3.0
+ */
+final class RetryBudget {
+
+  /**
+   * The amount of events whose deposits may be accumulated in the budget.
+   */
+  static final int RETRY_BUDGET_WINDOW = getInteger(RetryBudget.class.getName() + ".RETRY_BUDGET_WINDOW", 100);
+
+  private static final long RETRY_COST = 100;
+
+  private final int percent;
+  private final long maxBalance;
+  private final AtomicLong balance;
+
+  RetryBudget(int percent) {
+    this.percent = percent;
+    this.maxBalance = (long) percent * RETRY_BUDGET_WINDOW;
+    this.balance = new AtomicLong(maxBalance);
+  }
+
+  /**
+   * Accounts for an event going through the scope.
+   */
+  void deposit() {
+    balance.accumulateAndGet(percent, (current, deposit) -> min(maxBalance, current + deposit));
+  }
+
+  /**
+   * @return whether a retry may be performed, in which case it is withdrawn from the budget.
+   */
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < RETRY_COST) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - RETRY_COST));
+    return true;
+  }
+}
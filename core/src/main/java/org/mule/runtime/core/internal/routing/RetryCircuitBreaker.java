@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker shared by all the events going through an {@link UntilSuccessful} scope.
+ * <p>
+ * After {@code failureThreshold} consecutive failed attempts the circuit opens, and attempts are rejected without being executed
+ * until {@code resetMillis} have elapsed. Then a single trial attempt is allowed: if it succeeds the circuit closes again, and if
+ * it fails it stays open for another {@code resetMillis}. A trial attempt that does not report its outcome within
+ * {@code trialTimeoutMillis} is taken as failed, so a lost trial does not keep the circuit from closing again.
+ *
+ * @since 4.3.0
+ */
+final class RetryCircuitBreaker {
+
+  private static final int CLOSED = 0;
+  private static final int OPEN = 1;
+  private static final int HALF_OPEN = 2;
+
+  private final int failureThreshold;
+  private final long resetNanos;
+  private final long trialTimeoutNanos;
+
+  private final AtomicInteger state = new AtomicInteger(CLOSED);
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile long openedAt;
+  private volatile long trialStartedAt;
+
+  /**
+   * Creates a circuit breaker that waits for the trial attempt as long as it stays open.
+   */
+  RetryCircuitBreaker(int failureThreshold, long resetMillis) {
+    this(failureThreshold, resetMillis, resetMillis);
+  }
+
+  RetryCircuitBreaker(int failureThreshold, long resetMillis, long trialTimeoutMillis) {
+    this.failureThreshold = failureThreshold;
+    this.resetNanos = MILLISECONDS.toNanos(resetMillis);
+    this.trialTimeoutNanos = MILLISECONDS.toNanos(trialTimeoutMillis);
+  }
+
+  /**
+   * @return whether an attempt may be executed. If the circuit is open and the reset time has elapsed, the caller is given the
+   *         trial attempt and must report its outcome.
+   */
+  boolean allowAttempt() {
+    switch (state.get()) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (nanoTime() - openedAt >= resetNanos && state.compareAndSet(OPEN, HALF_OPEN)) {
+          trialStartedAt = nanoTime();
+          return true;
+        }
+        return false;
+      default:
+        final long now = nanoTime();
+        if (now - trialStartedAt >= trialTimeoutNanos) {
+          // The trial attempt never reported its outcome, so it is taken as failed
+          openedAt = now;
+          state.compareAndSet(HALF_OPEN, OPEN);
+        }
+        return false;
+    }
+  }
+
+  void onSuccess() {
+    consecutiveFailures.set(0);
+    state.set(CLOSED);
+  }
+
+  void onFailure() {
+    if (consecutiveFailures.incrementAndGet() >= failureThreshold || state.get() == HALF_OPEN) {
+      openedAt = nanoTime();
+      state.set(OPEN);
+    }
+  }
+}
@@ -8,6 +8,8 @@ package org.mule.runtime.core.internal.routing;
 
 import static java.util.Collections.singletonList;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.routing.UntilSuccessful.RetryBackoff.FIXED;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
@@ -34,6 +36,10 @@ import org.reactivestreams.Publisher;
 /**
  * UntilSuccessful attempts to route a message to the message processor it contains. Routing is considered successful if no
  * exception has been raised and, optionally, if the response matches an expression.
+ * <p>
+ * Retries are scheduled without blocking the current thread, unless a transaction is active. To avoid overloading a recovering
+ * downstream, the delay between retries may grow exponentially with a random jitter, a circuit breaker shared by all events may
+ * fail them fast after consecutive failures, and a retry budget may limit retries to a percentage of the events.
  */
 public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
@@ -48,6 +54,13 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
   private String maxRetries = DEFAULT_RETRIES;
   private String millisBetweenRetries = DEFAULT_MILLIS_BETWEEN_RETRIES;
+  private RetryBackoff backoff = FIXED;
+  private long maxMillisBetweenRetries = Long.MAX_VALUE;
+  private int circuitBreakerThreshold = 0;
+  private long circuitBreakerResetMillis = 60000;
+  private Integer retryBudgetPercent;
+  private RetryCircuitBreaker circuitBreaker;
+  private RetryBudget retryBudget;
   private MessageProcessorChain nestedChain;
   private Predicate<CoreEvent> shouldRetry;
   private Scheduler timer;
@@ -66,6 +79,9 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
     timer = schedulerService.cpuLightScheduler();
     shouldRetry = event -> event.getError().isPresent();
+    circuitBreaker =
+        circuitBreakerThreshold > 0 ? new RetryCircuitBreaker(circuitBreakerThreshold, circuitBreakerResetMillis) : null;
+    retryBudget = retryBudgetPercent != null ? new RetryBudget(retryBudgetPercent) : null;
   }
 
   @Override
@@ -94,7 +110,8 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
     return new UntilSuccessfulRouter(this, publisher, nestedChain, expressionManager, shouldRetry, timer, maxRetries,
-                                     millisBetweenRetries).getDownstreamPublisher();
+                                     millisBetweenRetries, backoff, maxMillisBetweenRetries, circuitBreaker, retryBudget)
+                                         .getDownstreamPublisher();
   }
 
 
@@ -127,6 +144,49 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     this.millisBetweenRetries = millisBetweenRetries;
   }
 
+  /**
+   * @param backoff how the delay between retries grows. Default value is {@link RetryBackoff#FIXED}.
+   */
+  public void setBackoff(RetryBackoff backoff) {
+    this.backoff = backoff;
+  }
+
+  /**
+   * @param maxMillisBetweenRetries the upper bound of the delay between retries when it grows with each retry. Unbounded by
+   *        default.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public void setMaxMillisBetweenRetries(long maxMillisBetweenRetries) {
+    checkArgument(maxMillisBetweenRetries >= 0, "Max millis between retries must not be negative");
+    this.maxMillisBetweenRetries = maxMillisBetweenRetries;
+  }
+
+  /**
+   * @param circuitBreakerThreshold the number of consecutive failed attempts, of any event, after which events fail without
+   *        being attempted until the circuit breaker resets. Default value is 0, meaning that there is no circuit breaker.
+   */
+  public void setCircuitBreakerThreshold(int circuitBreakerThreshold) {
+    this.circuitBreakerThreshold = circuitBreakerThreshold;
+  }
+
+  /**
+   * @param circuitBreakerResetMillis the number of milliseconds after which an open circuit breaker lets a single attempt through
+   *        to check whether it can close again. Default value is 60000.
+   */
+  public void setCircuitBreakerResetMillis(long circuitBreakerResetMillis) {
+    this.circuitBreakerResetMillis = circuitBreakerResetMillis;
+  }
+
+  /**
+   * @param retryBudgetPercent the maximum number of retries, as a percentage of the events that go through the scope. Retries
+   *        are unlimited by default.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public void setRetryBudgetPercent(int retryBudgetPercent) {
+    checkArgument(retryBudgetPercent >= 0, "Retry budget percent must not be negative");
+    this.retryBudgetPercent = retryBudgetPercent;
+  }
+
   /**
    * Configure the nested {@link Processor}'s that error handling and transactional behaviour should be applied to.
    *
@@ -140,5 +200,20 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   protected List<Object> getOwnedObjects() {
     return singletonList(nestedChain);
   }
+
+  /**
+   * How the delay between retries grows.
+   */
+  public enum RetryBackoff {
+    /**
+     * Every retry waits {@code millisBetweenRetries}.
+     */
+    FIXED,
+    /**
+     * Every retry waits a random time up to {@code millisBetweenRetries} doubled for each previous retry, bounded by
+     * {@code maxMillisBetweenRetries}.
+     */
+    EXPONENTIAL
+  }
 }
 
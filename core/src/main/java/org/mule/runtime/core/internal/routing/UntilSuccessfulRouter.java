@@ -7,6 +7,9 @@
 package org.mule.runtime.core.internal.routing;
 
 import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.ThreadLocalRandom.current;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.functional.Either.left;
@@ -16,6 +19,7 @@ import static org.mule.runtime.api.metadata.DataType.NUMBER;
 import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
 import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
 import static org.mule.runtime.core.api.util.ExceptionUtils.getMessagingExceptionCause;
+import static org.mule.runtime.core.internal.routing.UntilSuccessful.RetryBackoff.FIXED;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.applyWithChildContext;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.Exceptions.propagate;
@@ -31,6 +35,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.internal.event.EventInternalContextResolver;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.routing.UntilSuccessful.RetryBackoff;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.internal.util.rx.ConditionalExecutorServiceDecorator;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
@@ -67,11 +72,18 @@ class UntilSuccessfulRouter {
   private static final String RETRY_CTX_INTERNAL_PARAM_KEY = "untilSuccessful.router.retryContext";
   private static final String UNTIL_SUCCESSFUL_MSG_PREFIX =
       "'until-successful' retries exhausted. Last exception message was: %s";
+  private static final String UNTIL_SUCCESSFUL_CIRCUIT_OPEN_MSG =
+      "'until-successful' circuit is open after consecutive failures, not attempting execution";
   private final EventInternalContextResolver<Map<String, RetryContext>> retryContextResolver;
 
   private final Component owner;
   private final Predicate<CoreEvent> shouldRetry;
   private final ConditionalExecutorServiceDecorator delayScheduler;
+  private final RetryBackoff backoff;
+  private final long maxMillisBetweenRetries;
+  // Shared by all the events of the scope, null when not configured
+  private final RetryCircuitBreaker circuitBreaker;
+  private final RetryBudget retryBudget;
 
   private final Flux<CoreEvent> upstreamFlux;
   private final Flux<CoreEvent> innerFlux;
@@ -95,10 +107,16 @@ class UntilSuccessfulRouter {
 
   UntilSuccessfulRouter(Component owner, Publisher<CoreEvent> publisher, MessageProcessorChain nestedChain,
                         ExtendedExpressionManager expressionManager, Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler,
-                        String maxRetries, String millisBetweenRetries) {
+                        String maxRetries, String millisBetweenRetries, RetryBackoff backoff, long maxMillisBetweenRetries,
+                        RetryCircuitBreaker circuitBreaker, RetryBudget retryBudget) {
     this.owner = owner;
     this.shouldRetry = shouldRetry;
+    // Retries are only scheduled blocking the current thread when a transaction is active
     this.delayScheduler = new ConditionalExecutorServiceDecorator(delayScheduler, s -> isTransactionActive());
+    this.backoff = backoff;
+    this.maxMillisBetweenRetries = maxMillisBetweenRetries;
+    this.circuitBreaker = circuitBreaker;
+    this.retryBudget = retryBudget;
     this.retryContextResolver = new EventInternalContextResolver<>(RETRY_CTX_INTERNAL_PARAM_KEY,
                                                                    HashMap::new);
 
@@ -108,6 +126,15 @@ class UntilSuccessfulRouter {
           // Inject event into retrial execution chain
           RetryContext ctx = new RetryContext(event, sessionSupplier, maxRetriesSupplier, delaySupplier);
           inflightEvents.getAndIncrement();
+          if (retryBudget != null) {
+            retryBudget.deposit();
+          }
+          if (circuitBreaker != null && !circuitBreaker.allowAttempt()) {
+            // The nested chain is known to be failing, fail fast without attempting it
+            downstreamRecorder.next(left(getCircuitOpenError(event), CoreEvent.class));
+            completeRouterIfNecessary();
+            return;
+          }
           innerRecorder.next(eventWithCurrentContext(event, ctx));
         })
         .doOnComplete(() -> {
@@ -125,6 +152,9 @@ class UntilSuccessfulRouter {
                                                            Optional.of(owner.getLocation())))
         .doOnNext(successfulEvent -> {
           // Scope execution was successful, pop current ctx
+          if (circuitBreaker != null) {
+            circuitBreaker.onSuccess();
+          }
           downstreamRecorder.next(right(Throwable.class, eventWithCurrentContextDeleted(successfulEvent)));
           completeRouterIfNecessary();
         })
@@ -174,27 +204,60 @@ class UntilSuccessfulRouter {
     return (error, offendingEvent) -> {
       MessagingException messagingError = (MessagingException) error;
       RetryContext ctx = getRetryContextForEvent(messagingError.getEvent());
+      if (circuitBreaker != null) {
+        circuitBreaker.onFailure();
+      }
       int retriesLeft =
           ctx.retryCount.getAndDecrement();
-      if (retriesLeft > 0) {
+      if (retriesLeft > 0 && (retryBudget == null || retryBudget.tryWithdraw())) {
         LOGGER.error("Retrying execution of event, attempt {} of {}.", ctx.getAttemptNumber(),
                      ctx.maxRetries != RETRY_COUNT_FOREVER ? ctx.maxRetries : "unlimited");
 
         // Schedule retry with delay
-        UntilSuccessfulRouter.this.delayScheduler.schedule(() -> innerRecorder.next(eventWithCurrentContext(ctx.event, ctx)),
-                                                           ctx.delayInMillis, MILLISECONDS);
+        UntilSuccessfulRouter.this.delayScheduler.schedule(() -> {
+          if (circuitBreaker == null || circuitBreaker.allowAttempt()) {
+            innerRecorder.next(eventWithCurrentContext(ctx.event, ctx));
+          } else {
+            LOGGER.error("Circuit is open, not retrying. Failing...");
+            failRetries(ctx, messagingError);
+          }
+        }, getDelayInMillis(ctx), MILLISECONDS);
       } else { // Retries exhausted
         // Current context already pooped. No need to re-insert it
-        LOGGER.error("Retry attempts exhausted. Failing...");
-        Throwable resolvedError = getThrowableFunction(ctx.event).apply(error);
-        // Delete current context from event
-        eventWithCurrentContextDeleted(messagingError.getEvent());
-        downstreamRecorder.next(left(resolvedError, CoreEvent.class));
-        completeRouterIfNecessary();
+        LOGGER.error(retriesLeft > 0 ? "Retry budget exhausted. Failing..." : "Retry attempts exhausted. Failing...");
+        failRetries(ctx, messagingError);
       }
     };
   }
 
+  private void failRetries(RetryContext ctx, MessagingException messagingError) {
+    Throwable resolvedError = getThrowableFunction(ctx.event).apply(messagingError);
+    // Delete current context from event
+    eventWithCurrentContextDeleted(messagingError.getEvent());
+    downstreamRecorder.next(left(resolvedError, CoreEvent.class));
+    completeRouterIfNecessary();
+  }
+
+  /**
+   * With {@link RetryBackoff#EXPONENTIAL} backoff, the delay is chosen at random up to a bound that starts at the configured
+   * delay and doubles with every retry, so that events failing at the same time don't retry at the same time.
+   *
+   * @return the delay before the next retry for the given {@link RetryContext}.
+   */
+  private long getDelayInMillis(RetryContext ctx) {
+    if (backoff == FIXED) {
+      return ctx.delayInMillis;
+    }
+    final long bound = min(maxMillisBetweenRetries, (long) ctx.delayInMillis << min(max(ctx.getAttemptNumber() - 1, 0), 30));
+    return current().nextLong(bound + 1);
+  }
+
+  private Throwable getCircuitOpenError(CoreEvent event) {
+    return new MessagingException(event, new RetryPolicyExhaustedException(createStaticMessage(UNTIL_SUCCESSFUL_CIRCUIT_OPEN_MSG),
+                                                                           owner),
+                                  owner);
+  }
+
   /**
    * If there are no events in-flight and the upstream publisher has received a completion signal, complete downstream publishers.
    */
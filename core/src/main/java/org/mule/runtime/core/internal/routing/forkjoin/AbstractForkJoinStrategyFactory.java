@@ -7,10 +7,13 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
+import static java.lang.Math.min;
 import static java.time.Duration.ofMillis;
 import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.event.EventDeadline.remainingMillis;
+import static org.mule.runtime.core.internal.event.EventDeadline.withTimeout;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processWithChildContextDontComplete;
 import static reactor.core.Exceptions.propagate;
@@ -31,6 +34,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.event.EventDeadline;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.ErrorBuilder;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
@@ -61,7 +65,7 @@ import reactor.core.scheduler.Schedulers;
  * <ul>
  * <li>Emit a single result event once all routes complete.
  * <li>Merge variables using a last-wins strategy.
- * <li>Use of an optional timeout.
+ * <li>Use of an optional timeout, limited by what is left of the {@link EventDeadline deadline} of the event.
  * <li>Delay error behavior, where all errors are collated and thrown as a composite exception.
  * </ul>
  */
@@ -110,7 +114,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private boolean isOriginalError(Error newError, Optional<Error> originalError) {
+  protected boolean isOriginalError(Error newError, Optional<Error> originalError) {
     return originalError.map(error -> error.equals(newError)).orElse(false);
   }
 
@@ -130,31 +134,36 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
-  private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
+  protected Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
         .build(), pair.getRoute());
   }
 
-  private Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
-                                                                                 int maxConcurrency,
-                                                                                 boolean delayErrors, long timeout,
-                                                                                 reactor.core.scheduler.Scheduler timeoutScheduler,
-                                                                                 ErrorType timeoutErrorType) {
+  protected Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
+                                                                                   int maxConcurrency,
+                                                                                   boolean delayErrors, long timeout,
+                                                                                   reactor.core.scheduler.Scheduler timeoutScheduler,
+                                                                                   ErrorType timeoutErrorType) {
 
     return pair -> {
+      // Routes never take longer than what is left of the deadline of the event, and propagate the resulting deadline so that
+      // nested routers stop early as well.
+      final long routeTimeout = min(timeout, remainingMillis(pair.getEvent()));
+      if (routeTimeout <= 0) {
+        return onTimeout(processingStrategy, delayErrors, timeoutErrorType, pair);
+      }
+
       ReactiveProcessor route = publisher -> from(publisher)
           .transform(pair.getRoute());
-      return from(processWithChildContextDontComplete(pair.getEvent(),
+      return from(processWithChildContextDontComplete(withTimeout(pair.getEvent(), routeTimeout),
                                                       applyProcessingStrategy(processingStrategy, route, maxConcurrency),
                                                       empty()))
-                                                          .timeout(ofMillis(timeout),
+                                                          .timeout(ofMillis(routeTimeout),
                                                                    onTimeout(processingStrategy, delayErrors, timeoutErrorType,
                                                                              pair),
                                                                    timeoutScheduler)
                                                           .onErrorResume(MessagingException.class,
-                                                                         me -> delayErrors ? just(me.getEvent()) : error(me))
-
-      ;
+                                                                         me -> delayErrors ? just(me.getEvent()) : error(me));
     };
   }
 
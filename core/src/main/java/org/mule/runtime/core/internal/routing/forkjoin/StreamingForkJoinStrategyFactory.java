@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.min;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.api.metadata.DataType.fromType;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.just;
+import static reactor.core.publisher.Mono.using;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.runtime.core.privileged.routing.RoutingResult;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ForkJoinStrategy} that processes a potentially very large number of route pairs using bounded memory:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency}, pulling new pairs lazily so that no more than
+ * {@link #DEFAULT_STREAMING_WINDOW} pairs are in flight at any time.
+ * <li>Does not merge variables.
+ * <li>Waits for the completion of all routes, with an optional timeout.
+ * <li>Either discards the route results, emitting the original {@link CoreEvent}, or appends every result
+ * {@link Message} to a {@link CursorIteratorProvider} that is used as the payload of the result {@link CoreEvent}. The buffering
+ * of that provider, and therefore the memory used, is governed by the given {@link CursorIteratorProviderFactory}.
+ * <li>Will process all routes, regardless of errors, and propagating a composite exception where there were one or more errors.
+ * Only the errors are retained for that exception, so its {@link RoutingResult} has no successful results.
+ * </ul>
+ *
+ * @since 4.3.0
+ */
+public class StreamingForkJoinStrategyFactory extends AbstractForkJoinStrategyFactory {
+
+  private static final Logger LOGGER = getLogger(StreamingForkJoinStrategyFactory.class);
+
+  /**
+   * The maximum number of route pairs that are pulled and processed at the same time, regardless of a greater
+   * {@code maxConcurrency}.
+   */
+  public static final int DEFAULT_STREAMING_WINDOW =
+      getInteger(StreamingForkJoinStrategyFactory.class.getName() + ".DEFAULT_STREAMING_WINDOW", 256);
+
+  private final CursorIteratorProviderFactory cursorProviderFactory;
+
+  /**
+   * Creates a strategy that discards the route results.
+   */
+  public StreamingForkJoinStrategyFactory() {
+    this(null);
+  }
+
+  /**
+   * Creates a strategy that streams the route results out through a {@link CursorIteratorProvider}.
+   *
+   * @param cursorProviderFactory the factory used to create the provider holding the results. If {@code null} results are
+   *        discarded.
+   */
+  public StreamingForkJoinStrategyFactory(CursorIteratorProviderFactory cursorProviderFactory) {
+    super(false);
+    this.cursorProviderFactory = cursorProviderFactory;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    final int window = min(maxConcurrency, DEFAULT_STREAMING_WINDOW);
+    return (original, routingPairs) -> {
+      final AtomicInteger count = new AtomicInteger();
+      // Only accessed from onNext signals, which are serialized, so no synchronization is required.
+      final Map<String, Error> errors = new LinkedHashMap<>();
+      final Function<StreamedResults, Mono<CoreEvent>> process = results -> from(routingPairs)
+          .map(addSequence(count))
+          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
+                                              timeoutErrorType),
+                             window, 1)
+          .doOnNext(event -> {
+            Optional<Error> newError = event.getError().filter(err -> !isOriginalError(err, original.getError()));
+            if (newError.isPresent()) {
+              errors.put(Integer.toString(event.getGroupCorrelation().get().getSequence()), newError.get());
+            } else if (results != null) {
+              results.append(event.getMessage());
+            }
+          })
+          .then(defer(() -> errors.isEmpty()
+              ? just(createResultEvent(original, resultBuilder(original, results)).apply(emptyList()))
+              : error(new CompositeRoutingException(new RoutingResult(emptyMap(), errors)))));
+
+      if (cursorProviderFactory == null) {
+        return process.apply(null);
+      } else {
+        return using(() -> new StreamedResults(original), process, StreamedResults::close);
+      }
+    };
+  }
+
+  private CoreEvent.Builder resultBuilder(CoreEvent original, StreamedResults results) {
+    CoreEvent.Builder resultBuilder = builder(original);
+    if (results != null) {
+      resultBuilder.message(Message.of(results.getProvider()));
+    }
+    return resultBuilder;
+  }
+
+  @Override
+  protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original, CoreEvent.Builder resultBuilder) {
+    return list -> resultBuilder.build();
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return cursorProviderFactory != null ? fromType(CursorIteratorProvider.class) : OBJECT;
+  }
+
+  /**
+   * Hands route results, one at a time, to the buffer of a {@link CursorIteratorProvider}.
+   * <p>
+   * The provider is created with this object as its source stream. Each appended result is exposed as the only available item of
+   * the source and is immediately pulled into the provider's buffer by advancing an internal cursor, so the source never reports
+   * its end until all routes have completed and results are no longer appended.
+   */
+  private final class StreamedResults implements Iterator<Message> {
+
+    private final CursorIteratorProvider provider;
+    private final CursorIterator<Message> cursor;
+    private Message pending;
+
+    private StreamedResults(CoreEvent original) {
+      Object value = cursorProviderFactory.of(original, this);
+      if (!(value instanceof CursorIteratorProvider)) {
+        throw new IllegalStateException("Streaming of route results requires a repeatable streaming strategy, but "
+            + cursorProviderFactory + " does not provide one");
+      }
+      provider = (CursorIteratorProvider) value;
+      cursor = provider.openCursor();
+    }
+
+    private void append(Message result) {
+      pending = result;
+      cursor.hasNext();
+      cursor.next();
+    }
+
+    private CursorIteratorProvider getProvider() {
+      return provider;
+    }
+
+    private void close() {
+      try {
+        cursor.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception closing route results cursor", e);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return pending != null;
+    }
+
+    @Override
+    public Message next() {
+      if (pending == null) {
+        throw new NoSuchElementException();
+      }
+      Message next = pending;
+      pending = null;
+      return next;
+    }
+  }
+}
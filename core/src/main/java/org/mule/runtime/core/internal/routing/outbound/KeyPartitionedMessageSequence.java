@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.outbound;
+
+import static java.lang.Math.floorMod;
+import static java.lang.Math.min;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.i18n.I18nMessageFactory;
+import org.mule.runtime.core.internal.routing.AbstractMessageSequence;
+import org.mule.runtime.core.internal.routing.MessageSequence;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * A {@link MessageSequence} wrapper that partitions the wrapped sequence into at most {@code partitions} lanes, placing each
+ * element in the lane selected by the hash of its key. Elements with equal keys always end up in the same lane, and elements
+ * within a lane keep the order in which they appear in the wrapped sequence.
+ * <p>
+ * The wrapped sequence is fully consumed the first time this sequence is queried. Empty lanes are not part of this sequence.
+ *
+ * @since 4.3.0
+ */
+public class KeyPartitionedMessageSequence<Q> extends AbstractMessageSequence<List<Q>> {
+
+  private final MessageSequence<Q> delegate;
+  private final int partitions;
+  private final Function<Q, Object> keyResolver;
+  private Iterator<List<Q>> lanes;
+  private int laneCount = -1;
+
+  public KeyPartitionedMessageSequence(MessageSequence<Q> seq, int partitions, Function<Q, Object> keyResolver) {
+    if (partitions < 1) {
+      throw new MuleRuntimeException(I18nMessageFactory.createStaticMessage("partitions must be greater than 0"));
+    }
+    this.delegate = seq;
+    this.partitions = partitions;
+    this.keyResolver = keyResolver;
+  }
+
+  /**
+   * Resolves the lane for the given key.
+   *
+   * @param key the key of an element, may be {@code null}.
+   * @param partitions the number of lanes
+   * @return the index of the lane, between {@code 0} and {@code partitions - 1}
+   */
+  public static int laneFor(Object key, int partitions) {
+    if (key == null) {
+      return 0;
+    }
+    int hash = key.hashCode();
+    return floorMod(hash ^ (hash >>> 16), partitions);
+  }
+
+  @Override
+  public Integer size() {
+    if (laneCount >= 0) {
+      return laneCount;
+    }
+    return delegate.size() == null ? null : min(delegate.size(), partitions);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return partition().hasNext();
+  }
+
+  @Override
+  public List<Q> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return lanes.next();
+  }
+
+  private Iterator<List<Q>> partition() {
+    if (lanes == null) {
+      List<List<Q>> byLane = new ArrayList<>(partitions);
+      for (int i = 0; i < partitions; ++i) {
+        byLane.add(null);
+      }
+      while (delegate.hasNext()) {
+        Q item = delegate.next();
+        int lane = laneFor(keyResolver.apply(item), partitions);
+        if (byLane.get(lane) == null) {
+          byLane.set(lane, new ArrayList<>());
+        }
+        byLane.get(lane).add(item);
+      }
+      byLane.removeIf(lane -> lane == null);
+      laneCount = byLane.size();
+      lanes = byLane.iterator();
+    }
+    return lanes;
+  }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Optional.ofNullable;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.security.SecurityContext;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.metadata.SimpleDataType;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.MuleSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Implementation of {@link SerializationProtocol} with a compact binary format for the types most commonly kept in object
+ * stores, queues and journals: {@code null}, strings, boxed primitives, byte arrays, {@link ArrayList}s, {@link HashMap}s,
+ * {@link LinkedHashMap}s, {@link MediaType}s, simple {@link DataType}s, {@link TypedValue}s, {@link Message}s without legacy
+ * properties or attachments and {@link CoreEvent}s.
+ * <p>
+ * These are written field by field, without class descriptors nor reflection. Any other object, at any depth, is handed to the
+ * fallback protocol and embedded in the output as is. Data written by the fallback protocol alone, such as the one persisted
+ * before switching to this protocol, can still be deserialized.
+ * <p>
+ * The classes of data types are written by name when they come from the JDK. Other classes, such as the attributes of the
+ * messages received by a connector, are written by the fallback protocol, so they are loaded back from the class loader of the
+ * artifact they belong to.
+ * <p>
+ * Unlike java serialization, the identity of the objects in the compact format is not preserved: an object referenced more
+ * than once, for instance from several entries of a list or a map, is written each time and deserialized as different copies.
+ *
+ * @since 4.3.0
+ */
+public class CompactSerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final int MAGIC = 0x4D;
+  private static final int VERSION = 1;
+
+  // Nested objects deeper than this are handed to the fallback protocol, which copes with cyclic references.
+  private static final int MAX_DEPTH = 64;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte SHORT = 6;
+  private static final byte BYTE = 7;
+  private static final byte BOOLEAN = 8;
+  private static final byte CHARACTER = 9;
+  private static final byte BYTE_ARRAY = 10;
+  private static final byte ARRAY_LIST = 11;
+  private static final byte HASH_MAP = 12;
+  private static final byte LINKED_HASH_MAP = 13;
+  private static final byte MEDIA_TYPE = 14;
+  private static final byte DATA_TYPE = 15;
+  private static final byte TYPED_VALUE = 16;
+  private static final byte MESSAGE = 17;
+  private static final byte FALLBACK = 18;
+  private static final byte EVENT = 19;
+
+  private static final byte JDK_CLASS = 0;
+  private static final byte FALLBACK_CLASS = 1;
+
+  private final SerializationProtocol fallback;
+
+  /**
+   * @param fallback the protocol used for the objects this protocol has no compact format for.
+   */
+  public CompactSerializationProtocol(SerializationProtocol fallback) {
+    checkArgument(fallback != null, "fallback protocol cannot be null");
+    this.fallback = fallback;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(MAGIC);
+    out.writeByte(VERSION);
+    write(out, object, 0);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    PushbackInputStream pushback = new PushbackInputStream(inputStream, 2);
+    int magic = pushback.read();
+    int version = pushback.read();
+    if (magic != MAGIC || version != VERSION) {
+      if (version != -1) {
+        pushback.unread(version);
+      }
+      if (magic != -1) {
+        pushback.unread(magic);
+      }
+      return fallback.deserialize(pushback, classLoader);
+    }
+    return (T) read(new DataInputStream(pushback), classLoader);
+  }
+
+  @Override
+  protected <T> T postInitialize(T object) {
+    // The known types need no initialization, and the fallback protocol already does it for the other ones
+    return object;
+  }
+
+  private void write(DataOutputStream out, Object object, int depth) throws Exception {
+    if (object == null) {
+      out.writeByte(NULL);
+    } else if (object instanceof String) {
+      out.writeByte(STRING);
+      writeString(out, (String) object);
+    } else if (object instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) object);
+    } else if (object instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) object);
+    } else if (object instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) object);
+    } else if (object instanceof Float) {
+      out.writeByte(FLOAT);
+      out.writeFloat((Float) object);
+    } else if (object instanceof Short) {
+      out.writeByte(SHORT);
+      out.writeShort((Short) object);
+    } else if (object instanceof Byte) {
+      out.writeByte(BYTE);
+      out.writeByte((Byte) object);
+    } else if (object instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) object);
+    } else if (object instanceof Character) {
+      out.writeByte(CHARACTER);
+      out.writeChar((Character) object);
+    } else if (object instanceof byte[]) {
+      out.writeByte(BYTE_ARRAY);
+      writeBytes(out, (byte[]) object);
+    } else if (object instanceof CursorStreamProvider) {
+      // Same as the java serialization protocols, the content of the stream is what gets serialized
+      out.writeByte(BYTE_ARRAY);
+      writeBytes(out, consume((CursorStreamProvider) object));
+    } else if (depth >= MAX_DEPTH) {
+      writeFallback(out, object);
+    } else if (object.getClass() == ArrayList.class) {
+      // Items referenced more than once are written each time, see the identity note in the class javadoc
+      out.writeByte(ARRAY_LIST);
+      List<?> list = (List<?>) object;
+      writeLength(out, list.size());
+      for (Object item : list) {
+        write(out, item, depth + 1);
+      }
+    } else if (object.getClass() == HashMap.class || object.getClass() == LinkedHashMap.class) {
+      out.writeByte(object.getClass() == HashMap.class ? HASH_MAP : LINKED_HASH_MAP);
+      Map<?, ?> map = (Map<?, ?>) object;
+      writeLength(out, map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        write(out, entry.getKey(), depth + 1);
+        write(out, entry.getValue(), depth + 1);
+      }
+    } else if (object instanceof MediaType) {
+      out.writeByte(MEDIA_TYPE);
+      writeString(out, ((MediaType) object).toRfcString());
+    } else if (object instanceof DataType && isCompact((DataType) object)) {
+      out.writeByte(DATA_TYPE);
+      writeDataType(out, (DataType) object);
+    } else if (object instanceof TypedValue && isCompact(((TypedValue) object).getDataType())) {
+      out.writeByte(TYPED_VALUE);
+      writeTypedValue(out, (TypedValue) object, depth);
+    } else if (isCompactMessage(object)) {
+      Message message = (Message) object;
+      out.writeByte(MESSAGE);
+      writeTypedValue(out, message.getPayload(), depth);
+      writeTypedValue(out, message.getAttributes(), depth);
+    } else if (object.getClass() == InternalEventImplementation.class) {
+      out.writeByte(EVENT);
+      writeEvent(out, (InternalEvent) object, depth);
+    } else {
+      writeFallback(out, object);
+    }
+  }
+
+  private Object read(DataInputStream in, ClassLoader classLoader) throws Exception {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case INTEGER:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case DOUBLE:
+        return in.readDouble();
+      case FLOAT:
+        return in.readFloat();
+      case SHORT:
+        return in.readShort();
+      case BYTE:
+        return in.readByte();
+      case BOOLEAN:
+        return in.readBoolean();
+      case CHARACTER:
+        return in.readChar();
+      case BYTE_ARRAY:
+        return readBytes(in);
+      case ARRAY_LIST:
+        int size = readLength(in);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+          list.add(read(in, classLoader));
+        }
+        return list;
+      case HASH_MAP:
+      case LINKED_HASH_MAP:
+        int entries = readLength(in);
+        Map<Object, Object> map = tag == HASH_MAP ? new HashMap<>() : new LinkedHashMap<>();
+        for (int i = 0; i < entries; ++i) {
+          map.put(read(in, classLoader), read(in, classLoader));
+        }
+        return map;
+      case MEDIA_TYPE:
+        return MediaType.parse(readString(in));
+      case DATA_TYPE:
+        return readDataType(in, classLoader);
+      case TYPED_VALUE:
+        return readTypedValue(in, classLoader);
+      case MESSAGE:
+        TypedValue payload = readTypedValue(in, classLoader);
+        TypedValue attributes = readTypedValue(in, classLoader);
+        return Message.builder().payload(payload).attributes(attributes).build();
+      case EVENT:
+        return readEvent(in, classLoader);
+      case FALLBACK:
+        return fallback.deserialize(readBytes(in), classLoader);
+      default:
+        throw new StreamCorruptedException("Unknown type tag " + tag);
+    }
+  }
+
+  private void writeFallback(DataOutputStream out, Object object) throws IOException {
+    out.writeByte(FALLBACK);
+    writeBytes(out, fallback.serialize(object));
+  }
+
+  /**
+   * Only simple data types are written in the compact format, since the other ones carry more information, such as the type of
+   * the items of a collection.
+   */
+  private boolean isCompact(DataType dataType) {
+    return dataType.getClass() == SimpleDataType.class;
+  }
+
+  /**
+   * Messages with legacy properties or attachments, or with a payload that the java serialization of messages would transform,
+   * are left to the fallback protocol.
+   */
+  private boolean isCompactMessage(Object object) {
+    if (!(object instanceof InternalMessage)) {
+      return false;
+    }
+    InternalMessage message = (InternalMessage) object;
+    Object payload = message.getPayload().getValue();
+    return (payload == null || payload instanceof Serializable || payload instanceof CursorStreamProvider)
+        && isCompact(message.getPayload().getDataType()) && isCompact(message.getAttributes().getDataType())
+        && message.getInboundPropertyNames().isEmpty() && message.getOutboundPropertyNames().isEmpty()
+        && message.getInboundAttachmentNames().isEmpty() && message.getOutboundAttachmentNames().isEmpty();
+  }
+
+  private void writeTypedValue(DataOutputStream out, TypedValue typedValue, int depth) throws Exception {
+    DataType dataType = typedValue.getDataType();
+    if (typedValue.getValue() instanceof CursorStreamProvider) {
+      dataType = DataType.builder(DataType.BYTE_ARRAY).mediaType(dataType.getMediaType()).build();
+    }
+    writeDataType(out, dataType);
+    OptionalLong byteLength = typedValue.getByteLength();
+    out.writeLong(byteLength.isPresent() ? byteLength.getAsLong() : -1);
+    write(out, typedValue.getValue(), depth + 1);
+  }
+
+  private TypedValue readTypedValue(DataInputStream in, ClassLoader classLoader) throws Exception {
+    DataType dataType = readDataType(in, classLoader);
+    long byteLength = in.readLong();
+    Object value = read(in, classLoader);
+    return new TypedValue<>(value, dataType, byteLength < 0 ? OptionalLong.empty() : OptionalLong.of(byteLength));
+  }
+
+  /**
+   * The events are written with their message and variables in the compact format. The rest of their state, such as the event
+   * context, is written as any other object, so it is handed to the fallback protocol when needed.
+   */
+  private void writeEvent(DataOutputStream out, InternalEvent event, int depth) throws Exception {
+    write(out, event.getContext(), depth + 1);
+    write(out, event.getMessage(), depth + 1);
+
+    Map<String, TypedValue<?>> variables = event.getVariables();
+    writeLength(out, variables.size());
+    for (Map.Entry<String, TypedValue<?>> variable : variables.entrySet()) {
+      writeString(out, variable.getKey());
+      write(out, variable.getValue(), depth + 1);
+    }
+
+    write(out, event.getSession(), depth + 1);
+    write(out, event.getSecurityContext(), depth + 1);
+    write(out, event.getError().orElse(null), depth + 1);
+    write(out, event.getItemSequenceInfo().orElse(null), depth + 1);
+    write(out, event.getLegacyCorrelationId(), depth + 1);
+    out.writeBoolean(event.isNotificationsEnabled());
+  }
+
+  private CoreEvent readEvent(DataInputStream in, ClassLoader classLoader) throws Exception {
+    DefaultEventBuilder builder = new DefaultEventBuilder((BaseEventContext) read(in, classLoader));
+    builder.message((Message) read(in, classLoader));
+
+    int variables = readLength(in);
+    for (int i = 0; i < variables; ++i) {
+      builder.addVariable(readString(in), (TypedValue<?>) read(in, classLoader));
+    }
+
+    builder.session((MuleSession) read(in, classLoader))
+        .securityContext((SecurityContext) read(in, classLoader))
+        .error((Error) read(in, classLoader))
+        .itemSequenceInfo(ofNullable((ItemSequenceInfo) read(in, classLoader)))
+        .correlationId((String) read(in, classLoader));
+    if (!in.readBoolean()) {
+      builder.disableNotifications();
+    }
+
+    // Same as for the events deserialized by the fallback protocol, so its context gets its streaming state
+    return super.postInitialize(builder.build());
+  }
+
+  private void writeDataType(DataOutputStream out, DataType dataType) throws IOException {
+    Class<?> type = dataType.getType();
+    if (type.getClassLoader() == null && !type.isPrimitive()) {
+      out.writeByte(JDK_CLASS);
+      writeString(out, type.getName());
+    } else {
+      // The fallback protocol knows which class loader to load the class back from, which may be the one of an artifact
+      out.writeByte(FALLBACK_CLASS);
+      writeBytes(out, fallback.serialize(type));
+    }
+    writeString(out, dataType.getMediaType().toRfcString());
+  }
+
+  private DataType readDataType(DataInputStream in, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+    Class<?> type = in.readByte() == JDK_CLASS
+        ? Class.forName(readString(in), false, null)
+        : fallback.deserialize(readBytes(in), classLoader);
+    return DataType.builder().type(type).mediaType(readString(in)).build();
+  }
+
+  private byte[] consume(CursorStreamProvider provider) throws IOException {
+    try (CursorStream cursor = provider.openCursor()) {
+      return toByteArray(cursor);
+    }
+  }
+
+  private void writeString(DataOutputStream out, String value) throws IOException {
+    writeBytes(out, value.getBytes(UTF_8));
+  }
+
+  private String readString(DataInputStream in) throws IOException {
+    return new String(readBytes(in), UTF_8);
+  }
+
+  private void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    writeLength(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[readLength(in)];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Lengths are written as variable length integers, so small collections and strings only take one byte for it.
+   */
+  private void writeLength(DataOutputStream out, int length) throws IOException {
+    while ((length & ~0x7F) != 0) {
+      out.writeByte((length & 0x7F) | 0x80);
+      length >>>= 7;
+    }
+    out.writeByte(length);
+  }
+
+  private int readLength(DataInputStream in) throws IOException {
+    int length = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = in.readByte();
+      length |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return length;
+      }
+    }
+    throw new StreamCorruptedException("Malformed length");
+  }
+}
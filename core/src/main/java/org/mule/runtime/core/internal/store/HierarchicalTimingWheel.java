@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel, used to find the timers that are due without having to look at the ones that are not.
+ * <p>
+ * Timers are kept in buckets according to their deadline. Each of the {@link #LEVELS} wheels has {@link #WHEEL_SIZE} buckets,
+ * each bucket of a level spanning a whole turn of the previous one. Scheduling and cancelling a timer are {@code O(1)}.
+ * {@link #advance(long, Consumer)} only visits the buckets for the elapsed time, moving the timers of the higher levels to
+ * lower ones as their deadline gets closer.
+ * <p>
+ * Deadlines are expressed in nanoseconds, with a resolution of {@link #TICK_NANOS}. Timers with a deadline further away than
+ * the span of all the levels are parked in the last bucket and rescheduled when it is reached.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <N> the type of the timers
+ * @since 4.3.0
+ */
+class HierarchicalTimingWheel<N extends HierarchicalTimingWheel.Timer<N>> {
+
+  static final long TICK_NANOS = 16_000_000;
+
+  private static final int LEVELS = 4;
+  private static final int WHEEL_BITS = 6;
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  private final Timer<N>[][] buckets;
+  private long currentTick;
+
+  /**
+   * Base class for the elements that can be scheduled in a {@link HierarchicalTimingWheel}.
+   *
+   * @param <N> the concrete type of the timer
+   */
+  abstract static class Timer<N extends Timer<N>> {
+
+    long deadline;
+    Timer<N> wheelPrevious;
+    Timer<N> wheelNext;
+
+    boolean isScheduled() {
+      return wheelNext != null;
+    }
+  }
+
+  private static final class Sentinel<N extends Timer<N>> extends Timer<N> {
+
+    private Sentinel() {
+      wheelPrevious = this;
+      wheelNext = this;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  HierarchicalTimingWheel(long now) {
+    buckets = new Timer[LEVELS][WHEEL_SIZE];
+    for (int level = 0; level < LEVELS; level++) {
+      for (int i = 0; i < WHEEL_SIZE; i++) {
+        buckets[level][i] = new Sentinel<>();
+      }
+    }
+    currentTick = now / TICK_NANOS;
+  }
+
+  /**
+   * Schedules the given timer according to its {@link Timer#deadline}. It must not be already scheduled.
+   */
+  void schedule(N timer) {
+    long deadlineTick = timer.deadline / TICK_NANOS;
+    long delta = deadlineTick - currentTick;
+
+    Timer<N> bucket;
+    if (delta < WHEEL_SIZE) {
+      bucket = buckets[0][(int) (Math.max(deadlineTick, currentTick + 1) & WHEEL_MASK)];
+    } else {
+      int level = 1;
+      while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+        level++;
+      }
+      long maxTick = currentTick + (1L << (WHEEL_BITS * LEVELS)) - 1;
+      long tick = Math.min(deadlineTick, maxTick);
+      bucket = buckets[level][(int) ((tick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+    }
+
+    timer.wheelNext = bucket;
+    timer.wheelPrevious = bucket.wheelPrevious;
+    bucket.wheelPrevious.wheelNext = timer;
+    bucket.wheelPrevious = timer;
+  }
+
+  /**
+   * Removes the given timer from the wheel, if scheduled.
+   */
+  void cancel(N timer) {
+    if (timer.isScheduled()) {
+      timer.wheelPrevious.wheelNext = timer.wheelNext;
+      timer.wheelNext.wheelPrevious = timer.wheelPrevious;
+      timer.wheelPrevious = null;
+      timer.wheelNext = null;
+    }
+  }
+
+  /**
+   * Moves the wheel up to {@code now}, handing each timer whose deadline has passed to {@code expired}. The expired timers are
+   * no longer scheduled once handed.
+   */
+  @SuppressWarnings("unchecked")
+  void advance(long now, Consumer<N> expired) {
+    long previousTick = currentTick;
+    long nowTick = now / TICK_NANOS;
+    if (nowTick <= previousTick) {
+      return;
+    }
+    currentTick = nowTick;
+
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = WHEEL_BITS * level;
+      long previousIndex = previousTick >> shift;
+      long currentIndex = nowTick >> shift;
+      if (currentIndex == previousIndex) {
+        break;
+      }
+
+      long steps = Math.min(currentIndex - previousIndex, WHEEL_SIZE);
+      for (long i = 1; i <= steps; i++) {
+        Timer<N> bucket = buckets[level][(int) ((previousIndex + i) & WHEEL_MASK)];
+        Timer<N> timer = detach(bucket);
+        while (timer != null) {
+          Timer<N> next = timer.wheelNext;
+          timer.wheelPrevious = null;
+          timer.wheelNext = null;
+          if (timer.deadline <= now) {
+            expired.accept((N) timer);
+          } else {
+            schedule((N) timer);
+          }
+          timer = next;
+        }
+      }
+    }
+  }
+
+  /**
+   * Empties the given bucket, returning its timers as a {@code null} terminated list.
+   */
+  private Timer<N> detach(Timer<N> bucket) {
+    if (bucket.wheelNext == bucket) {
+      return null;
+    }
+
+    Timer<N> first = bucket.wheelNext;
+    bucket.wheelPrevious.wheelNext = null;
+    bucket.wheelNext = bucket;
+    bucket.wheelPrevious = bucket;
+    return first;
+  }
+}
@@ -6,11 +6,13 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
 import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.component.InternalComponent;
@@ -18,6 +20,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -36,6 +39,14 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  /**
+   * System property to create new partitions as {@link LogStructuredObjectStorePartition log structured partitions} instead
+   * of using one file per entry. Partitions that already exist keep the format they were created with.
+   *
+   * @since 4.3.0
+   */
+  public static final String LOG_STRUCTURED_PARTITIONS_PROPERTY_KEY = "mule.objectstore.logStructured";
+
   protected MuleContext muleContext;
   private File storeDirectory;
   private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
@@ -83,11 +94,43 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
 
   private void createPartition(String partitionName) throws ObjectStoreException {
     PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+        createPartitionObjectStore(partitionName, getNewPartitionDirectory(partitionName));
     persistentObjectStorePartition.open();
     partitionsByName.putIfAbsent(partitionName, persistentObjectStorePartition);
   }
 
+  /**
+   * Creates the object store for a new partition.
+   *
+   * @param partitionName the name of the partition
+   * @param partitionDirectory the directory in which the partition will keep its data
+   * @return a new, not yet opened, partition
+   * @since 4.3.0
+   */
+  protected PersistentObjectStorePartition createPartitionObjectStore(String partitionName, File partitionDirectory) {
+    if (getBoolean(LOG_STRUCTURED_PARTITIONS_PROPERTY_KEY)) {
+      return new LogStructuredObjectStorePartition(muleContext, partitionName, partitionDirectory);
+    }
+    return new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
+  }
+
+  /**
+   * Creates the object store for a partition that was persisted in a previous execution, according to the format of the data
+   * in its directory.
+   *
+   * @param partitionDirectory the directory holding the partition data
+   * @return a new, not yet opened, partition
+   * @throws ObjectStoreNotAvailableException if the partition descriptor could not be read
+   * @since 4.3.0
+   */
+  protected PersistentObjectStorePartition loadPartitionObjectStore(File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    if (LogStructuredObjectStorePartition.isLogStructured(partitionDirectory)) {
+      return new LogStructuredObjectStorePartition(muleContext, partitionDirectory);
+    }
+    return new PersistentObjectStorePartition(muleContext, partitionDirectory);
+  }
+
   private File getNewPartitionDirectory(String partitionName) {
     return new File(storeDirectory, getPartitionDirectoryName(partitionName));
   }
@@ -191,8 +234,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
+        PersistentObjectStorePartition persistentObjectStorePartition = loadPartitionObjectStore(partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.putIfAbsent(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
       } catch (Exception e) {
@@ -79,6 +79,15 @@ public class SharedPartitionedPersistentObjectStore<T extends Serializable> exte
     return new PersistentObjectStorePartition<>(muleContext, partitionName, partitionObjectStore.getPartitionDirectory());
   }
 
+  /**
+   * Partitions are recreated on each access, so the ones of this store always use one file per entry, which needs no state to
+   * be kept in memory.
+   */
+  @Override
+  protected PersistentObjectStorePartition createPartitionObjectStore(String partitionName, File partitionDirectory) {
+    return new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
+  }
+
   @Override
   public void open() throws ObjectStoreException {
     lock.lock();
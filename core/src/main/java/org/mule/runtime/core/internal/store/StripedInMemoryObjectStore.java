@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.component.InternalComponent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in memory {@link PartitionableExpirableObjectStore} that enforces the TTL and max entries of its partitions as entries
+ * are stored, instead of by scanning all of them on each {@link #expire(long, int, String)}.
+ * <p>
+ * Each partition is split in {@link #SEGMENTS} segments, each one guarded by its own lock, so the threads using the store
+ * and the one expiring it only contend when they touch the same segment. Every segment keeps:
+ * <ul>
+ * <li>its entries, linked in access order, so that the least recently used entry of the partition is found among the
+ * first one of each segment when the partition exceeds its max entries;</li>
+ * <li>a {@link HierarchicalTimingWheel} with the expiration deadline of each entry, so that expiring only visits the entries
+ * that are actually due.</li>
+ * </ul>
+ * Entries past their deadline are not returned even if they have not been removed yet.
+ * <p>
+ * The TTL and max entries of a partition are the ones given to {@link #configurePartition(String, long, int)}, or otherwise
+ * the ones of the last {@link #expire(long, int, String)} invocation. In the latter case, the deadline of the entries stored
+ * before is calculated from the moment they were stored.
+ *
+ * @param <T> the type of the stored values
+ * @since 4.3.0
+ */
+public class StripedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T>, InternalComponent {
+
+  static final int SEGMENTS = 16;
+
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+  private static final Logger LOGGER = LoggerFactory.getLogger(StripedInMemoryObjectStore.class);
+
+  private final ConcurrentMap<String, Partition<T>> partitions = new ConcurrentHashMap<>();
+
+  /**
+   * Sets the expiration policy of a partition, creating it if needed.
+   *
+   * @param partitionName the name of the partition
+   * @param entryTTL the time in milliseconds an entry lives after being stored, or {@code 0} for no limit
+   * @param maxEntries the maximum amount of entries in the partition, or {@code 0} for no limit
+   */
+  public void configurePartition(String partitionName, long entryTTL, int maxEntries) {
+    getPartition(partitionName).configure(entryTTL, maxEntries, getCurrentNanoTime());
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return false;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    Partition<T> partition = partitions.get(partitionName);
+    if (partition == null) {
+      return false;
+    }
+
+    Segment<T> segment = partition.segmentFor(key);
+    segment.lock();
+    try {
+      return segment.getLive(key, getCurrentNanoTime()) != null;
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    Partition<T> partition = getPartition(partitionName);
+    Segment<T> segment = partition.segmentFor(key);
+    long now = getCurrentNanoTime();
+
+    segment.lock();
+    try {
+      Node<T> existing = segment.entries.get(key);
+      if (existing != null) {
+        if (existing.deadline > now) {
+          throw new ObjectAlreadyExistsException();
+        }
+        partition.unlink(segment, existing);
+      }
+
+      Node<T> node = new Node<>(key, value, now);
+      partition.link(segment, node);
+    } finally {
+      segment.unlock();
+    }
+
+    partition.evictExcess();
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    Partition<T> partition = getPartition(partitionName);
+    Segment<T> segment = partition.segmentFor(key);
+    segment.lock();
+    try {
+      Node<T> node = segment.getLive(key, getCurrentNanoTime());
+      if (node == null) {
+        throw new ObjectDoesNotExistException();
+      }
+      node.lastAccess = partition.accessSequence.incrementAndGet();
+      segment.touch(node);
+      return node.value;
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    Partition<T> partition = getPartition(partitionName);
+    Segment<T> segment = partition.segmentFor(key);
+    segment.lock();
+    try {
+      Node<T> node = segment.entries.get(key);
+      if (node == null) {
+        throw new ObjectDoesNotExistException();
+      }
+      partition.unlink(segment, node);
+      return node.value;
+    } finally {
+      segment.unlock();
+    }
+  }
+
+  /**
+   * Removes the given keys from the partition, locking each segment only once.
+   *
+   * @param keys the keys to remove. Keys which are not present are ignored.
+   * @param partitionName the name of the partition
+   * @return the removed values
+   */
+  public Map<String, T> removeAll(Collection<String> keys, String partitionName) {
+    Partition<T> partition = partitions.get(partitionName);
+    Map<String, T> removed = new LinkedHashMap<>();
+    if (partition == null) {
+      return removed;
+    }
+
+    List<String>[] keysBySegment = partition.groupBySegment(keys);
+    for (int i = 0; i < SEGMENTS; i++) {
+      if (keysBySegment[i] == null) {
+        continue;
+      }
+
+      Segment<T> segment = partition.segments[i];
+      segment.lock();
+      try {
+        for (String key : keysBySegment[i]) {
+          Node<T> node = segment.entries.get(key);
+          if (node != null) {
+            partition.unlink(segment, node);
+            removed.put(key, node.value);
+          }
+        }
+      } finally {
+        segment.unlock();
+      }
+    }
+
+    return removed;
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    return new ArrayList<>(retrieveAll(partitionName).keySet());
+  }
+
+  @Override
+  public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
+    Partition<T> partition = getPartition(partitionName);
+    Map<String, T> values = new LinkedHashMap<>(partition.size.get());
+    long now = getCurrentNanoTime();
+
+    for (Segment<T> segment : partition.segments) {
+      segment.lock();
+      try {
+        for (Node<T> node = segment.lruHead.lruNext; node != segment.lruHead; node = node.lruNext) {
+          if (node.deadline > now) {
+            values.put(node.key, node.value);
+          }
+        }
+      } finally {
+        segment.unlock();
+      }
+    }
+
+    return values;
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    Partition<T> partition = partitions.get(partitionName);
+    if (partition != null) {
+      partition.clear(getCurrentNanoTime());
+    }
+  }
+
+  @Override
+  public List<String> allPartitions() throws ObjectStoreException {
+    return new ArrayList<>(partitions.keySet());
+  }
+
+  @Override
+  public void open(String partitionName) throws ObjectStoreException {
+    getPartition(partitionName);
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {
+    disposePartition(partitionName);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    Partition<T> partition = getPartition(partitionName);
+    long now = getCurrentNanoTime();
+    partition.configure(entryTTL, maxEntries, now);
+
+    int expiredEntries = 0;
+    for (Segment<T> segment : partition.segments) {
+      segment.lock();
+      try {
+        int sizeBefore = segment.entries.size();
+        segment.wheel.advance(now, node -> partition.unlink(segment, node));
+        expiredEntries += sizeBefore - segment.entries.size();
+      } finally {
+        segment.unlock();
+      }
+    }
+
+    int evictedEntries = partition.evictExcess();
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Expired " + expiredEntries + " old entries and " + evictedEntries + " excess entries");
+    }
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    Partition<T> partition = partitions.remove(partitionName);
+    if (partition != null) {
+      partition.clear(getCurrentNanoTime());
+    }
+  }
+
+  protected long getCurrentNanoTime() {
+    return System.nanoTime();
+  }
+
+  private Partition<T> getPartition(String partitionName) {
+    return partitions.computeIfAbsent(partitionName, name -> new Partition<>(getCurrentNanoTime()));
+  }
+
+  private static final class Partition<T> {
+
+    private final Segment<T>[] segments;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong accessSequence = new AtomicLong();
+    private volatile long ttlNanos = NO_DEADLINE;
+    private volatile int maxEntries = UNBOUNDED;
+
+    @SuppressWarnings("unchecked")
+    private Partition(long now) {
+      segments = new Segment[SEGMENTS];
+      for (int i = 0; i < SEGMENTS; i++) {
+        segments[i] = new Segment<>(now);
+      }
+    }
+
+    private Segment<T> segmentFor(String key) {
+      return segments[segmentIndex(key)];
+    }
+
+    private int segmentIndex(String key) {
+      int hash = key.hashCode();
+      hash ^= hash >>> 16;
+      return hash & (SEGMENTS - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String>[] groupBySegment(Collection<String> keys) {
+      List<String>[] keysBySegment = new List[SEGMENTS];
+      for (String key : keys) {
+        int index = segmentIndex(key);
+        if (keysBySegment[index] == null) {
+          keysBySegment[index] = new ArrayList<>();
+        }
+        keysBySegment[index].add(key);
+      }
+      return keysBySegment;
+    }
+
+    /**
+     * Updates the expiration policy. If the TTL changes, the deadlines of all the entries are recalculated.
+     */
+    private void configure(long entryTTL, int maxEntries, long now) {
+      this.maxEntries = maxEntries;
+
+      long newTtlNanos = entryTTL == UNBOUNDED ? NO_DEADLINE : MILLISECONDS.toNanos(entryTTL);
+      if (newTtlNanos == ttlNanos) {
+        return;
+      }
+
+      ttlNanos = newTtlNanos;
+      for (Segment<T> segment : segments) {
+        segment.lock();
+        try {
+          for (Node<T> node = segment.lruHead.lruNext; node != segment.lruHead; node = node.lruNext) {
+            segment.wheel.cancel(node);
+            scheduleExpiration(segment, node);
+          }
+        } finally {
+          segment.unlock();
+        }
+      }
+    }
+
+    private void link(Segment<T> segment, Node<T> node) {
+      node.lastAccess = accessSequence.incrementAndGet();
+      segment.entries.put(node.key, node);
+      segment.appendLru(node);
+      scheduleExpiration(segment, node);
+      size.incrementAndGet();
+    }
+
+    private void unlink(Segment<T> segment, Node<T> node) {
+      segment.entries.remove(node.key);
+      segment.removeLru(node);
+      segment.wheel.cancel(node);
+      size.decrementAndGet();
+    }
+
+    private void scheduleExpiration(Segment<T> segment, Node<T> node) {
+      long ttl = ttlNanos;
+      if (ttl == NO_DEADLINE) {
+        node.deadline = NO_DEADLINE;
+      } else {
+        node.deadline = node.storedAt + ttl;
+        segment.wheel.schedule(node);
+      }
+    }
+
+    /**
+     * Evicts the least recently used entries until the partition is within its max entries. The entry to evict is the oldest
+     * among the least recently used entry of each segment. Segments are locked one at a time.
+     *
+     * @return how many entries were evicted
+     */
+    private int evictExcess() {
+      int max = maxEntries;
+      if (max == UNBOUNDED) {
+        return 0;
+      }
+
+      int evicted = 0;
+      while (size.get() > max) {
+        Segment<T> oldest = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Segment<T> segment : segments) {
+          segment.lock();
+          try {
+            Node<T> eldest = segment.lruHead.lruNext;
+            if (eldest != segment.lruHead && eldest.lastAccess < oldestAccess) {
+              oldest = segment;
+              oldestAccess = eldest.lastAccess;
+            }
+          } finally {
+            segment.unlock();
+          }
+        }
+
+        if (oldest == null) {
+          break;
+        }
+
+        oldest.lock();
+        try {
+          if (size.get() > max && oldest.lruHead.lruNext != oldest.lruHead) {
+            unlink(oldest, oldest.lruHead.lruNext);
+            evicted++;
+          }
+        } finally {
+          oldest.unlock();
+        }
+      }
+
+      return evicted;
+    }
+
+    private void clear(long now) {
+      for (Segment<T> segment : segments) {
+        segment.lock();
+        try {
+          size.addAndGet(-segment.entries.size());
+          segment.reset(now);
+        } finally {
+          segment.unlock();
+        }
+      }
+    }
+  }
+
+  private static final class Segment<T> extends ReentrantLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, Node<T>> entries = new HashMap<>();
+    private final Node<T> lruHead = new Node<>(null, null, 0);
+    private HierarchicalTimingWheel<Node<T>> wheel;
+
+    private Segment(long now) {
+      reset(now);
+    }
+
+    private Node<T> getLive(String key, long now) {
+      Node<T> node = entries.get(key);
+      return node != null && node.deadline > now ? node : null;
+    }
+
+    private void appendLru(Node<T> node) {
+      node.lruNext = lruHead;
+      node.lruPrevious = lruHead.lruPrevious;
+      lruHead.lruPrevious.lruNext = node;
+      lruHead.lruPrevious = node;
+    }
+
+    private void removeLru(Node<T> node) {
+      node.lruPrevious.lruNext = node.lruNext;
+      node.lruNext.lruPrevious = node.lruPrevious;
+      node.lruPrevious = null;
+      node.lruNext = null;
+    }
+
+    private void touch(Node<T> node) {
+      removeLru(node);
+      appendLru(node);
+    }
+
+    private void reset(long now) {
+      entries.clear();
+      lruHead.lruNext = lruHead;
+      lruHead.lruPrevious = lruHead;
+      wheel = new HierarchicalTimingWheel<>(now);
+    }
+  }
+
+  private static final class Node<T> extends HierarchicalTimingWheel.Timer<Node<T>> {
+
+    private final String key;
+    private final T value;
+    private final long storedAt;
+    private Node<T> lruPrevious;
+    private Node<T> lruNext;
+    private long lastAccess;
+
+    private Node(String key, T value, long storedAt) {
+      this.key = key;
+      this.value = value;
+      this.storedAt = storedAt;
+      this.deadline = NO_DEADLINE;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.streaming.ComponentStreamingStatistics;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Implementation of {@link ComponentStreamingStatistics} based on atomic counters. Every update is also propagated
+ * to the {@code parent} statistics, so that the global values are kept consistent.
+ * <p>
+ * The buffer size is not pushed by the buffers but sampled from the tracked {@link CursorProviderJanitor janitors} each time
+ * {@link #getBufferedBytes()} is invoked. The peak value is therefore the max among all the samples and the final sizes of the
+ * released providers.
+ *
+ * @since 4.3.0
+ */
+public class AtomicComponentStreamingStatistics implements MutableStreamingStatistics, ComponentStreamingStatistics {
+
+  private final ComponentLocation location;
+  private final MutableStreamingStatistics parent;
+
+  private final AtomicInteger openProviders = new AtomicInteger(0);
+  private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final AtomicInteger ghostBustedProviders = new AtomicInteger(0);
+  private final AtomicLong peakBufferedBytes = new AtomicLong(0);
+  private final AtomicLongArray cursorLifetimes = new AtomicLongArray(CURSOR_LIFETIME_BUCKETS_MILLIS.length + 1);
+  private final Set<CursorProviderJanitor> trackedProviders = newKeySet();
+
+  /**
+   * Creates a new instance
+   *
+   * @param location the location the statistics are attributed to
+   * @param parent   the statistics to also propagate updates to
+   */
+  public AtomicComponentStreamingStatistics(ComponentLocation location, MutableStreamingStatistics parent) {
+    this.location = location;
+    this.parent = parent;
+  }
+
+  @Override
+  public int incrementOpenProviders() {
+    parent.incrementOpenProviders();
+    return openProviders.incrementAndGet();
+  }
+
+  @Override
+  public int decrementOpenProviders() {
+    parent.decrementOpenProviders();
+    return openProviders.decrementAndGet();
+  }
+
+  @Override
+  public int incrementOpenCursors() {
+    parent.incrementOpenCursors();
+    return openCursors.incrementAndGet();
+  }
+
+  @Override
+  public int decrementOpenCursors() {
+    parent.decrementOpenCursors();
+    return openCursors.decrementAndGet();
+  }
+
+  @Override
+  public int decrementOpenCursors(int howMany) {
+    parent.decrementOpenCursors(howMany);
+    return openCursors.addAndGet(-howMany);
+  }
+
+  @Override
+  public int incrementGhostBustedProviders() {
+    parent.incrementGhostBustedProviders();
+    return ghostBustedProviders.incrementAndGet();
+  }
+
+  @Override
+  public MutableStreamingStatistics forComponent(ComponentLocation location) {
+    return parent.forComponent(location);
+  }
+
+  @Override
+  public void trackProvider(CursorProviderJanitor janitor) {
+    trackedProviders.add(janitor);
+  }
+
+  @Override
+  public void untrackProvider(CursorProviderJanitor janitor, long bufferedBytes) {
+    trackedProviders.remove(janitor);
+    updatePeak(bufferedBytes);
+  }
+
+  @Override
+  public void recordCursorLifetime(long lifetimeMillis) {
+    int bucket = 0;
+    while (bucket < CURSOR_LIFETIME_BUCKETS_MILLIS.length && lifetimeMillis > CURSOR_LIFETIME_BUCKETS_MILLIS[bucket]) {
+      bucket++;
+    }
+
+    cursorLifetimes.incrementAndGet(bucket);
+  }
+
+  private void updatePeak(long bufferedBytes) {
+    long peak;
+    do {
+      peak = peakBufferedBytes.get();
+    } while (bufferedBytes > peak && !peakBufferedBytes.compareAndSet(peak, bufferedBytes));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ComponentLocation getLocation() {
+    return location;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getOpenCursorProvidersCount() {
+    return openProviders.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getOpenCursorsCount() {
+    return openCursors.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferedBytes() {
+    long bufferedBytes = 0;
+    for (CursorProviderJanitor janitor : trackedProviders) {
+      long providerBytes = janitor.getBufferedBytes();
+      updatePeak(providerBytes);
+      bufferedBytes += providerBytes;
+    }
+
+    return bufferedBytes;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getPeakBufferedBytes() {
+    getBufferedBytes();
+    return peakBufferedBytes.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getGhostBustedProvidersCount() {
+    return ghostBustedProviders.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getCursorLifetimeHistogram() {
+    long[] histogram = new long[cursorLifetimes.length()];
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] = cursorLifetimes.get(i);
+    }
+
+    return histogram;
+  }
+}
@@ -6,10 +6,20 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import static java.util.Collections.unmodifiableCollection;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.streaming.ComponentStreamingStatistics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of {@link MutableStreamingStatistics} based on {@link AtomicInteger}
+ * <p>
+ * Per component statistics are kept for every location passed to {@link #forComponent(ComponentLocation)}.
  *
  * @since 4.2.0
  */
@@ -17,6 +27,8 @@ public class AtomicStreamingStatistics implements MutableStreamingStatistics {
 
   private final AtomicInteger openProviders = new AtomicInteger(0);
   private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final AtomicInteger ghostBustedProviders = new AtomicInteger(0);
+  private final Map<String, AtomicComponentStreamingStatistics> componentStatistics = new ConcurrentHashMap<>();
 
   @Override
   public int incrementOpenProviders() {
@@ -58,4 +70,44 @@ public class AtomicStreamingStatistics implements MutableStreamingStatistics {
   public int getOpenCursorsCount() {
     return openCursors.get();
   }
+
+  /**
+   * @return How many providers were released by the {@link StreamingGhostBuster}
+   * @since 4.3.0
+   */
+  public int getGhostBustedProvidersCount() {
+    return ghostBustedProviders.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<ComponentStreamingStatistics> getComponentStatistics() {
+    return unmodifiableCollection(componentStatistics.values());
+  }
+
+  @Override
+  public MutableStreamingStatistics forComponent(ComponentLocation location) {
+    if (location == null) {
+      return this;
+    }
+
+    return componentStatistics.computeIfAbsent(location.getLocation(),
+                                               key -> new AtomicComponentStreamingStatistics(location, this));
+  }
+
+  @Override
+  public void trackProvider(CursorProviderJanitor janitor) {}
+
+  @Override
+  public void untrackProvider(CursorProviderJanitor janitor, long bufferedBytes) {}
+
+  @Override
+  public void recordCursorLifetime(long lifetimeMillis) {}
+
+  @Override
+  public int incrementGhostBustedProviders() {
+    return ghostBustedProviders.incrementAndGet();
+  }
 }
@@ -39,13 +39,19 @@ public class CursorManager {
 
   /**
    * Becomes aware of the given {@code provider} and returns a replacement provider which is managed by the runtime, allowing for
-   * automatic resource handling
+   * automatic resource handling.
+   * <p>
+   * The provider's statistics are attributed to the location from which the {@code ownerContext} originated.
    *
    * @param provider     the provider to be tracked
    * @param ownerContext the root context of the event that created the provider
    * @return a {@link CursorProvider}
    */
   public CursorProvider manage(CursorProvider provider, DefaultEventContext ownerContext) {
+    final MutableStreamingStatistics statistics = this.statistics != null
+        ? this.statistics.forComponent(ownerContext.getOriginatingLocation())
+        : null;
+
     ManagedCursorProvider managedProvider;
     if (provider instanceof CursorStreamProvider) {
       managedProvider = new ManagedCursorStreamProvider(provider, statistics);
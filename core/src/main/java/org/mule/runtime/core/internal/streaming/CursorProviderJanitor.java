@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import static java.lang.System.currentTimeMillis;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.streaming.Cursor;
@@ -65,9 +66,27 @@ public class CursorProviderJanitor {
    * Releases the resources of the underlying {@link CursorProvider}, including its {@link Cursor cursors}
    */
   public final void releaseResources() {
-    if (!released.compareAndSet(false, true)) {
-      return;
+    if (released.compareAndSet(false, true)) {
+      doReleaseResources();
     }
+  }
+
+  /**
+   * Releases the resources of a {@link CursorProvider} which was garbage collected. If the resources were not already
+   * released, the provider is accounted as a leak.
+   *
+   * @since 4.3.0
+   */
+  public final void releaseGhostResources() {
+    if (released.compareAndSet(false, true)) {
+      if (statistics != null) {
+        statistics.incrementGhostBustedProviders();
+      }
+      doReleaseResources();
+    }
+  }
+
+  private void doReleaseResources() {
 
     try {
       close();
@@ -75,6 +94,10 @@ public class CursorProviderJanitor {
       LOGGER.warn("Exception was found trying to close CursorProvider. Will try to release its resources anyway", e);
     }
 
+    if (statistics != null) {
+      statistics.untrackProvider(this, getBufferedBytes());
+    }
+
     try {
       provider.releaseResources();
     } finally {
@@ -85,15 +108,41 @@ public class CursorProviderJanitor {
     }
   }
 
+  /**
+   * @return how many bytes the underlying {@link CursorProvider} currently holds in its buffer, or {@code 0} if that is
+   *         unknown or the provider was already released
+   * @since 4.3.0
+   */
+  public long getBufferedBytes() {
+    CursorProvider currentProvider = provider;
+    return currentProvider instanceof MeasurableCursorProvider
+        ? ((MeasurableCursorProvider) currentProvider).getBufferedBytes()
+        : 0;
+  }
+
   /**
    * Releases the resources associated to the given {@code cursor}.
    *
    * @param cursor a {@link Cursor}
    */
   public void releaseCursor(Cursor cursor) {
+    releaseCursor(cursor, -1);
+  }
+
+  /**
+   * Releases the resources associated to the given {@code cursor} and records its lifetime.
+   *
+   * @param cursor   a {@link Cursor}
+   * @param openedAt the time, in milliseconds, at which the {@code cursor} was opened. Negative if unknown
+   * @since 4.3.0
+   */
+  public void releaseCursor(Cursor cursor, long openedAt) {
     try {
       if (statistics != null) {
         statistics.decrementOpenCursors();
+        if (openedAt >= 0) {
+          statistics.recordCursorLifetime(currentTimeMillis() - openedAt);
+        }
       }
 
       cursor.release();
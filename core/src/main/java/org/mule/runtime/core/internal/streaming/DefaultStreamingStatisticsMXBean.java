@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static org.mule.runtime.core.api.streaming.ComponentStreamingStatistics.CURSOR_LIFETIME_BUCKETS_MILLIS;
+
+import org.mule.runtime.core.api.streaming.ComponentStreamingStatistics;
+import org.mule.runtime.core.api.streaming.StreamingStatistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Default implementation of {@link StreamingStatisticsMXBean} which reads the values from a {@link StreamingStatistics}
+ * instance.
+ *
+ * @since 4.3.0
+ */
+public class DefaultStreamingStatisticsMXBean implements StreamingStatisticsMXBean {
+
+  private final StreamingStatistics statistics;
+
+  /**
+   * Creates a new instance
+   *
+   * @param statistics the statistics to expose
+   */
+  public DefaultStreamingStatisticsMXBean(StreamingStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public int getOpenCursorProvidersCount() {
+    return statistics.getOpenCursorProvidersCount();
+  }
+
+  @Override
+  public int getOpenCursorsCount() {
+    return statistics.getOpenCursorsCount();
+  }
+
+  @Override
+  public Map<String, Integer> getOpenCursorProvidersByComponent() {
+    return byComponent(ComponentStreamingStatistics::getOpenCursorProvidersCount);
+  }
+
+  @Override
+  public Map<String, Integer> getOpenCursorsByComponent() {
+    return byComponent(ComponentStreamingStatistics::getOpenCursorsCount);
+  }
+
+  @Override
+  public Map<String, Long> getBufferedBytesByComponent() {
+    return byComponent(ComponentStreamingStatistics::getBufferedBytes);
+  }
+
+  @Override
+  public Map<String, Long> getPeakBufferedBytesByComponent() {
+    return byComponent(ComponentStreamingStatistics::getPeakBufferedBytes);
+  }
+
+  @Override
+  public Map<String, Integer> getGhostBustedProvidersByComponent() {
+    return byComponent(ComponentStreamingStatistics::getGhostBustedProvidersCount);
+  }
+
+  @Override
+  public Map<String, long[]> getCursorLifetimeHistogramByComponent() {
+    return byComponent(ComponentStreamingStatistics::getCursorLifetimeHistogram);
+  }
+
+  @Override
+  public long[] getCursorLifetimeHistogramBounds() {
+    return CURSOR_LIFETIME_BUCKETS_MILLIS.clone();
+  }
+
+  private <T> Map<String, T> byComponent(Function<ComponentStreamingStatistics, T> value) {
+    Map<String, T> values = new TreeMap<>();
+    for (ComponentStreamingStatistics componentStatistics : statistics.getComponentStatistics()) {
+      values.put(componentStatistics.getLocation().getLocation(), value.apply(componentStatistics));
+    }
+
+    return values;
+  }
+}
@@ -32,6 +32,7 @@ public abstract class ManagedCursorProvider<T extends Cursor> implements CursorP
     this.statistics = statistics;
     if (statistics != null) {
       statistics.incrementOpenProviders();
+      statistics.trackProvider(janitor);
     }
   }
 
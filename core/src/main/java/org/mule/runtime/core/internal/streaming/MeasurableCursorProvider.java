@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import org.mule.runtime.api.streaming.CursorProvider;
+
+/**
+ * A {@link CursorProvider} which can tell how much data it is currently holding in its buffer.
+ *
+ * @since 4.3.0
+ */
+public interface MeasurableCursorProvider {
+
+  /**
+   * @return how many bytes are currently held in the provider's buffer
+   */
+  long getBufferedBytes();
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.streaming.ComponentStreamingStatistics;
 import org.mule.runtime.core.api.streaming.StreamingStatistics;
 
 /**
@@ -52,4 +54,49 @@ public interface MutableStreamingStatistics extends StreamingStatistics {
    * @since 4.3.0
    */
   int decrementOpenCursors(int howMany);
+
+  /**
+   * Returns the statistics which track the streaming assets created by events originated on the given {@code location}.
+   * Updates on the returned instance are also reflected on {@code this} one.
+   *
+   * @param location the location to attribute the statistics to. Might be {@code null}
+   * @return a {@link MutableStreamingStatistics}. Might be {@code this} instance if per component statistics are not kept
+   * @since 4.3.0
+   */
+  MutableStreamingStatistics forComponent(ComponentLocation location);
+
+  /**
+   * Starts tracking the buffer size of the provider handled by the given {@code janitor}
+   *
+   * @param janitor the {@link CursorProviderJanitor} of a newly managed provider
+   * @since 4.3.0
+   */
+  void trackProvider(CursorProviderJanitor janitor);
+
+  /**
+   * Stops tracking the provider handled by the given {@code janitor}, which is being released.
+   *
+   * @param janitor       the {@link CursorProviderJanitor} of the released provider
+   * @param bufferedBytes the amount of bytes the provider held in its buffer right before being released
+   * @since 4.3.0
+   */
+  void untrackProvider(CursorProviderJanitor janitor, long bufferedBytes);
+
+  /**
+   * Records the lifetime of a cursor which has just been closed
+   *
+   * @param lifetimeMillis for how long was the cursor open, in milliseconds
+   * @see ComponentStreamingStatistics#getCursorLifetimeHistogram()
+   * @since 4.3.0
+   */
+  void recordCursorLifetime(long lifetimeMillis);
+
+  /**
+   * Increases the number of providers which were released by the {@link StreamingGhostBuster} by one and returns the
+   * updated value
+   *
+   * @return the updated value
+   * @since 4.3.0
+   */
+  int incrementGhostBustedProviders();
 }
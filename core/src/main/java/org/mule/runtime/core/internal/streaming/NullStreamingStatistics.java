@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import org.mule.runtime.api.component.location.ComponentLocation;
+
 /**
  * Null implementation of {@link MutableStreamingStatistics}. All methods simply return zero.
  *
@@ -47,4 +49,23 @@ public class NullStreamingStatistics implements MutableStreamingStatistics {
   public int getOpenCursorsCount() {
     return 0;
   }
+
+  @Override
+  public MutableStreamingStatistics forComponent(ComponentLocation location) {
+    return this;
+  }
+
+  @Override
+  public void trackProvider(CursorProviderJanitor janitor) {}
+
+  @Override
+  public void untrackProvider(CursorProviderJanitor janitor, long bufferedBytes) {}
+
+  @Override
+  public void recordCursorLifetime(long lifetimeMillis) {}
+
+  @Override
+  public int incrementGhostBustedProviders() {
+    return 0;
+  }
 }
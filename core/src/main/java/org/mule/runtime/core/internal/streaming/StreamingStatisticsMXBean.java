@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import org.mule.runtime.core.api.streaming.ComponentStreamingStatistics;
+import org.mule.runtime.core.api.streaming.StreamingStatistics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link StreamingStatistics}. Per component values are keyed by the location of each component.
+ *
+ * @since 4.3.0
+ */
+public interface StreamingStatisticsMXBean {
+
+  /**
+   * @see StreamingStatistics#getOpenCursorProvidersCount()
+   */
+  int getOpenCursorProvidersCount();
+
+  /**
+   * @see StreamingStatistics#getOpenCursorsCount()
+   */
+  int getOpenCursorsCount();
+
+  /**
+   * @see ComponentStreamingStatistics#getOpenCursorProvidersCount()
+   */
+  Map<String, Integer> getOpenCursorProvidersByComponent();
+
+  /**
+   * @see ComponentStreamingStatistics#getOpenCursorsCount()
+   */
+  Map<String, Integer> getOpenCursorsByComponent();
+
+  /**
+   * @see ComponentStreamingStatistics#getBufferedBytes()
+   */
+  Map<String, Long> getBufferedBytesByComponent();
+
+  /**
+   * @see ComponentStreamingStatistics#getPeakBufferedBytes()
+   */
+  Map<String, Long> getPeakBufferedBytesByComponent();
+
+  /**
+   * @see ComponentStreamingStatistics#getGhostBustedProvidersCount()
+   */
+  Map<String, Integer> getGhostBustedProvidersByComponent();
+
+  /**
+   * @see ComponentStreamingStatistics#getCursorLifetimeHistogram()
+   */
+  Map<String, long[]> getCursorLifetimeHistogramByComponent();
+
+  /**
+   * @return the upper bounds, in milliseconds, of the buckets of the cursor lifetime histograms
+   */
+  long[] getCursorLifetimeHistogramBounds();
+}
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.interrupted;
+import static java.nio.channels.Channels.newChannel;
 import static org.mule.runtime.api.util.Preconditions.checkState;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -17,6 +18,7 @@ import org.mule.runtime.core.internal.streaming.AbstractStreamingBuffer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
 import org.slf4j.Logger;
 
@@ -35,6 +37,8 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected final ByteBufferManager bufferManager;
 
   protected boolean streamFullyConsumed = false;
+  private ReadableByteChannel streamChannel;
+  private volatile long bufferedBytes = 0;
 
   /**
    * Creates a new instance
@@ -96,7 +100,7 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected abstract ByteBuffer doGet(long position, int length);
 
   protected int consumeStream(ByteBuffer buffer) throws IOException {
-    final byte[] dest = buffer.array();
+    final byte[] dest = buffer.hasArray() ? buffer.array() : null;
 
     int totalRead = 0;
     int remaining = buffer.remaining();
@@ -108,7 +112,7 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
           break;
         }
 
-        int read = stream.read(dest, offset, remaining);
+        int read = dest != null ? stream.read(dest, offset, remaining) : readIntoDirectBuffer(buffer, offset, remaining);
 
         if (read == -1) {
           streamFullyConsumed = true;
@@ -145,10 +149,34 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
 
     if (totalRead > 0) {
       buffer.position(offset);
+      bufferedBytes += totalRead;
     }
 
     return totalRead;
   }
 
+  /**
+   * @return how many bytes have been read from the {@link #stream} into this buffer
+   * @since 4.3.0
+   */
+  public long getBufferedBytes() {
+    return bufferedBytes;
+  }
+
+  /**
+   * Reads from the {@link #stream} into a buffer which is not backed by an array. The read goes through a
+   * {@link ReadableByteChannel}, which for file streams transfers straight into the buffer's memory.
+   */
+  private int readIntoDirectBuffer(ByteBuffer buffer, int offset, int length) throws IOException {
+    if (streamChannel == null) {
+      streamChannel = newChannel(stream);
+    }
+
+    ByteBuffer target = buffer.duplicate();
+    target.limit(offset + length);
+    target.position(offset);
+    return streamChannel.read(target);
+  }
+
   protected abstract ByteBuffer copy(long position, int length);
 }
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
@@ -23,7 +24,7 @@ import java.nio.ByteBuffer;
  * @see InputStreamBuffer
  * @since 4.0
  */
-public final class BufferedCursorStream extends AbstractCursorStream {
+public final class BufferedCursorStream extends AbstractCursorStream implements TransferableCursorStream {
 
   private static final int LOCAL_BUFFER_SIZE = DEFAULT_BUFFER_BUCKET_SIZE;
   private static final ByteBuffer NULL_BUFFER = ByteBuffer.allocate(0);
@@ -117,6 +118,28 @@ public final class BufferedCursorStream extends AbstractCursorStream {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * The returned buffer is a view over the data obtained from the {@link InputStreamBuffer}.
+   */
+  @Override
+  public ByteBuffer nextBuffer(int maxLength) throws IOException {
+    assertNotDisposed();
+
+    int remaining = assureDataInLocalBuffer(1);
+    if (remaining == -1) {
+      return null;
+    }
+
+    final int length = min(maxLength, localBuffer.remaining());
+    ByteBuffer view = localBuffer.slice();
+    view.limit(length);
+    localBuffer.position(localBuffer.position() + length);
+    position += length;
+
+    return view.asReadOnlyBuffer();
+  }
+
   private int assureDataInLocalBuffer(int len) {
     if (len <= localBuffer.remaining()) {
       return toIntExact(len);
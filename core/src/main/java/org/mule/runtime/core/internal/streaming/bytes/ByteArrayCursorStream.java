@@ -9,10 +9,13 @@ package org.mule.runtime.core.internal.streaming.bytes;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.lang.System.arraycopy;
+import static java.nio.ByteBuffer.wrap;
+
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * A {@link CursorStream} which is backed by a fixed {@link byte[]}.
@@ -27,7 +30,7 @@ import java.io.IOException;
  *
  * @since 4.0
  */
-public class ByteArrayCursorStream extends AbstractCursorStream {
+public class ByteArrayCursorStream extends AbstractCursorStream implements TransferableCursorStream {
 
   private byte[] content;
 
@@ -63,4 +66,22 @@ public class ByteArrayCursorStream extends AbstractCursorStream {
     this.position += len;
     return len;
   }
+
+  /**
+   * {@inheritDoc}
+   * The returned buffer wraps the backing {@code byte[]}.
+   */
+  @Override
+  public ByteBuffer nextBuffer(int maxLength) throws IOException {
+    assertNotDisposed();
+    final int position = toIntExact(getPosition());
+    final int len = min(maxLength, content.length - position);
+
+    if (len <= 0) {
+      return null;
+    }
+
+    this.position += len;
+    return wrap(content, position, len).asReadOnlyBuffer();
+  }
 }
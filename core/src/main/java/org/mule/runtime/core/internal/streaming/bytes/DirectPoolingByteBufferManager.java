@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Thread.currentThread;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_POOL_SIZE;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link MemoryBoundByteBufferManager} implementation which pools direct (off-heap) {@link ByteBuffer buffers}.
+ * <p>
+ * Instead of keeping one pool per requested capacity, requests are rounded up to the next power of two between
+ * {@link #MIN_SIZE_CLASS} and {@link #MAX_SIZE_CLASS}, so that a bounded number of pools can serve any capacity.
+ * The {@link ManagedByteBufferWrapper#getDelegate() delegate} handed to the caller is still a slice with exactly the
+ * requested capacity. Requests larger than {@link #MAX_SIZE_CLASS} are allocated without pooling.
+ * <p>
+ * Each size class has a shared lock-free free list. In front of it, every thread keeps a small cache of recently
+ * released buffers so that allocate/release cycles happening on the same thread don't touch any shared state. When a
+ * buffer is found neither in the cache of the thread nor in the shared list, the caches of the threads that already
+ * finished are drained into the shared lists before allocating a new one.
+ * <p>
+ * All buffers, whether idle in a pool, in a thread cache or in use, count towards the memory cap enforced by
+ * {@link MemoryBoundByteBufferManager}.
+ *
+ * @since 4.3.0
+ */
+public class DirectPoolingByteBufferManager extends MemoryBoundByteBufferManager implements Disposable {
+
+  static final int MIN_SIZE_CLASS = KB.toBytes(1);
+  static final int MAX_SIZE_CLASS = MB.toBytes(1);
+
+  private static final int MIN_SIZE_CLASS_SHIFT = 31 - numberOfLeadingZeros(MIN_SIZE_CLASS);
+  private static final int SIZE_CLASSES_COUNT = 31 - numberOfLeadingZeros(MAX_SIZE_CLASS) - MIN_SIZE_CLASS_SHIFT + 1;
+
+  private static final int THREAD_CACHE_MAX_CAPACITY = KB.toBytes(32);
+  private static final int THREAD_CACHE_MAX_ENTRIES = 4;
+
+  private final SizeClassPool[] pools = new SizeClassPool[SIZE_CLASSES_COUNT];
+  private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 70% of the runtime's max memory. The definition of max memory is
+   * that of {@link MemoryManager#getMaxMemory()}
+   */
+  public DirectPoolingByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_BUFFER_POOL_SIZE, DEFAULT_BUFFER_BUCKET_SIZE);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @param size          the max amount of idle buffers of {@code bufferSize} capacity to keep in the shared pool. Larger size
+   *                      classes keep proportionally fewer buffers
+   * @param bufferSize    the reference capacity for {@code size}
+   */
+  public DirectPoolingByteBufferManager(MemoryManager memoryManager, int size, int bufferSize) {
+    super(memoryManager);
+    for (int i = 0; i < SIZE_CLASSES_COUNT; i++) {
+      int capacity = MIN_SIZE_CLASS << i;
+      pools[i] = new SizeClassPool(capacity, (int) max(1, min(size, ((long) size * bufferSize) / capacity)));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * The returned {@link ManagedByteBufferWrapper#getDelegate() delegate} is a direct buffer.
+   */
+  @Override
+  public ManagedByteBufferWrapper allocateManaged(int capacity) {
+    if (capacity > MAX_SIZE_CLASS) {
+      return new ManagedByteBufferWrapper(allocateDirectIfFits(capacity), buffer -> doDeallocate(buffer.getDelegate()));
+    }
+
+    final int sizeClass = sizeClassOf(capacity);
+    final ByteBuffer backingBuffer = take(sizeClass);
+
+    ByteBuffer view = backingBuffer.duplicate();
+    view.limit(capacity);
+    return new ManagedByteBufferWrapper(view.slice(), buffer -> giveBack(sizeClass, backingBuffer));
+  }
+
+  private ByteBuffer take(int sizeClass) {
+    if (disposed) {
+      drainThreadCache();
+      return allocateDirectIfFits(pools[sizeClass].capacity);
+    }
+
+    ByteBuffer buffer = threadCache.get().poll(sizeClass);
+    if (buffer == null) {
+      buffer = pools[sizeClass].poll();
+      if (buffer == null) {
+        reapFinishedThreadCaches();
+        buffer = pools[sizeClass].poll();
+        if (buffer == null) {
+          buffer = allocateDirectIfFits(pools[sizeClass].capacity);
+        }
+      }
+    }
+
+    return buffer;
+  }
+
+  private void giveBack(int sizeClass, ByteBuffer buffer) {
+    if (disposed) {
+      drainThreadCache();
+      doDeallocate(buffer);
+      return;
+    }
+
+    buffer.clear();
+    if (threadCache.get().offer(sizeClass, buffer)) {
+      return;
+    }
+
+    if (!pools[sizeClass].offer(buffer)) {
+      doDeallocate(buffer);
+    } else if (disposed) {
+      // raced with dispose() after it drained the pool
+      drain(pools[sizeClass]);
+    }
+  }
+
+  static int sizeClassOf(int capacity) {
+    if (capacity <= MIN_SIZE_CLASS) {
+      return 0;
+    }
+
+    return 32 - numberOfLeadingZeros(capacity - 1) - MIN_SIZE_CLASS_SHIFT;
+  }
+
+  private ThreadCache newThreadCache() {
+    ThreadCache cache = new ThreadCache(currentThread());
+    threadCaches.add(cache);
+    return cache;
+  }
+
+  /**
+   * Moves the buffers in the caches of threads that have finished to the shared pools, so that they can be reused and are
+   * not counted against the memory cap while nobody can take them.
+   */
+  private void reapFinishedThreadCaches() {
+    for (ThreadCache cache : threadCaches) {
+      // Once the owner is no longer alive, all its writes to the cache are visible and no one else touches it
+      if (!cache.owner.isAlive() && threadCaches.remove(cache)) {
+        for (int sizeClass = 0; sizeClass < SIZE_CLASSES_COUNT; sizeClass++) {
+          ByteBuffer buffer;
+          while ((buffer = cache.poll(sizeClass)) != null) {
+            if (disposed || !pools[sizeClass].offer(buffer)) {
+              doDeallocate(buffer);
+            } else if (disposed) {
+              drain(pools[sizeClass]);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Deallocates the buffers in the cache of the current thread, once this manager is disposed.
+   */
+  private void drainThreadCache() {
+    ThreadCache cache = threadCache.get();
+    if (threadCaches.remove(cache)) {
+      for (int sizeClass = 0; sizeClass < SIZE_CLASSES_COUNT; sizeClass++) {
+        ByteBuffer buffer;
+        while ((buffer = cache.poll(sizeClass)) != null) {
+          doDeallocate(buffer);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    drainThreadCache();
+    reapFinishedThreadCaches();
+    for (SizeClassPool pool : pools) {
+      drain(pool);
+    }
+  }
+
+  private void drain(SizeClassPool pool) {
+    ByteBuffer buffer;
+    while ((buffer = pool.poll()) != null) {
+      doDeallocate(buffer);
+    }
+  }
+
+  private static class SizeClassPool {
+
+    private final int capacity;
+    private final int maxIdle;
+    private final Queue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger(0);
+
+    private SizeClassPool(int capacity, int maxIdle) {
+      this.capacity = capacity;
+      this.maxIdle = maxIdle;
+    }
+
+    private ByteBuffer poll() {
+      ByteBuffer buffer = idle.poll();
+      if (buffer != null) {
+        idleCount.decrementAndGet();
+      }
+
+      return buffer;
+    }
+
+    private boolean offer(ByteBuffer buffer) {
+      if (idleCount.incrementAndGet() > maxIdle) {
+        idleCount.decrementAndGet();
+        return false;
+      }
+
+      idle.offer(buffer);
+      return true;
+    }
+  }
+
+  /**
+   * Per thread stack of idle buffers for each of the smaller size classes. Only accessed by its owning thread until it
+   * finishes.
+   */
+  private static class ThreadCache {
+
+    private final Thread owner;
+    private final ByteBuffer[][] entries = new ByteBuffer[SIZE_CLASSES_COUNT][];
+    private final int[] counts = new int[SIZE_CLASSES_COUNT];
+
+    private ThreadCache(Thread owner) {
+      this.owner = owner;
+      for (int i = 0; i < SIZE_CLASSES_COUNT; i++) {
+        int capacity = MIN_SIZE_CLASS << i;
+        int maxEntries = capacity > THREAD_CACHE_MAX_CAPACITY
+            ? 0
+            : min(THREAD_CACHE_MAX_ENTRIES, max(1, THREAD_CACHE_MAX_CAPACITY / capacity));
+        entries[i] = new ByteBuffer[maxEntries];
+      }
+    }
+
+    private ByteBuffer poll(int sizeClass) {
+      int count = counts[sizeClass];
+      if (count == 0) {
+        return null;
+      }
+
+      ByteBuffer[] stack = entries[sizeClass];
+      ByteBuffer buffer = stack[--count];
+      stack[count] = null;
+      counts[sizeClass] = count;
+
+      return buffer;
+    }
+
+    private boolean offer(int sizeClass, ByteBuffer buffer) {
+      ByteBuffer[] stack = entries[sizeClass];
+      int count = counts[sizeClass];
+      if (count == stack.length) {
+        return false;
+      }
+
+      stack[count] = buffer;
+      counts[sizeClass] = count + 1;
+      return true;
+    }
+  }
+}
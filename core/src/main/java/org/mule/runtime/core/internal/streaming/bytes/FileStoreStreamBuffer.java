@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first
+ * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} bytes of the stream in memory and overflows
+ * the rest into a temporal file.
+ * <p>
+ * The in memory portion is kept in fixed size buckets obtained from the {@link ByteBufferManager}. Because
+ * buckets are never reallocated, cursors are handed slices of them instead of copies.
+ * <p>
+ * The file portion is accessed through memory mapped regions of {@link #MAPPED_REGION_SIZE} bytes each. Data
+ * is appended to the tail region and cursors read straight from the mapped regions, so the heap footprint
+ * of this buffer is bounded no matter how large the stream is.
+ *
+ * @since 4.3.0
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final Logger LOGGER = getLogger(FileStoreStreamBuffer.class);
+
+  static final int MAPPED_REGION_SIZE = MB.toBytes(32);
+
+  private final int bucketSize;
+  private final int maxBucketsCount;
+  private final List<ManagedByteBufferWrapper> buckets = new ArrayList<>();
+  private final List<MappedByteBuffer> regions = new ArrayList<>();
+
+  private ManagedByteBufferWrapper transferBucket;
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private long fileStart = Long.MAX_VALUE;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the in memory buckets
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    bucketSize = config.getBucketSize();
+    maxBucketsCount = config.getBucketsCount();
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        readLock.unlock();
+        writeLock.lock();
+
+        try {
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+            final int read = consumeForwardData();
+            if (read > 0) {
+              refetch = getFromCurrentData(position, min(length, read));
+              if (refetch != null) {
+                return refetch;
+              }
+            }
+          }
+          return doGet(position, length, false);
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+        } finally {
+          // classic lock downgrade
+          readLock.lock();
+          writeLock.unlock();
+        }
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    return copy(position, min(length, toIntExact(min(Integer.MAX_VALUE, bufferTip - position))));
+  }
+
+  /**
+   * {@inheritDoc}
+   * While the in memory capacity has not been exhausted, data is read into the tail bucket. After that, it
+   * is read through a transfer bucket and appended to the buffer file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (fileChannel == null) {
+      ManagedByteBufferWrapper bucket = getWritableBucket();
+      if (bucket != null) {
+        final int read = consumeStream(bucket.getDelegate());
+        if (read > 0) {
+          bufferTip += read;
+        }
+
+        return read;
+      }
+
+      startOverflow();
+    }
+
+    return consumeIntoFile();
+  }
+
+  private ManagedByteBufferWrapper getWritableBucket() {
+    if (!buckets.isEmpty()) {
+      ManagedByteBufferWrapper tail = buckets.get(buckets.size() - 1);
+      if (tail.getDelegate().hasRemaining()) {
+        return tail;
+      }
+    }
+
+    if (buckets.size() < maxBucketsCount) {
+      ManagedByteBufferWrapper bucket = bufferManager.allocateManaged(bucketSize);
+      buckets.add(bucket);
+      return bucket;
+    }
+
+    return null;
+  }
+
+  private void startOverflow() throws IOException {
+    fileStart = buckets.size() * (long) bucketSize;
+    bufferFile = createBufferFile("stream");
+    fileChannel = new RandomAccessFile(bufferFile, "rw").getChannel();
+    transferBucket = bufferManager.allocateManaged(bucketSize);
+  }
+
+  private int consumeIntoFile() throws IOException {
+    ByteBuffer transfer = transferBucket.getDelegate();
+    transfer.clear();
+
+    final int read = consumeStream(transfer);
+    if (read > 0) {
+      transfer.flip();
+      while (transfer.hasRemaining()) {
+        MappedByteBuffer region = getWritableRegion();
+        final int chunk = min(region.remaining(), transfer.remaining());
+        ByteBuffer slice = transfer.duplicate();
+        slice.limit(slice.position() + chunk);
+        region.put(slice);
+        transfer.position(transfer.position() + chunk);
+      }
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private MappedByteBuffer getWritableRegion() throws IOException {
+    if (!regions.isEmpty()) {
+      MappedByteBuffer tail = regions.get(regions.size() - 1);
+      if (tail.hasRemaining()) {
+        return tail;
+      }
+    }
+
+    MappedByteBuffer region = fileChannel.map(READ_WRITE, regions.size() * (long) MAPPED_REGION_SIZE, MAPPED_REGION_SIZE);
+    regions.add(region);
+    return region;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The returned buffer is a slice of either an in memory bucket or a mapped file region. No data is copied.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < fileStart) {
+      ByteBuffer bucket = buckets.get(toIntExact(position / bucketSize)).getDelegate();
+      final int offset = toIntExact(position % bucketSize);
+      return slice(bucket, offset, min(length, bucketSize - offset));
+    }
+
+    final long filePosition = position - fileStart;
+    MappedByteBuffer region = regions.get(toIntExact(filePosition / MAPPED_REGION_SIZE));
+    final int offset = toIntExact(filePosition % MAPPED_REGION_SIZE);
+    return slice(region, offset, min(length, MAPPED_REGION_SIZE - offset));
+  }
+
+  private ByteBuffer slice(ByteBuffer source, int offset, int length) {
+    ByteBuffer view = source.duplicate();
+    view.limit(offset + length);
+    view.position(offset);
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    buckets.forEach(ManagedByteBufferWrapper::release);
+    buckets.clear();
+    regions.clear();
+
+    if (transferBucket != null) {
+      transferBucket.release();
+      transferBucket = null;
+    }
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close buffer file channel", e);
+      }
+
+      if (!bufferFile.delete() && LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Could not delete streaming buffer file {}", bufferFile.getAbsolutePath());
+      }
+    }
+  }
+}
@@ -204,7 +204,14 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
 
   private ByteBuffer softCopy(long position, int length) {
     final int offset = toIntExact(position);
-    return wrap(actingBuffer.array(), offset, min(length, actingBuffer.limit() - offset)).slice();
+    if (actingBuffer.hasArray()) {
+      return wrap(actingBuffer.array(), offset, min(length, actingBuffer.limit() - offset)).slice();
+    }
+
+    ByteBuffer view = actingBuffer.duplicate();
+    view.limit(offset + min(length, actingBuffer.limit() - offset));
+    view.position(offset);
+    return view.slice();
   }
 
   protected ByteBuffer hardCopy(long position, int length) {
@@ -212,7 +219,14 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
     length = min(length, actingBuffer.limit() - offset);
 
     byte[] b = new byte[length];
-    arraycopy(actingBuffer.array(), offset, b, 0, length);
+    if (actingBuffer.hasArray()) {
+      arraycopy(actingBuffer.array(), offset, b, 0, length);
+    } else {
+      ByteBuffer view = actingBuffer.duplicate();
+      view.limit(offset + length);
+      view.position(offset);
+      view.get(b);
+    }
     return wrap(b);
   }
 
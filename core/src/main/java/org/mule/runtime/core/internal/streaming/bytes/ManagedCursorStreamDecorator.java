@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.System.currentTimeMillis;
+import static java.nio.ByteBuffer.wrap;
+
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
@@ -13,6 +16,8 @@ import org.mule.runtime.core.internal.streaming.CursorProviderJanitor;
 import org.mule.runtime.core.internal.streaming.StreamingGhostBuster;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -20,12 +25,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * @since 4.1.6
  */
-class ManagedCursorStreamDecorator extends CursorStream {
+class ManagedCursorStreamDecorator extends CursorStream implements TransferableCursorStream {
 
   private ManagedCursorStreamProvider managedCursorProvider;
   private CursorStreamProvider exposedProvider;
   private final CursorStream delegate;
   private final CursorProviderJanitor janitor;
+  private final long openedAt = currentTimeMillis();
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
   /**
@@ -56,7 +62,7 @@ class ManagedCursorStreamDecorator extends CursorStream {
           exposedProvider = (CursorStreamProvider) managedCursorProvider.getDelegate();
           managedCursorProvider = null;
         }
-        janitor.releaseCursor(delegate);
+        janitor.releaseCursor(delegate, openedAt);
       }
     }
   }
@@ -125,4 +131,24 @@ class ManagedCursorStreamDecorator extends CursorStream {
   public boolean markSupported() {
     return delegate.markSupported();
   }
+
+  @Override
+  public ByteBuffer nextBuffer(int maxLength) throws IOException {
+    if (delegate instanceof TransferableCursorStream) {
+      return ((TransferableCursorStream) delegate).nextBuffer(maxLength);
+    }
+
+    byte[] bytes = new byte[maxLength];
+    int read = delegate.read(bytes, 0, maxLength);
+    return read == -1 ? null : wrap(bytes, 0, read).asReadOnlyBuffer();
+  }
+
+  @Override
+  public long transferTo(WritableByteChannel channel) throws IOException {
+    if (delegate instanceof TransferableCursorStream) {
+      return ((TransferableCursorStream) delegate).transferTo(channel);
+    }
+
+    return TransferableCursorStream.super.transferTo(channel);
+  }
 }
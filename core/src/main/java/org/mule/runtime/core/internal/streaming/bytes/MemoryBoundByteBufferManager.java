@@ -68,8 +68,31 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
    * @throws MaxStreamingMemoryExceededException if the memory cap is exceeded by this operation
    */
   protected final ByteBuffer allocateIfFits(int capacity) {
+    reserve(capacity);
+    return ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Same as {@link #allocateIfFits(int)} but the returned buffer is a direct one, allocated outside of the heap.
+   *
+   * @param capacity the required buffer's capacity
+   * @return a direct {@link ByteBuffer}
+   * @throws MaxStreamingMemoryExceededException if the memory cap is exceeded by this operation
+   * @since 4.3.0
+   */
+  protected final ByteBuffer allocateDirectIfFits(int capacity) {
+    reserve(capacity);
+    try {
+      return ByteBuffer.allocateDirect(capacity);
+    } catch (OutOfMemoryError e) {
+      streamingMemory.addAndGet(-capacity);
+      throw e;
+    }
+  }
+
+  private void reserve(int capacity) {
     if (streamingMemory.addAndGet(capacity) <= maxStreamingMemory) {
-      return ByteBuffer.allocate(capacity);
+      return;
     }
 
     streamingMemory.addAndGet(-capacity);
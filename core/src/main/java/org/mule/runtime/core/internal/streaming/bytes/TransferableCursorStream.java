@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link CursorStream} which can expose its contents as {@link ByteBuffer buffers} instead of copying
+ * them into a caller provided {@code byte[]}.
+ * <p>
+ * Buffers obtained through this interface are read only views over the data held by the cursor's buffer, so
+ * handing them to a channel avoids any intermediate copy.
+ *
+ * @since 4.3.0
+ */
+public interface TransferableCursorStream {
+
+  /**
+   * Returns a read only {@link ByteBuffer} with up to {@code maxLength} bytes starting at the cursor's current position,
+   * and moves the position forward by the amount of bytes returned.
+   * <p>
+   * The returned buffer may contain less information than requested. It is only valid until the cursor's provider
+   * is closed.
+   *
+   * @param maxLength the max amount of bytes to return
+   * @return a read only {@link ByteBuffer} or {@code null} if the end of the stream has been reached
+   * @throws IOException if the cursor is closed or the data could not be read
+   */
+  ByteBuffer nextBuffer(int maxLength) throws IOException;
+
+  /**
+   * Writes all the remaining contents of this cursor into the given {@code channel}, leaving the cursor at the end
+   * of the stream.
+   *
+   * @param channel the target channel
+   * @return the amount of bytes transferred
+   * @throws IOException if the data could not be read or written
+   */
+  default long transferTo(WritableByteChannel channel) throws IOException {
+    long transferred = 0;
+    ByteBuffer buffer;
+
+    while ((buffer = nextBuffer(DEFAULT_BUFFER_BUCKET_SIZE)) != null) {
+      while (buffer.hasRemaining()) {
+        transferred += channel.write(buffer);
+      }
+    }
+
+    return transferred;
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.toIntExact;
+import static java.nio.ByteBuffer.allocate;
+import static java.nio.ByteBuffer.wrap;
+import static java.util.Collections.synchronizedMap;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which keeps up to
+ * {@link FileStoreCursorIteratorConfig#getMaxInMemoryInstances()} items in memory and overflows the rest into
+ * a temporal file.
+ * <p>
+ * All buckets have the same size, so a {@link Position} maps directly to a bucket slot. Once more than
+ * {@link FileStoreCursorIteratorConfig#getBucketsCount()} buckets are resident, the oldest full bucket is serialized
+ * through the {@link ObjectSerializer} and appended to the buffer file. The slot then only retains the offset and
+ * length of the serialized bucket, which is paged back in when a cursor seeks into it.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.3.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private static final Logger LOGGER = getLogger(FileStoreObjectStreamBuffer.class);
+
+  private static final int PAGED_IN_BUCKETS_CACHE_SIZE = 4;
+
+  private final FileStoreCursorIteratorConfig config;
+  private final ObjectSerializer serializer;
+  private final Queue<BucketSlot<T>> residentSlots = new LinkedList<>();
+  private final Map<Integer, Bucket<T>> pagedInBuckets = synchronizedMap(new LinkedHashMap<Integer, Bucket<T>>(16, 0.75f, true) {
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Integer, Bucket<T>> eldest) {
+      return size() > PAGED_IN_BUCKETS_CACHE_SIZE;
+    }
+  });
+
+  private List<BucketSlot<T>> slots;
+  private File bufferFile;
+  private FileChannel fileChannel;
+  private long fileTip = 0;
+
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config, ObjectSerializer serializer) {
+    super(stream);
+    this.config = config;
+    this.serializer = serializer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    final int bucketSize = config.getBucketSize();
+    return new Position(toIntExact(position / bucketSize), (int) (position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    slots = maxPosition.map(p -> new ArrayList<BucketSlot<T>>(p.getBucketIndex() + 1)).orElseGet(ArrayList::new);
+    addResident(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Bucket<T> getPresentBucket(Position position) {
+    if (position.getBucketIndex() >= slots.size()) {
+      return null;
+    }
+
+    BucketSlot<T> slot = slots.get(position.getBucketIndex());
+    Bucket<T> bucket = slot.bucket;
+
+    return bucket != null ? bucket : pageIn(slot);
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    Bucket<T> newBucket = new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+    addResident(newBucket);
+
+    if (residentSlots.size() > config.getBucketsCount()) {
+      spill(residentSlots.poll());
+    }
+
+    return newBucket;
+  }
+
+  private void addResident(Bucket<T> bucket) {
+    BucketSlot<T> slot = new BucketSlot<>(bucket);
+    slots.add(slot);
+    residentSlots.add(slot);
+    setCurrentBucket(bucket);
+  }
+
+  private void spill(BucketSlot<T> slot) {
+    byte[] bytes = serializer.getInternalProtocol().serialize(slot.bucket);
+    try {
+      if (fileChannel == null) {
+        bufferFile = createBufferFile("objects");
+        fileChannel = new RandomAccessFile(bufferFile, "rw").getChannel();
+      }
+
+      ByteBuffer buffer = wrap(bytes);
+      long offset = fileTip;
+      while (buffer.hasRemaining()) {
+        offset += fileChannel.write(buffer, offset);
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write object stream buffer file"), e);
+    }
+
+    slot.offset = fileTip;
+    slot.length = bytes.length;
+    fileTip += bytes.length;
+    slot.bucket = null;
+  }
+
+  private Bucket<T> pageIn(BucketSlot<T> slot) {
+    Bucket<T> bucket = pagedInBuckets.get(slot.index);
+    if (bucket != null) {
+      return bucket;
+    }
+
+    ByteBuffer buffer = allocate(slot.length);
+    try {
+      long offset = slot.offset;
+      while (buffer.hasRemaining()) {
+        int read = fileChannel.read(buffer, offset);
+        if (read < 0) {
+          throw new IOException("Unexpected end of object stream buffer file");
+        }
+        offset += read;
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read object stream buffer file"), e);
+    }
+
+    bucket = serializer.getInternalProtocol().deserialize(buffer.array());
+    pagedInBuckets.put(slot.index, bucket);
+
+    return bucket;
+  }
+
+  /**
+   * Never fails since the size of this buffer is bounded by disk space rather than memory
+   */
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {}
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    if (slots != null) {
+      slots.clear();
+    }
+    residentSlots.clear();
+    pagedInBuckets.clear();
+
+    if (fileChannel != null) {
+      try {
+        fileChannel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close object buffer file channel", e);
+      }
+
+      if (!bufferFile.delete() && LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Could not delete streaming buffer file {}", bufferFile.getAbsolutePath());
+      }
+    }
+  }
+
+  private static class BucketSlot<T> {
+
+    private final int index;
+    private volatile Bucket<T> bucket;
+    private long offset;
+    private int length;
+
+    private BucketSlot(Bucket<T> bucket) {
+      this.index = bucket.getIndex();
+      this.bucket = bucket;
+    }
+  }
+}
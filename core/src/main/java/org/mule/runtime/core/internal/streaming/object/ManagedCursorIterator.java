@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.streaming.object;
 
+import static java.lang.System.currentTimeMillis;
+
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.api.streaming.bytes.CursorStream;
 import org.mule.runtime.api.streaming.object.CursorIterator;
@@ -27,6 +29,7 @@ class ManagedCursorIterator<T> implements CursorIterator<T> {
   private CursorIteratorProvider exposedProvider;
   private final CursorIterator<T> delegate;
   private final CursorProviderJanitor janitor;
+  private final long openedAt = currentTimeMillis();
 
   /**
    * Creates a new instance. Notice that it receives a {@code managedCursorProvider} so that a hard reference is kept
@@ -55,7 +58,7 @@ class ManagedCursorIterator<T> implements CursorIterator<T> {
         exposedProvider = (CursorIteratorProvider) managedCursorIteratorProvider.getDelegate();
         managedCursorIteratorProvider = null;
       }
-      janitor.releaseCursor(delegate);
+      janitor.releaseCursor(delegate, openedAt);
     }
   }
 
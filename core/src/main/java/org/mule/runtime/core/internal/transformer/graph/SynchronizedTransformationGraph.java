@@ -52,6 +52,24 @@ public class SynchronizedTransformationGraph {
     }
   }
 
+  public Set<TransformationEdge> incomingEdgesOf(DataType vertex) {
+    readWriteLock.readLock().lock();
+    try {
+      return ImmutableSet.copyOf(transformationGraph.incomingEdgesOf(vertex));
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
+  public DataType getEdgeSource(TransformationEdge transformationEdge) {
+    readWriteLock.readLock().lock();
+    try {
+      return transformationGraph.getEdgeSource(transformationEdge);
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
   public DataType getEdgeTarget(TransformationEdge transformationEdge) {
     readWriteLock.readLock().lock();
     try {
@@ -6,15 +6,22 @@
  */
 package org.mule.runtime.core.internal.transformer.graph;
 
+import static java.util.Collections.singletonList;
+
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.privileged.transformer.CompositeConverter;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +76,58 @@ public class TransformationGraphLookupStrategy {
     return converters;
   }
 
+  /**
+   * Tells which lookups may give a different result after the given converter is added to or removed from the graph. That is
+   * the case when the source or target data types are related to any of the types of the converter, since the vertexes used for
+   * the lookup may change, or when a path from the source to the target may go through the converter.
+   * <p>
+   * This has to be called once the graph already reflects the change.
+   *
+   * @param converter the converter that was added or removed.
+   * @return a predicate on the source and target data types of a lookup.
+   */
+  public BiPredicate<DataType, DataType> affectedBy(Converter converter) {
+    final Set<DataType> converterTypes = new HashSet<>(converter.getSourceDataTypes());
+    converterTypes.add(converter.getReturnDataType());
+
+    // The vertexes from which the converter may be reached, and those that may be reached from it.
+    final Set<DataType> upstream = reachable(converter.getSourceDataTypes(), graph::incomingEdgesOf, graph::getEdgeSource);
+    final Set<DataType> downstream = reachable(singletonList(converter.getReturnDataType()),
+                                               graph::outgoingEdgesOf, graph::getEdgeTarget);
+
+    return (source, target) -> relatedToAny(source, converterTypes) || relatedToAny(target, converterTypes)
+        || (relatedToAny(source, upstream) && relatedToAny(target, downstream));
+  }
+
+  private Set<DataType> reachable(Collection<DataType> from, Function<DataType, Set<TransformationEdge>> edgesOf,
+                                  Function<TransformationEdge, DataType> next) {
+    final Set<DataType> reached = new HashSet<>(from);
+    final Deque<DataType> pending = new ArrayDeque<>(from);
+    while (!pending.isEmpty()) {
+      final DataType vertex = pending.poll();
+      if (!graph.containsVertex(vertex)) {
+        // The vertex was removed along with the converter
+        continue;
+      }
+      for (TransformationEdge edge : edgesOf.apply(vertex)) {
+        final DataType nextVertex = next.apply(edge);
+        if (reached.add(nextVertex)) {
+          pending.add(nextVertex);
+        }
+      }
+    }
+    return reached;
+  }
+
+  private boolean relatedToAny(DataType dataType, Set<DataType> vertexes) {
+    for (DataType vertex : vertexes) {
+      if (vertex.isCompatibleWith(dataType) || dataType.isCompatibleWith(vertex)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private List<Converter> createConverters(List<List<TransformationEdge>> transformationPaths) {
     //Using a set instead of a list for when a path of just one converter is found multiple times.
     Set<Converter> converters = new HashSet<>();
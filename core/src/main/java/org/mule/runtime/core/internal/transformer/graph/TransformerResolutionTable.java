@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer.graph;
+
+import static java.lang.Integer.getInteger;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Converter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * Table with the converters resolved for each pair of source and result {@link DataType}s, so that the transformation graph is
+ * only walked once per pair instead of on every resolution.
+ * <p>
+ * Lookups read an immutable snapshot of the table without locking. Resolved pairs, including those with no converter, are added
+ * with a copy of the snapshot. When the graph changes, the snapshot is rebuilt resolving again the pairs it had that may be
+ * affected by the changed converter, along with the ones served directly by it, so that the pairs in use do not have to walk the
+ * graph at runtime afterwards.
+ *
+ * @since 4.3.0
+ */
+final class TransformerResolutionTable {
+
+  /**
+   * The maximum amount of pairs kept in the table. When it is full, the pairs added first are evicted to make room for new ones.
+   */
+  static final int MAX_TRANSFORMER_RESOLUTION_TABLE_SIZE =
+      getInteger(TransformerResolutionTable.class.getName() + ".MAX_TRANSFORMER_RESOLUTION_TABLE_SIZE", 1024);
+
+  private final BiFunction<DataType, DataType, List<Converter>> resolver;
+
+  private volatile Map<DataTypePair, List<Converter>> table = emptyMap();
+  // Incremented on every rebuild, so that resolutions done against a previous version of the graph are not added to the table.
+  private volatile long generation;
+
+  /**
+   * @param resolver the function that walks the transformation graph to find the best converters between two data types.
+   */
+  TransformerResolutionTable(BiFunction<DataType, DataType, List<Converter>> resolver) {
+    this.resolver = resolver;
+  }
+
+  /**
+   * @param source the source data type.
+   * @param result the result data type.
+   * @return the best converters from {@code source} to {@code result}, which may be none or, if they could not be told apart,
+   *         more than one.
+   */
+  List<Converter> get(DataType source, DataType result) {
+    final DataTypePair pair = new DataTypePair(source, result);
+    List<Converter> converters = table.get(pair);
+    if (converters != null) {
+      return converters;
+    }
+
+    final long resolvedGeneration = generation;
+    converters = resolve(pair);
+
+    synchronized (this) {
+      if (resolvedGeneration == generation && !table.containsKey(pair)) {
+        Map<DataTypePair, List<Converter>> updated = new LinkedHashMap<>(table);
+        updated.put(pair, converters);
+        evictOverflow(updated);
+        table = updated;
+      }
+    }
+    return converters;
+  }
+
+  /**
+   * Resolves again the pairs in the table that may be affected by the given converter, after it was added to or removed from
+   * the graph. The other pairs keep their converters.
+   *
+   * @param changed the converter that was added or removed.
+   * @param affected tells whether the resolution of a pair of source and result data types may change because of
+   *        {@code changed}.
+   */
+  synchronized void rebuild(Converter changed, BiPredicate<DataType, DataType> affected) {
+    ++generation;
+
+    Map<DataTypePair, List<Converter>> rebuilt = new LinkedHashMap<>();
+    for (Entry<DataTypePair, List<Converter>> entry : table.entrySet()) {
+      final DataTypePair pair = entry.getKey();
+      rebuilt.put(pair, affected.test(pair.source, pair.result) ? resolve(pair) : entry.getValue());
+    }
+    for (DataType sourceType : changed.getSourceDataTypes()) {
+      final DataTypePair pair = new DataTypePair(sourceType, changed.getReturnDataType());
+      if (!rebuilt.containsKey(pair)) {
+        rebuilt.put(pair, resolve(pair));
+      }
+    }
+    evictOverflow(rebuilt);
+    table = rebuilt;
+  }
+
+  private void evictOverflow(Map<DataTypePair, List<Converter>> updated) {
+    final Iterator<DataTypePair> oldest = updated.keySet().iterator();
+    while (updated.size() > MAX_TRANSFORMER_RESOLUTION_TABLE_SIZE) {
+      oldest.next();
+      oldest.remove();
+    }
+  }
+
+  private List<Converter> resolve(DataTypePair pair) {
+    Collection<Converter> converters = resolver.apply(pair.source, pair.result);
+    return unmodifiableList(new ArrayList<>(converters));
+  }
+
+  private static final class DataTypePair {
+
+    private final DataType source;
+    private final DataType result;
+    private final int hashCode;
+
+    private DataTypePair(DataType source, DataType result) {
+      this.source = source;
+      this.result = result;
+      this.hashCode = 31 * source.hashCode() + result.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof DataTypePair)) {
+        return false;
+      }
+      DataTypePair other = (DataTypePair) obj;
+      return hashCode == other.hashCode && source.equals(other.source) && result.equals(other.result);
+    }
+  }
+}
@@ -0,0 +1,625 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+
+import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable, case-insensitive {@link Map} with {@link String} keys whose modified versions share their structure with the
+ * original one.
+ * <p>
+ * The entries are kept in a hash array mapped trie, so {@link #with(String, Object)} and {@link #without(String)} only copy
+ * the path to the modified entry, which is {@code O(log32 n)}, instead of the whole map. Keys are compared ignoring their case,
+ * and the case of the key of an entry is the one it was first added with.
+ * <p>
+ * Mutator methods of the {@link Map} interface throw {@link UnsupportedOperationException}. {@link #copy()} returns a mutable
+ * {@link CaseInsensitiveHashMap} with the same entries.
+ *
+ * @param <V> the type of the values.
+ * @since 4.3.0
+ */
+public final class PersistentCaseInsensitiveMap<V> extends CaseInsensitiveHashMap<String, V> {
+
+  private static final long serialVersionUID = 5377461016785282473L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final Object[] NO_CHILDREN = new Object[0];
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentCaseInsensitiveMap EMPTY = new PersistentCaseInsensitiveMap<>(new BitmapNode(0, NO_CHILDREN), 0);
+
+  private final BitmapNode root;
+  private final int size;
+
+  private transient Set<Entry<String, V>> entrySet;
+
+  private PersistentCaseInsensitiveMap(BitmapNode root, int size) {
+    // Entries are kept in the trie, so no backing map is needed
+    super((CaseInsensitiveMapWrapper) null);
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * @return an empty map.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @param map the map to copy.
+   * @return a map with the same entries as the given one. If it already is a {@link PersistentCaseInsensitiveMap}, it is
+   *         returned as is.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+
+    PersistentCaseInsensitiveMap<V> copy = empty();
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.with(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  /**
+   * @param key the key of the entry to set.
+   * @param value the value of the entry to set.
+   * @return a map with the entries of this one plus the given one. If this map already has the same value for the key, this
+   *         same instance is returned.
+   */
+  public PersistentCaseInsensitiveMap<V> with(String key, V value) {
+    final int hash = hash(key);
+    final Leaf<V> existing = root.find(key, hash, 0);
+    if (existing != null && existing.value == value) {
+      return this;
+    }
+
+    // keep the case of the key the entry was first added with
+    final Leaf<V> leaf = new Leaf<>(hash, existing != null ? existing.key : key, value);
+    return new PersistentCaseInsensitiveMap<>((BitmapNode) root.with(leaf, 0), existing != null ? size : size + 1);
+  }
+
+  /**
+   * @param key the key of the entry to remove.
+   * @return a map with the entries of this one except the one for the given key. If there is no such entry, this same instance
+   *         is returned.
+   */
+  public PersistentCaseInsensitiveMap<V> without(String key) {
+    final Node newRoot = root.without(key, hash(key), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentCaseInsensitiveMap<>((BitmapNode) newRoot, size - 1);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && root.find((String) key, hash((String) key), 0) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    for (Entry<String, V> entry : entrySet()) {
+      if (Objects.equals(entry.getValue(), value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V get(Object key) {
+    if (!(key instanceof String)) {
+      return null;
+    }
+
+    final Leaf<V> leaf = root.find((String) key, hash((String) key), 0);
+    return leaf == null ? null : leaf.value;
+  }
+
+  @Override
+  public V put(String key, V value) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public V remove(Object key) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends V> values) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new LeafIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return new AbstractSet<String>() {
+
+      @Override
+      public Iterator<String> iterator() {
+        final Iterator<Entry<String, V>> entries = entrySet().iterator();
+        return new Iterator<String>() {
+
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public String next() {
+            return entries.next().getKey();
+          }
+        };
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new AbstractCollection<V>() {
+
+      @Override
+      public Iterator<V> iterator() {
+        final Iterator<Entry<String, V>> entries = entrySet().iterator();
+        return new Iterator<V>() {
+
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public V next() {
+            return entries.next().getValue();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<String, V> toImmutableCaseInsensitiveMap() {
+    return this;
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<String, V> copy() {
+    return new CaseInsensitiveHashMap<>(this);
+  }
+
+  @Override
+  public Object clone() {
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Map) || ((Map<?, ?>) o).size() != size) {
+      return false;
+    }
+
+    final Map<?, ?> other = (Map<?, ?>) o;
+    for (Entry<String, V> entry : entrySet()) {
+      if (!Objects.equals(entry.getValue(), other.get(entry.getKey()))
+          || (entry.getValue() == null && !other.containsKey(entry.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (Entry<String, V> entry : entrySet()) {
+      hashCode += entry.hashCode();
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("{");
+    final Iterator<Entry<String, V>> entries = entrySet().iterator();
+    while (entries.hasNext()) {
+      sb.append(entries.next());
+      if (entries.hasNext()) {
+        sb.append(", ");
+      }
+    }
+    return sb.append('}').toString();
+  }
+
+  /**
+   * Hash of the key consistent with {@link String#equalsIgnoreCase(String)}, calculated without creating a lower case copy of
+   * it.
+   */
+  static int hash(String key) {
+    int h = 0;
+    for (int i = 0; i < key.length(); ++i) {
+      h = 31 * h + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static Object[] replace(Object[] children, int index, Object child) {
+    final Object[] copy = children.clone();
+    copy[index] = child;
+    return copy;
+  }
+
+  private static Object[] insert(Object[] children, int index, Object child) {
+    final Object[] copy = new Object[children.length + 1];
+    arraycopy(children, 0, copy, 0, index);
+    copy[index] = child;
+    arraycopy(children, index, copy, index + 1, children.length - index);
+    return copy;
+  }
+
+  private static Object[] delete(Object[] children, int index) {
+    final Object[] copy = new Object[children.length - 1];
+    arraycopy(children, 0, copy, 0, index);
+    arraycopy(children, index + 1, copy, index, children.length - index - 1);
+    return copy;
+  }
+
+  private static int fragment(int hash, int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  /**
+   * Creates the node that holds two children whose hashes are the same up to {@code shift}.
+   */
+  private static Node merge(Object a, int aHash, Object b, int bHash, int shift) {
+    if (aHash == bHash) {
+      // Only leaves may have the same hash, collision nodes absorb the new leaf before getting here
+      return new CollisionNode(aHash, new Object[] {a, b});
+    }
+
+    final int aFragment = fragment(aHash, shift);
+    final int bFragment = fragment(bHash, shift);
+    if (aFragment == bFragment) {
+      return new BitmapNode(1 << aFragment, new Object[] {merge(a, aHash, b, bHash, shift + BITS)});
+    }
+
+    return new BitmapNode((1 << aFragment) | (1 << bFragment),
+                          aFragment < bFragment ? new Object[] {a, b} : new Object[] {b, a});
+  }
+
+  private static final class Leaf<V> implements Entry<String, V>, Serializable {
+
+    private static final long serialVersionUID = -1726311624364563436L;
+
+    private final int hash;
+    private final String key;
+    private final V value;
+
+    private Leaf(int hash, String key, V value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> other = (Entry<?, ?>) o;
+      return Objects.equals(key, other.getKey()) && Objects.equals(value, other.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  private abstract static class Node implements Serializable {
+
+    private static final long serialVersionUID = -7407208040848289034L;
+
+    final Object[] children;
+
+    Node(Object[] children) {
+      this.children = children;
+    }
+
+    abstract <V> Leaf<V> find(String key, int hash, int shift);
+
+    abstract Node with(Leaf<?> leaf, int shift);
+
+    /**
+     * @return this same node if the key is not present, or {@code null} if the resulting node would be empty.
+     */
+    abstract Node without(String key, int hash, int shift);
+  }
+
+  private static final class BitmapNode extends Node {
+
+    private static final long serialVersionUID = 6183590417924713458L;
+
+    private final int bitmap;
+
+    private BitmapNode(int bitmap, Object[] children) {
+      super(children);
+      this.bitmap = bitmap;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    <V> Leaf<V> find(String key, int hash, int shift) {
+      final int bit = 1 << fragment(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      final Object child = children[index(bit)];
+      if (child instanceof Leaf) {
+        final Leaf<V> leaf = (Leaf<V>) child;
+        return leaf.hash == hash && leaf.key.equalsIgnoreCase(key) ? leaf : null;
+      }
+      return ((Node) child).find(key, hash, shift + BITS);
+    }
+
+    @Override
+    Node with(Leaf<?> leaf, int shift) {
+      final int bit = 1 << fragment(leaf.hash, shift);
+      final int index = index(bit);
+      if ((bitmap & bit) == 0) {
+        return new BitmapNode(bitmap | bit, insert(children, index, leaf));
+      }
+
+      final Object child = children[index];
+      if (child instanceof Leaf) {
+        final Leaf<?> current = (Leaf<?>) child;
+        if (current.hash == leaf.hash && current.key.equalsIgnoreCase(leaf.key)) {
+          return new BitmapNode(bitmap, replace(children, index, leaf));
+        }
+        return new BitmapNode(bitmap, replace(children, index,
+                                              merge(current, current.hash, leaf, leaf.hash, shift + BITS)));
+      }
+      return new BitmapNode(bitmap, replace(children, index, ((Node) child).with(leaf, shift + BITS)));
+    }
+
+    @Override
+    Node without(String key, int hash, int shift) {
+      final int bit = 1 << fragment(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      final int index = index(bit);
+      final Object child = children[index];
+      final Object newChild;
+      if (child instanceof Leaf) {
+        final Leaf<?> leaf = (Leaf<?>) child;
+        if (leaf.hash != hash || !leaf.key.equalsIgnoreCase(key)) {
+          return this;
+        }
+        newChild = null;
+      } else {
+        newChild = ((Node) child).without(key, hash, shift + BITS);
+        if (newChild == child) {
+          return this;
+        }
+      }
+
+      if (newChild != null) {
+        return new BitmapNode(bitmap, replace(children, index, newChild));
+      } else if (children.length == 1 && shift > 0) {
+        return null;
+      } else {
+        return new BitmapNode(bitmap & ~bit, delete(children, index));
+      }
+    }
+  }
+
+  private static final class CollisionNode extends Node {
+
+    private static final long serialVersionUID = -3010785460839513127L;
+
+    private final int hash;
+
+    private CollisionNode(int hash, Object[] leaves) {
+      super(leaves);
+      this.hash = hash;
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < children.length; ++i) {
+        if (((Leaf<?>) children[i]).key.equalsIgnoreCase(key)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    <V> Leaf<V> find(String key, int hash, int shift) {
+      if (hash != this.hash) {
+        return null;
+      }
+
+      final int index = indexOf(key);
+      return index < 0 ? null : (Leaf<V>) children[index];
+    }
+
+    @Override
+    Node with(Leaf<?> leaf, int shift) {
+      if (leaf.hash != hash) {
+        return merge(this, hash, leaf, leaf.hash, shift);
+      }
+
+      final int index = indexOf(leaf.key);
+      return new CollisionNode(hash, index < 0
+          ? insert(children, children.length, leaf)
+          : replace(children, index, leaf));
+    }
+
+    @Override
+    Node without(String key, int hash, int shift) {
+      final int index = hash == this.hash ? indexOf(key) : -1;
+      if (index < 0) {
+        return this;
+      }
+      return children.length == 1 ? null : new CollisionNode(hash, delete(children, index));
+    }
+  }
+
+  /**
+   * Walks the trie depth first keeping the position in each level, so no intermediate collection is needed.
+   */
+  private static final class LeafIterator<V> implements Iterator<Entry<String, V>> {
+
+    // Each level consumes BITS of the hash, plus one for the collision nodes
+    private final Object[][] stack = new Object[32 / BITS + 2][];
+    private final int[] positions = new int[stack.length];
+    private int depth;
+    private Leaf<V> next;
+
+    private LeafIterator(Node root) {
+      stack[0] = root.children;
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        final Object[] children = stack[depth];
+        if (positions[depth] == children.length) {
+          --depth;
+          continue;
+        }
+
+        final Object child = children[positions[depth]++];
+        if (child instanceof Leaf) {
+          next = (Leaf<V>) child;
+          return;
+        }
+
+        ++depth;
+        stack[depth] = ((Node) child).children;
+        positions[depth] = 0;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+
+      final Leaf<V> current = next;
+      advance();
+      return current;
+    }
+  }
+}
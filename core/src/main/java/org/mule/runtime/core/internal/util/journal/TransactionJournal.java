@@ -11,6 +11,8 @@ import org.mule.runtime.api.util.Preconditions;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,6 +27,9 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * In group commit mode, entries are serialized by the calling thread but written to disk in batches, with one {@code force()}
+ * per batch. Logging methods still only return once the logged entry is durable.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
@@ -37,6 +42,8 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer journalEntrySerializer;
+  private final boolean groupCommit;
 
   /**
    * Log file in which we are currently writing new entries.
@@ -62,6 +69,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes, false);
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param groupCommit whether to write the entries logged by concurrent callers in batches.
+   * @since 4.3.0
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            boolean groupCommit) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,11 +90,13 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, groupCommit);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, groupCommit);
     this.transactionCompletePredicate = transactionCompletePredicate;
+    this.journalEntrySerializer = journalEntrySerializer;
+    this.groupCommit = groupCommit;
 
   }
 
@@ -92,9 +112,8 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    logOperation(journalEntry, false);
   }
 
   /**
@@ -104,12 +123,39 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    logOperation(journalEntry, transactionCompletePredicate.isTransactionComplete(journalEntry));
+  }
+
+  private void logOperation(JournalEntry<T> journalEntry, boolean transactionComplete) {
+    if (!groupCommit) {
+      synchronized (this) {
+        TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
+        logFile.logOperation(journalEntry);
+        if (transactionComplete) {
+          logFile.clearEntriesForTransaction(journalEntry.getTxId());
+        }
+      }
+      return;
     }
+
+    byte[] serializedEntry = serialize(journalEntry);
+    TransactionJournalFile logFile;
+    long batch;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      batch = logFile.logOperation(journalEntry, serializedEntry);
+      if (transactionComplete) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
+    }
+    logFile.awaitDurable(batch);
+  }
+
+  private byte[] serialize(JournalEntry<T> journalEntry) {
+    ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(serializedEntry));
+    return serializedEntry.toByteArray();
   }
 
   /**
@@ -13,6 +13,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -21,15 +22,29 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 /**
  * Manages a transaction journal file.
+ * <p>
+ * When created in group commit mode, entries are not written to the file as they are logged. Instead, they are appended to a
+ * pending batch which is written and forced to disk as a whole by the first thread that {@link #awaitDurable(long) waits} for it.
+ * Entries logged while such a write is in progress accumulate in the next batch, so concurrent callers share a single write and
+ * {@code force()} instead of paying one each.
+ * <p>
+ * The outcome of each batch is tracked separately, so the callers of a batch that could not be written are always notified of
+ * it, even if later batches were written successfully before they checked. The bytes of a failed write are truncated from the
+ * file and its entries are discarded, since they were never made durable.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -50,9 +65,20 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
+  private final boolean groupCommit;
+
   private DataOutputStream logFileOutputStream;
+  private FileChannel logFileChannel;
   private int journalOperations = 0;
 
+  private final ByteArrayOutputStream pendingBatch = new ByteArrayOutputStream();
+  private List<K> pendingEntries = new ArrayList<>();
+  private int pendingWaiters = 0;
+  private long openBatch = 1;
+  private long completedBatch = 0;
+  private final Map<Long, BatchFailure> failedBatches = new HashMap<>();
+  private boolean batchWriteInProgress = false;
+
   /**
    * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
    *        loaded from it.
@@ -61,9 +87,24 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, false);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommit whether entries are written in batches through {@link #logOperation(JournalEntry, byte[])}
+   * @since 4.3.0
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                boolean groupCommit) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.groupCommit = groupCommit;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
@@ -81,6 +122,178 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
     journalOperations++;
   }
 
+  /**
+   * Adds a journal entry for an operation done over a transactional resource to the pending batch. The entry is not durable
+   * until {@link #awaitDurable(long)} returns for the returned batch.
+   * <p>
+   * Only to be used in group commit mode, and each call must be followed by exactly one call to {@link #awaitDurable(long)}
+   * for the returned batch, which is what allows the outcome of a failed batch to be forgotten once all its callers got it.
+   *
+   * @param journalEntry operation details
+   * @param serializedEntry the {@code journalEntry} as written by the {@link JournalEntrySerializer}
+   * @return the identifier of the batch the entry was added to
+   * @since 4.3.0
+   */
+  public synchronized long logOperation(K journalEntry, byte[] serializedEntry) {
+    entries.put(journalEntry.getTxId(), journalEntry);
+    pendingBatch.write(serializedEntry, 0, serializedEntry.length);
+    pendingEntries.add(journalEntry);
+    pendingWaiters++;
+    journalOperations++;
+    return openBatch;
+  }
+
+  /**
+   * Blocks until the given batch has been written and forced to disk.
+   * <p>
+   * If no other thread is writing a batch, the calling thread takes care of writing all the pending entries, including the ones
+   * logged by other threads. Otherwise, it waits for the ongoing write to finish and checks again, since its entries may have
+   * been added after that write started.
+   *
+   * @param batch the batch identifier, as returned by {@link #logOperation(JournalEntry, byte[])}
+   * @since 4.3.0
+   */
+  public void awaitDurable(long batch) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        PendingBatch toWrite;
+
+        synchronized (this) {
+          while (completedBatch < batch && batchWriteInProgress) {
+            try {
+              wait();
+            } catch (InterruptedException e) {
+              interrupted = true;
+            }
+          }
+          if (completedBatch >= batch) {
+            checkOutcome(batch);
+            return;
+          }
+
+          batchWriteInProgress = true;
+          toWrite = takePendingBatch();
+        }
+
+        IOException failure = write(toWrite);
+
+        synchronized (this) {
+          completeBatch(toWrite, failure);
+          batchWriteInProgress = false;
+          notifyAll();
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Must be invoked holding the file monitor, once the given batch is complete.
+   */
+  private void checkOutcome(long batch) {
+    BatchFailure failure = failedBatches.get(batch);
+    if (failure != null) {
+      if (--failure.pendingWaiters == 0) {
+        failedBatches.remove(batch);
+      }
+      throw new MuleRuntimeException(failure.cause);
+    }
+  }
+
+  /**
+   * Must be invoked holding the file monitor.
+   */
+  private PendingBatch takePendingBatch() {
+    PendingBatch batch = new PendingBatch(openBatch++, pendingBatch.toByteArray(), pendingEntries, pendingWaiters);
+    pendingBatch.reset();
+    pendingEntries = new ArrayList<>();
+    pendingWaiters = 0;
+    return batch;
+  }
+
+  /**
+   * Writes the given batch, truncating whatever part of it was written if the write fails.
+   *
+   * @return the failure writing the batch, or {@code null} if it was written and forced to disk
+   */
+  private IOException write(PendingBatch batch) {
+    long lastGoodSize = -1;
+    try {
+      lastGoodSize = logFileChannel.size();
+      writeAndForce(logFileChannel, batch.data);
+      return null;
+    } catch (IOException e) {
+      if (lastGoodSize >= 0) {
+        try {
+          logFileChannel.truncate(lastGoodSize);
+        } catch (IOException truncateException) {
+          LOGGER.error("Could not discard partially written transaction journal entries from " + journalFile.getName(),
+                       truncateException);
+        }
+      }
+      return e;
+    }
+  }
+
+  /**
+   * Must be invoked holding the file monitor.
+   */
+  private void completeBatch(PendingBatch batch, IOException failure) {
+    if (failure != null) {
+      for (K entry : batch.entries) {
+        entries.remove(entry.getTxId(), entry);
+      }
+      if (batch.waiters > 0) {
+        failedBatches.put(batch.id, new BatchFailure(failure, batch.waiters));
+      }
+    }
+    completedBatch = batch.id;
+  }
+
+  /**
+   * Writes {@code batchData} at the end of the journal file and forces it to disk.
+   *
+   * @param channel the channel of the journal file, opened for appending
+   * @param batchData the entries to write
+   * @throws IOException if the data could not be written or forced
+   */
+  protected void writeAndForce(FileChannel channel, byte[] batchData) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(batchData);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+  }
+
+  /**
+   * Writes the pending batch, if any, from within the file monitor. Used before closing the file so that no logged entry is lost.
+   */
+  private void flushPendingBatch() {
+    boolean interrupted = false;
+    while (batchWriteInProgress) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    PendingBatch batch = takePendingBatch();
+    IOException failure = batch.data.length > 0 ? write(batch) : null;
+    if (failure != null) {
+      LOGGER.warn("Error writing pending transaction journal entries: " + failure.getMessage());
+    }
+    completeBatch(batch, failure);
+    notifyAll();
+  }
+
   /**
    * Removes all journal entries for a particular transactions.
    *
@@ -120,6 +333,9 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    if (groupCommit) {
+      flushPendingBatch();
+    }
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -171,7 +387,9 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true);
+      this.logFileOutputStream = new DataOutputStream(fileOutputStream);
+      this.logFileChannel = fileOutputStream.getChannel();
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
@@ -251,5 +469,30 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   public long fileLength() {
     return journalFile.length();
   }
-}
 
+  private final class PendingBatch {
+
+    private final long id;
+    private final byte[] data;
+    private final List<K> entries;
+    private final int waiters;
+
+    private PendingBatch(long id, byte[] data, List<K> entries, int waiters) {
+      this.id = id;
+      this.data = data;
+      this.entries = entries;
+      this.waiters = waiters;
+    }
+  }
+
+  private static final class BatchFailure {
+
+    private final IOException cause;
+    private int pendingWaiters;
+
+    private BatchFailure(IOException cause, int pendingWaiters) {
+      this.cause = cause;
+      this.pendingWaiters = pendingWaiters;
+    }
+  }
+}
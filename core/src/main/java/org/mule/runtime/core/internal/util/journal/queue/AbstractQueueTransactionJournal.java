@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.util.journal.queue;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import org.mule.runtime.core.internal.util.journal.JournalEntry;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
@@ -29,12 +30,29 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<T>> {
 
+  /**
+   * System property to enable the group commit mode of the {@link TransactionJournal} for the journals that don't explicitly
+   * configure it.
+   *
+   * @since 4.3.0
+   */
+  public static final String GROUP_COMMIT_PROPERTY_KEY = "mule.queue.journal.groupCommit";
+
   protected transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private TransactionJournal<T, K> logFile;
 
   public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
                                          Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, journalEntrySerializer, maximumFileSizeInMegabytes, getBoolean(GROUP_COMMIT_PROPERTY_KEY));
+  }
+
+  /**
+   * @param groupCommit whether the entries logged by concurrent transactions are written to disk in batches
+   * @since 4.3.0
+   */
+  public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
+                                         Integer maximumFileSizeInMegabytes, boolean groupCommit) {
     checkArgument(maximumFileSizeInMegabytes == null || maximumFileSizeInMegabytes > 0,
                   "Maximum tx log file size needs to be greater than zero");
     this.logFile = new TransactionJournal(logFilesDirectory, new TransactionCompletePredicate() {
@@ -44,7 +62,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         AbstractQueueTxJournalEntry abstractQueueTxJournalEntry = (AbstractQueueTxJournalEntry) journalEntry;
         return abstractQueueTxJournalEntry.isCommit() || abstractQueueTxJournalEntry.isRollback();
       }
-    }, journalEntrySerializer, maximumFileSizeInMegabytes);
+    }, journalEntrySerializer, maximumFileSizeInMegabytes, groupCommit);
   }
 
   public void logAdd(T txId, QueueStore queue, Serializable value) {
@@ -23,6 +23,15 @@ public class LocalTxQueueTransactionJournal extends AbstractQueueTransactionJour
     super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes);
   }
 
+  /**
+   * @param groupCommit whether the entries logged by concurrent transactions are written to disk in batches
+   * @since 4.3.0
+   */
+  public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext,
+                                        Integer maximumFileSizeInMegabytes, boolean groupCommit) {
+    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes, groupCommit);
+  }
+
   public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
     super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), null);
   }
@@ -21,7 +21,24 @@ public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal
 
   public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext,
                                      Integer maximumFileSizeInMegabytes) {
-    super(logFilesDirectory, new JournalEntrySerializer<Xid, XaQueueTxJournalEntry>() {
+    super(logFilesDirectory, createXaTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes);
+  }
+
+  /**
+   * @param groupCommit whether the entries logged by concurrent transactions are written to disk in batches
+   * @since 4.3.0
+   */
+  public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext,
+                                     Integer maximumFileSizeInMegabytes, boolean groupCommit) {
+    super(logFilesDirectory, createXaTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes, groupCommit);
+  }
+
+  public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
+    this(logFilesDirectory, muleContext, null);
+  }
+
+  public static JournalEntrySerializer<Xid, XaQueueTxJournalEntry> createXaTxQueueJournalEntrySerializer(final MuleContext muleContext) {
+    return new JournalEntrySerializer<Xid, XaQueueTxJournalEntry>() {
 
       @Override
       public XaQueueTxJournalEntry deserialize(DataInputStream inputStream) throws IOException {
@@ -32,11 +49,7 @@ public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal
       public void serialize(XaQueueTxJournalEntry journalEntry, DataOutputStream dataOutputStream) {
         journalEntry.write(dataOutputStream, muleContext);
       }
-    }, maximumFileSizeInMegabytes);
-  }
-
-  public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
-    this(logFilesDirectory, muleContext, null);
+    };
   }
 
   @Override
@@ -192,6 +192,8 @@ class RandomAccessFileQueueStore {
             orderedKeys.remove(currentPosition);
             return true;
           }
+        } else {
+          moveFilePointerToNextData();
         }
       }
     } catch (EOFException e) {
@@ -0,0 +1,817 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Thread.currentThread;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.util.Preconditions.checkState;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.MuleContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in append only, memory mapped segment
+ * files.
+ * <p/>
+ * Producers append records to the tail segment while consumers read them from the head segment. Each end of the queue is guarded
+ * by its own lock, so producers and consumers don't contend with each other. When a consumer moves past a segment, that segment
+ * is wiped in background and kept as a spare to be reused by producers.
+ * <p/>
+ * Mapped segments are flushed to disk in batches every {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds instead of on each
+ * operation. A non positive interval leaves flushing to the operating system.
+ * <p/>
+ * Background work, flushing and recycling consumed segments, runs on a single threaded {@link Scheduler} obtained from the
+ * {@link MuleContext} and stopped when this delegate is closed. Segments that are deleted are unmapped right away instead of
+ * waiting for their buffers to be garbage collected.
+ * <p/>
+ * Items given back to the queue through {@link #untake(Serializable)} cannot be prepended to a segment, so they are kept in a
+ * separate {@link RandomAccessFileQueueStore} which is always read before the segments.
+ * <p/>
+ * The files used by this delegate are not compatible with the ones of {@link DualRandomAccessFileQueueStoreDelegate}.
+ *
+ * @since 4.3.0
+ */
+public class SegmentedMappedFileQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String SEGMENTED_QUEUE_STORE_PROPERTY_KEY = "mule.queue.segmented";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+  public static final String SYNC_INTERVAL_PROPERTY_KEY = "mule.queue.syncInterval";
+
+  private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final long DEFAULT_SYNC_INTERVAL = 1000;
+  private static final int MAX_SPARE_SEGMENTS = 2;
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String HEAD_FILE_SUFFIX = "-head";
+  private static final String SEGMENT_FILE_SUFFIX = ".seg";
+
+  private static final int SEGMENT_HEADER_SIZE = 8;
+  private static final int RECORD_HEADER_SIZE = 5;
+  private static final byte EMPTY = 0;
+  private static final byte LIVE = 1;
+  private static final byte REMOVED = 2;
+  private static final byte END_OF_SEGMENT = 3;
+  private static final byte[] ZEROS = new byte[8 * 1024];
+
+  private static final Consumer<MappedByteBuffer> UNMAPPER = createUnmapper();
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ObjectSerializer serializer;
+  private final int capacity;
+  private final int segmentSize;
+  private final File queuesDirectory;
+  private final String segmentPrefix;
+  private final RandomAccessFileQueueStore headStore;
+
+  private final ReentrantLock headLock = new ReentrantLock();
+  private final Condition notEmpty = headLock.newCondition();
+  private final ReentrantLock tailLock = new ReentrantLock();
+  private final Condition notFull = tailLock.newCondition();
+  private final AtomicInteger count = new AtomicInteger(0);
+  private final AtomicInteger waitingProducers = new AtomicInteger(0);
+
+  private final Set<Segment> activeSegments = newKeySet();
+  private final Queue<Segment> spareSegments = new ConcurrentLinkedQueue<>();
+  private final AtomicLong nextFileId = new AtomicLong(0);
+  private final Scheduler maintenanceScheduler;
+  private final ScheduledFuture<?> syncTask;
+  private volatile boolean closed = false;
+
+  // guarded by headLock
+  private Segment readSegment;
+  private int readPosition;
+
+  // guarded by tailLock
+  private Segment writeSegment;
+  private int writePosition;
+  private long nextSequence = 1;
+
+  public SegmentedMappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext,
+                                               int capacity) {
+    this(queueName, workingDirectory, muleContext, capacity, getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE),
+         getLong(SYNC_INTERVAL_PROPERTY_KEY, DEFAULT_SYNC_INTERVAL));
+  }
+
+  SegmentedMappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity,
+                                        int segmentSize, long syncInterval) {
+    this.serializer = muleContext.getObjectSerializer();
+    this.capacity = capacity;
+    this.segmentSize = segmentSize;
+    queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    if (!queuesDirectory.exists()) {
+      checkState(queuesDirectory.mkdirs(), "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+    }
+
+    maintenanceScheduler = muleContext.getSchedulerService()
+        .customScheduler(muleContext.getSchedulerBaseConfig().withName(queueName + ".queue-store-maintenance")
+            .withMaxConcurrentTasks(1));
+
+    headStore = new RandomAccessFileQueueStore(new QueueFileProvider(queuesDirectory, queueName + HEAD_FILE_SUFFIX));
+    segmentPrefix = headStore.getFile().getName() + "-";
+    recover();
+
+    syncTask = syncInterval > 0
+        ? maintenanceScheduler.scheduleWithFixedDelay(this::sync, syncInterval, syncInterval, MILLISECONDS)
+        : null;
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(String.format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  private void recover() {
+    List<Segment> segments = new ArrayList<>();
+    File[] files = queuesDirectory.listFiles((dir, name) -> isSegmentFile(name));
+    if (files != null) {
+      for (File file : files) {
+        nextFileId.set(max(nextFileId.get(), getFileId(file.getName()) + 1));
+        if (file.length() <= SEGMENT_HEADER_SIZE) {
+          deleteQuietly(file);
+          continue;
+        }
+
+        Segment segment = openSegment(file, (int) file.length());
+        if (segment.getSequence() == 0) {
+          release(segment);
+        } else {
+          segments.add(segment);
+        }
+      }
+    }
+
+    segments.sort(comparingLong(Segment::getSequence));
+    int recovered = headStore.getSize();
+    Segment previous = null;
+    for (Segment segment : segments) {
+      if (previous != null) {
+        previous.next = segment;
+      }
+      activeSegments.add(segment);
+
+      int position = SEGMENT_HEADER_SIZE;
+      byte status;
+      while ((status = segment.statusAt(position)) == LIVE || status == REMOVED) {
+        if (status == LIVE) {
+          recovered++;
+        }
+        position += RECORD_HEADER_SIZE + segment.lengthAt(position);
+      }
+
+      writePosition = position;
+      previous = segment;
+    }
+
+    if (segments.isEmpty()) {
+      writeSegment = newSegment(segmentSize);
+      writePosition = SEGMENT_HEADER_SIZE;
+      readSegment = writeSegment;
+    } else {
+      writeSegment = previous;
+      nextSequence = previous.getSequence() + 1;
+      readSegment = segments.get(0);
+    }
+
+    readPosition = SEGMENT_HEADER_SIZE;
+    count.set(recovered);
+  }
+
+  private boolean isSegmentFile(String name) {
+    if (!name.startsWith(segmentPrefix) || !name.endsWith(SEGMENT_FILE_SUFFIX)
+        || name.length() == segmentPrefix.length() + SEGMENT_FILE_SUFFIX.length()) {
+      return false;
+    }
+
+    for (int i = segmentPrefix.length(); i < name.length() - SEGMENT_FILE_SUFFIX.length(); i++) {
+      if (!Character.isDigit(name.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long getFileId(String name) {
+    return Long.parseLong(name.substring(segmentPrefix.length(), name.length() - SEGMENT_FILE_SUFFIX.length()));
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    byte[] data = serialize(o);
+    final int c;
+    tailLock.lock();
+    try {
+      append(data);
+      c = count.getAndIncrement();
+    } finally {
+      tailLock.unlock();
+    }
+
+    if (c == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = o != null ? serialize(o) : null;
+    int c = -1;
+
+    tailLock.lockInterruptibly();
+    try {
+      if (capacity > 0) {
+        if (capacity <= room) {
+          throw new IllegalStateException("Can not add more objects than the capacity in one time");
+        }
+        long nanos = MILLISECONDS.toNanos(timeout);
+        while (count.get() >= capacity - room) {
+          if (timeout >= 0 && nanos <= 0L) {
+            return false;
+          }
+
+          waitingProducers.incrementAndGet();
+          try {
+            // check again now that consumers know that a producer is about to wait
+            if (count.get() < capacity - room) {
+              break;
+            }
+            if (timeout < 0) {
+              notFull.await();
+            } else {
+              nanos = notFull.awaitNanos(nanos);
+            }
+          } finally {
+            waitingProducers.decrementAndGet();
+          }
+        }
+      }
+
+      if (data != null) {
+        append(data);
+        c = count.getAndIncrement();
+      }
+    } finally {
+      tailLock.unlock();
+    }
+
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    return true;
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    final byte[] data;
+    final int c;
+
+    headLock.lockInterruptibly();
+    try {
+      long nanos = MILLISECONDS.toNanos(timeout);
+      while (count.get() == 0) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+
+      data = readFirst(true);
+      c = count.getAndDecrement();
+      if (c > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      headLock.unlock();
+    }
+
+    signalNotFullIfNeeded();
+    return deserialize(data);
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    headLock.lock();
+    try {
+      if (count.get() == 0) {
+        return null;
+      }
+      byte[] data = readFirst(false);
+      return data != null ? deserialize(data) : null;
+    } finally {
+      headLock.unlock();
+    }
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = serialize(item);
+    headLock.lock();
+    try {
+      headStore.addFirst(data);
+      count.incrementAndGet();
+      notEmpty.signal();
+    } finally {
+      headLock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return count.get();
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    fullyLock();
+    try {
+      headStore.clear();
+      for (Segment segment = readSegment; segment != null;) {
+        Segment next = segment.next;
+        activeSegments.remove(segment);
+        release(segment);
+        segment = next;
+      }
+
+      writeSegment = newSegment(segmentSize);
+      writePosition = SEGMENT_HEADER_SIZE;
+      readSegment = writeSegment;
+      readPosition = SEGMENT_HEADER_SIZE;
+      count.set(0);
+      notFull.signalAll();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    List<byte[]> values = new ArrayList<>(items.size());
+    for (Serializable item : items) {
+      values.add(serialize(item));
+    }
+
+    final int c;
+    tailLock.lock();
+    try {
+      for (byte[] value : values) {
+        append(value);
+      }
+      c = count.getAndAdd(values.size());
+    } finally {
+      tailLock.unlock();
+    }
+
+    if (c == 0 && !values.isEmpty()) {
+      signalNotEmpty();
+    }
+    return true;
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    fullyLock();
+    try {
+      RawDataSelector selector = createDataSelector(value);
+      if (headStore.remove(selector) || findRecord(selector, true)) {
+        count.decrementAndGet();
+      }
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    fullyLock();
+    try {
+      RawDataSelector selector = createDataSelector(value);
+      return headStore.contains(selector) || findRecord(selector, false);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (syncTask != null) {
+      syncTask.cancel(false);
+    }
+    awaitPendingRecycles();
+    maintenanceScheduler.stop();
+
+    fullyLock();
+    try {
+      for (Segment segment : activeSegments) {
+        segment.sync();
+        segment.close();
+      }
+      Segment spare;
+      while ((spare = spareSegments.poll()) != null) {
+        spare.close();
+      }
+      headStore.close();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    close();
+    fullyLock();
+    try {
+      File[] files = queuesDirectory.listFiles((dir, name) -> isSegmentFile(name));
+      if (files != null) {
+        for (File file : files) {
+          deleteQuietly(file);
+        }
+      }
+      activeSegments.clear();
+      headStore.delete();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * Writes the given {@code data} at the tail of the queue. Must be invoked holding the {@link #tailLock}.
+   */
+  private void append(byte[] data) {
+    checkOpen();
+    final int required = RECORD_HEADER_SIZE + data.length;
+    // one byte is always left available for the end of segment mark
+    if (writePosition + required >= writeSegment.capacity) {
+      Segment next = newSegment(SEGMENT_HEADER_SIZE + required + 1);
+      writeSegment.next = next;
+      writeSegment.mark(writePosition, END_OF_SEGMENT);
+      writeSegment = next;
+      writePosition = SEGMENT_HEADER_SIZE;
+    }
+
+    writeSegment.write(writePosition, data);
+    writePosition += required;
+  }
+
+  /**
+   * Reads the first element of the queue, optionally removing it. Must be invoked holding the {@link #headLock}.
+   */
+  private byte[] readFirst(boolean remove) throws InterruptedException {
+    checkOpen();
+    if (!headStore.isEmpty()) {
+      return remove ? headStore.removeFirst() : headStore.getFirst();
+    }
+
+    while (true) {
+      final byte status = readSegment.statusAt(readPosition);
+      if (status == LIVE) {
+        byte[] data = readSegment.read(readPosition);
+        if (remove) {
+          readSegment.mark(readPosition, REMOVED);
+          readPosition += RECORD_HEADER_SIZE + data.length;
+        }
+        return data;
+      } else if (status == REMOVED) {
+        readPosition += RECORD_HEADER_SIZE + readSegment.lengthAt(readPosition);
+      } else if (status == END_OF_SEGMENT && readSegment.next != null) {
+        Segment consumed = readSegment;
+        readSegment = consumed.next;
+        readPosition = SEGMENT_HEADER_SIZE;
+        recycle(consumed);
+      } else {
+        return null;
+      }
+    }
+  }
+
+  private boolean findRecord(RawDataSelector selector, boolean remove) {
+    checkOpen();
+    for (Segment segment = readSegment; segment != null; segment = segment.next) {
+      int position = segment == readSegment ? readPosition : SEGMENT_HEADER_SIZE;
+      byte status;
+      while ((status = segment.statusAt(position)) == LIVE || status == REMOVED) {
+        if (status == LIVE && selector.isSelectedData(segment.read(position))) {
+          if (remove) {
+            segment.mark(position, REMOVED);
+          }
+          return true;
+        }
+        position += RECORD_HEADER_SIZE + segment.lengthAt(position);
+      }
+    }
+
+    return false;
+  }
+
+  private Segment newSegment(int minCapacity) {
+    Segment segment = minCapacity <= segmentSize ? spareSegments.poll() : null;
+    if (segment == null) {
+      File file = new File(queuesDirectory, segmentPrefix + nextFileId.getAndIncrement() + SEGMENT_FILE_SUFFIX);
+      segment = openSegment(file, max(segmentSize, minCapacity));
+    }
+
+    segment.setSequence(nextSequence++);
+    activeSegments.add(segment);
+    return segment;
+  }
+
+  private Segment openSegment(File file, int segmentCapacity) {
+    try {
+      return new Segment(file, segmentCapacity);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void recycle(Segment segment) {
+    activeSegments.remove(segment);
+    maintenanceScheduler.execute(() -> release(segment));
+  }
+
+  /**
+   * Wipes the given fully consumed {@code segment} and keeps it as a spare, or deletes it if enough spares are already available.
+   */
+  private void release(Segment segment) {
+    try {
+      if (!closed && segment.capacity == segmentSize && spareSegments.size() < MAX_SPARE_SEGMENTS) {
+        segment.wipe();
+        segment.sync();
+        spareSegments.offer(segment);
+      } else {
+        segment.close();
+        deleteQuietly(segment.file);
+      }
+    } catch (Exception e) {
+      logger.warn("Could not recycle queue segment " + segment.file.getName(), e);
+    }
+  }
+
+  private void awaitPendingRecycles() {
+    try {
+      maintenanceScheduler.submit(() -> {
+      }).get();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+    } catch (ExecutionException e) {
+      logger.warn("Could not wait for queue segments to be recycled", e);
+    }
+  }
+
+  private void sync() {
+    try {
+      for (Segment segment : activeSegments) {
+        segment.sync();
+      }
+    } catch (Exception e) {
+      logger.warn("Could not sync queue segments", e);
+    }
+  }
+
+  private void signalNotEmpty() {
+    headLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      headLock.unlock();
+    }
+  }
+
+  private void signalNotFullIfNeeded() {
+    if (capacity > 0 && waitingProducers.get() > 0) {
+      tailLock.lock();
+      try {
+        notFull.signalAll();
+      } finally {
+        tailLock.unlock();
+      }
+    }
+  }
+
+  private void fullyLock() {
+    tailLock.lock();
+    headLock.lock();
+  }
+
+  private void fullyUnlock() {
+    headLock.unlock();
+    tailLock.unlock();
+  }
+
+  /**
+   * Closed segments are unmapped, so they must not be accessed anymore. Must be invoked holding either lock.
+   */
+  private void checkOpen() {
+    checkState(!closed, "Queue store is closed");
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  private RawDataSelector createDataSelector(final Serializable value) {
+    return data -> deserialize(data).equals(value);
+  }
+
+  private byte[] serialize(Serializable value) {
+    return serializer.getInternalProtocol().serialize(value);
+  }
+
+  private Serializable deserialize(byte[] valueAsBytes) {
+    return serializer.getInternalProtocol().deserialize(valueAsBytes);
+  }
+
+  /**
+   * A memory mapped segment file.
+   * <p/>
+   * The segment starts with the sequence number that determines its order in the queue, {@code 0} meaning that it is a spare.
+   * Then each record has a status byte, an int with the length of the data and the data itself. Since new files are zero
+   * filled, an {@link #EMPTY} status marks where the written records end.
+   */
+  private static class Segment {
+
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private volatile Segment next;
+    private volatile boolean dirty = false;
+    private boolean closed = false;
+
+    private Segment(File file, int capacity) throws IOException {
+      this.file = file;
+      this.capacity = capacity;
+      channel = new RandomAccessFile(file, "rw").getChannel();
+      buffer = channel.map(READ_WRITE, 0, capacity);
+    }
+
+    private long getSequence() {
+      return buffer.getLong(0);
+    }
+
+    private void setSequence(long sequence) {
+      buffer.putLong(0, sequence);
+      dirty = true;
+    }
+
+    private byte statusAt(int position) {
+      return position < capacity ? buffer.get(position) : END_OF_SEGMENT;
+    }
+
+    private int lengthAt(int position) {
+      return buffer.getInt(position + 1);
+    }
+
+    private byte[] read(int position) {
+      byte[] data = new byte[lengthAt(position)];
+      ByteBuffer view = buffer.duplicate();
+      view.position(position + RECORD_HEADER_SIZE);
+      view.get(data);
+      return data;
+    }
+
+    /**
+     * The status is written last so that the record is only visible once complete
+     */
+    private void write(int position, byte[] data) {
+      buffer.putInt(position + 1, data.length);
+      ByteBuffer view = buffer.duplicate();
+      view.position(position + RECORD_HEADER_SIZE);
+      view.put(data);
+      buffer.put(position, LIVE);
+      dirty = true;
+    }
+
+    private void mark(int position, byte status) {
+      buffer.put(position, status);
+      dirty = true;
+    }
+
+    private void wipe() {
+      ByteBuffer view = buffer.duplicate();
+      view.clear();
+      while (view.hasRemaining()) {
+        view.put(ZEROS, 0, min(ZEROS.length, view.remaining()));
+      }
+      next = null;
+      dirty = true;
+    }
+
+    /**
+     * Synchronized with {@link #close()} so that a background flush never touches an unmapped buffer.
+     */
+    private synchronized void sync() {
+      if (dirty && !closed) {
+        dirty = false;
+        buffer.force();
+      }
+    }
+
+    private synchronized void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LoggerFactory.getLogger(Segment.class).debug("Error closing queue segment", e);
+      }
+      UNMAPPER.accept(buffer);
+    }
+  }
+
+  /**
+   * Mapped buffers are otherwise only unmapped when garbage collected, keeping the memory and the file handle of deleted
+   * segments until then. There is no public API for this, so the JDK internals are accessed reflectively, doing nothing if
+   * they are not available.
+   */
+  private static Consumer<MappedByteBuffer> createUnmapper() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      try {
+        // Java 9+
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Object unsafe = theUnsafe.get(null);
+        return buffer -> unmap(() -> invokeCleaner.invoke(unsafe, buffer));
+      } catch (NoSuchMethodException e) {
+        // Java 8
+        Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        cleaner.setAccessible(true);
+        Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+        clean.setAccessible(true);
+        return buffer -> unmap(() -> {
+          Object bufferCleaner = cleaner.invoke(buffer);
+          return bufferCleaner != null ? clean.invoke(bufferCleaner) : null;
+        });
+      }
+    } catch (Exception e) {
+      LoggerFactory.getLogger(SegmentedMappedFileQueueStoreDelegate.class)
+          .debug("Mapped queue segments will be unmapped when garbage collected", e);
+      return buffer -> {
+      };
+    }
+  }
+
+  private static void unmap(Callable<?> unmapper) {
+    try {
+      unmapper.call();
+    } catch (Exception e) {
+      LoggerFactory.getLogger(SegmentedMappedFileQueueStoreDelegate.class).debug("Could not unmap queue segment", e);
+    }
+  }
+}
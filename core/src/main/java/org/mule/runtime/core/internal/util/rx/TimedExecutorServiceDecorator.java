@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.rx;
+
+import static java.lang.System.nanoTime;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decorator for {@link ScheduledExecutorService} that measures, for each task submitted for immediate execution, how long it
+ * waited to be executed and how long its execution took.
+ * <p>
+ * Delayed and periodic tasks are not measured.
+ *
+ * @since 4.3.0
+ */
+public class TimedExecutorServiceDecorator implements ScheduledExecutorService {
+
+  /**
+   * Receives the times measured for each executed task.
+   */
+  @FunctionalInterface
+  public interface TaskTimingListener {
+
+    /**
+     * @param queueNanos time between the submission of the task and the start of its execution, in nanoseconds.
+     * @param serviceNanos time the task took to execute, in nanoseconds.
+     */
+    void onTaskExecuted(long queueNanos, long serviceNanos);
+  }
+
+  private final ScheduledExecutorService delegate;
+  private final TaskTimingListener listener;
+
+  /**
+   * @param executorService the executors service to decorate
+   * @param listener the listener to notify with the times of each task.
+   */
+  public TimedExecutorServiceDecorator(ScheduledExecutorService executorService, TaskTimingListener listener) {
+    this.delegate = executorService;
+    this.listener = listener;
+  }
+
+  private Runnable timed(Runnable task) {
+    final long submitted = nanoTime();
+    return () -> {
+      final long started = nanoTime();
+      try {
+        task.run();
+      } finally {
+        listener.onTaskExecuted(started - submitted, nanoTime() - started);
+      }
+    };
+  }
+
+  private <T> Callable<T> timed(Callable<T> task) {
+    final long submitted = nanoTime();
+    return () -> {
+      final long started = nanoTime();
+      try {
+        return task.call();
+      } finally {
+        listener.onTaskExecuted(started - submitted, nanoTime() - started);
+      }
+    };
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    return delegate.submit(timed(task));
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    return delegate.submit(timed(task), result);
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    return delegate.submit(timed(task));
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    return delegate.invokeAll(tasks);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return delegate.invokeAll(tasks, timeout, unit);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    return delegate.invokeAny(tasks);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return delegate.invokeAny(tasks, timeout, unit);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(timed(command));
+  }
+
+  /////////
+  // For the schedule methods, nothing to do in particular.
+  /////////
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return delegate.schedule(command, delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return delegate.schedule(callable, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    return delegate.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.unmodifiableList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.util.FileUtils.cleanDirectory;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link PersistentObjectStorePartition} which keeps all of its entries in a single append-only log file instead of using one
+ * file per key.
+ * <p>
+ * Every store appends a record with the serialized value and every removal appends a tombstone. The location of the live value
+ * of each key is kept in an in-memory index which is rebuilt by scanning the log once when the partition is loaded. The index
+ * keeps the keys in the order they were stored, so {@link #expire(long, int)} only needs to walk it from its head instead of
+ * listing and sorting the files.
+ * <p>
+ * Space taken by removed values is reclaimed by compacting the log, which rewrites the live records into a new file that then
+ * atomically replaces the current one. Compaction is triggered after removals and expirations, once the garbage in the log is
+ * larger than both {@link #MINIMUM_COMPACTION_BYTES} and the live data.
+ * <p>
+ * Each record is prefixed by its length and a checksum. A record that was only partially written when the process stopped is
+ * discarded, together with anything after it, when the log is loaded.
+ *
+ * @param <T> the type of the stored values
+ * @since 4.3.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T> {
+
+  public static final String LOG_FILE_NAME = "store.log";
+
+  private static final String COMPACTED_LOG_FILE_NAME = "store.log.compact";
+  private static final long MINIMUM_COMPACTION_BYTES = 4 * 1024 * 1024;
+
+  private static final byte STORE_RECORD = 1;
+  private static final byte REMOVE_RECORD = 2;
+
+  /**
+   * Length, checksum, type and timestamp, followed by the key length.
+   */
+  private static final int RECORD_HEADER_SIZE = 4 + 4 + 1 + 8 + 4;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredObjectStorePartition.class);
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+
+  private final Map<String, IndexEntry> index = new LinkedHashMap<>();
+  private FileChannel logChannel;
+  private long logSize;
+  private long liveBytes;
+
+  /**
+   * @param partitionDirectory the directory to check
+   * @return whether the given partition directory holds a log structured partition
+   */
+  public static boolean isLogStructured(File partitionDirectory) {
+    return new File(partitionDirectory, LOG_FILE_NAME).exists();
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    super(muleContext, partitionName, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    super(muleContext, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    super.open();
+    synchronized (index) {
+      assureLoaded();
+    }
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    synchronized (index) {
+      try {
+        closeLogChannel();
+        cleanDirectory(getPartitionDirectory());
+        getPartitionDirectory().delete();
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not close object store partition"), e);
+      }
+
+      index.clear();
+      logSize = 0;
+      liveBytes = 0;
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    synchronized (index) {
+      assureLoaded();
+      return unmodifiableList(new ArrayList<>(index.keySet()));
+    }
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    synchronized (index) {
+      assureLoaded();
+      return index.containsKey(key);
+    }
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    byte[] serializedValue = serializer.getInternalProtocol().serialize(value);
+
+    synchronized (index) {
+      assureLoaded();
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+
+      long timestamp = currentTimeMillis();
+      ByteBuffer record = createRecord(STORE_RECORD, timestamp, key, serializedValue);
+      long recordOffset = append(record);
+      index.put(key, new IndexEntry(recordOffset, record.capacity(), timestamp));
+      liveBytes += record.capacity();
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    synchronized (index) {
+      assureLoaded();
+      try {
+        logChannel.truncate(0);
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+      }
+
+      index.clear();
+      logSize = 0;
+      liveBytes = 0;
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    synchronized (index) {
+      assureLoaded();
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      return load(entry);
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    synchronized (index) {
+      assureLoaded();
+      Map<String, T> values = new LinkedHashMap<>(index.size());
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        values.put(entry.getKey(), load(entry.getValue()));
+      }
+
+      return values;
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    synchronized (index) {
+      T value = retrieve(key);
+      appendTombstones(new String[] {key}, 1);
+      compactIfNeeded();
+      return value;
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    synchronized (index) {
+      assureLoaded();
+
+      int excess = maxEntries == UNBOUNDED ? 0 : index.size() - maxEntries;
+      final long now = currentTimeMillis();
+      String[] expiredKeys = new String[index.size()];
+      int expired = 0;
+
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        if (expired < excess || (entryTTL != UNBOUNDED && now - entry.getValue().timestamp >= entryTTL)) {
+          expiredKeys[expired++] = entry.getKey();
+        } else {
+          break;
+        }
+      }
+
+      if (expired > 0) {
+        appendTombstones(expiredKeys, expired);
+        compactIfNeeded();
+      }
+    }
+  }
+
+  /**
+   * @return the size in bytes of the log file, including the space taken by removed entries not yet compacted
+   */
+  public long getLogSize() {
+    synchronized (index) {
+      return logSize;
+    }
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (logChannel == null) {
+      loadLog();
+    }
+  }
+
+  private void loadLog() throws ObjectStoreException {
+    File logFile = getLogFile();
+    long validLength = 0;
+
+    if (logFile.exists()) {
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+        CRC32 crc = new CRC32();
+        while (true) {
+          int recordLength = input.readInt();
+          int checksum = input.readInt();
+          if (recordLength < RECORD_HEADER_SIZE || validLength + recordLength > logFile.length()) {
+            break;
+          }
+
+          byte[] body = new byte[recordLength - 8];
+          input.readFully(body);
+          crc.reset();
+          crc.update(body);
+          if ((int) crc.getValue() != checksum) {
+            break;
+          }
+
+          replay(ByteBuffer.wrap(body), validLength, recordLength);
+          validLength += recordLength;
+        }
+      } catch (EOFException e) {
+        // Expected once there are no more records
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                  getPartitionDirectory().getAbsolutePath())),
+                                       e);
+      }
+
+      if (validLength < logFile.length()) {
+        LOGGER.warn(format("Object store log %s has %d trailing bytes which could not be read. They will be discarded.",
+                           logFile.getAbsolutePath(), logFile.length() - validLength));
+      }
+    }
+
+    try {
+      logChannel = new RandomAccessFile(logFile, "rw").getChannel();
+      logChannel.truncate(validLength);
+      logChannel.position(validLength);
+      logSize = validLength;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not open object store log " + logFile.getAbsolutePath()), e);
+    }
+  }
+
+  private void replay(ByteBuffer body, long recordOffset, int recordLength) {
+    byte type = body.get();
+    long timestamp = body.getLong();
+    byte[] keyBytes = new byte[body.getInt()];
+    body.get(keyBytes);
+    String key = new String(keyBytes, UTF_8);
+
+    IndexEntry previous = index.remove(key);
+    if (previous != null) {
+      liveBytes -= previous.recordLength;
+    }
+    if (type == STORE_RECORD) {
+      index.put(key, new IndexEntry(recordOffset, recordLength, timestamp));
+      liveBytes += recordLength;
+    }
+  }
+
+  private ByteBuffer createRecord(byte type, long timestamp, String key, byte[] value) {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    int recordLength = RECORD_HEADER_SIZE + keyBytes.length + value.length;
+
+    ByteBuffer record = ByteBuffer.allocate(recordLength);
+    record.putInt(recordLength);
+    record.putInt(0);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(keyBytes.length);
+    record.put(keyBytes);
+    record.put(value);
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), 8, recordLength - 8);
+    record.putInt(4, (int) crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  private long append(ByteBuffer records) throws ObjectStoreException {
+    long offset = logSize;
+    try {
+      while (records.hasRemaining()) {
+        logChannel.write(records, logSize + records.position());
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not write to object store log"), e);
+    }
+    logSize += records.limit();
+    return offset;
+  }
+
+  /**
+   * Removes the first {@code count} {@code keys} from the index and logs their removal with a single write.
+   */
+  private void appendTombstones(String[] keys, int count) throws ObjectStoreException {
+    List<ByteBuffer> tombstones = new ArrayList<>(count);
+    int totalLength = 0;
+    long timestamp = currentTimeMillis();
+    for (int i = 0; i < count; i++) {
+      ByteBuffer tombstone = createRecord(REMOVE_RECORD, timestamp, keys[i], new byte[0]);
+      tombstones.add(tombstone);
+      totalLength += tombstone.limit();
+    }
+
+    ByteBuffer records = ByteBuffer.allocate(totalLength);
+    for (ByteBuffer tombstone : tombstones) {
+      records.put(tombstone);
+    }
+    records.flip();
+    append(records);
+
+    for (int i = 0; i < count; i++) {
+      liveBytes -= index.remove(keys[i]).recordLength;
+    }
+  }
+
+  private T load(IndexEntry entry) throws ObjectStoreException {
+    ByteBuffer record = ByteBuffer.allocate(entry.recordLength);
+    try {
+      while (record.hasRemaining()) {
+        if (logChannel.read(record, entry.offset + record.position()) < 0) {
+          throw new EOFException();
+        }
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+
+    int keyLength = record.getInt(RECORD_HEADER_SIZE - 4);
+    int valueOffset = RECORD_HEADER_SIZE + keyLength;
+    byte[] value = new byte[entry.recordLength - valueOffset];
+    System.arraycopy(record.array(), valueOffset, value, 0, value.length);
+
+    try {
+      T storedValue = serializer.getInternalProtocol().deserialize(value);
+      if (storedValue instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(storedValue, muleContext);
+      }
+      return storedValue;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private void compactIfNeeded() throws ObjectStoreException {
+    long garbage = logSize - liveBytes;
+    if (garbage > MINIMUM_COMPACTION_BYTES && garbage > liveBytes) {
+      compact();
+    }
+  }
+
+  /**
+   * Copies the live records into a new log file, which then replaces the current one.
+   */
+  private void compact() throws ObjectStoreException {
+    File compactedFile = new File(getPartitionDirectory(), COMPACTED_LOG_FILE_NAME);
+    Map<String, IndexEntry> compactedIndex = new LinkedHashMap<>(index.size());
+
+    try (FileChannel compactedChannel = new RandomAccessFile(compactedFile, "rw").getChannel()) {
+      compactedChannel.truncate(0);
+      long compactedSize = 0;
+      for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+        IndexEntry indexEntry = entry.getValue();
+        long transferred = 0;
+        while (transferred < indexEntry.recordLength) {
+          transferred += logChannel.transferTo(indexEntry.offset + transferred, indexEntry.recordLength - transferred,
+                                               compactedChannel);
+        }
+        compactedIndex.put(entry.getKey(), new IndexEntry(compactedSize, indexEntry.recordLength, indexEntry.timestamp));
+        compactedSize += indexEntry.recordLength;
+      }
+      compactedChannel.force(false);
+
+      closeLogChannel();
+      Files.move(compactedFile.toPath(), getLogFile().toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+
+      logChannel = new RandomAccessFile(getLogFile(), "rw").getChannel();
+      logChannel.position(compactedSize);
+      logSize = compactedSize;
+      liveBytes = compactedSize;
+      index.clear();
+      index.putAll(compactedIndex);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not compact object store log"), e);
+    } finally {
+      if (logChannel == null) {
+        // the current log could not be replaced, keep using it
+        loadLogAfterFailedCompaction();
+      }
+    }
+  }
+
+  private void loadLogAfterFailedCompaction() throws ObjectStoreException {
+    index.clear();
+    liveBytes = 0;
+    loadLog();
+  }
+
+  private void closeLogChannel() throws IOException {
+    if (logChannel != null) {
+      try {
+        logChannel.close();
+      } finally {
+        logChannel = null;
+      }
+    }
+  }
+
+  private File getLogFile() {
+    return new File(getPartitionDirectory(), LOG_FILE_NAME);
+  }
+
+  private static class IndexEntry {
+
+    private final long offset;
+    private final int recordLength;
+    private final long timestamp;
+
+    private IndexEntry(long offset, int recordLength, long timestamp) {
+      this.offset = offset;
+      this.recordLength = recordLength;
+      this.timestamp = timestamp;
+    }
+  }
+}
@@ -6,16 +6,29 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Boolean.getBoolean;
+
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
+import org.mule.runtime.core.internal.store.StripedInMemoryObjectStore;
 
 import java.io.Serializable;
 
 public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory {
 
+  /**
+   * System property to use a {@link StripedInMemoryObjectStore} as the default in memory object store.
+   *
+   * @since 4.3.0
+   */
+  public static final String STRIPED_IN_MEMORY_OBJECT_STORE_PROPERTY_KEY = "mule.objectstore.inMemory.striped";
+
   @Override
   public ObjectStore<Serializable> createDefaultInMemoryObjectStore() {
+    if (getBoolean(STRIPED_IN_MEMORY_OBJECT_STORE_PROPERTY_KEY)) {
+      return new StripedInMemoryObjectStore<>();
+    }
     return new PartitionedInMemoryObjectStore<>();
   }
 
@@ -27,6 +27,7 @@ import org.mule.runtime.api.store.ObjectStoreSettings;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.api.store.PartitionableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.store.StripedInMemoryObjectStore;
 
 import java.io.Serializable;
 import java.util.NoSuchElementException;
@@ -159,6 +160,12 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
       throw new MuleRuntimeException(createStaticMessage("Found exception trying to create Object Store of name " + name), e);
     }
 
+    if (baseStore instanceof StripedInMemoryObjectStore) {
+      // let the store enforce the expiration policy as entries are added, not just when the monitor runs
+      ((StripedInMemoryObjectStore) baseStore).configurePartition(name, settings.getEntryTTL().orElse(0L),
+                                                                  settings.getMaxEntries().orElse(UNBOUNDED));
+    }
+
     if (settings.getExpirationInterval() > 0 && (settings.getMaxEntries().isPresent() || settings.getEntryTTL().isPresent())) {
       store = getMonitorablePartition(name, baseStore, store, settings);
     }
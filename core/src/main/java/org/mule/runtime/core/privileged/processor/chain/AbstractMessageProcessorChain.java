@@ -25,6 +25,8 @@ import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStream
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 import static org.mule.runtime.core.internal.context.DefaultMuleContext.currentMuleContext;
 import static org.mule.runtime.core.internal.context.thread.notification.ThreadNotificationLogger.THREAD_NOTIFICATION_LOGGER_CONTEXT_KEY;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.getProcessingLatencyStatistics;
+import static org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics.onProcessorEntered;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.subscribeFluxOnPublisherSubscription;
 import static org.mule.runtime.core.privileged.event.PrivilegedEvent.setCurrentEvent;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
@@ -64,6 +66,7 @@ import org.mule.runtime.core.internal.interception.InterceptorManager;
 import org.mule.runtime.core.internal.processor.chain.InterceptedReactiveProcessor;
 import org.mule.runtime.core.internal.processor.interceptor.ReactiveAroundInterceptorAdapter;
 import org.mule.runtime.core.internal.processor.interceptor.ReactiveInterceptorAdapter;
+import org.mule.runtime.core.internal.processor.latency.ProcessingLatencyStatistics;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.internal.util.MessagingExceptionResolver;
 import org.mule.runtime.core.privileged.component.AbstractExecutableComponent;
@@ -152,6 +155,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   @Inject
   private ThreadNotificationService threadNotificationService;
   private ThreadNotificationLogger threadNotificationLogger;
+  private ProcessingLatencyStatistics latencyStatistics;
 
   AbstractMessageProcessorChain(String name,
                                 Optional<ProcessingStrategy> processingStrategyOptional,
@@ -278,6 +282,10 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
   private void notifyError(Processor processor, BaseEventContext context, final MessagingException resolvedException,
                            BiConsumer<BaseEventContext, ? super Exception> errorBubbler) {
+    if (latencyStatistics != null) {
+      // Failed events are dropped from the stream, so the interceptor that measures the processor doesn't see them
+      latencyStatistics.onProcessorFailed(context, processor);
+    }
     errorNotification(processor)
         .andThen(t -> errorBubbler.accept(context, t))
         .accept(resolvedException);
@@ -320,11 +328,19 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
             .subscriberContext(context -> context.put(THREAD_NOTIFICATION_LOGGER_CONTEXT_KEY, threadNotificationLogger))
             .doOnNext(event -> threadNotificationLogger.setStartingThread(event.getContext().getId(), true))
             .transform(processingStrategy
-                .onProcessor(new InterceptedReactiveProcessor(processor, next, threadNotificationLogger)))
+                .onProcessor(new InterceptedReactiveProcessor(processor, next, threadNotificationLogger,
+                                                              latencyStatistics)))
             .doOnNext(event -> threadNotificationLogger.setFinishThread(event.getContext().getId())));
       } else {
         interceptors.add((processor, next) -> processingStrategy
-            .onProcessor(new InterceptedReactiveProcessor(processor, next, null)));
+            .onProcessor(new InterceptedReactiveProcessor(processor, next, null, latencyStatistics)));
+      }
+
+      if (latencyStatistics != null) {
+        // Applied outside of the processing strategy so the time until the processor thread picks the event is measured
+        interceptors.add((processor, next) -> stream -> from(stream)
+            .doOnNext(event -> onProcessorEntered(event, processor))
+            .transform(next));
       }
     }
 
@@ -519,6 +535,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
     threadNotificationLogger =
         new ThreadNotificationLogger(threadNotificationService, muleContext.getConfiguration().isThreadLoggingEnabled());
+    latencyStatistics = getProcessingLatencyStatistics(muleContext);
 
     initialiseIfNeeded(getMessageProcessorsForLifecycle(), muleContext);
   }
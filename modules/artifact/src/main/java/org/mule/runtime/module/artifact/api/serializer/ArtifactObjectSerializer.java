@@ -17,6 +17,8 @@ import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.serialization.SerializationProtocol;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.internal.serialization.AbstractSerializationProtocol;
+import org.mule.runtime.core.internal.serialization.CompactSerializationProtocol;
 import org.mule.runtime.core.internal.serialization.JavaExternalSerializerProtocol;
 import org.mule.runtime.module.artifact.api.classloader.ClassLoaderRepository;
 import org.mule.runtime.module.artifact.api.serializer.protocol.CustomJavaSerializationProtocol;
@@ -24,20 +26,42 @@ import org.mule.runtime.module.artifact.api.serializer.protocol.CustomJavaSerial
 @NoInstantiate
 public final class ArtifactObjectSerializer implements ObjectSerializer, Initialisable, MuleContextAware {
 
+  /**
+   * Artifact property that, when {@code true}, makes the internal protocol of the artifact, used for its object stores, queues
+   * and journals, the {@link CompactSerializationProtocol}.
+   *
+   * @since 4.3.0
+   */
+  public static final String COMPACT_SERIALIZATION_PROPERTY = "mule.serialization.compact";
+
   private volatile JavaExternalSerializerProtocol javaExternalSerializerProtocol;
   private volatile CustomJavaSerializationProtocol javaInternalSerializerProtocol;
+  private volatile AbstractSerializationProtocol internalSerializerProtocol;
   private MuleContext muleContext;
 
   public ArtifactObjectSerializer(ClassLoaderRepository classLoaderRepository) {
+    this(classLoaderRepository, false);
+  }
+
+  /**
+   * @param classLoaderRepository contains the registered classloaders that can be used to load serialized classes. Non null.
+   * @param compactInternalProtocol whether to use the {@link CompactSerializationProtocol} as internal protocol, falling back
+   *        to java serialization for the types it has no compact format for.
+   * @since 4.3.0
+   */
+  public ArtifactObjectSerializer(ClassLoaderRepository classLoaderRepository, boolean compactInternalProtocol) {
     checkArgument(classLoaderRepository != null, "ClassLoaderRepository cannot be null");
 
     javaExternalSerializerProtocol = new JavaExternalSerializerProtocol();
     javaInternalSerializerProtocol = new CustomJavaSerializationProtocol(classLoaderRepository);
+    internalSerializerProtocol = compactInternalProtocol
+        ? new CompactSerializationProtocol(javaInternalSerializerProtocol)
+        : javaInternalSerializerProtocol;
   }
 
   @Override
   public SerializationProtocol getInternalProtocol() {
-    return javaInternalSerializerProtocol;
+    return internalSerializerProtocol;
   }
 
   @Override
@@ -50,12 +74,16 @@ public final class ArtifactObjectSerializer implements ObjectSerializer, Initial
     this.muleContext = context;
     javaExternalSerializerProtocol.setMuleContext(context);
     javaInternalSerializerProtocol.setMuleContext(context);
+    internalSerializerProtocol.setMuleContext(context);
   }
 
   @Override
   public void initialise() throws InitialisationException {
     try {
       muleContext.getInjector().inject(javaInternalSerializerProtocol);
+      if (internalSerializerProtocol != javaInternalSerializerProtocol) {
+        muleContext.getInjector().inject(internalSerializerProtocol);
+      }
       muleContext.getInjector().inject(javaExternalSerializerProtocol);
     } catch (MuleException e) {
       throw new InitialisationException(e, this);
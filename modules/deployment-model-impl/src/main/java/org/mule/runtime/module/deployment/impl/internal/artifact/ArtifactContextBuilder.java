@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.deployment.impl.internal.artifact;
 
+import static java.lang.Boolean.parseBoolean;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Optional.empty;
@@ -23,6 +24,7 @@ import static org.mule.runtime.core.api.config.bootstrap.ArtifactType.POLICY;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
 import static org.mule.runtime.core.api.util.UUID.getUUID;
 import static org.mule.runtime.core.internal.exception.ErrorTypeRepositoryFactory.createCompositeErrorTypeRepository;
+import static org.mule.runtime.module.artifact.api.serializer.ArtifactObjectSerializer.COMPACT_SERIALIZATION_PROPERTY;
 import static org.mule.runtime.module.deployment.impl.internal.artifact.ArtifactFactoryUtils.getMuleContext;
 import static org.mule.runtime.module.deployment.impl.internal.artifact.ArtifactFactoryUtils.isConfigLess;
 import static org.mule.runtime.module.deployment.impl.internal.artifact.ArtifactFactoryUtils.withArtifactMuleContext;
@@ -381,6 +383,10 @@ public class ArtifactContextBuilder {
     return this;
   }
 
+  private boolean isCompactSerializationEnabled() {
+    return parseBoolean(merge(artifactProperties, properties.orElse(null)).get(COMPACT_SERIALIZATION_PROPERTY));
+  }
+
   private Map<String, String> merge(Map<String, String> properties, Properties deploymentProperties) {
     if (deploymentProperties == null) {
       return properties;
@@ -482,7 +488,8 @@ public class ArtifactContextBuilder {
           muleContextBuilder = new DomainMuleContextBuilder(artifactName);
         }
         muleContextBuilder.setExecutionClassLoader(this.executionClassLoader);
-        ArtifactObjectSerializer objectSerializer = new ArtifactObjectSerializer(classLoaderRepository);
+        ArtifactObjectSerializer objectSerializer =
+            new ArtifactObjectSerializer(classLoaderRepository, isCompactSerializationEnabled());
         muleContextBuilder.setObjectSerializer(objectSerializer);
         muleContextBuilder.setDeploymentProperties(properties);
 
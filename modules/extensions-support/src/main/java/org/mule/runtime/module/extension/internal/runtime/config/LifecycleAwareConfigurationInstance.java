@@ -160,7 +160,7 @@ public final class LifecycleAwareConfigurationInstance implements ConfigurationI
       if (connectionProvider.isPresent()) {
         startIfNeeded(connectionProvider);
         if (!connectionManager.hasBinding(value)) {
-          connectionManager.bind(value, connectionProvider.get());
+          connectionManager.bind(value, getName(), connectionProvider.get());
         }
         if (doTestConnectivity.get()) {
           testConnectivity();
@@ -295,7 +295,7 @@ public final class LifecycleAwareConfigurationInstance implements ConfigurationI
   private void doInitialise() throws InitialisationException {
     if (connectionProvider.isPresent()) {
       initialiseIfNeeded(connectionProvider, true, muleContext);
-      connectionManager.bind(value, connectionProvider.get());
+      connectionManager.bind(value, getName(), connectionProvider.get());
     }
 
     initialiseIfNeeded(value, true, muleContext);
@@ -134,11 +134,14 @@ import org.mule.runtime.core.internal.routing.Foreach;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
 import org.mule.runtime.core.internal.routing.IdempotentMessageValidator;
 import org.mule.runtime.core.internal.routing.ParallelForEach;
+import org.mule.runtime.core.internal.routing.ParallelForEach.ResultsMode;
+import org.mule.runtime.core.internal.routing.PartitionedParallelForEach;
 import org.mule.runtime.core.internal.routing.ProcessorExpressionRoute;
 import org.mule.runtime.core.internal.routing.ProcessorRoute;
 import org.mule.runtime.core.internal.routing.RoundRobin;
 import org.mule.runtime.core.internal.routing.ScatterGatherRouter;
 import org.mule.runtime.core.internal.routing.UntilSuccessful;
+import org.mule.runtime.core.internal.routing.UntilSuccessful.RetryBackoff;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
 import org.mule.runtime.core.internal.security.PasswordBasedEncryptionStrategy;
 import org.mule.runtime.core.internal.security.SecretKeyEncryptionStrategy;
@@ -204,6 +207,7 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
   private static final String EXCEPTION_LISTENER_ATTRIBUTE = "exceptionListener";
   private static final String SCATTER_GATHER = "scatter-gather";
   private static final String PARALLEL_FOREACH = "parallel-foreach";
+  private static final String PARTITIONED_PARALLEL_FOREACH = "partitioned-parallel-foreach";
   private static final String FORK_JOIN_STRATEGY = "forkJoinStrategyFactory";
   private static final String COLLECT_LIST = "collect-list";
   private static final String ASYNC = "async";
@@ -374,6 +378,21 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
         .withSetterParameterDefinition("collectionExpression", fromSimpleParameter("collection").build())
         .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").build())
         .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+        .withSetterParameterDefinition("resultsMode",
+                                       fromSimpleParameter("resultsMode", value -> ResultsMode.valueOf((String) value)).build())
+        .withSetterParameterDefinition("target", fromSimpleParameter("target").build())
+        .withSetterParameterDefinition("targetValue", fromSimpleParameter("targetValue")
+            .withDefaultValue("#[payload]")
+            .build())
+        .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
+        .asScope().build());
+    componentBuildingDefinitions.add(baseDefinition.withIdentifier(PARTITIONED_PARALLEL_FOREACH)
+        .withTypeDefinition(fromType(PartitionedParallelForEach.class))
+        .withSetterParameterDefinition("collectionExpression", fromSimpleParameter("collection").build())
+        .withSetterParameterDefinition("partitionKey", fromSimpleParameter("partitionKey").build())
+        .withSetterParameterDefinition("partitions", fromSimpleParameter("partitions").build())
+        .withSetterParameterDefinition("timeout", fromSimpleParameter("timeout").build())
+        .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
         .withSetterParameterDefinition("target", fromSimpleParameter("target").build())
         .withSetterParameterDefinition("targetValue", fromSimpleParameter("targetValue")
             .withDefaultValue("#[payload]")
@@ -406,6 +425,12 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
             .withSetterParameterDefinition("maxRetries", fromSimpleParameter("maxRetries").withDefaultValue("5").build())
             .withSetterParameterDefinition("millisBetweenRetries",
                                            fromSimpleParameter("millisBetweenRetries").withDefaultValue("60000").build())
+            .withSetterParameterDefinition("backoff",
+                                           fromSimpleParameter("backoff", value -> RetryBackoff.valueOf((String) value)).build())
+            .withSetterParameterDefinition("maxMillisBetweenRetries", fromSimpleParameter("maxMillisBetweenRetries").build())
+            .withSetterParameterDefinition("circuitBreakerThreshold", fromSimpleParameter("circuitBreakerThreshold").build())
+            .withSetterParameterDefinition("circuitBreakerResetMillis", fromSimpleParameter("circuitBreakerResetMillis").build())
+            .withSetterParameterDefinition("retryBudgetPercent", fromSimpleParameter("retryBudgetPercent").build())
             .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
             .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(FOREACH).withTypeDefinition(fromType(Foreach.class))
@@ -417,6 +442,8 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
         .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(FIRST_SUCCESSFUL)
         .withTypeDefinition(fromType(FirstSuccessful.class))
+        .withSetterParameterDefinition("hedged", fromSimpleParameter("hedged").build())
+        .withSetterParameterDefinition("hedgePercentile", fromSimpleParameter("hedgePercentile").build())
         .withSetterParameterDefinition("routes", fromChildCollectionConfiguration(MessageProcessorChain.class).build())
         .build());
     componentBuildingDefinitions.add(baseDefinition.withIdentifier(ROUND_ROBIN)
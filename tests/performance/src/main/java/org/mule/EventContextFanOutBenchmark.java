@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.lang.Runtime.getRuntime;
+import static java.util.Optional.empty;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.internal.event.DefaultEventContext.child;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures event context completion when a single parent context fans out to many children that are created, observed and
+ * completed concurrently from several threads, as happens in scatter-gather or parallel-foreach under load.
+ */
+@Warmup(iterations = 10)
+@Measurement(iterations = 50)
+@OutputTimeUnit(MICROSECONDS)
+public class EventContextFanOutBenchmark extends AbstractBenchmark {
+
+  @Param({"16", "256", "4096"})
+  public int fanOut;
+
+  private final int workers = getRuntime().availableProcessors();
+
+  private MuleContext muleContext;
+  private Flow flow;
+  private CoreEvent event;
+  private ExecutorService executor;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow, FlowConstruct.class);
+    event = CoreEvent.builder(create(flow, CONNECTOR_LOCATION)).message(Message.of(PAYLOAD)).build();
+    executor = newFixedThreadPool(workers);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    executor.shutdownNow();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public Object completeChildrenConcurrently() throws InterruptedException {
+    BaseEventContext parent = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    CountDownLatch terminated = new CountDownLatch(1);
+    parent.onTerminated((response, throwable) -> terminated.countDown());
+
+    BaseEventContext[] children = new BaseEventContext[fanOut];
+    for (int i = 0; i < fanOut; ++i) {
+      children[i] = child(parent, empty());
+    }
+    parent.success(event);
+
+    for (int w = 0; w < workers; ++w) {
+      final int offset = w;
+      executor.execute(() -> {
+        for (int i = offset; i < fanOut; i += workers) {
+          children[i].success();
+        }
+      });
+    }
+
+    terminated.await();
+    return parent;
+  }
+
+  @Benchmark
+  public Object createObserveAndCompleteChildrenConcurrently() throws InterruptedException {
+    BaseEventContext parent = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    CountDownLatch terminated = new CountDownLatch(1);
+    AtomicInteger childResponses = new AtomicInteger();
+    parent.onTerminated((response, throwable) -> terminated.countDown());
+
+    CountDownLatch created = new CountDownLatch(workers);
+    for (int w = 0; w < workers; ++w) {
+      final int offset = w;
+      executor.execute(() -> {
+        BaseEventContext[] ownChildren = new BaseEventContext[(fanOut - offset + workers - 1) / workers];
+        for (int i = 0; i < ownChildren.length; ++i) {
+          ownChildren[i] = child(parent, empty());
+          ownChildren[i].onResponse((response, throwable) -> childResponses.incrementAndGet());
+        }
+        created.countDown();
+        for (BaseEventContext child : ownChildren) {
+          child.success();
+        }
+      });
+    }
+
+    created.await();
+    parent.success(event);
+    terminated.await();
+    return new Object[] {parent, childResponses};
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object registerResponseCallbacksFromAllThreads() {
+    BaseEventContext context = (BaseEventContext) create(flow, CONNECTOR_LOCATION);
+    AtomicInteger signaled = new AtomicInteger();
+    for (int i = 0; i < fanOut; ++i) {
+      context.onResponse((response, throwable) -> signaled.incrementAndGet());
+    }
+    context.success(event);
+    return signaled;
+  }
+}
@@ -17,6 +17,7 @@ import static org.mule.runtime.api.el.BindingContextUtils.VARS;
 import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.core.internal.el.CompiledExpressionCache.shapeOf;
 
 import org.mule.AbstractBenchmark;
 import org.mule.runtime.api.el.BindingContext;
@@ -94,4 +95,12 @@ public class BindingContextBenchmark extends AbstractBenchmark {
   public Object parentLookup() {
     return childCtx.lookup("onParent");
   }
+
+  /**
+   * The cost added to each expression session that evaluates text expressions to look them up in the compiled expression cache.
+   */
+  @Benchmark
+  public Object shape() {
+    return shapeOf(bctx);
+  }
 }
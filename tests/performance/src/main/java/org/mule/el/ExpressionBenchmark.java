@@ -13,10 +13,12 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
 
 import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.el.CompiledExpression;
 import org.mule.runtime.api.event.EventContext;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 
@@ -34,6 +36,7 @@ public class ExpressionBenchmark extends AbstractBenchmark {
   private MuleContext muleContext;
   private CoreEvent event;
   private EventContext context;
+  private CompiledExpression flowVarsExpression;
 
   @Setup
   public void setup() throws MuleException {
@@ -41,6 +44,7 @@ public class ExpressionBenchmark extends AbstractBenchmark {
     expressionManager = muleContext.getExpressionManager();
     context = create(createFlow(muleContext), CONNECTOR_LOCATION);
     event = CoreEvent.builder(context).message(of(PAYLOAD)).addVariable("foo", "bar").build();
+    flowVarsExpression = expressionManager.compile("vars.foo == 'bar'", event.asBindingContext());
   }
 
   @TearDown
@@ -69,6 +73,24 @@ public class ExpressionBenchmark extends AbstractBenchmark {
     return expressionManager.evaluate("vars.foo == 'bar'", event.asBindingContext()).getValue();
   }
 
+  /**
+   * Evaluation of a text expression through a session, which uses the compiled expression cache. Compare with
+   * {@link #dwFlowVars()} and {@link #dwFlowVarsSessionPrecompiled()}.
+   */
+  @Benchmark
+  public Object dwFlowVarsSession() {
+    try (ExpressionManagerSession session = expressionManager.openSession(event.asBindingContext())) {
+      return session.evaluate("vars.foo == 'bar'").getValue();
+    }
+  }
+
+  @Benchmark
+  public Object dwFlowVarsSessionPrecompiled() {
+    try (ExpressionManagerSession session = expressionManager.openSession(event.asBindingContext())) {
+      return session.evaluate(flowVarsExpression).getValue();
+    }
+  }
+
   @Benchmark
   public Object melGetLocale() {
     return expressionManager.evaluate("mel:java.util.Locale.getDefault().getLanguage()", event).getValue();
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.registerObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.util.MultiMap;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+public class SerializationProtocolBenchmark extends AbstractBenchmark {
+
+  private MuleContext muleContext;
+  private JavaExternalSerializerProtocol javaProtocol;
+  private CompactSerializationProtocol compactProtocol;
+  private ClassLoader classLoader;
+
+  private Message message;
+  private Map<String, Object> map;
+  private CoreEvent event;
+  private byte[] javaMessage;
+  private byte[] compactMessage;
+  private byte[] javaEvent;
+  private byte[] compactEvent;
+  private byte[] javaMap;
+  private byte[] compactMap;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    javaProtocol = new JavaExternalSerializerProtocol();
+    javaProtocol.setMuleContext(muleContext);
+    compactProtocol = new CompactSerializationProtocol(javaProtocol);
+    compactProtocol.setMuleContext(muleContext);
+    classLoader = muleContext.getExecutionClassLoader();
+
+    message = of(PAYLOAD);
+    map = new HashMap<>();
+    List<Object> values = new ArrayList<>();
+    for (int i = 0; i < 10; ++i) {
+      values.add(i);
+      map.put(KEY + i, VALUE + i);
+    }
+    map.put(KEY, values);
+
+    javaMessage = javaProtocol.serialize(message);
+    compactMessage = compactProtocol.serialize(message);
+    javaMap = javaProtocol.serialize(map);
+    compactMap = compactProtocol.serialize(map);
+
+    // An event as received by an HTTP listener, with attributes of a class that is not from the JDK
+    Flow flow = createFlow(muleContext);
+    registerObject(muleContext, FLOW_NAME, flow, FlowConstruct.class);
+    event = CoreEvent.builder(createEvent(flow))
+        .message(Message.builder().value(PAYLOAD).mediaType(APPLICATION_JSON).attributesValue(new HttpAttributes()).build())
+        .addVariable(KEY, VALUE)
+        .build();
+    javaEvent = javaProtocol.serialize(event);
+    compactEvent = compactProtocol.serialize(event);
+  }
+
+  @TearDown
+  public void teardown() {
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public byte[] serializeMessageJava() {
+    return javaProtocol.serialize(message);
+  }
+
+  @Benchmark
+  public byte[] serializeMessageCompact() {
+    return compactProtocol.serialize(message);
+  }
+
+  @Benchmark
+  public Object deserializeMessageJava() {
+    return javaProtocol.deserialize(javaMessage, classLoader);
+  }
+
+  @Benchmark
+  public Object deserializeMessageCompact() {
+    return compactProtocol.deserialize(compactMessage, classLoader);
+  }
+
+  @Benchmark
+  public byte[] serializeEventJava() {
+    return javaProtocol.serialize(event);
+  }
+
+  @Benchmark
+  public byte[] serializeEventCompact() {
+    return compactProtocol.serialize(event);
+  }
+
+  @Benchmark
+  public Object deserializeEventJava() {
+    return javaProtocol.deserialize(javaEvent, classLoader);
+  }
+
+  @Benchmark
+  public Object deserializeEventCompact() {
+    return compactProtocol.deserialize(compactEvent, classLoader);
+  }
+
+  @Benchmark
+  public byte[] serializeMapJava() {
+    return javaProtocol.serialize(map);
+  }
+
+  @Benchmark
+  public byte[] serializeMapCompact() {
+    return compactProtocol.serialize(map);
+  }
+
+  @Benchmark
+  public Object deserializeMapJava() {
+    return javaProtocol.deserialize(javaMap, classLoader);
+  }
+
+  @Benchmark
+  public Object deserializeMapCompact() {
+    return compactProtocol.deserialize(compactMap, classLoader);
+  }
+
+  /**
+   * Same state as the attributes of a request received by the HTTP listener.
+   */
+  private static final class HttpAttributes implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String listenerPath = "/api/*";
+    private final String relativePath = "/api/orders";
+    private final String version = "HTTP/1.1";
+    private final String scheme = "http";
+    private final String method = "POST";
+    private final String requestPath = "/api/orders";
+    private final String requestUri = "/api/orders?status=open";
+    private final String queryString = "status=open";
+    private final String localAddress = "/127.0.0.1:8081";
+    private final String remoteAddress = "/127.0.0.1:52114";
+    private final MultiMap<String, String> headers = new MultiMap<>();
+    private final MultiMap<String, String> queryParams = new MultiMap<>();
+    private final Map<String, String> uriParams = new HashMap<>();
+
+    private HttpAttributes() {
+      headers.put("host", "localhost:8081");
+      headers.put("user-agent", "Apache-HttpClient/4.5.5 (Java/1.8.0_181)");
+      headers.put("content-type", "application/json");
+      headers.put("content-length", "1024");
+      headers.put("accept", "*/*");
+      headers.put("connection", "keep-alive");
+      queryParams.put("status", "open");
+    }
+  }
+}